@@ -20,11 +20,16 @@ package org.apache.cxf.bus.extension;
 
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.BusFactory;
@@ -34,6 +39,7 @@ import org.apache.cxf.bus.managers.ConduitInitiatorManagerImpl;
 import org.apache.cxf.bus.managers.DestinationFactoryManagerImpl;
 import org.apache.cxf.buslifecycle.BusCreationListener;
 import org.apache.cxf.buslifecycle.BusLifeCycleManager;
+import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.SystemPropertyAction;
 import org.apache.cxf.configuration.ConfiguredBeanLocator;
 import org.apache.cxf.configuration.Configurer;
@@ -57,7 +63,19 @@ import org.apache.cxf.transport.DestinationFactoryManager;
  */
 public class ExtensionManagerBus extends AbstractBasicInterceptorProvider implements Bus {
     public static final String BUS_PROPERTY_NAME = "bus";
-
+    /**
+     * Bus or system property, if set to true the extensions are loaded from
+     * {@link ExtensionManagerImpl#BUS_EXTENSION_INDEX_RESOURCE} if it is available
+     */
+    public static final String EXTENSION_INDEX_PROPERTY_NAME = "org.apache.cxf.bus.extensions.index";
+    /**
+     * Bus or system property, if set to true no extension is created before it is requested.
+     * The extensions registering listeners in their constructors are not activated then,
+     * see {@link ExtensionManagerImpl#setDeferAll(boolean)}
+     */
+    public static final String DEFER_EXTENSIONS_PROPERTY_NAME = "org.apache.cxf.bus.extensions.deferAll";
+
+    private static final Logger LOG = LogUtils.getL7dLogger(ExtensionManagerBus.class);
     private static final String BUS_ID_PROPERTY_NAME = "org.apache.cxf.bus.id";
 
     protected final Map<Class<?>, Object> extensions;
@@ -66,6 +84,7 @@ public class ExtensionManagerBus extends AbstractBasicInterceptorProvider implem
     private BusState state;
     private final Collection<Feature> features = new CopyOnWriteArrayList<>();
     private final Map<String, Object> properties = new ConcurrentHashMap<>(16, 0.75f, 4);
+    private final Map<String, Long> startupTimings = Collections.synchronizedMap(new LinkedHashMap<>());
 
 
     private final ExtensionManagerImpl extensionManager;
@@ -145,8 +164,14 @@ public class ExtensionManagerBus extends AbstractBasicInterceptorProvider implem
         if (null == this.getExtension(BindingFactoryManager.class)) {
             new BindingFactoryManagerImpl(this);
         }
-        extensionManager.load(new String[] {ExtensionManagerImpl.BUS_EXTENSION_RESOURCE});
+        long start = System.nanoTime();
+        if (!isPropertySet(EXTENSION_INDEX_PROPERTY_NAME) || !extensionManager.loadIndex()) {
+            extensionManager.load(new String[] {ExtensionManagerImpl.BUS_EXTENSION_RESOURCE});
+        }
+        extensionManager.setDeferAll(isPropertySet(DEFER_EXTENSIONS_PROPERTY_NAME));
+        start = recordStartupPhase("extensions.load", start);
         extensionManager.activateAllByType(ResourceResolver.class);
+        recordStartupPhase("extensions.resolvers", start);
 
         extensions.put(ExtensionManager.class, extensionManager);
     }
@@ -245,24 +270,63 @@ public class ExtensionManagerBus extends AbstractBasicInterceptorProvider implem
     public void initialize() {
         setState(BusState.INITIALIZING);
 
+        long start = System.nanoTime();
         Collection<? extends BusCreationListener> ls = getExtension(ConfiguredBeanLocator.class)
             .getBeansOfType(BusCreationListener.class);
         for (BusCreationListener l : ls) {
             l.busCreated(this);
         }
+        recordStartupPhase("bus.creationListeners", start);
 
         doInitializeInternal();
 
+        start = System.nanoTime();
         BusLifeCycleManager lifeCycleManager = this.getExtension(BusLifeCycleManager.class);
         if (null != lifeCycleManager) {
             lifeCycleManager.initComplete();
         }
+        recordStartupPhase("bus.initComplete", start);
         setState(BusState.RUNNING);
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Bus " + getId() + " startup timings (ms): " + getStartupTimings());
+        }
     }
 
     protected void doInitializeInternal() {
+        long start = System.nanoTime();
         extensionManager.initialize();
+        start = recordStartupPhase("extensions.initialize", start);
         initializeFeatures();
+        recordStartupPhase("features.initialize", start);
+    }
+
+    /**
+     * Returns the time in milliseconds spent in the bus startup phases, in the order they have run
+     */
+    public Map<String, Long> getStartupTimings() {
+        synchronized (startupTimings) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(startupTimings));
+        }
+    }
+
+    /**
+     * Records the duration of a startup phase which has started at a given time
+     * @param phase phase name
+     * @param start {@link System#nanoTime()} at the start of the phase
+     * @return the current {@link System#nanoTime()}, the start of the next phase
+     */
+    protected final long recordStartupPhase(String phase, long start) {
+        long now = System.nanoTime();
+        startupTimings.merge(phase, TimeUnit.NANOSECONDS.toMillis(now - start), Long::sum);
+        return now;
+    }
+
+    private boolean isPropertySet(String name) {
+        Object value = properties.get(name);
+        if (value == null) {
+            value = SystemPropertyAction.getPropertyOrNull(name);
+        }
+        return value != null && Boolean.parseBoolean(value.toString());
     }
 
     protected void loadAdditionalFeatures() {
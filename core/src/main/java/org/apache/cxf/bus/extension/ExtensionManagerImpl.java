@@ -33,9 +33,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.common.injection.ResourceInjector;
+import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.configuration.ConfiguredBeanLocator;
 import org.apache.cxf.configuration.Configurer;
 import org.apache.cxf.resource.ObjectTypeResolver;
@@ -48,6 +51,13 @@ public class ExtensionManagerImpl implements ExtensionManager, ConfiguredBeanLoc
     public static final String ACTIVATION_NAMESPACES_PROPERTY_NAME = "activationNamespaces";
     public static final String ACTIVATION_NAMESPACES_SETTER_METHOD_NAME = "setActivationNamespaces";
     public static final String BUS_EXTENSION_RESOURCE = "META-INF/cxf/bus-extensions.txt";
+    /**
+     * Merged content of all the {@link #BUS_EXTENSION_RESOURCE} resources available to an application,
+     * typically produced at build time, which is read instead of looking up every bus-extensions.txt
+     */
+    public static final String BUS_EXTENSION_INDEX_RESOURCE = "META-INF/cxf/bus-extensions-index.txt";
+
+    private static final Logger LOG = LogUtils.getL7dLogger(ExtensionManagerImpl.class);
 
     private final ClassLoader loader;
     private ResourceManager resourceManager;
@@ -55,6 +65,7 @@ public class ExtensionManagerImpl implements ExtensionManager, ConfiguredBeanLoc
     private List<Extension> ordered = new CopyOnWriteArrayList<>();
     private final Map<Class<?>, Object> activated;
     private final Bus bus;
+    private boolean deferAll;
 
     public ExtensionManagerImpl(ClassLoader cl, Map<Class<?>, Object> initialExtensions,
                                 ResourceManager rm, Bus b) {
@@ -110,7 +121,24 @@ public class ExtensionManagerImpl implements ExtensionManager, ConfiguredBeanLoc
         ordered.add(ex);
     }
 
+    /**
+     * If set to true, {@link #initialize()} does not create the extensions which are not deferred,
+     * all of the extensions are created when they are requested for the first time.
+     * Note that the extensions which activate themselves in their constructors, for example by registering
+     * a listener with one of the bus lifecycle managers, are not active any more until they are requested.
+     */
+    public void setDeferAll(boolean deferAll) {
+        this.deferAll = deferAll;
+    }
+
+    public boolean isDeferAll() {
+        return deferAll;
+    }
+
     public void initialize() {
+        if (deferAll) {
+            return;
+        }
         for (Extension e : ordered) {
             if (!e.isDeferred() && e.getLoadedObject() == null) {
                 loadAndRegister(e);
@@ -156,39 +184,77 @@ public class ExtensionManagerImpl implements ExtensionManager, ConfiguredBeanLoc
         }
         load(resource, loader);
     }
+    /**
+     * Loads the extensions from the {@link #BUS_EXTENSION_INDEX_RESOURCE} index. The index is stale,
+     * and nothing is loaded, if the class of one of its required extensions is not available any more.
+     * The extensions of the libraries added after the index has been built can not be detected.
+     * @return false if the index is not available or stale
+     */
+    final synchronized boolean loadIndex() {
+        URL url = loader.getResource(BUS_EXTENSION_INDEX_RESOURCE);
+        if (url == null) {
+            return false;
+        }
+        List<Extension> exts;
+        try {
+            exts = parse(url);
+        } catch (IOException ex) {
+            throw new ExtensionException(ex);
+        }
+        for (Extension e : exts) {
+            // only looks the class file up, the extension classes are not loaded before they are used
+            if (!e.isOptional() && loader.getResource(e.getClassname().replace('.', '/') + ".class") == null) {
+                LogUtils.log(LOG, Level.WARNING, "STALE_EXTENSION_INDEX", new Object[] {url, e.getClassname()});
+                return false;
+            }
+        }
+        register(exts, loader);
+        return true;
+    }
+
     final synchronized void load(String resource, ClassLoader l) throws IOException {
 
         Enumeration<URL> urls = l.getResources(resource);
 
         while (urls.hasMoreElements()) {
-            final URL url = urls.nextElement();
-            InputStream is;
-            try {
-                is = AccessController.doPrivileged(new PrivilegedExceptionAction<InputStream>() {
-                    public InputStream run() throws Exception {
-                        return url.openStream();
-                    }
-                });
-            } catch (PrivilegedActionException pae) {
-                throw (IOException)pae.getException();
+            load(urls.nextElement(), l);
+        }
+    }
+
+    private void load(final URL url, ClassLoader l) throws IOException {
+        register(parse(url), l);
+    }
+
+    private void register(List<Extension> exts, ClassLoader l) {
+        for (Extension e : exts) {
+            if (loader != l) {
+                e.classloader = l;
             }
-            try {
-                List<Extension> exts = new TextExtensionFragmentParser(loader).getExtensions(is);
-                for (Extension e : exts) {
-                    if (loader != l) {
-                        e.classloader = l;
-                    }
-                    if (!all.containsKey(e.getName())) {
-                        all.put(e.getName(), e);
-                        ordered.add(e);
-                    }
-                }
-            } finally {
-                try {
-                    is.close();
-                } catch (IOException ex) {
-                    //ignore
+            if (!all.containsKey(e.getName())) {
+                all.put(e.getName(), e);
+                ordered.add(e);
+            }
+        }
+    }
+
+    private List<Extension> parse(final URL url) throws IOException {
+        InputStream is;
+        try {
+            is = AccessController.doPrivileged(new PrivilegedExceptionAction<InputStream>() {
+                public InputStream run() throws Exception {
+                    return url.openStream();
                 }
+            });
+        } catch (PrivilegedActionException pae) {
+            throw (IOException)pae.getException();
+        }
+        try {
+            return new TextExtensionFragmentParser(loader).getExtensions(is);
+        } finally {
+            try {
+                is.close();
+            } catch (IOException ex) {
+                //ignore
             }
         }
     }
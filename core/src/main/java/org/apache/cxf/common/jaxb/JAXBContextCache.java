@@ -31,9 +31,12 @@ import java.security.PrivilegedExceptionAction;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 
 import javax.xml.bind.JAXBContext;
@@ -45,12 +48,28 @@ import org.apache.cxf.common.classloader.ClassLoaderUtils;
 import org.apache.cxf.common.util.CacheMap;
 import org.apache.cxf.common.util.CachedClass;
 import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.common.util.SystemPropertyAction;
 
 /**
- *
+ * Caches the JAXB contexts by the set of the bound classes and the default namespace.
+ * <p>
+ * The cache holds the class sets weakly and the contexts themselves are only held weakly too,
+ * the number of the cached contexts can also be limited, see {@link #setMaxSize(int)}, in which case
+ * the contexts which have not been used for the longest time are removed first.
  */
 public final class JAXBContextCache {
 
+    /**
+     * The system property with the maximum number of the cached contexts, unlimited by default
+     */
+    public static final String MAX_SIZE_PROPERTY = "org.apache.cxf.jaxb.contextCache.maxSize";
+
+    /**
+     * The rough number of bytes a JAXB context holds per bound class,
+     * used by {@link #getEstimatedMemory()}
+     */
+    public static final long ESTIMATED_BYTES_PER_CLASS = 8 * 1024;
+
     /**
      * Return holder of the context, classes, etc...
      * Do NOT hold onto these strongly as that can lock the JAXBContext and Set<Class> objects
@@ -94,11 +113,13 @@ public final class JAXBContextCache {
     private static final class CachedContextAndSchemasInternal {
         private final WeakReference<JAXBContext> context;
         private final WeakReference<Set<Class<?>>> classes;
+        private final String namespace;
         private Collection<DOMSource> schemas;
 
-        CachedContextAndSchemasInternal(JAXBContext context, Set<Class<?>> classes) {
+        CachedContextAndSchemasInternal(JAXBContext context, Set<Class<?>> classes, String namespace) {
             this.context = new WeakReference<>(context);
             this.classes = new WeakReference<>(classes);
+            this.namespace = namespace;
         }
 
         public JAXBContext getContext() {
@@ -120,11 +141,20 @@ public final class JAXBContextCache {
     private static final Map<Set<Class<?>>, Map<String, CachedContextAndSchemasInternal>> JAXBCONTEXT_CACHE
         = new CacheMap<>();
 
+    // the cached contexts in the access order, only maintained if the number of the contexts is limited
+    private static final Map<CachedContextAndSchemasInternal, Boolean> RECENTLY_USED
+        = new LinkedHashMap<>(16, 0.75f, true);
+
     private static final Map<Package, CachedClass> OBJECT_FACTORY_CACHE
         = new CacheMap<>();
 
     private static final boolean HAS_MOXY;
 
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong EVICTIONS = new AtomicLong();
+    private static volatile int maxSize = SystemPropertyAction.getInteger(MAX_SIZE_PROPERTY, 0);
+
     static {
         boolean b = false;
         try {
@@ -146,12 +176,91 @@ public final class JAXBContextCache {
     public static void clearCaches() {
         synchronized (JAXBCONTEXT_CACHE) {
             JAXBCONTEXT_CACHE.clear();
+            RECENTLY_USED.clear();
         }
         synchronized (OBJECT_FACTORY_CACHE) {
             OBJECT_FACTORY_CACHE.clear();
         }
     }
 
+    /**
+     * Sets the maximum number of the cached contexts, zero or negative value means unlimited
+     */
+    public static void setMaxSize(int size) {
+        synchronized (JAXBCONTEXT_CACHE) {
+            if (size <= 0) {
+                RECENTLY_USED.clear();
+            } else if (maxSize <= 0) {
+                // the contexts cached so far are tracked from now on
+                for (Map<String, CachedContextAndSchemasInternal> contexts : JAXBCONTEXT_CACHE.values()) {
+                    for (CachedContextAndSchemasInternal c : contexts.values()) {
+                        RECENTLY_USED.put(c, Boolean.TRUE);
+                    }
+                }
+            }
+            maxSize = size;
+            if (size > 0) {
+                evict();
+            }
+        }
+    }
+
+    public static int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of the cached contexts
+     */
+    public static int getSize() {
+        synchronized (JAXBCONTEXT_CACHE) {
+            int size = 0;
+            for (Map<String, CachedContextAndSchemasInternal> contexts : JAXBCONTEXT_CACHE.values()) {
+                size += contexts.size();
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Returns the total number of the classes bound by the cached contexts
+     */
+    public static int getCachedClassCount() {
+        synchronized (JAXBCONTEXT_CACHE) {
+            int count = 0;
+            for (Entry<Set<Class<?>>, Map<String, CachedContextAndSchemasInternal>> e
+                : JAXBCONTEXT_CACHE.entrySet()) {
+                if (e.getKey() != null) {
+                    count += e.getKey().size() * e.getValue().size();
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Returns a rough estimate of the memory held by the cached contexts, in bytes.
+     * The estimate is based on the number of the bound classes only.
+     */
+    public static long getEstimatedMemory() {
+        return getCachedClassCount() * ESTIMATED_BYTES_PER_CLASS;
+    }
+
+    public static long getHits() {
+        return HITS.get();
+    }
+
+    public static long getMisses() {
+        return MISSES.get();
+    }
+
+    /**
+     * Returns the number of the contexts removed because the cache was full
+     */
+    public static long getEvictions() {
+        return EVICTIONS.get();
+    }
+
     public static void scanPackages(Set<Class<?>> classes) {
         JAXBUtils.scanPackages(classes, OBJECT_FACTORY_CACHE);
     }
@@ -233,12 +342,19 @@ public final class JAXBContextCache {
                         if (cls != null) {
                             JAXBCONTEXT_CACHE.remove(cls);
                         }
+                        RECENTLY_USED.remove(cachedContextAndSchemasInternal);
                         cachedContextAndSchemasInternal = null;
                     } else {
+                        HITS.incrementAndGet();
+                        if (maxSize > 0) {
+                            // moves the context to the end of the access order
+                            RECENTLY_USED.get(cachedContextAndSchemasInternal);
+                        }
                         return new CachedContextAndSchemas(context, cachedContextAndSchemasInternal.getClasses(),
                             cachedContextAndSchemasInternal);
                     }
                 }
+                MISSES.incrementAndGet();
             }
         }
 
@@ -262,22 +378,50 @@ public final class JAXBContextCache {
                 throw ex;
             }
         }
-        cachedContextAndSchemasInternal = new CachedContextAndSchemasInternal(context, classes);
+        final String namespace = (defaultNs != null) ? defaultNs : "";
+        cachedContextAndSchemasInternal = new CachedContextAndSchemasInternal(context, classes, namespace);
         synchronized (JAXBCONTEXT_CACHE) {
             if (typeRefs == null || typeRefs.isEmpty()) {
                 if (cachedContextAndSchemasInternalMap == null) {
                     cachedContextAndSchemasInternalMap
                         = new CacheMap<>();
                 }
-                cachedContextAndSchemasInternalMap.put((defaultNs != null) ? defaultNs : "",
-                    cachedContextAndSchemasInternal);
+                CachedContextAndSchemasInternal replaced =
+                    cachedContextAndSchemasInternalMap.put(namespace, cachedContextAndSchemasInternal);
                 JAXBCONTEXT_CACHE.put(classes, cachedContextAndSchemasInternalMap);
+                if (maxSize > 0) {
+                    if (replaced != null) {
+                        RECENTLY_USED.remove(replaced);
+                    }
+                    RECENTLY_USED.put(cachedContextAndSchemasInternal, Boolean.TRUE);
+                    evict();
+                }
             }
         }
 
         return new CachedContextAndSchemas(context, classes, cachedContextAndSchemasInternal);
     }
 
+    // removes the least recently used contexts, the caller holds the JAXBCONTEXT_CACHE lock
+    private static void evict() {
+        Iterator<CachedContextAndSchemasInternal> it = RECENTLY_USED.keySet().iterator();
+        while (RECENTLY_USED.size() > maxSize && it.hasNext()) {
+            CachedContextAndSchemasInternal eldest = it.next();
+            it.remove();
+            // the context is not cached any more if its weakly held class set has been collected
+            Set<Class<?>> classes = eldest.getClasses();
+            Map<String, CachedContextAndSchemasInternal> contexts =
+                classes == null ? null : JAXBCONTEXT_CACHE.get(classes);
+            if (contexts != null && contexts.get(eldest.namespace) == eldest) {
+                contexts.remove(eldest.namespace);
+                EVICTIONS.incrementAndGet();
+                if (contexts.isEmpty()) {
+                    JAXBCONTEXT_CACHE.remove(classes);
+                }
+            }
+        }
+    }
+
     private static boolean checkObjectFactoryNamespaces(Class<?> clz) {
         for (Method meth : clz.getMethods()) {
             XmlElementDecl decl = meth.getAnnotation(XmlElementDecl.class);
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.common.jaxb;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.management.ManagedComponent;
+import org.apache.cxf.management.ManagementConstants;
+import org.apache.cxf.management.annotation.ManagedAttribute;
+import org.apache.cxf.management.annotation.ManagedOperation;
+import org.apache.cxf.management.annotation.ManagedResource;
+
+/**
+ * Exposes the size and the statistics of the {@link JAXBContextCache}. The cache is shared
+ * by all the buses, it is registered once per bus for it to be found next to the other bus components.
+ */
+@ManagedResource(componentName = "JAXBContextCache",
+                 description = "The cache of the JAXB contexts")
+
+public class ManagedJAXBContextCache implements ManagedComponent {
+    static final String TYPE_VALUE = "JAXBContextCache";
+
+    private final Bus bus;
+
+    public ManagedJAXBContextCache(Bus bus) {
+        this.bus = bus;
+    }
+
+    @ManagedAttribute(description = "The number of the cached contexts")
+    public int getSize() {
+        return JAXBContextCache.getSize();
+    }
+
+    @ManagedAttribute(description = "The maximum number of the cached contexts, zero if unlimited")
+    public int getMaxSize() {
+        return JAXBContextCache.getMaxSize();
+    }
+
+    public void setMaxSize(int maxSize) {
+        JAXBContextCache.setMaxSize(maxSize);
+    }
+
+    @ManagedAttribute(description = "The number of the classes bound by the cached contexts")
+    public int getCachedClassCount() {
+        return JAXBContextCache.getCachedClassCount();
+    }
+
+    @ManagedAttribute(description = "The rough estimate of the memory held by the cached contexts, in bytes")
+    public long getEstimatedMemory() {
+        return JAXBContextCache.getEstimatedMemory();
+    }
+
+    @ManagedAttribute(description = "The number of the lookups which found a cached context")
+    public long getHits() {
+        return JAXBContextCache.getHits();
+    }
+
+    @ManagedAttribute(description = "The number of the lookups which created a new context")
+    public long getMisses() {
+        return JAXBContextCache.getMisses();
+    }
+
+    @ManagedAttribute(description = "The number of the contexts removed because the cache was full")
+    public long getEvictions() {
+        return JAXBContextCache.getEvictions();
+    }
+
+    @ManagedOperation(description = "Removes all the cached contexts")
+    public void clear() {
+        JAXBContextCache.clearCaches();
+    }
+
+    public ObjectName getObjectName() throws JMException {
+        StringBuilder buffer = new StringBuilder(ManagementConstants.DEFAULT_DOMAIN_NAME).append(':');
+        buffer.append(ManagementConstants.BUS_ID_PROP).append('=').append(bus.getId()).append(',');
+        buffer.append(ManagementConstants.TYPE_PROP).append('=').append(TYPE_VALUE).append(',');
+        buffer.append(ManagementConstants.INSTANCE_ID_PROP).append('=').append(bus.hashCode());
+        return new ObjectName(buffer.toString());
+    }
+}
@@ -352,26 +352,7 @@ public class ClientFaultConverter extends AbstractInDatabindingInterceptor {
             }
         }
         //also use/try public getter/setter methods
-        Method[] meth = faultBean.getClass().getMethods();
-        for (Method m : meth) {
-            if (m.getParameterTypes().length == 0
-                && (m.getName().startsWith("get")
-                || m.getName().startsWith("is"))) {
-                try {
-                    String name;
-                    if (m.getName().startsWith("get")) {
-                        name = "set" + m.getName().substring(3);
-                    } else {
-                        name = "set" + m.getName().substring(2);
-                    }
-                    Method m2 = exClass.getMethod(name, m.getReturnType());
-                    m2.invoke(e, m.invoke(faultBean));
-                } catch (Exception e1) {
-                    //ignore
-                }
-            }
-        }
-
+        FaultBeanAccessors.copyProperties(faultBean, e);
 
         return e;
     }
@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.interceptor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-class cache of the method handles used to convert between the exceptions and the fault beans:
+ * the <code>getFaultInfo()</code> method of the JAX-WS exceptions and the pairs of the public getters
+ * and setters used to copy the properties from an exception to a fault bean and back.
+ */
+public final class FaultBeanAccessors {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE =
+        MethodType.methodType(void.class, Object.class, Object.class);
+    private static final Object NO_FAULT_INFO = new Object();
+
+    // MethodHandle, Method if the method is not accessible, or NO_FAULT_INFO
+    private static final ClassValue<Object> FAULT_INFO = new ClassValue<Object>() {
+        @Override
+        protected Object computeValue(Class<?> type) {
+            try {
+                Method m = type.getMethod("getFaultInfo");
+                try {
+                    return MethodHandles.publicLookup().unreflect(m).asType(GETTER_TYPE);
+                } catch (IllegalAccessException ex) {
+                    return m;
+                }
+            } catch (NoSuchMethodException ex) {
+                return NO_FAULT_INFO;
+            }
+        }
+    };
+
+    private static final ClassValue<ConcurrentMap<Class<?>, List<MethodHandle[]>>> PROPERTIES =
+        new ClassValue<ConcurrentMap<Class<?>, List<MethodHandle[]>>>() {
+            @Override
+            protected ConcurrentMap<Class<?>, List<MethodHandle[]>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    private FaultBeanAccessors() {
+
+    }
+
+    /**
+     * Returns the result of the <code>getFaultInfo()</code> method of a given exception
+     * @throws NoSuchMethodException if the exception has no such method
+     * @throws InvocationTargetException if the method has thrown an exception
+     * @throws IllegalAccessException if the method is not accessible
+     */
+    public static Object getFaultInfo(Throwable t)
+        throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Object accessor = FAULT_INFO.get(t.getClass());
+        if (accessor == NO_FAULT_INFO) {
+            throw new NoSuchMethodException(t.getClass().getName() + ".getFaultInfo()");
+        }
+        if (accessor instanceof Method) {
+            return ((Method)accessor).invoke(t);
+        }
+        try {
+            return (Object)((MethodHandle)accessor).invokeExact((Object)t);
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    /**
+     * Copies the values of the public <code>getXxx()</code> and <code>isXxx()</code> methods of the source
+     * to the public <code>setXxx()</code> methods of the target which accept the same type.
+     * The properties which can not be copied are ignored.
+     */
+    public static void copyProperties(Object source, Object target) {
+        List<MethodHandle[]> properties = PROPERTIES.get(source.getClass())
+            .computeIfAbsent(target.getClass(), targetType -> findProperties(source.getClass(), targetType));
+        for (MethodHandle[] property : properties) {
+            try {
+                property[1].invokeExact(target, (Object)property[0].invokeExact(source));
+            } catch (Throwable t) {
+                //ignore
+            }
+        }
+    }
+
+    private static List<MethodHandle[]> findProperties(Class<?> sourceType, Class<?> targetType) {
+        List<MethodHandle[]> properties = new ArrayList<>();
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        for (Method m : sourceType.getMethods()) {
+            if (m.getParameterTypes().length == 0
+                && (m.getName().startsWith("get")
+                || m.getName().startsWith("is"))) {
+                String name;
+                if (m.getName().startsWith("get")) {
+                    name = "set" + m.getName().substring(3);
+                } else {
+                    name = "set" + m.getName().substring(2);
+                }
+                try {
+                    Method m2 = targetType.getMethod(name, m.getReturnType());
+                    properties.add(new MethodHandle[] {toHandle(lookup, m, GETTER_TYPE),
+                                                       toHandle(lookup, m2, SETTER_TYPE)});
+                } catch (NoSuchMethodException | IllegalAccessException | RuntimeException ex) {
+                    //ignore
+                }
+            }
+        }
+        return properties.isEmpty() ? Collections.emptyList() : properties;
+    }
+
+    private static MethodHandle toHandle(MethodHandles.Lookup lookup, Method m, MethodType type)
+        throws IllegalAccessException {
+        MethodHandle handle = lookup.unreflect(m);
+        if (Modifier.isStatic(m.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(type);
+    }
+}
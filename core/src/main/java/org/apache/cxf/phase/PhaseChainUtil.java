@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.phase;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.InterceptorChain;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.transport.MessageObserver;
+
+/**
+ * Builds the interceptor chains for a subset of the phases from the interceptors of the endpoint,
+ * the service, the bus, the databinding and the messages of an exchange.  Used to run only the
+ * logical phases when the messages are handed over as objects between two endpoints in the same
+ * process, by the coloc binding and the object dispatch of the local transport.
+ */
+public final class PhaseChainUtil {
+    private static final Logger LOG = LogUtils.getL7dLogger(PhaseChainUtil.class);
+
+    private PhaseChainUtil() {
+    }
+
+    /**
+     * Removes the phases before start and after end from the list.
+     */
+    public static void setPhases(SortedSet<Phase> list, String start, String end) {
+        Phase startPhase = new Phase(start, 1);
+        Phase endPhase = new Phase(end, 2);
+        Iterator<Phase> iter = list.iterator();
+        boolean remove = true;
+        while (iter.hasNext()) {
+            Phase p = iter.next();
+            if (remove
+                && p.getName().equals(startPhase.getName())) {
+                remove = false;
+            } else if (p.getName().equals(endPhase.getName())) {
+                remove = true;
+            } else if (remove) {
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the in or out phases of the bus from start to end.
+     */
+    public static SortedSet<Phase> getPhases(Bus bus, boolean in, String start, String end) {
+        PhaseManager pm = bus.getExtension(PhaseManager.class);
+        SortedSet<Phase> phases = new TreeSet<>(in ? pm.getInPhases() : pm.getOutPhases());
+        setPhases(phases, start, end);
+        return phases;
+    }
+
+    public static InterceptorChain getOutInterceptorChain(Exchange ex, SortedSet<Phase> phases) {
+        PhaseInterceptorChain chain = new PhaseInterceptorChain(phases);
+        addInterceptors(chain, ex, false);
+        modifyChain(chain, ex, false);
+        return chain;
+    }
+
+    public static InterceptorChain getInInterceptorChain(Exchange ex, SortedSet<Phase> phases,
+                                                         MessageObserver faultObserver) {
+        PhaseInterceptorChain chain = new PhaseInterceptorChain(phases);
+        addInterceptors(chain, ex, true);
+        chain.setFaultObserver(faultObserver);
+        modifyChain(chain, ex, true);
+        return chain;
+    }
+
+    /**
+     * Builds the same chain as {@link #getInInterceptorChain(Exchange, SortedSet, MessageObserver)} but
+     * reuses the chain built from the endpoint, service, bus and databinding interceptors for as long as
+     * these interceptors do not change. The interceptors of the messages are added to the copy of the chain.
+     */
+    public static InterceptorChain getInInterceptorChain(Exchange ex, SortedSet<Phase> phases,
+                                                         PhaseChainCache chainCache,
+                                                         MessageObserver faultObserver) {
+        Bus bus = ex.getBus();
+        Endpoint ep = ex.getEndpoint();
+        PhaseInterceptorChain chain;
+        if (ep.getService().getDataBinding() instanceof InterceptorProvider) {
+            chain = chainCache.get(phases, ep.getInInterceptors(), ep.getService().getInInterceptors(),
+                                   bus.getInInterceptors(),
+                                   ((InterceptorProvider)ep.getService().getDataBinding()).getInInterceptors());
+        } else {
+            chain = chainCache.get(phases, ep.getInInterceptors(), ep.getService().getInInterceptors(),
+                                   bus.getInInterceptors());
+        }
+        chain.setFaultObserver(faultObserver);
+        modifyChain(chain, ex, true);
+        return chain;
+    }
+
+    private static void addInterceptors(PhaseInterceptorChain chain, Exchange ex, boolean in) {
+        Bus bus = ex.getBus();
+        Endpoint ep = ex.getEndpoint();
+        List<Interceptor<? extends Message>> il = in ? ep.getInInterceptors() : ep.getOutInterceptors();
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Interceptors contributed by endpoint: " + il);
+        }
+        chain.add(il);
+        il = in ? ep.getService().getInInterceptors() : ep.getService().getOutInterceptors();
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Interceptors contributed by service: " + il);
+        }
+        chain.add(il);
+        il = in ? bus.getInInterceptors() : bus.getOutInterceptors();
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Interceptors contributed by bus: " + il);
+        }
+        chain.add(il);
+
+        if (ep.getService().getDataBinding() instanceof InterceptorProvider) {
+            InterceptorProvider db = (InterceptorProvider)ep.getService().getDataBinding();
+            il = in ? db.getInInterceptors() : db.getOutInterceptors();
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine("Interceptors contributed by databinding: " + il);
+            }
+            chain.add(il);
+        }
+    }
+
+    private static void modifyChain(PhaseInterceptorChain chain, Exchange ex, boolean in) {
+        modifyChain(chain, ex.getInMessage(), in);
+        modifyChain(chain, ex.getOutMessage(), in);
+    }
+
+    private static void modifyChain(PhaseInterceptorChain chain, Message m, boolean in) {
+        if (m == null) {
+            return;
+        }
+        Collection<InterceptorProvider> providers
+            = CastUtils.cast((Collection<?>)m.get(Message.INTERCEPTOR_PROVIDERS));
+        if (providers != null) {
+            for (InterceptorProvider p : providers) {
+                if (in) {
+                    chain.add(p.getInInterceptors());
+                } else {
+                    chain.add(p.getOutInterceptors());
+                }
+            }
+        }
+        String key = in ? Message.IN_INTERCEPTORS : Message.OUT_INTERCEPTORS;
+        Collection<Interceptor<? extends Message>> is
+            = CastUtils.cast((Collection<?>)m.get(key));
+        if (is != null) {
+            chain.add(is);
+        }
+    }
+}
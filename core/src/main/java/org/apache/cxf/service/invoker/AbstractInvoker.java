@@ -19,6 +19,7 @@
 
 package org.apache.cxf.service.invoker;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
@@ -44,6 +45,8 @@ import org.apache.cxf.service.model.BindingOperationInfo;
 public abstract class AbstractInvoker implements Invoker {
     private static final Logger LOG = LogUtils.getL7dLogger(AbstractInvoker.class);
 
+    private boolean useMethodHandles = true;
+
     public Object invoke(Exchange exchange, Object o) {
 
         final Object serviceObject = getServiceObject(exchange);
@@ -176,9 +179,26 @@ public abstract class AbstractInvoker implements Invoker {
                                                                   m,
                                                                   Arrays.asList(paramArray)});
         }
+        MethodHandle handle = useMethodHandles ? ServiceMethodHandles.getHandle(m) : null;
+        if (handle != null) {
+            return ServiceMethodHandles.invoke(handle, serviceObject, paramArray);
+        }
         return m.invoke(serviceObject, paramArray);
     }
 
+    public boolean isUseMethodHandles() {
+        return useMethodHandles;
+    }
+
+    /**
+     * Sets if the service methods are invoked with the method handles created and cached for every
+     * method on the first invocation, true by default. If false, {@link Method#invoke(Object, Object...)}
+     * is used.
+     */
+    public void setUseMethodHandles(boolean useMethodHandles) {
+        this.useMethodHandles = useMethodHandles;
+    }
+
     public Object[] insertExchange(Method method, Object[] params, Exchange context) {
         Object[] newParams = params;
         for (int i = 0; i < method.getParameterTypes().length; i++) {
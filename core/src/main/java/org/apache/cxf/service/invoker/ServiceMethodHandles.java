@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.service.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-class cache of the method handles used by {@link AbstractInvoker} instead of
+ * {@link Method#invoke(Object, Object...)}. A handle accepts the service object and the array of
+ * the parameters, spreads and unboxes the parameters and boxes the result, the adaptation being
+ * done once per method. Exceptions thrown by the method itself are wrapped in
+ * {@link InvocationTargetException} and the failures to convert the parameters are reported
+ * as {@link IllegalArgumentException}, exactly like with the reflective invocation.
+ */
+final class ServiceMethodHandles {
+
+    private static final MethodType INVOKER_TYPE =
+        MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final MethodHandle WRAP_EXCEPTION;
+    static {
+        try {
+            WRAP_EXCEPTION = MethodHandles.lookup().findStatic(ServiceMethodHandles.class, "wrapException",
+                MethodType.methodType(Object.class, Throwable.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private static final ClassValue<ConcurrentMap<Method, Optional<MethodHandle>>> HANDLES =
+        new ClassValue<ConcurrentMap<Method, Optional<MethodHandle>>>() {
+            @Override
+            protected ConcurrentMap<Method, Optional<MethodHandle>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    private ServiceMethodHandles() {
+
+    }
+
+    /**
+     * Returns the handle for a given method, or null if the method is not accessible
+     * and has to be invoked reflectively.
+     */
+    static MethodHandle getHandle(Method m) {
+        return HANDLES.get(m.getDeclaringClass())
+            .computeIfAbsent(m, method -> Optional.ofNullable(createHandle(method))).orElse(null);
+    }
+
+    /**
+     * Invokes the method handle returned by {@link #getHandle(Method)}
+     */
+    static Object invoke(MethodHandle handle, Object serviceObject, Object[] params) throws Exception {
+        try {
+            return handle.invokeExact(serviceObject, params);
+        } catch (ClassCastException | NullPointerException ex) {
+            // the method exceptions are wrapped, these come from converting the parameters
+            throw new IllegalArgumentException(ex.getMessage(), ex);
+        } catch (Exception | Error ex) {
+            throw ex;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    private static MethodHandle createHandle(Method m) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(m).asFixedArity();
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+        MethodType type = handle.type();
+        MethodHandle wrap = MethodHandles.dropArguments(
+            WRAP_EXCEPTION.asType(MethodType.methodType(type.returnType(), Throwable.class)),
+            1, type.parameterList());
+        handle = MethodHandles.catchException(handle, Throwable.class, wrap);
+        if (Modifier.isStatic(m.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asSpreader(Object[].class, m.getParameterTypes().length).asType(INVOKER_TYPE);
+    }
+
+    private static Object wrapException(Throwable t) throws InvocationTargetException {
+        throw new InvocationTargetException(t);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.bus.extension;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cxf.helpers.FileUtils;
+import org.apache.cxf.workqueue.WorkQueueManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ExtensionManagerBusTest {
+
+    private File indexDir;
+    private ExtensionManagerBus bus;
+
+    @Before
+    public void setUp() throws IOException {
+        indexDir = Files.createTempDirectory("extension-index").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        if (bus != null) {
+            bus.shutdown(true);
+        }
+        FileUtils.removeDir(indexDir);
+    }
+
+    @Test
+    public void testIndex() throws IOException {
+        bus = createBus("java.util.ArrayList:java.util.List:true");
+        assertNotNull(bus.getExtension(List.class));
+        // the bus-extensions.txt resources are not read
+        assertNull(bus.getExtension(WorkQueueManager.class));
+    }
+
+    @Test
+    public void testMissingIndex() throws IOException {
+        bus = createBus(null);
+        assertNotNull(bus.getExtension(WorkQueueManager.class));
+    }
+
+    @Test
+    public void testStaleIndex() throws IOException {
+        bus = createBus("java.util.ArrayList:java.util.List:true\n"
+            + "org.apache.cxf.bus.extension.NoSuchExtension:java.lang.Runnable:true");
+        assertNotNull(bus.getExtension(WorkQueueManager.class));
+        assertNull(bus.getExtension(List.class));
+    }
+
+    @Test
+    public void testStartupTimings() {
+        bus = new ExtensionManagerBus();
+        assertEquals(Arrays.asList("extensions.load", "extensions.resolvers"),
+                     new ArrayList<>(bus.getStartupTimings().keySet()));
+        bus.initialize();
+        Map<String, Long> timings = bus.getStartupTimings();
+        assertEquals(Arrays.asList("extensions.load", "extensions.resolvers", "bus.creationListeners",
+                                   "extensions.initialize", "features.initialize", "bus.initComplete"),
+                     new ArrayList<>(timings.keySet()));
+        for (Long time : timings.values()) {
+            assertNotNull(time);
+        }
+    }
+
+    private ExtensionManagerBus createBus(String index) throws IOException {
+        if (index != null) {
+            File file = new File(indexDir, ExtensionManagerImpl.BUS_EXTENSION_INDEX_RESOURCE);
+            file.getParentFile().mkdirs();
+            Files.write(file.toPath(), index.getBytes(StandardCharsets.UTF_8));
+        }
+        ClassLoader loader = new URLClassLoader(new URL[] {indexDir.toURI().toURL()},
+                                                getClass().getClassLoader());
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(ExtensionManagerBus.EXTENSION_INDEX_PROPERTY_NAME, "true");
+        return new ExtensionManagerBus(null, properties, loader);
+    }
+}
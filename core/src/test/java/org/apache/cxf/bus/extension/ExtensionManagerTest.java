@@ -19,31 +19,44 @@
 
 package org.apache.cxf.bus.extension;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.apache.cxf.helpers.FileUtils;
 import org.apache.cxf.resource.DefaultResourceManager;
 import org.apache.cxf.resource.ResourceManager;
 import org.apache.cxf.resource.ResourceResolver;
 import org.apache.cxf.resource.SinglePropertyResolver;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class ExtensionManagerTest {
 
     private static final String EXTENSIONMANAGER_TEST_RESOURECE_NAME = "extensionManagerTest";
     private ExtensionManagerImpl manager;
     private Map<Class<?>, Object> extensions;
+    private ResourceManager rm;
+    private File indexDir;
 
     @Before
     public void setUp() {
         ResourceResolver resolver = new SinglePropertyResolver(EXTENSIONMANAGER_TEST_RESOURECE_NAME, this);
-        ResourceManager rm = new DefaultResourceManager(resolver);
+        rm = new DefaultResourceManager(resolver);
 
         extensions = new HashMap<>();
         extensions.put(Integer.class, Integer.valueOf(0));
@@ -52,6 +65,13 @@ public class ExtensionManagerTest {
             Thread.currentThread().getContextClassLoader(), extensions, rm, null);
     }
 
+    @After
+    public void tearDown() {
+        if (indexDir != null) {
+            FileUtils.removeDir(indexDir);
+        }
+    }
+
     @Test
     public void testLoadAndRegister() {
         Extension e = new Extension();
@@ -78,6 +98,64 @@ public class ExtensionManagerTest {
 
     }
 
+    @Test
+    public void testDeferAll() {
+        Extension e = new Extension();
+        e.setClassname("java.lang.Thread");
+        e.setInterfaceName("java.lang.Runnable");
+        e.setDeferred(false);
+        manager.add(e);
+
+        manager.setDeferAll(true);
+        manager.initialize();
+        assertNull("Object was created.", e.getLoadedObject());
+        assertNull("Object is registered.", extensions.get(Runnable.class));
+
+        assertNotNull(manager.getExtension("java.lang.Runnable", Runnable.class));
+        assertNotNull("Object was not registered.", extensions.get(Runnable.class));
+    }
+
+    @Test
+    public void testLoadIndex() throws IOException {
+        ExtensionManagerImpl im = createIndexedManager("java.util.ArrayList:java.util.List:true");
+        assertTrue(im.loadIndex());
+        assertNull("Deferred extension was created.", extensions.get(List.class));
+        assertNotNull(im.getExtension("java.util.List", List.class));
+    }
+
+    @Test
+    public void testLoadMissingIndex() throws IOException {
+        ExtensionManagerImpl im = createIndexedManager(null);
+        assertFalse(im.loadIndex());
+        assertNull(im.getExtension("java.util.List", List.class));
+    }
 
+    @Test
+    public void testLoadStaleIndex() throws IOException {
+        ExtensionManagerImpl im = createIndexedManager("java.util.ArrayList:java.util.List:true\n"
+            + "org.apache.cxf.bus.extension.NoSuchExtension:java.lang.Runnable:true");
+        assertFalse(im.loadIndex());
+        assertNull("Extension of the stale index was loaded.", im.getExtension("java.util.List", List.class));
+
+        // the optional extensions do not need to be available
+        im = createIndexedManager("java.util.ArrayList:java.util.List:true\n"
+            + "org.apache.cxf.bus.extension.NoSuchExtension:java.lang.Runnable:true:true");
+        assertTrue(im.loadIndex());
+        assertNotNull(im.getExtension("java.util.List", List.class));
+    }
 
-}
\ No newline at end of file
+    private ExtensionManagerImpl createIndexedManager(String index) throws IOException {
+        if (indexDir != null) {
+            FileUtils.removeDir(indexDir);
+        }
+        indexDir = Files.createTempDirectory("extension-index").toFile();
+        if (index != null) {
+            File file = new File(indexDir, ExtensionManagerImpl.BUS_EXTENSION_INDEX_RESOURCE);
+            file.getParentFile().mkdirs();
+            Files.write(file.toPath(), index.getBytes(StandardCharsets.UTF_8));
+        }
+        ClassLoader loader = new URLClassLoader(new URL[] {indexDir.toURI().toURL()},
+                                                getClass().getClassLoader());
+        return new ExtensionManagerImpl(new String[0], loader, extensions, rm, null);
+    }
+}
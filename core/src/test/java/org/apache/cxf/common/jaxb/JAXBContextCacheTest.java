@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.common.jaxb;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.apache.cxf.common.jaxb.JAXBContextCache.CachedContextAndSchemas;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class JAXBContextCacheTest {
+
+    @Before
+    public void setUp() {
+        JAXBContextCache.clearCaches();
+    }
+
+    @After
+    public void tearDown() {
+        JAXBContextCache.setMaxSize(0);
+        JAXBContextCache.clearCaches();
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        long hits = JAXBContextCache.getHits();
+        long misses = JAXBContextCache.getMisses();
+
+        CachedContextAndSchemas first = JAXBContextCache.getCachedContextAndSchemas(Foo.class);
+        CachedContextAndSchemas second = JAXBContextCache.getCachedContextAndSchemas(Foo.class);
+        assertSame(first.getContext(), second.getContext());
+        assertEquals(hits + 1, JAXBContextCache.getHits());
+        assertEquals(misses + 1, JAXBContextCache.getMisses());
+        assertEquals(1, JAXBContextCache.getSize());
+        assertEquals(first.getClasses().size(), JAXBContextCache.getCachedClassCount());
+        assertEquals(first.getClasses().size() * JAXBContextCache.ESTIMATED_BYTES_PER_CLASS,
+                     JAXBContextCache.getEstimatedMemory());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedContextIsEvicted() throws Exception {
+        JAXBContextCache.setMaxSize(2);
+        long evictions = JAXBContextCache.getEvictions();
+        // the returned objects keep the weakly cached contexts and class sets alive
+        List<CachedContextAndSchemas> contexts = new ArrayList<>();
+        contexts.add(JAXBContextCache.getCachedContextAndSchemas(Foo.class));
+        contexts.add(JAXBContextCache.getCachedContextAndSchemas(Bar.class));
+        contexts.add(JAXBContextCache.getCachedContextAndSchemas(Foo.class));
+        contexts.add(JAXBContextCache.getCachedContextAndSchemas(Baz.class));
+        assertEquals(2, JAXBContextCache.getSize());
+        assertEquals(evictions + 1, JAXBContextCache.getEvictions());
+
+        // Foo has been used after Bar, so Bar is the one which has been removed
+        assertSame(contexts.get(0).getContext(),
+                   JAXBContextCache.getCachedContextAndSchemas(Foo.class).getContext());
+        assertNotSame(contexts.get(1).getContext(),
+                      JAXBContextCache.getCachedContextAndSchemas(Bar.class).getContext());
+    }
+
+    @Test
+    public void testLimitSetOnFilledCache() throws Exception {
+        long evictions = JAXBContextCache.getEvictions();
+        List<CachedContextAndSchemas> contexts = new ArrayList<>();
+        contexts.add(JAXBContextCache.getCachedContextAndSchemas(Foo.class));
+        contexts.add(JAXBContextCache.getCachedContextAndSchemas(Bar.class));
+        contexts.add(JAXBContextCache.getCachedContextAndSchemas(Baz.class));
+        assertEquals(3, JAXBContextCache.getSize());
+
+        JAXBContextCache.setMaxSize(1);
+        assertEquals(1, JAXBContextCache.getSize());
+        assertEquals(evictions + 2, JAXBContextCache.getEvictions());
+
+        // the cache stays limited after that
+        contexts.add(JAXBContextCache.getCachedContextAndSchemas(Foo.class));
+        contexts.add(JAXBContextCache.getCachedContextAndSchemas(Bar.class));
+        assertEquals(1, JAXBContextCache.getSize());
+    }
+
+    @XmlRootElement
+    public static class Foo {
+    }
+
+    @XmlRootElement
+    public static class Bar {
+    }
+
+    @XmlRootElement
+    public static class Baz {
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.interceptor;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class FaultBeanAccessorsTest {
+
+    @Test
+    public void testGetFaultInfo() throws Exception {
+        FaultBean bean = new FaultBean();
+        assertSame(bean, FaultBeanAccessors.getFaultInfo(new BeanException(bean)));
+        try {
+            FaultBeanAccessors.getFaultInfo(new BeanException(null));
+            fail("InvocationTargetException expected");
+        } catch (InvocationTargetException ex) {
+            assertEquals(IllegalStateException.class, ex.getCause().getClass());
+        }
+        try {
+            FaultBeanAccessors.getFaultInfo(new Exception());
+            fail("NoSuchMethodException expected");
+        } catch (NoSuchMethodException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCopyProperties() {
+        FaultBean bean = new FaultBean();
+        bean.setCode(42);
+        bean.setDetail("detail");
+        bean.setRetryable(true);
+        BeanException ex = new BeanException(null);
+        FaultBeanAccessors.copyProperties(bean, ex);
+        assertEquals(42, ex.getCode());
+        assertEquals("detail", ex.getDetail());
+
+        FaultBean copy = new FaultBean();
+        FaultBeanAccessors.copyProperties(ex, copy);
+        assertEquals(42, copy.getCode());
+        assertEquals("detail", copy.getDetail());
+    }
+
+    public static class FaultBean {
+        private int code;
+        private String detail;
+        private boolean retryable;
+
+        public int getCode() {
+            return code;
+        }
+        public void setCode(int code) {
+            this.code = code;
+        }
+        public String getDetail() {
+            return detail;
+        }
+        public void setDetail(String detail) {
+            this.detail = detail;
+        }
+        public boolean isRetryable() {
+            return retryable;
+        }
+        public void setRetryable(boolean retryable) {
+            this.retryable = retryable;
+        }
+    }
+
+    public static class BeanException extends Exception {
+        private static final long serialVersionUID = 1L;
+        private final FaultBean faultInfo;
+        private int code;
+        private String detail;
+
+        public BeanException(FaultBean faultInfo) {
+            this.faultInfo = faultInfo;
+        }
+        public FaultBean getFaultInfo() {
+            if (faultInfo == null) {
+                throw new IllegalStateException();
+            }
+            return faultInfo;
+        }
+        public int getCode() {
+            return code;
+        }
+        public void setCode(int code) {
+            this.code = code;
+        }
+        public String getDetail() {
+            return detail;
+        }
+        public void setDetail(String detail) {
+            this.detail = detail;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.service.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+/**
+ * Compares {@link Method#invoke(Object, Object...)} with the cached {@link ServiceMethodHandles}
+ * handle for the operations with small signatures, where the invocation overhead is the most
+ * visible. Not run as part of the build, start it manually from the test classpath.
+ */
+public final class ServiceMethodHandlesBenchmark {
+    private static final int WARMUP = 2000000;
+    private static final int ITERATIONS = 10000000;
+
+    private static long sink;
+
+    private ServiceMethodHandlesBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Service service = new Service();
+        Operation[] operations = {
+            new Operation(Service.class.getMethod("ping"), new Object[0]),
+            new Operation(Service.class.getMethod("echo", String.class), new Object[] {"x"}),
+            new Operation(Service.class.getMethod("add", int.class, int.class), new Object[] {1, 2})
+        };
+        for (int round = 0; round < 3; round++) {
+            for (Operation op : operations) {
+                for (int i = 0; i < WARMUP; i++) {
+                    op.reflect(service);
+                    op.handle(service);
+                }
+
+                long started = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    op.reflect(service);
+                }
+                long reflect = System.nanoTime() - started;
+
+                started = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    op.handle(service);
+                }
+                long handle = System.nanoTime() - started;
+
+                System.out.println(String.format("%-5s: Method.invoke %6.2f ns, method handle %6.2f ns",
+                    op.method.getName(), reflect / (double)ITERATIONS, handle / (double)ITERATIONS));
+            }
+        }
+        System.out.println(sink);
+    }
+
+    private static final class Operation {
+        private final Method method;
+        private final MethodHandle handle;
+        private final Object[] params;
+
+        Operation(Method method, Object[] params) {
+            this.method = method;
+            this.handle = ServiceMethodHandles.getHandle(method);
+            this.params = params;
+        }
+
+        void reflect(Object service) throws Exception {
+            consume(method.invoke(service, params));
+        }
+
+        void handle(Object service) throws Exception {
+            consume(ServiceMethodHandles.invoke(handle, service, params));
+        }
+
+        private static void consume(Object result) {
+            sink += result == null ? 1 : result.hashCode();
+        }
+    }
+
+    public static class Service {
+        public void ping() {
+        }
+
+        public String echo(String s) {
+            return s;
+        }
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.service.invoker;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ServiceMethodHandlesTest {
+
+    @Test
+    public void testInvoke() throws Exception {
+        Service service = new Service();
+        assertEquals(3, invoke(service, "add", 1, 2));
+        assertNull(invoke(service, "ping"));
+        assertEquals("sx", invoke(service, "echo", "x"));
+        assertEquals(2, invoke(service, "count", (Object)new String[] {"a", "b"}));
+    }
+
+    @Test
+    public void testHandleIsCached() throws Exception {
+        MethodHandle handle = ServiceMethodHandles.getHandle(Service.class.getMethod("ping"));
+        assertSame(handle, ServiceMethodHandles.getHandle(Service.class.getMethod("ping")));
+    }
+
+    @Test
+    public void testMethodExceptionIsWrapped() throws Exception {
+        try {
+            invoke(new Service(), "fail", "boom");
+            fail("InvocationTargetException expected");
+        } catch (InvocationTargetException ex) {
+            assertTrue(ex.getCause() instanceof IOException);
+            assertEquals("boom", ex.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testWrongParameters() throws Exception {
+        Service service = new Service();
+        for (Object[] params : new Object[][] {{"1", 2}, {null, 2}, {1}}) {
+            try {
+                invoke(service, "add", params);
+                fail("IllegalArgumentException expected");
+            } catch (IllegalArgumentException ex) {
+                // expected
+            }
+        }
+    }
+
+    private static Object invoke(Object service, String name, Object... params) throws Exception {
+        for (Method m : service.getClass().getMethods()) {
+            if (m.getName().equals(name)) {
+                return ServiceMethodHandles.invoke(ServiceMethodHandles.getHandle(m), service, params);
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    public static class Service {
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public void ping() {
+            // no result
+        }
+
+        public String fail(String message) throws IOException {
+            throw new IOException(message);
+        }
+
+        public static String echo(String s) {
+            return "s" + s;
+        }
+
+        public int count(String... values) {
+            return values.length;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.maven_plugin.extensions;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+import org.apache.cxf.bus.extension.ExtensionManagerImpl;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Merges the META-INF/cxf/bus-extensions.txt resources of the project runtime classpath into
+ * META-INF/cxf/bus-extensions-index.txt, which the bus reads at startup instead of looking up
+ * every bus-extensions.txt when the "org.apache.cxf.bus.extensions.index" property is set to true.
+ * If several resources define the same extension, the first one in the classpath order is kept,
+ * the same way as when the resources are read at runtime.
+ */
+@Mojo(name = "bus-extensions-index", defaultPhase = LifecyclePhase.PROCESS_CLASSES, threadSafe = true,
+      requiresDependencyResolution = ResolutionScope.RUNTIME)
+public class BusExtensionsIndexMojo extends AbstractMojo {
+
+    @Parameter(required = true, property = "project")
+    private MavenProject project;
+
+    /**
+     * Directory the index is written to
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File outputDirectory;
+
+    @Parameter(property = "cxf.extensionsIndex.skip", defaultValue = "false")
+    private boolean skip;
+
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping the bus extensions index");
+            return;
+        }
+        List<String> classpath;
+        try {
+            classpath = project.getRuntimeClasspathElements();
+        } catch (DependencyResolutionRequiredException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+
+        try {
+            Map<String, String> extensions = readExtensions(classpath);
+            File index = writeIndex(outputDirectory, extensions);
+            getLog().info("Bus extensions index with " + extensions.size() + " extensions written to " + index);
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Bus extensions index can not be created: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Reads the bus-extensions.txt resources of the classpath directories and jars
+     * @return the extension definitions by extension name, in the classpath order
+     */
+    static Map<String, String> readExtensions(List<String> classpath) throws IOException {
+        Map<String, String> extensions = new LinkedHashMap<>();
+        for (String element : classpath) {
+            File file = new File(element);
+            if (file.isDirectory()) {
+                File resource = new File(file, ExtensionManagerImpl.BUS_EXTENSION_RESOURCE);
+                if (resource.isFile()) {
+                    try (InputStream is = Files.newInputStream(resource.toPath())) {
+                        readExtensions(is, extensions);
+                    }
+                }
+            } else if (file.isFile()) {
+                try (JarFile jar = new JarFile(file)) {
+                    ZipEntry entry = jar.getEntry(ExtensionManagerImpl.BUS_EXTENSION_RESOURCE);
+                    if (entry != null) {
+                        try (InputStream is = jar.getInputStream(entry)) {
+                            readExtensions(is, extensions);
+                        }
+                    }
+                }
+            }
+        }
+        return extensions;
+    }
+
+    static File writeIndex(File outputDirectory, Map<String, String> extensions) throws IOException {
+        File index = new File(outputDirectory, ExtensionManagerImpl.BUS_EXTENSION_INDEX_RESOURCE);
+        Files.createDirectories(index.getParentFile().toPath());
+        try (Writer writer = Files.newBufferedWriter(index.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("# Generated by the cxf-codegen-plugin bus-extensions-index goal\n");
+            for (String line : extensions.values()) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+        return index;
+    }
+
+    private static void readExtensions(InputStream is, Map<String, String> extensions) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            line = line.trim();
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            // classname:interfacename:deferred:optional, the extension name is the interface name if any
+            String[] parts = line.split(":");
+            String name = parts.length >= 2 && !parts[1].isEmpty() ? parts[1] : parts[0];
+            extensions.putIfAbsent(name, line);
+        }
+    }
+}
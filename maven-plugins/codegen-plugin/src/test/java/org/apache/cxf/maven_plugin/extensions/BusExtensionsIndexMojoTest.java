@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.maven_plugin.extensions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.apache.cxf.bus.extension.Extension;
+import org.apache.cxf.bus.extension.ExtensionManagerImpl;
+import org.apache.cxf.bus.extension.TextExtensionFragmentParser;
+import org.apache.cxf.helpers.FileUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BusExtensionsIndexMojoTest {
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("extensions-index").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.removeDir(dir);
+    }
+
+    @Test
+    public void testIndex() throws IOException {
+        File classes = new File(dir, "classes");
+        File resource = new File(classes, ExtensionManagerImpl.BUS_EXTENSION_RESOURCE);
+        resource.getParentFile().mkdirs();
+        Files.write(resource.toPath(),
+                    "# comment\norg.apache.cxf.A:org.apache.cxf.Api:true\n\norg.apache.cxf.B::false\n"
+                        .getBytes(StandardCharsets.UTF_8));
+
+        File jar = new File(dir, "extensions.jar");
+        try (OutputStream os = Files.newOutputStream(jar.toPath());
+            JarOutputStream jos = new JarOutputStream(os)) {
+            jos.putNextEntry(new ZipEntry(ExtensionManagerImpl.BUS_EXTENSION_RESOURCE));
+            jos.write("org.apache.cxf.C:org.apache.cxf.Api:true\norg.apache.cxf.D:org.apache.cxf.Dapi:false:true\n"
+                          .getBytes(StandardCharsets.UTF_8));
+            jos.closeEntry();
+        }
+
+        Map<String, String> extensions = BusExtensionsIndexMojo.readExtensions(
+            Arrays.asList(classes.getPath(), new File(dir, "missing").getPath(), jar.getPath()));
+        // the first definition of org.apache.cxf.Api is kept
+        assertEquals(Arrays.asList("org.apache.cxf.Api", "org.apache.cxf.B", "org.apache.cxf.Dapi"),
+                     Arrays.asList(extensions.keySet().toArray()));
+
+        File output = new File(dir, "output");
+        File index = BusExtensionsIndexMojo.writeIndex(output, extensions);
+        assertEquals(new File(output, ExtensionManagerImpl.BUS_EXTENSION_INDEX_RESOURCE), index);
+        List<String> lines = Files.readAllLines(index.toPath(), StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).startsWith("#"));
+        assertEquals(Arrays.asList("org.apache.cxf.A:org.apache.cxf.Api:true", "org.apache.cxf.B::false",
+                                   "org.apache.cxf.D:org.apache.cxf.Dapi:false:true"),
+                     lines.subList(1, 4));
+
+        // the index is read by the bus as a bus-extensions.txt resource
+        try (InputStream is = Files.newInputStream(index.toPath())) {
+            List<Extension> exts = new TextExtensionFragmentParser(getClass().getClassLoader()).getExtensions(is);
+            assertEquals(3, exts.size());
+            assertEquals("org.apache.cxf.A", exts.get(0).getClassname());
+            assertTrue(exts.get(0).isDeferred());
+            assertEquals("org.apache.cxf.B", exts.get(1).getName());
+            assertTrue(exts.get(2).isOptional());
+        }
+    }
+}
@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,6 +44,7 @@ import org.apache.cxf.message.ExchangeImpl;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
 import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseChainCache;
 import org.apache.cxf.phase.PhaseManager;
 import org.apache.cxf.service.Service;
 import org.apache.cxf.service.model.BindingInfo;
@@ -53,10 +56,25 @@ import org.apache.cxf.transport.ChainInitiationObserver;
 public class ColocMessageObserver extends ChainInitiationObserver {
     private static final Logger LOG = LogUtils.getL7dLogger(ColocMessageObserver.class);
     private static final String COLOCATED = Message.class.getName() + ".COLOCATED";
+    private static final String CONVERSIONS = ColocMessageObserver.class.getName() + ".CONVERSIONS";
     private ClassLoader loader;
+    private final boolean fastPath;
+    private final PhaseChainCache chainCache = new PhaseChainCache();
+    private volatile SortedSet<Phase> inPhases;
+    private volatile List<Interceptor<? extends Message>> colocInterceptors;
+
     public ColocMessageObserver(Endpoint endpoint, Bus bus) {
+        this(endpoint, bus, false);
+    }
+
+    /**
+     * @param fastPath if true, the phases, the interceptor chain and the type conversions
+     * are resolved once and reused for all the messages
+     */
+    public ColocMessageObserver(Endpoint endpoint, Bus bus, boolean fastPath) {
         super(endpoint, bus);
         loader = bus.getExtension(ClassLoader.class);
+        this.fastPath = fastPath;
     }
 
     public void onMessage(Message m) {
@@ -95,37 +113,39 @@ public class ColocMessageObserver extends ChainInitiationObserver {
             }
 
             //Add all interceptors between USER_LOGICAL and INVOKE.
-            SortedSet<Phase> phases = new TreeSet<>(bus.getExtension(PhaseManager.class).getInPhases());
-            ColocUtil.setPhases(phases, Phase.USER_LOGICAL, Phase.INVOKE);
-            InterceptorChain chain = ColocUtil.getInInterceptorChain(ex, phases);
-            chain.add(addColocInterceptors());
+            InterceptorChain chain;
+            if (fastPath) {
+                chain = ColocUtil.getInInterceptorChain(ex, getInPhases(), chainCache);
+                if (colocInterceptors == null) {
+                    colocInterceptors = addColocInterceptors();
+                }
+                chain.add(colocInterceptors);
+            } else {
+                SortedSet<Phase> phases = new TreeSet<>(bus.getExtension(PhaseManager.class).getInPhases());
+                ColocUtil.setPhases(phases, Phase.USER_LOGICAL, Phase.INVOKE);
+                chain = ColocUtil.getInInterceptorChain(ex, phases);
+                chain.add(addColocInterceptors());
+            }
             inMsg.setInterceptorChain(chain);
 
             //Convert the coloc object type if necessary
             BindingOperationInfo bop = m.getExchange().getBindingOperationInfo();
             OperationInfo soi = bop != null ? bop.getOperationInfo() : null;
+            Conversion conversion = Conversion.NONE;
             if (soi != null && oi != null) {
-                if (ColocUtil.isAssignableOperationInfo(soi, Source.class)
-                    && !ColocUtil.isAssignableOperationInfo(oi, Source.class)) {
-                    // converting source -> pojo
-                    ColocUtil.convertSourceToObject(inMsg);
-                } else if (ColocUtil.isAssignableOperationInfo(oi, Source.class)
-                    && !ColocUtil.isAssignableOperationInfo(soi, Source.class)) {
-                    // converting pojo -> source
-                    ColocUtil.convertObjectToSource(inMsg);
-                }
+                conversion = fastPath ? getCachedConversion(bop, oi) : getConversion(soi, oi);
+            }
+            if (conversion == Conversion.SOURCE_TO_OBJECT) {
+                ColocUtil.convertSourceToObject(inMsg);
+            } else if (conversion == Conversion.OBJECT_TO_SOURCE) {
+                ColocUtil.convertObjectToSource(inMsg);
             }
             chain.doIntercept(inMsg);
-            if (soi != null && oi != null) {
-                if (ColocUtil.isAssignableOperationInfo(soi, Source.class)
-                    && !ColocUtil.isAssignableOperationInfo(oi, Source.class)
-                    && ex.getOutMessage() != null) {
-                    // converting pojo -> source
+            if (ex.getOutMessage() != null) {
+                // the response is converted back
+                if (conversion == Conversion.SOURCE_TO_OBJECT) {
                     ColocUtil.convertObjectToSource(ex.getOutMessage());
-                } else if (ColocUtil.isAssignableOperationInfo(oi, Source.class)
-                    && !ColocUtil.isAssignableOperationInfo(soi, Source.class)
-                    && ex.getOutMessage() != null) {
-                    // converting pojo -> source
+                } else if (conversion == Conversion.OBJECT_TO_SOURCE) {
                     ColocUtil.convertSourceToObject(ex.getOutMessage());
                 }
             }
@@ -166,9 +186,58 @@ public class ColocMessageObserver extends ChainInitiationObserver {
         exchange.put(BindingOperationInfo.class, boi);
     }
 
+    private SortedSet<Phase> getInPhases() {
+        SortedSet<Phase> phases = inPhases;
+        if (phases == null) {
+            phases = new TreeSet<>(bus.getExtension(PhaseManager.class).getInPhases());
+            ColocUtil.setPhases(phases, Phase.USER_LOGICAL, Phase.INVOKE);
+            inPhases = phases;
+        }
+        return phases;
+    }
+
+    /**
+     * The conversion depends on both the operation the client has invoked and the operation of
+     * this endpoint, so it is cached on the client operation for every endpoint operation.
+     */
+    @SuppressWarnings("unchecked")
+    static Conversion getCachedConversion(BindingOperationInfo bop, OperationInfo oi) {
+        ConcurrentMap<OperationInfo, Conversion> cached = bop.getProperty(CONVERSIONS, ConcurrentMap.class);
+        if (cached == null) {
+            synchronized (bop) {
+                cached = bop.getProperty(CONVERSIONS, ConcurrentMap.class);
+                if (cached == null) {
+                    cached = new ConcurrentHashMap<>(4);
+                    bop.setProperty(CONVERSIONS, cached);
+                }
+            }
+        }
+        return cached.computeIfAbsent(oi, o -> getConversion(bop.getOperationInfo(), o));
+    }
+
+    static Conversion getConversion(OperationInfo soi, OperationInfo oi) {
+        if (ColocUtil.isAssignableOperationInfo(soi, Source.class)
+            && !ColocUtil.isAssignableOperationInfo(oi, Source.class)) {
+            return Conversion.SOURCE_TO_OBJECT;
+        } else if (ColocUtil.isAssignableOperationInfo(oi, Source.class)
+            && !ColocUtil.isAssignableOperationInfo(soi, Source.class)) {
+            return Conversion.OBJECT_TO_SOURCE;
+        }
+        return Conversion.NONE;
+    }
+
     protected List<Interceptor<? extends Message>> addColocInterceptors() {
         List<Interceptor<? extends Message>> list = new ArrayList<>();
         list.add(new ColocInInterceptor());
         return list;
     }
+
+    /**
+     * The conversion of the request, the response is converted the other way
+     */
+    enum Conversion {
+        NONE,
+        SOURCE_TO_OBJECT,
+        OBJECT_TO_SOURCE
+    }
 }
@@ -22,6 +22,9 @@ import java.util.List;
 import java.util.ResourceBundle;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,6 +44,7 @@ import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
 import org.apache.cxf.phase.AbstractPhaseInterceptor;
 import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseChainCache;
 import org.apache.cxf.phase.PhaseManager;
 import org.apache.cxf.service.Service;
 import org.apache.cxf.service.model.BindingOperationInfo;
@@ -53,6 +57,20 @@ public class ColocOutInterceptor extends AbstractPhaseInterceptor<Message> {
     private static final String COLOCATED = Message.class.getName() + ".COLOCATED";
     private MessageObserver colocObserver;
     private Bus bus;
+    private boolean fastPath;
+
+    // fast path state
+    private final ConcurrentMap<BindingOperationInfo, ColocTarget> targets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Endpoint, MessageObserver> observers = new ConcurrentHashMap<>();
+    private final PhaseChainCache inboundChainCache = new PhaseChainCache();
+    private volatile SortedSet<Phase> inboundPhases;
+    private volatile ColocServerListener serverListener;
+    private volatile long observersGeneration;
+
+    private final AtomicLong colocatedCalls = new AtomicLong();
+    private final AtomicLong remoteCalls = new AtomicLong();
+    private final AtomicLong targetCacheHits = new AtomicLong();
+    private final AtomicLong targetCacheMisses = new AtomicLong();
 
     public ColocOutInterceptor() {
         super(Phase.POST_LOGICAL);
@@ -66,6 +84,35 @@ public class ColocOutInterceptor extends AbstractPhaseInterceptor<Message> {
         this.bus = bus;
     }
 
+    public boolean isFastPath() {
+        return fastPath;
+    }
+
+    /**
+     * Sets if the co-located server and the server side message observer should be resolved once
+     * per client operation and the inbound interceptor chains should be reused, false by default.
+     * The resolved servers are dropped when a server is started or stopped.
+     */
+    public void setFastPath(boolean fastPath) {
+        this.fastPath = fastPath;
+    }
+
+    public long getColocatedCalls() {
+        return colocatedCalls.get();
+    }
+
+    public long getRemoteCalls() {
+        return remoteCalls.get();
+    }
+
+    public long getTargetCacheHits() {
+        return targetCacheHits.get();
+    }
+
+    public long getTargetCacheMisses() {
+        return targetCacheMisses.get();
+    }
+
     public void handleMessage(Message message) throws Fault {
         if (bus == null) {
             bus = message.getExchange().getBus();
@@ -98,9 +145,12 @@ public class ColocOutInterceptor extends AbstractPhaseInterceptor<Message> {
                                                                    BUNDLE));
         }
 
-        Server srv = isColocated(registry.getServers(), senderEndpoint, boi);
+        Server srv = fastPath
+            ? getColocatedServer(registry, senderEndpoint, boi)
+            : isColocated(registry.getServers(), senderEndpoint, boi);
 
         if (srv != null) {
+            colocatedCalls.incrementAndGet();
             if (LOG.isLoggable(Level.FINE)) {
                 LOG.fine("Operation:" + boi.getName() + " dispatched as colocated call.");
             }
@@ -120,11 +170,46 @@ public class ColocOutInterceptor extends AbstractPhaseInterceptor<Message> {
                 LOG.fine("Operation:" + boi.getName() + " dispatched as remote call.");
             }
 
+            remoteCalls.incrementAndGet();
             message.put(COLOCATED, Boolean.FALSE);
         }
     }
 
+    private Server getColocatedServer(ServerRegistry registry, Endpoint senderEndpoint,
+                                      BindingOperationInfo boi) {
+        ColocServerListener listener = serverListener;
+        if (listener == null) {
+            listener = ColocServerListener.getInstance(bus);
+            serverListener = listener;
+        }
+        // without a listener the newly started servers are not reported, remote calls are not remembered
+        long generation = listener == null ? -1 : listener.getGeneration();
+        if (generation != observersGeneration) {
+            // the observers of the stopped servers are not needed any more
+            observers.clear();
+            observersGeneration = generation;
+        }
+        ColocTarget target = targets.get(boi);
+        if (target != null && target.generation == generation && target.endpoint == senderEndpoint
+            && (target.server == null || target.server.isStarted())) {
+            targetCacheHits.incrementAndGet();
+            return target.server;
+        }
+        targetCacheMisses.incrementAndGet();
+        Server srv = isColocated(registry.getServers(), senderEndpoint, boi);
+        if (srv != null || listener != null) {
+            // a server started or stopped meanwhile changes the generation, the target is resolved again
+            targets.put(boi, new ColocTarget(senderEndpoint, srv, generation));
+        }
+        return srv;
+    }
+
     protected void invokeColocObserver(Message outMsg, Endpoint inboundEndpoint) {
+        if (fastPath && colocObserver == null) {
+            observers.computeIfAbsent(inboundEndpoint, ep -> new ColocMessageObserver(ep, bus, true))
+                .onMessage(outMsg);
+            return;
+        }
         if (colocObserver == null) {
             colocObserver = new ColocMessageObserver(inboundEndpoint, bus);
         }
@@ -156,17 +241,31 @@ public class ColocOutInterceptor extends AbstractPhaseInterceptor<Message> {
         } else {
             //Handle Response
             ex.setInMessage(inMsg);
-            PhaseManager pm = bus.getExtension(PhaseManager.class);
-            SortedSet<Phase> phases = new TreeSet<>(pm.getInPhases());
-            ColocUtil.setPhases(phases, Phase.USER_LOGICAL, Phase.PRE_INVOKE);
-
-            InterceptorChain chain = ColocUtil.getInInterceptorChain(ex, phases);
+            InterceptorChain chain;
+            if (fastPath) {
+                chain = ColocUtil.getInInterceptorChain(ex, getInboundPhases(), inboundChainCache);
+            } else {
+                PhaseManager pm = bus.getExtension(PhaseManager.class);
+                SortedSet<Phase> phases = new TreeSet<>(pm.getInPhases());
+                ColocUtil.setPhases(phases, Phase.USER_LOGICAL, Phase.PRE_INVOKE);
+                chain = ColocUtil.getInInterceptorChain(ex, phases);
+            }
             inMsg.setInterceptorChain(chain);
             chain.doIntercept(inMsg);
         }
         ex.put(ClientImpl.FINISHED, Boolean.TRUE);
     }
 
+    private SortedSet<Phase> getInboundPhases() {
+        SortedSet<Phase> phases = inboundPhases;
+        if (phases == null) {
+            phases = new TreeSet<>(bus.getExtension(PhaseManager.class).getInPhases());
+            ColocUtil.setPhases(phases, Phase.USER_LOGICAL, Phase.PRE_INVOKE);
+            inboundPhases = phases;
+        }
+        return phases;
+    }
+
     protected Message getInBoundMessage(Exchange ex) {
         return  (ex.getInFaultMessage() != null)
                    ? ex.getInFaultMessage()
@@ -218,4 +317,16 @@ public class ColocOutInterceptor extends AbstractPhaseInterceptor<Message> {
         exchange.put(Binding.class, ep.getBinding());
         exchange.put(Bus.class, bus == null ? BusFactory.getDefaultBus(false) : bus);
     }
+
+    private static final class ColocTarget {
+        private final Endpoint endpoint;
+        private final Server server;
+        private final long generation;
+
+        ColocTarget(Endpoint endpoint, Server server, long generation) {
+            this.endpoint = endpoint;
+            this.server = server;
+            this.generation = generation;
+        }
+    }
 }
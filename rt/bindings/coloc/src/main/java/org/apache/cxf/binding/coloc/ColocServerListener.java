@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.binding.coloc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.endpoint.ServerLifeCycleListener;
+import org.apache.cxf.endpoint.ServerLifeCycleManager;
+
+/**
+ * Counts the servers started or stopped on a bus. A single instance is registered per bus and shared by
+ * all the {@link ColocOutInterceptor}s, which drop the servers they resolved once the generation changes.
+ */
+final class ColocServerListener implements ServerLifeCycleListener {
+    private final AtomicLong generation = new AtomicLong();
+
+    private ColocServerListener() {
+    }
+
+    /**
+     * Returns the listener of the bus, registering it first if needed, or null if the servers of the
+     * bus can not be listened to
+     */
+    static ColocServerListener getInstance(Bus bus) {
+        ColocServerListener listener = bus.getExtension(ColocServerListener.class);
+        if (listener != null) {
+            return listener;
+        }
+        ServerLifeCycleManager manager = bus.getExtension(ServerLifeCycleManager.class);
+        if (manager == null) {
+            return null;
+        }
+        synchronized (manager) {
+            listener = bus.getExtension(ColocServerListener.class);
+            if (listener == null) {
+                listener = new ColocServerListener();
+                manager.registerListener(listener);
+                bus.setExtension(listener, ColocServerListener.class);
+            }
+        }
+        return listener;
+    }
+
+    long getGeneration() {
+        return generation.get();
+    }
+
+    public void startServer(Server server) {
+        generation.incrementAndGet();
+    }
+
+    public void stopServer(Server server) {
+        generation.incrementAndGet();
+    }
+}
@@ -30,6 +30,7 @@ import org.apache.cxf.interceptor.InterceptorProvider;
 
 @NoJSR250Annotations
 public class ColocFeature extends AbstractFeature {
+    private boolean fastPath;
 
     @Override
     public void initialize(Client client, Bus bus) {
@@ -42,6 +43,19 @@ public class ColocFeature extends AbstractFeature {
     @Override
     protected void initializeProvider(InterceptorProvider provider, Bus bus) {
         provider.getInInterceptors().add(new ColocInInterceptor());
-        provider.getOutInterceptors().add(new ColocOutInterceptor(bus));
+        ColocOutInterceptor colocOut = new ColocOutInterceptor(bus);
+        colocOut.setFastPath(fastPath);
+        provider.getOutInterceptors().add(colocOut);
+    }
+
+    public boolean isFastPath() {
+        return fastPath;
+    }
+
+    /**
+     * Enables the fast path mode of the co-located calls, see {@link ColocOutInterceptor#setFastPath(boolean)}
+     */
+    public void setFastPath(boolean fastPath) {
+        this.fastPath = fastPath;
     }
 }
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.BusFactory;
@@ -38,6 +39,10 @@ import org.apache.cxf.service.Service;
 import org.apache.cxf.service.model.BindingInfo;
 import org.apache.cxf.service.model.BindingOperationInfo;
 import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.service.model.InterfaceInfo;
+import org.apache.cxf.service.model.MessageInfo;
+import org.apache.cxf.service.model.OperationInfo;
+import org.apache.cxf.service.model.ServiceInfo;
 
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
@@ -45,6 +50,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -139,6 +145,43 @@ public class ColocMessageObserverTest {
         assertNotNull("Exchange should be set", ex1);
     }
 
+    @Test
+    public void testConversionCachedPerClientOperation() throws Exception {
+        OperationInfo serverOp = createOperation("server", String.class);
+        // two clients bound to the same endpoint operation, only one of them sends a Source
+        BindingOperationInfo sourceClient = createBindingOperation("sourceClient", Source.class);
+        BindingOperationInfo objectClient = createBindingOperation("objectClient", String.class);
+
+        assertEquals(ColocMessageObserver.Conversion.SOURCE_TO_OBJECT,
+                     ColocMessageObserver.getCachedConversion(sourceClient, serverOp));
+        assertEquals(ColocMessageObserver.Conversion.NONE,
+                     ColocMessageObserver.getCachedConversion(objectClient, serverOp));
+        assertEquals(ColocMessageObserver.Conversion.SOURCE_TO_OBJECT,
+                     ColocMessageObserver.getCachedConversion(sourceClient, serverOp));
+
+        // and the other way around
+        OperationInfo sourceServerOp = createOperation("sourceServer", Source.class);
+        assertEquals(ColocMessageObserver.Conversion.NONE,
+                     ColocMessageObserver.getCachedConversion(sourceClient, sourceServerOp));
+        assertEquals(ColocMessageObserver.Conversion.OBJECT_TO_SOURCE,
+                     ColocMessageObserver.getCachedConversion(objectClient, sourceServerOp));
+    }
+
+    private static BindingOperationInfo createBindingOperation(String name, Class<?> type) {
+        OperationInfo op = createOperation(name, type);
+        BindingInfo bi = new BindingInfo(op.getInterface().getService(), "http://cxf.apache.org/bindings/test");
+        return bi.buildOperation(op.getName(), null, null);
+    }
+
+    private static OperationInfo createOperation(String name, Class<?> type) {
+        InterfaceInfo ii = new InterfaceInfo(new ServiceInfo(), new QName("urn:test", name + "Interface"));
+        OperationInfo op = ii.addOperation(new QName("urn:test", name));
+        MessageInfo mi = op.createMessage(new QName("urn:test", name + "Request"), MessageInfo.Type.INPUT);
+        op.setInput(name + "Request", mi);
+        mi.addMessagePart("arg0").setTypeClass(type);
+        return op;
+    }
+
     class TestColocMessageObserver extends ColocMessageObserver {
         TestColocMessageObserver(Endpoint endpoint, Bus bus) {
             super(endpoint, bus);
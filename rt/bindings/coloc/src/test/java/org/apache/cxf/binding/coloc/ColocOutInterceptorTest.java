@@ -27,10 +27,13 @@ import javax.xml.transform.Source;
 import org.apache.cxf.Bus;
 import org.apache.cxf.BusFactory;
 import org.apache.cxf.binding.Binding;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
 import org.apache.cxf.bus.managers.PhaseManagerImpl;
 import org.apache.cxf.endpoint.ClientImpl;
 import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.endpoint.ServerLifeCycleListener;
+import org.apache.cxf.endpoint.ServerLifeCycleManager;
 import org.apache.cxf.endpoint.ServerRegistry;
 import org.apache.cxf.interceptor.Fault;
 import org.apache.cxf.interceptor.Interceptor;
@@ -51,6 +54,7 @@ import org.apache.cxf.service.model.MessagePartInfo;
 import org.apache.cxf.service.model.OperationInfo;
 import org.apache.cxf.service.model.ServiceInfo;
 
+import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
 import org.junit.After;
@@ -58,6 +62,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
@@ -237,6 +242,97 @@ public class ColocOutInterceptorTest {
         control.verify();
     }
 
+    @Test
+    public void testFastPathTargetCache() throws Exception {
+        TestColocOutInterceptor2 interceptor = new TestColocOutInterceptor2();
+        colocOut = interceptor;
+        colocOut.setFastPath(true);
+
+        Bus bus = setupBus();
+        ServerRegistry sr = control.createMock(ServerRegistry.class);
+        EasyMock.expect(bus.getExtension(ServerRegistry.class)).andReturn(sr).anyTimes();
+        ServerLifeCycleManager mgr = control.createMock(ServerLifeCycleManager.class);
+        EasyMock.expect(bus.getExtension(ServerLifeCycleManager.class)).andReturn(mgr).anyTimes();
+        Capture<ServerLifeCycleListener> listener = EasyMock.newCapture();
+        mgr.registerListener(EasyMock.capture(listener));
+        EasyMock.expectLastCall().once();
+        Endpoint ep = control.createMock(Endpoint.class);
+        Endpoint ep2 = control.createMock(Endpoint.class);
+        BindingOperationInfo boi = control.createMock(BindingOperationInfo.class);
+        Server server = control.createMock(Server.class);
+        control.replay();
+
+        for (int i = 0; i < 3; i++) {
+            handleRemoteMessage(ep, boi);
+        }
+        assertEquals(1, interceptor.lookups);
+        assertEquals(1L, colocOut.getTargetCacheMisses());
+        assertEquals(2L, colocOut.getTargetCacheHits());
+        assertEquals(3L, colocOut.getRemoteCalls());
+        assertEquals(0L, colocOut.getColocatedCalls());
+
+        // a started server may be co-located
+        listener.getValue().startServer(server);
+        handleRemoteMessage(ep, boi);
+        assertEquals(2, interceptor.lookups);
+
+        // the operations of other clients are resolved separately
+        handleRemoteMessage(ep2, boi);
+        assertEquals(3, interceptor.lookups);
+        control.verify();
+    }
+
+    @Test
+    public void testFastPathSharesServerListener() throws Exception {
+        ServerRegistry sr = control.createMock(ServerRegistry.class);
+        ServerLifeCycleManager mgr = control.createMock(ServerLifeCycleManager.class);
+        Capture<ServerLifeCycleListener> listener = EasyMock.newCapture();
+        mgr.registerListener(EasyMock.capture(listener));
+        EasyMock.expectLastCall().once();
+        Endpoint ep = control.createMock(Endpoint.class);
+        BindingOperationInfo boi = control.createMock(BindingOperationInfo.class);
+        Server server = control.createMock(Server.class);
+        control.replay();
+
+        Bus bus = new ExtensionManagerBus();
+        bus.setExtension(sr, ServerRegistry.class);
+        bus.setExtension(mgr, ServerLifeCycleManager.class);
+        List<TestColocOutInterceptor2> interceptors = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // e.g. the interceptors of short lived clients
+            TestColocOutInterceptor2 interceptor = new TestColocOutInterceptor2();
+            interceptor.setBus(bus);
+            interceptor.setFastPath(true);
+            handleRemoteMessage(interceptor, ep, boi);
+            handleRemoteMessage(interceptor, ep, boi);
+            assertEquals(1, interceptor.lookups);
+            interceptors.add(interceptor);
+        }
+
+        listener.getValue().stopServer(server);
+        for (TestColocOutInterceptor2 interceptor : interceptors) {
+            handleRemoteMessage(interceptor, ep, boi);
+            assertEquals(2, interceptor.lookups);
+        }
+        bus.shutdown(true);
+        control.verify();
+    }
+
+    private void handleRemoteMessage(Endpoint ep, BindingOperationInfo boi) {
+        handleRemoteMessage(colocOut, ep, boi);
+    }
+
+    private static void handleRemoteMessage(ColocOutInterceptor interceptor, Endpoint ep,
+                                            BindingOperationInfo boi) {
+        Message m = new MessageImpl();
+        Exchange e = new ExchangeImpl();
+        m.setExchange(e);
+        e.put(Endpoint.class, ep);
+        e.put(BindingOperationInfo.class, boi);
+        interceptor.handleMessage(m);
+        assertFalse((Boolean)m.get(COLOCATED));
+    }
+
     @Test
     public void testInvokeInboundChain() {
         //Reset Exchange on msg
@@ -557,6 +653,15 @@ public class ColocOutInterceptorTest {
 
     }
 
+    class TestColocOutInterceptor2 extends TestColocOutInterceptor1 {
+        private int lookups;
+
+        protected Server isColocated(List<Server> servers, Endpoint endpoint, BindingOperationInfo boi) {
+            lookups++;
+            return null;
+        }
+    }
+
     class TestBindingInfo extends BindingInfo {
         private int opCount;
         TestBindingInfo(ServiceInfo si, String bindingId) {
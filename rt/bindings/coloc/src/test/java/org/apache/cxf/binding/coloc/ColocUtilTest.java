@@ -202,6 +202,10 @@ public class ColocUtilTest {
         fil2.add(fi3);
         match = ColocUtil.isSameFaultInfo(fil1, fil2);
         assertTrue("Should find a match", match);
+
+        fi1.setProperty(Class.class.getName(), null);
+        match = ColocUtil.isSameFaultInfo(fil1, fil2);
+        assertFalse("Should not match a fault without a class", match);
     }
 
     @Test
@@ -233,6 +237,11 @@ public class ColocUtilTest {
         mpi.setTypeClass(InHeaderT.class);
         match = ColocUtil.isSameMessageInfo(mi1, mi2);
         assertTrue("Should find a match", match);
+
+        mi1.getMessagePart(0).setTypeClass(null);
+        mpi.setTypeClass(null);
+        match = ColocUtil.isSameMessageInfo(mi1, mi2);
+        assertFalse("Should not match parts without a type class", match);
     }
 
 }
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.binding.soap;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.transform.dom.DOMSource;
+
+import org.w3c.dom.Element;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.staxutils.StaxSource;
+import org.apache.cxf.staxutils.StaxUtils;
+
+/**
+ * Inbound SOAP header which keeps the header element in its serialized form and only
+ * builds the DOM element when {@link #getObject()} is called. The serialized element
+ * declares all the namespaces which are in scope in the message and has the attributes
+ * of the soap:Header element copied to it.
+ */
+public class StreamedSoapHeader extends SoapHeader {
+    private final byte[] content;
+    private final String text;
+    private final Map<QName, String> attributes;
+    private boolean materialized;
+
+    /**
+     * @param name the header element name
+     * @param content the UTF-8 encoded header element
+     * @param text the text content if the element has no child elements, null otherwise
+     * @param attributes the attributes of the header element
+     */
+    public StreamedSoapHeader(QName name, byte[] content, String text, Map<QName, String> attributes) {
+        super(name, null);
+        this.content = content;
+        this.text = text;
+        this.attributes = attributes == null ? Collections.emptyMap() : attributes;
+        setDirection(Direction.DIRECTION_IN);
+    }
+
+    @Override
+    public Object getObject() {
+        if (!materialized) {
+            try {
+                super.setObject(StaxUtils.read(new ByteArrayInputStream(content)).getDocumentElement());
+            } catch (XMLStreamException e) {
+                throw new Fault(e);
+            }
+            materialized = true;
+        }
+        return super.getObject();
+    }
+
+    @Override
+    public void setObject(Object object) {
+        materialized = true;
+        super.setObject(object);
+    }
+
+    /**
+     * Returns true if the DOM element has been built or the header object has been replaced
+     */
+    public boolean isMaterialized() {
+        return materialized;
+    }
+
+    /**
+     * Returns the text content of the header element if it has no child elements, null otherwise
+     */
+    public String getText() {
+        return text;
+    }
+
+    public Map<QName, String> getAttributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * Returns the header element as a source, the DOM element is not built
+     * if it is not available yet
+     */
+    public Source getSource() {
+        if (materialized) {
+            Object object = super.getObject();
+            return object instanceof Element ? new DOMSource((Element)object) : null;
+        }
+        return new StaxSource(getXMLStreamReader());
+    }
+
+    /**
+     * Returns the reader of the serialized header element, positioned at the start of the document
+     */
+    public XMLStreamReader getXMLStreamReader() {
+        return StaxUtils.createXMLStreamReader(new ByteArrayInputStream(content));
+    }
+}
@@ -19,12 +19,16 @@
 
 package org.apache.cxf.binding.soap.interceptor;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 import javax.xml.namespace.QName;
@@ -32,6 +36,8 @@ import javax.xml.stream.XMLEventFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.events.Namespace;
 import javax.xml.stream.events.XMLEvent;
 
 import org.w3c.dom.Attr;
@@ -49,6 +55,7 @@ import org.apache.cxf.binding.soap.SoapHeader;
 import org.apache.cxf.binding.soap.SoapMessage;
 import org.apache.cxf.binding.soap.SoapVersion;
 import org.apache.cxf.binding.soap.SoapVersionFactory;
+import org.apache.cxf.binding.soap.StreamedSoapHeader;
 import org.apache.cxf.common.i18n.Message;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.StringUtils;
@@ -73,6 +80,12 @@ public class ReadHeadersInterceptor extends AbstractSoapInterceptor {
     public static final String BODY_EVENTS = "body.events";
     public static final String ENVELOPE_PREFIX = "envelope.prefix";
     public static final String BODY_PREFIX = "body.prefix";
+    /**
+     * If set to true the SOAP headers are kept in their serialized form, see {@link StreamedSoapHeader},
+     * and the DOM document of the envelope is not built. It should only be enabled if no interceptor
+     * expects to find the SOAP headers in the document set as the message Node content.
+     */
+    public static final String STREAM_HEADERS = "org.apache.cxf.binding.soap.streamHeaders";
     /**
      *
      */
@@ -201,7 +214,8 @@ public class ReadHeadersInterceptor extends AbstractSoapInterceptor {
                         // add the Envelope-Level declarations
                         addCurrentNamespaceDecls(xmlReader, bodyNC);
                     }
-                    HeadersProcessor processor = new HeadersProcessor(soapVersion);
+                    HeadersProcessor processor = new HeadersProcessor(soapVersion,
+                        MessageUtils.getContextualBoolean(message, STREAM_HEADERS, false));
                     doc = processor.process(filteredReader);
                     if (doc != null) {
                         message.setContent(Node.class, doc);
@@ -216,6 +230,9 @@ public class ReadHeadersInterceptor extends AbstractSoapInterceptor {
                         addCurrentNamespaceDecls(xmlReader, bodyNC);
                         message.put("soap.body.ns.context", bodyNC);
                     }
+                    for (StreamedSoapHeader streamedHeader : processor.getStreamedHeaders()) {
+                        addStreamedHeader(message, streamedHeader);
+                    }
                 }
 
                 // Find header
@@ -255,11 +272,7 @@ public class ReadHeadersInterceptor extends AbstractSoapInterceptor {
                                 obj = hel;
                             } else {
                                 dataBinding = p.getDataBinding();
-                                DataReader<Node> dataReader = dataBinding.createReader(Node.class);
-                                dataReader.setAttachments(message.getAttachments());
-                                dataReader.setProperty(DataReader.ENDPOINT, message.getExchange().getEndpoint());
-                                dataReader.setProperty(Message.class.getName(), message);
-                                obj = dataReader.read(hel);
+                                obj = readHeader(message, dataBinding, hel);
                             }
 
                             SoapHeader shead = new SoapHeader(new QName(hel.getNamespaceURI(),
@@ -303,6 +316,32 @@ public class ReadHeadersInterceptor extends AbstractSoapInterceptor {
     }
     //CHECKSTYLE:ON
 
+    private void addStreamedHeader(SoapMessage message, StreamedSoapHeader header) {
+        HeaderProcessor p = bus == null ? null : bus.getExtension(HeaderManager.class)
+            .getHeaderProcessor(header.getName().getNamespaceURI());
+        if (p == null || p.getDataBinding() == null) {
+            message.getHeaders().add(header);
+            return;
+        }
+        // the headers bound to the custom types are read from DOM
+        DataBinding dataBinding = p.getDataBinding();
+        SoapHeader shead = new SoapHeader(header.getName(),
+                                          readHeader(message, dataBinding, (Element)header.getObject()),
+                                          dataBinding);
+        shead.setActor(header.getActor());
+        shead.setMustUnderstand(header.isMustUnderstand());
+        shead.setDirection(SoapHeader.Direction.DIRECTION_IN);
+        message.getHeaders().add(shead);
+    }
+
+    private static Object readHeader(SoapMessage message, DataBinding dataBinding, Element hel) {
+        DataReader<Node> dataReader = dataBinding.createReader(Node.class);
+        dataReader.setAttachments(message.getAttachments());
+        dataReader.setProperty(DataReader.ENDPOINT, message.getExchange().getEndpoint());
+        dataReader.setProperty(Message.class.getName(), message);
+        return dataReader.read(hel);
+    }
+
     private void addCurrentNamespaceDecls(XMLStreamReader xmlReader, Map<String, String> bodyNsMap) {
         for (int i = 0; i < xmlReader.getNamespaceCount(); i++) {
             String nsuri = xmlReader.getNamespaceURI(i);
@@ -319,10 +358,13 @@ public class ReadHeadersInterceptor extends AbstractSoapInterceptor {
      * the document is created only if a SOAP Header is actually found, keeping the
      * memory usage as low as possible (there's no reason for building the DOM doc
      * here if there's actually no header in the message, but we need to figure that
-     * out while parsing the stream).
+     * out while parsing the stream). If the headers are streamed, the document is never
+     * created and every header element is serialized into a {@link StreamedSoapHeader}.
      */
     private static class HeadersProcessor {
         private static XMLEventFactory eventFactory;
+        private final SoapVersion version;
+        private final boolean streamHeaders;
         private final String ns;
         private final String header;
         private final String body;
@@ -336,6 +378,7 @@ public class ReadHeadersInterceptor extends AbstractSoapInterceptor {
         private QName lastStartElementQName;
         private String envelopePrefix;
         private String bodyPrefix;
+        private List<StreamedSoapHeader> streamedHeaders = Collections.emptyList();
 
         static {
             try {
@@ -346,7 +389,9 @@ public class ReadHeadersInterceptor extends AbstractSoapInterceptor {
             }
         }
 
-        HeadersProcessor(SoapVersion version) {
+        HeadersProcessor(SoapVersion version, boolean streamHeaders) {
+            this.version = version;
+            this.streamHeaders = streamHeaders;
             this.header = version.getHeader().getLocalPart();
             this.ns = version.getEnvelope().getNamespaceURI();
             this.envelope = version.getEnvelope().getLocalPart();
@@ -360,6 +405,11 @@ public class ReadHeadersInterceptor extends AbstractSoapInterceptor {
             while (reader.hasNext()) {
                 switch (event) {
                 case XMLStreamConstants.START_ELEMENT:
+                    if (streamHeaders && header.equals(reader.getLocalName())
+                        && ns.equals(reader.getNamespaceURI())) {
+                        readStreamedHeaders(reader);
+                        break;
+                    }
                     read++;
                     addEvent(eventFactory.createStartElement(new QName(reader.getNamespaceURI(), reader
                                                             .getLocalName(), reader.getPrefix()), null, null));
@@ -456,6 +506,157 @@ public class ReadHeadersInterceptor extends AbstractSoapInterceptor {
             }
         }
 
+        /**
+         * Reads the header elements, the reader is positioned at the soap:Header start
+         * and is left at its end
+         */
+        private void readStreamedHeaders(XMLStreamReader reader) throws XMLStreamException {
+            Map<String, String> namespaces = new LinkedHashMap<>();
+            for (XMLEvent ev : getEnvAttributeAndNamespaceEvents()) {
+                if (ev.isNamespace()) {
+                    Namespace nsEvent = (Namespace)ev;
+                    namespaces.put(toString(nsEvent.getPrefix()), nsEvent.getNamespaceURI());
+                }
+            }
+            for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                String prefix = reader.getNamespacePrefix(i);
+                namespaces.put(prefix == null ? "" : prefix, reader.getNamespaceURI(i));
+            }
+            Map<QName, String> headerAttributes = getAttributes(reader);
+
+            streamedHeaders = new ArrayList<>();
+            int event = reader.next();
+            while (event != XMLStreamConstants.END_ELEMENT) {
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    streamedHeaders.add(readStreamedHeader(reader, namespaces, headerAttributes));
+                }
+                event = reader.next();
+            }
+        }
+
+        private StreamedSoapHeader readStreamedHeader(XMLStreamReader reader,
+                                                      Map<String, String> namespaces,
+                                                      Map<QName, String> headerAttributes)
+            throws XMLStreamException {
+            QName name = new QName(reader.getNamespaceURI(), reader.getLocalName());
+            // the attributes of soap:Header are copied to every header element, as in DOM
+            Map<QName, String> attributes = getAttributes(reader);
+            for (Map.Entry<QName, String> entry : headerAttributes.entrySet()) {
+                attributes.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+            XMLStreamWriter writer = StaxUtils.createXMLStreamWriter(bos);
+            writer.writeStartElement(toString(reader.getPrefix()), name.getLocalPart(),
+                                     toString(name.getNamespaceURI()));
+            Set<String> declared = new HashSet<>();
+            for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                declared.add(toString(reader.getNamespacePrefix(i)));
+            }
+            for (Map.Entry<String, String> entry : namespaces.entrySet()) {
+                if (!declared.contains(entry.getKey())) {
+                    writeNamespace(writer, entry.getKey(), entry.getValue());
+                }
+            }
+            writeNamespaces(reader, writer);
+            for (Map.Entry<QName, String> entry : attributes.entrySet()) {
+                writeAttribute(writer, entry.getKey(), entry.getValue());
+            }
+
+            StringBuilder text = new StringBuilder();
+            boolean hasChildren = false;
+            int depth = 1;
+            while (depth > 0) {
+                switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    hasChildren = true;
+                    depth++;
+                    writer.writeStartElement(toString(reader.getPrefix()), reader.getLocalName(),
+                                             toString(reader.getNamespaceURI()));
+                    writeNamespaces(reader, writer);
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        writeAttribute(writer, reader.getAttributeName(i), reader.getAttributeValue(i));
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    writer.writeEndElement();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                    writer.writeCharacters(reader.getText());
+                    if (depth == 1) {
+                        text.append(reader.getText());
+                    }
+                    break;
+                case XMLStreamConstants.CDATA:
+                    writer.writeCData(reader.getText());
+                    if (depth == 1) {
+                        text.append(reader.getText());
+                    }
+                    break;
+                case XMLStreamConstants.COMMENT:
+                    writer.writeComment(reader.getText());
+                    break;
+                default:
+                    break;
+                }
+            }
+            writer.flush();
+            StaxUtils.close(writer);
+
+            StreamedSoapHeader streamedHeader = new StreamedSoapHeader(name, bos.toByteArray(),
+                hasChildren ? null : text.toString(), attributes);
+            String mu = attributes.get(new QName(version.getNamespace(), version.getAttrNameMustUnderstand()));
+            String act = attributes.get(new QName(version.getNamespace(), version.getAttrNameRole()));
+            if (!StringUtils.isEmpty(act)) {
+                streamedHeader.setActor(act);
+            }
+            streamedHeader.setMustUnderstand(Boolean.valueOf(mu) || "1".equals(mu));
+            return streamedHeader;
+        }
+
+        private static Map<QName, String> getAttributes(XMLStreamReader reader) {
+            Map<QName, String> attributes = new LinkedHashMap<>();
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                attributes.put(reader.getAttributeName(i), reader.getAttributeValue(i));
+            }
+            return attributes;
+        }
+
+        private static void writeNamespaces(XMLStreamReader reader, XMLStreamWriter writer)
+            throws XMLStreamException {
+            for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                writeNamespace(writer, toString(reader.getNamespacePrefix(i)), toString(reader.getNamespaceURI(i)));
+            }
+        }
+
+        private static void writeNamespace(XMLStreamWriter writer, String prefix, String uri)
+            throws XMLStreamException {
+            if (prefix.isEmpty()) {
+                writer.writeDefaultNamespace(uri);
+            } else {
+                writer.writeNamespace(prefix, uri);
+            }
+        }
+
+        private static void writeAttribute(XMLStreamWriter writer, QName name, String value)
+            throws XMLStreamException {
+            if (StringUtils.isEmpty(name.getNamespaceURI())) {
+                writer.writeAttribute(name.getLocalPart(), value);
+            } else {
+                writer.writeAttribute(toString(name.getPrefix()), name.getNamespaceURI(), name.getLocalPart(), value);
+            }
+        }
+
+        private static String toString(String value) {
+            return value == null ? "" : value;
+        }
+
+        public List<StreamedSoapHeader> getStreamedHeaders() {
+            return streamedHeaders;
+        }
+
         public List<XMLEvent> getBodyAttributeAndNamespaceEvents() {
             if (bodyEvents == null) {
                 return Collections.emptyList();
@@ -56,6 +56,7 @@ import org.apache.cxf.binding.soap.Soap12;
 import org.apache.cxf.binding.soap.SoapFault;
 import org.apache.cxf.binding.soap.SoapHeader;
 import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.binding.soap.StreamedSoapHeader;
 import org.apache.cxf.binding.soap.interceptor.AbstractSoapInterceptor;
 import org.apache.cxf.binding.soap.interceptor.ReadHeadersInterceptor;
 import org.apache.cxf.common.i18n.BundleUtils;
@@ -201,6 +202,9 @@ public class SAAJInInterceptor extends AbstractSoapInterceptor {
                 SOAPBody body = soapMessage.getSOAPBody();
                 events = (List<XMLEvent>)message.get(ReadHeadersInterceptor.BODY_EVENTS);
                 applyEvents(events, body);
+                if (node == null && message.hasHeaders()) {
+                    addStreamedHeaders(env, message);
+                }
             }
             message.setContent(Node.class, soapMessage.getSOAPPart());
 
@@ -268,6 +272,19 @@ public class SAAJInInterceptor extends AbstractSoapInterceptor {
         SAAJUtils.adjustPrefix(env.getHeader(), envPrefix);
     }
 
+    private static void addStreamedHeaders(SOAPEnvelope env, SoapMessage message) throws SOAPException {
+        SOAPHeader header = null;
+        for (Header h : message.getHeaders()) {
+            if (h instanceof StreamedSoapHeader) {
+                if (header == null) {
+                    header = env.getHeader() == null ? env.addHeader() : env.getHeader();
+                }
+                Element el = (Element)h.getObject();
+                header.appendChild(header.getOwnerDocument().importNode(el, true));
+            }
+        }
+    }
+
     private static void applyEvents(List<XMLEvent> events, SOAPElement el) throws SOAPException {
         if (events != null) {
             for (XMLEvent ev : events) {
@@ -27,9 +27,11 @@ import java.util.List;
 
 import javax.activation.DataHandler;
 import javax.mail.util.ByteArrayDataSource;
+import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamReader;
 
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 
 import org.apache.cxf.BusFactory;
 import org.apache.cxf.annotations.SchemaValidation.SchemaValidationType;
@@ -52,6 +54,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -219,6 +222,42 @@ public class ReadHeaderInterceptorTest extends TestBase {
         }
     }
 
+    @Test
+    public void testHandleStreamedHeader() throws Exception {
+        prepareSoapMessage("test-soap-header.xml");
+        soapMessage.put(ReadHeadersInterceptor.STREAM_HEADERS, Boolean.TRUE);
+
+        staxIntc.handleMessage(soapMessage);
+        soapMessage.getInterceptorChain().doIntercept(soapMessage);
+        XMLStreamReader xmlReader = soapMessage.getContent(XMLStreamReader.class);
+        assertEquals("check the first entry of body", "itinerary", xmlReader.getLocalName());
+        assertNull(soapMessage.getContent(Node.class));
+
+        List<Header> headers = soapMessage.getHeaders();
+        assertEquals(2, headers.size());
+        StreamedSoapHeader reservation = (StreamedSoapHeader)headers.get(0);
+        assertEquals(new QName("http://travelcompany.example.org/reservation", "reservation"),
+                     reservation.getName());
+        assertTrue(reservation.isMustUnderstand());
+        assertEquals("http://schemas.xmlsoap.org/soap/actor/next", reservation.getActor());
+        assertEquals(Header.Direction.DIRECTION_IN, reservation.getDirection());
+        assertFalse(reservation.isMaterialized());
+        assertNull(reservation.getText());
+
+        Element reference = DOMUtils.getFirstElement((Element)reservation.getObject());
+        assertTrue(reservation.isMaterialized());
+        assertEquals("reference", reference.getLocalName());
+        assertEquals("uuid:093a2da1-q345-739r-ba5d-pqff98fe8j7d", reference.getTextContent());
+        assertEquals("1", ((Element)reservation.getObject()).getAttributeNS(
+            "http://schemas.xmlsoap.org/soap/envelope/", "mustUnderstand"));
+
+        StreamedSoapHeader passenger = (StreamedSoapHeader)headers.get(1);
+        assertEquals("passenger", passenger.getName().getLocalPart());
+        Element name = DOMUtils.getFirstElement((Element)passenger.getObject());
+        assertEquals("name", name.getLocalName());
+        assertEquals("Bob", name.getTextContent());
+    }
+
     private void prepareSoapMessage(String message) throws IOException {
 
         soapMessage = TestUtil.createEmptySoapMessage(Soap12.getInstance(), chain);
@@ -37,18 +37,23 @@ import org.w3c.dom.Node;
 
 import org.apache.cxf.BusFactory;
 import org.apache.cxf.binding.soap.Soap12;
+import org.apache.cxf.binding.soap.StreamedSoapHeader;
 import org.apache.cxf.binding.soap.TestBase;
 import org.apache.cxf.binding.soap.TestUtil;
 import org.apache.cxf.binding.soap.interceptor.CheckFaultInterceptor;
 import org.apache.cxf.binding.soap.interceptor.ReadHeadersInterceptor;
 import org.apache.cxf.binding.soap.interceptor.StartBodyInterceptor;
 import org.apache.cxf.headers.Header;
+import org.apache.cxf.helpers.DOMUtils;
 import org.apache.cxf.interceptor.StaxInInterceptor;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 
@@ -107,6 +112,40 @@ public class SAAJInInterceptorTest extends TestBase {
         assertEquals(2, headerChilds.size());
     }
 
+    @Test
+    public void testHandleStreamedHeader() throws Exception {
+        prepareSoapMessage("../test-soap-header.xml");
+        soapMessage.put(ReadHeadersInterceptor.STREAM_HEADERS, Boolean.TRUE);
+
+        staxIntc.handleMessage(soapMessage);
+        rhi.handleMessage(soapMessage);
+        sbi.handleMessage(soapMessage);
+        assertNull(soapMessage.getContent(Node.class));
+        assertTrue(soapMessage.getHeaders().get(0) instanceof StreamedSoapHeader);
+        saajIntc.handleMessage(soapMessage);
+
+        XMLStreamReader xmlReader = soapMessage.getContent(XMLStreamReader.class);
+        assertEquals("check the first entry of body", "itinerary", xmlReader.getLocalName());
+
+        // the streamed headers are added to the SAAJ envelope
+        SOAPMessage parsedMessage = soapMessage.getContent(SOAPMessage.class);
+        Element reservation = DOMUtils.getFirstElement(parsedMessage.getSOAPHeader());
+        assertEquals("http://travelcompany.example.org/reservation", reservation.getNamespaceURI());
+        assertEquals("reservation", reservation.getLocalName());
+        Element passenger = DOMUtils.getNextElement(reservation);
+        assertEquals("passenger", passenger.getLocalName());
+        assertEquals("Bob", DOMUtils.getFirstElement(passenger).getTextContent());
+        assertNull(DOMUtils.getNextElement(passenger));
+
+        // and replace the streamed headers of the message
+        List<Header> headers = soapMessage.getHeaders();
+        assertEquals(2, headers.size());
+        for (Header hdr : headers) {
+            assertFalse(hdr instanceof StreamedSoapHeader);
+            assertTrue(hdr.getObject() instanceof Element);
+        }
+    }
+
     @Test
     public void testFaultDetail() throws Exception {
         try {
@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.PropertyUtils;
+import org.apache.cxf.databinding.DataBinding;
+import org.apache.cxf.endpoint.Client;
+import org.apache.cxf.endpoint.ClientLifeCycleListener;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.endpoint.ServerLifeCycleListener;
+import org.apache.cxf.workqueue.WorkQueueManager;
+
+/**
+ * Warms up the JAXB contexts of the started endpoints and the created clients in the background
+ * if the {@link #PREWARM_PROPERTY} bus property is set to true.
+ * <p>
+ * The contexts themselves are created when the endpoints and the clients are, the warm-up
+ * initializes the bound classes and creates the first marshaller and unmarshaller so that this
+ * work is not done by the first request. Every context is warmed up once, even if it is shared.
+ * The warm-ups rejected by the work queue are submitted again with the next warm-up.
+ */
+public class JAXBContextPrewarmer implements ServerLifeCycleListener, ClientLifeCycleListener {
+    public static final String PREWARM_PROPERTY = "org.apache.cxf.jaxb.prewarm";
+
+    private static final Logger LOG = LogUtils.getL7dLogger(JAXBContextPrewarmer.class);
+
+    private final Bus bus;
+    private final Set<JAXBContext> warmed = Collections.newSetFromMap(new WeakHashMap<>());
+    private final List<Runnable> rejected = new ArrayList<>();
+
+    public JAXBContextPrewarmer(Bus bus) {
+        this.bus = bus;
+    }
+
+    public void startServer(Server server) {
+        if (isEnabled()) {
+            prewarm(server.getEndpoint());
+        }
+    }
+
+    public void stopServer(Server server) {
+    }
+
+    public void clientCreated(Client client) {
+        if (isEnabled()) {
+            prewarm(client.getEndpoint());
+        }
+    }
+
+    public void clientDestroyed(Client client) {
+    }
+
+    /**
+     * Warms up the JAXB context of a given endpoint on the bus automatic work queue,
+     * does nothing if the endpoint does not use the JAXB data binding
+     */
+    public void prewarm(Endpoint endpoint) {
+        submitRejected();
+        DataBinding db = endpoint == null ? null : endpoint.getService().getDataBinding();
+        if (!(db instanceof JAXBDataBinding)) {
+            return;
+        }
+        JAXBDataBinding binding = (JAXBDataBinding)db;
+        JAXBContext context = binding.getContext();
+        if (context == null) {
+            return;
+        }
+        synchronized (warmed) {
+            if (!warmed.add(context)) {
+                return;
+            }
+        }
+        Set<Class<?>> classes = binding.getContextClasses();
+        submit(() -> prewarm(context, classes));
+    }
+
+    private void submit(Runnable task) {
+        try {
+            getExecutor().execute(task);
+        } catch (RejectedExecutionException ex) {
+            synchronized (rejected) {
+                rejected.add(task);
+            }
+            LOG.fine("JAXB context warm-up has been rejected by the work queue, it will be submitted again");
+        }
+    }
+
+    private void submitRejected() {
+        List<Runnable> tasks;
+        synchronized (rejected) {
+            if (rejected.isEmpty()) {
+                return;
+            }
+            tasks = new ArrayList<>(rejected);
+            rejected.clear();
+        }
+        for (Runnable task : tasks) {
+            submit(task);
+        }
+    }
+
+    static void prewarm(JAXBContext context, Set<Class<?>> classes) {
+        long start = System.nanoTime();
+        try {
+            if (classes != null) {
+                for (Class<?> cls : classes) {
+                    if (!cls.isPrimitive() && !cls.isArray()) {
+                        Class.forName(cls.getName(), true, cls.getClassLoader());
+                    }
+                }
+            }
+            context.createMarshaller();
+            context.createUnmarshaller();
+        } catch (ClassNotFoundException | JAXBException | LinkageError ex) {
+            LOG.log(Level.FINE, "JAXB context warm-up has failed", ex);
+            return;
+        }
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("JAXB context with " + (classes == null ? 0 : classes.size()) + " classes has been warmed up in "
+                     + (System.nanoTime() - start) / 1000000L + " ms");
+        }
+    }
+
+    private boolean isEnabled() {
+        return PropertyUtils.isTrue(bus.getProperty(PREWARM_PROPERTY));
+    }
+
+    private Executor getExecutor() {
+        WorkQueueManager manager = bus.getExtension(WorkQueueManager.class);
+        if (manager != null) {
+            return manager.getAutomaticWorkQueue();
+        }
+        return task -> {
+            Thread thread = new Thread(task, "cxf-jaxb-prewarm");
+            thread.setDaemon(true);
+            thread.start();
+        };
+    }
+}
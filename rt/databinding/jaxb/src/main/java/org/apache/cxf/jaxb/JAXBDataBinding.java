@@ -212,6 +212,7 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
     private boolean unwrapJAXBElement = true;
     private boolean scanPackages = true;
     private boolean qualifiedSchemas;
+    private boolean compileWrapperHelpers = true;
 
     public JAXBDataBinding() {
     }
@@ -644,6 +645,18 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
         this.unwrapJAXBElement = unwrapJAXBElement;
     }
 
+    public boolean isCompileWrapperHelpers() {
+        return compileWrapperHelpers;
+    }
+
+    /**
+     * Sets if the wrapper helpers should be generated with ASM, true by default. Otherwise, or if
+     * ASM is not available, the wrapper parts are accessed through the method handles.
+     */
+    public void setCompileWrapperHelpers(boolean compileWrapperHelpers) {
+        this.compileWrapperHelpers = compileWrapperHelpers;
+    }
+
     public WrapperHelper createWrapperHelper(Class<?> wrapperType, QName wrapperName, List<String> partNames,
                                              List<String> elTypeNames, List<Class<?>> partClasses) {
         List<Method> getMethods = new ArrayList<>(partNames.size());
@@ -838,13 +851,19 @@ public class JAXBDataBinding extends AbstractInterceptorProvidingDataBinding
     }
 
 
-    private static WrapperHelper createWrapperHelper(Class<?> wrapperType, Method[] setMethods,
-                                                     Method[] getMethods, Method[] jaxbMethods,
-                                                     Field[] fields, Object objectFactory) {
-
-        WrapperHelper wh = compileWrapperHelper(wrapperType, setMethods, getMethods, jaxbMethods, fields,
-                                                objectFactory);
+    private WrapperHelper createWrapperHelper(Class<?> wrapperType, Method[] setMethods,
+                                              Method[] getMethods, Method[] jaxbMethods,
+                                              Field[] fields, Object objectFactory) {
 
+        WrapperHelper wh = null;
+        if (compileWrapperHelpers) {
+            wh = compileWrapperHelper(wrapperType, setMethods, getMethods, jaxbMethods, fields,
+                                      objectFactory);
+        }
+        if (wh == null) {
+            wh = MethodHandleWrapperHelper.create(wrapperType, setMethods, getMethods, jaxbMethods, fields,
+                                                  objectFactory);
+        }
         if (wh == null) {
             wh = new JAXBWrapperHelper(wrapperType, setMethods, getMethods, jaxbMethods, fields,
                                        objectFactory);
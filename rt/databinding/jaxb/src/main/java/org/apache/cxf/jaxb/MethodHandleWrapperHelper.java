@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxb;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.JAXBElement;
+
+import org.apache.cxf.databinding.AbstractWrapperHelper;
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.interceptor.Fault;
+
+/**
+ * Wrapper helper which accesses the wrapper parts through method handles created once per
+ * wrapper type, it is used when the helper can not be generated with {@link WrapperHelperCompiler},
+ * for example, if ASM is not available. It behaves exactly like {@link JAXBWrapperHelper}.
+ */
+final class MethodHandleWrapperHelper extends AbstractWrapperHelper {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE =
+        MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodHandle JAXB_ELEMENT_VALUE;
+    static {
+        try {
+            JAXB_ELEMENT_VALUE = MethodHandles.lookup().findStatic(MethodHandleWrapperHelper.class,
+                "getJAXBElementValue", MethodType.methodType(Object.class, JAXBElement.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private final MethodHandle constructor;
+    private final boolean[] skipped;
+    // the getters return the JAXBElement values, the collection getters return the JAXBElements as is
+    private final MethodHandle[] getters;
+    private final MethodHandle[] collectionGetters;
+    private final MethodHandle[] setters;
+    private final MethodHandle[] fieldSetters;
+    private final MethodHandle[] jaxbElementFactories;
+
+    private MethodHandleWrapperHelper(Class<?> wrapperType, Method[] setMethods, Method[] getMethods,
+                                      Method[] jaxbMethods, Field[] fields, Object objectFactory)
+        throws ReflectiveOperationException {
+        super(wrapperType, setMethods, getMethods, fields);
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        constructor = lookup.findConstructor(wrapperType, MethodType.methodType(void.class))
+            .asType(MethodType.methodType(Object.class));
+        int size = setMethods.length;
+        skipped = new boolean[size];
+        getters = new MethodHandle[size];
+        collectionGetters = new MethodHandle[size];
+        setters = new MethodHandle[size];
+        fieldSetters = new MethodHandle[size];
+        jaxbElementFactories = new MethodHandle[size];
+        for (int x = 0; x < size; x++) {
+            skipped[x] = getMethods[x] == null && setMethods[x] == null && fields[x] == null;
+            if (getMethods[x] != null) {
+                MethodHandle getter = lookup.unreflect(getMethods[x]);
+                collectionGetters[x] = getter.asType(GETTER_TYPE);
+                if (JAXBElement.class.equals(getMethods[x].getReturnType())) {
+                    getter = MethodHandles.filterReturnValue(getter, JAXB_ELEMENT_VALUE);
+                }
+                getters[x] = getter.asType(GETTER_TYPE);
+            } else if (fields[x] != null) {
+                // the fields have been made accessible
+                getters[x] = MethodHandles.lookup().unreflectGetter(fields[x]).asType(GETTER_TYPE);
+            }
+            if (setMethods[x] != null) {
+                setters[x] = lookup.unreflect(setMethods[x]).asType(SETTER_TYPE);
+            }
+            if (fields[x] != null) {
+                fieldSetters[x] = MethodHandles.lookup().unreflectSetter(fields[x]).asType(SETTER_TYPE);
+            }
+            if (jaxbMethods[x] != null) {
+                jaxbElementFactories[x] = lookup.unreflect(jaxbMethods[x]).bindTo(objectFactory)
+                    .asType(GETTER_TYPE);
+            }
+        }
+    }
+
+    /**
+     * Returns the helper or null if some of the wrapper accessors are not accessible
+     */
+    static MethodHandleWrapperHelper create(Class<?> wrapperType, Method[] setMethods, Method[] getMethods,
+                                            Method[] jaxbMethods, Field[] fields, Object objectFactory) {
+        try {
+            return new MethodHandleWrapperHelper(wrapperType, setMethods, getMethods, jaxbMethods, fields,
+                                                 objectFactory);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public Object createWrapperObject(List<?> lst) throws Fault {
+        try {
+            Object wrapperObject = (Object)constructor.invokeExact();
+            for (int x = 0; x < skipped.length; x++) {
+                if (skipped[x]) {
+                    //this part is a header or something
+                    //that is not part of the wrapper.
+                    continue;
+                }
+                Object o = lst.get(x);
+                if (jaxbElementFactories[x] != null) {
+                    o = (Object)jaxbElementFactories[x].invokeExact(o);
+                }
+                if (o instanceof List && collectionGetters[x] != null) {
+                    Object current = (Object)collectionGetters[x].invokeExact(wrapperObject);
+                    List<Object> col = CastUtils.cast((List<?>)current);
+                    if (col == null) {
+                        //broken generated java wrappers
+                        if (setters[x] != null) {
+                            setters[x].invokeExact(wrapperObject, o);
+                        } else if (fieldSetters[x] != null) {
+                            fieldSetters[x].invokeExact(wrapperObject, (Object)lst.get(x));
+                        }
+                    } else {
+                        List<Object> olst = CastUtils.cast((List<?>)o);
+                        col.addAll(olst);
+                    }
+                } else if (setters[x] != null) {
+                    setters[x].invokeExact(wrapperObject, o);
+                } else if (fieldSetters[x] != null) {
+                    fieldSetters[x].invokeExact(wrapperObject, (Object)lst.get(x));
+                }
+            }
+            return wrapperObject;
+        } catch (Throwable t) {
+            throw new Fault(t);
+        }
+    }
+
+    @Override
+    public List<Object> getWrapperParts(Object o) throws Fault {
+        try {
+            List<Object> ret = new ArrayList<>(getters.length);
+            for (MethodHandle getter : getters) {
+                //null getter is a placeholder
+                ret.add(getter == null ? null : (Object)getter.invokeExact(o));
+            }
+            return ret;
+        } catch (Throwable t) {
+            throw new Fault(t);
+        }
+    }
+
+    @Override
+    protected Object createWrapperObject(Class<?> typeClass) throws Exception {
+        return typeClass.newInstance();
+    }
+
+    @Override
+    protected Object getWrapperObject(Object object) {
+        return object;
+    }
+
+    private static Object getJAXBElementValue(JAXBElement<?> je) {
+        return je == null ? null : je.getValue();
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Client;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.service.Service;
+import org.apache.cxf.workqueue.AutomaticWorkQueue;
+import org.apache.cxf.workqueue.WorkQueueManager;
+
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JAXBContextPrewarmerTest {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private Object prewarmProperty;
+    private boolean reject;
+    private int rejected;
+    private JAXBContextPrewarmer prewarmer;
+
+    @Before
+    public void setUp() {
+        AutomaticWorkQueue queue = EasyMock.createMock(AutomaticWorkQueue.class);
+        queue.execute(EasyMock.anyObject(Runnable.class));
+        EasyMock.expectLastCall().andStubAnswer(() -> {
+            if (reject) {
+                rejected++;
+                throw new RejectedExecutionException();
+            }
+            tasks.add((Runnable)EasyMock.getCurrentArguments()[0]);
+            return null;
+        });
+        WorkQueueManager manager = EasyMock.createMock(WorkQueueManager.class);
+        EasyMock.expect(manager.getAutomaticWorkQueue()).andStubReturn(queue);
+        Bus bus = EasyMock.createMock(Bus.class);
+        EasyMock.expect(bus.getExtension(WorkQueueManager.class)).andStubReturn(manager);
+        EasyMock.expect(bus.getProperty(JAXBContextPrewarmer.PREWARM_PROPERTY)).andStubAnswer(() -> prewarmProperty);
+        EasyMock.replay(queue, manager, bus);
+        prewarmer = new JAXBContextPrewarmer(bus);
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        Server server = createServer(new JAXBDataBinding(Foo.class));
+        prewarmer.startServer(server);
+        assertTrue(tasks.isEmpty());
+
+        prewarmProperty = "true";
+        prewarmer.startServer(server);
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+    }
+
+    @Test
+    public void testSharedContextWarmedUpOnce() throws Exception {
+        prewarmProperty = Boolean.TRUE;
+        JAXBDataBinding shared = new JAXBDataBinding(Foo.class);
+        prewarmer.startServer(createServer(shared));
+        prewarmer.clientCreated(createClient(shared));
+        prewarmer.clientCreated(createClient(new JAXBDataBinding(shared.getContext())));
+        assertEquals(1, tasks.size());
+
+        prewarmer.clientCreated(createClient(new JAXBDataBinding(Bar.class)));
+        assertEquals(2, tasks.size());
+        for (Runnable task : tasks) {
+            task.run();
+        }
+    }
+
+    @Test
+    public void testRejectedWarmUpSubmittedAgain() throws Exception {
+        prewarmProperty = Boolean.TRUE;
+        reject = true;
+        Server server = createServer(new JAXBDataBinding(Foo.class));
+        prewarmer.startServer(server);
+        assertEquals(1, rejected);
+        assertTrue(tasks.isEmpty());
+
+        // still rejected with the next warm-up
+        prewarmer.clientCreated(createClient(new JAXBDataBinding(Bar.class)));
+        assertEquals(3, rejected);
+
+        reject = false;
+        prewarmer.startServer(server);
+        assertEquals(2, tasks.size());
+        // the rejected warm-ups are not submitted again once accepted
+        prewarmer.startServer(server);
+        assertEquals(2, tasks.size());
+        for (Runnable task : tasks) {
+            task.run();
+        }
+    }
+
+    private static Server createServer(JAXBDataBinding binding) {
+        Server server = EasyMock.createMock(Server.class);
+        EasyMock.expect(server.getEndpoint()).andStubReturn(createEndpoint(binding));
+        EasyMock.replay(server);
+        return server;
+    }
+
+    private static Client createClient(JAXBDataBinding binding) {
+        Client client = EasyMock.createMock(Client.class);
+        EasyMock.expect(client.getEndpoint()).andStubReturn(createEndpoint(binding));
+        EasyMock.replay(client);
+        return client;
+    }
+
+    private static Endpoint createEndpoint(JAXBDataBinding binding) {
+        Service service = EasyMock.createMock(Service.class);
+        EasyMock.expect(service.getDataBinding()).andStubReturn(binding);
+        Endpoint endpoint = EasyMock.createMock(Endpoint.class);
+        EasyMock.expect(endpoint.getService()).andStubReturn(service);
+        EasyMock.replay(service, endpoint);
+        return endpoint;
+    }
+
+    @XmlRootElement
+    public static class Foo {
+    }
+
+    @XmlRootElement
+    public static class Bar {
+    }
+}
@@ -93,6 +93,35 @@ public class JAXBWrapperHelperTest {
         assertEquals("hello", ok.getParameter4());
     }
 
+    @Test
+    public void testMethodHandleWrapperHelper() throws Exception {
+        JAXBDataBinding databinding = new JAXBDataBinding();
+        databinding.setCompileWrapperHelpers(false);
+        WrapperHelper wh = databinding.createWrapperHelper(SetIsOK.class, null,
+            Arrays.asList("Parameter1", "Parameter2", "Parameter3", "Parameter4", "Parameter5", null),
+            Arrays.asList("boolean", "int", "boolean", "string", "string", null),
+            Arrays.asList(Boolean.TYPE, Integer.TYPE, boolean[].class, String.class, List.class, String.class));
+        assertTrue(wh instanceof MethodHandleWrapperHelper);
+
+        SetIsOK ok = new SetIsOK();
+        ok.setParameter2(2);
+        ok.setParameter4("hello");
+        ok.getParameter5().add("a");
+        List<Object> lst = wh.getWrapperParts(ok);
+        assertEquals(Arrays.asList(Boolean.FALSE, 2, null, "hello", Arrays.asList("a"), null), lst);
+
+        lst.set(0, Boolean.TRUE);
+        lst.set(2, new boolean[] {true});
+        lst.set(4, Arrays.asList("b", "c"));
+        lst.set(5, "header");
+        ok = (SetIsOK)wh.createWrapperObject(lst);
+        assertTrue(ok.isParameter1());
+        assertEquals(2, ok.getParameter2());
+        assertTrue(ok.getParameter3()[0]);
+        assertEquals("hello", ok.getParameter4());
+        assertEquals(Arrays.asList("b", "c"), ok.getParameter5());
+    }
+
 
     @XmlAccessorType(XmlAccessType.FIELD)
     @XmlType(name = "", propOrder = { "parameter1", "parameter2", "parameter3", "parameter4" })
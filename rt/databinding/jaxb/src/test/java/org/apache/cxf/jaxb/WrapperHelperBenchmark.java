@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxb;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.cxf.databinding.WrapperHelper;
+import org.apache.cxf.helpers.FileUtils;
+
+/**
+ * Compares the wrapper helper generated with ASM, {@link MethodHandleWrapperHelper} and the
+ * reflective {@link JAXBWrapperHelper} for the wrappers with 1, 10 and 50 parts. The wrapper
+ * classes are compiled when the benchmark starts, so it needs to run on a JDK. Not run as part
+ * of the build, start it manually from the test classpath.
+ */
+public final class WrapperHelperBenchmark {
+    private static final int[] PARTS = {1, 10, 50};
+    private static final int WARMUP = 200000;
+    private static final int ITERATIONS = 1000000;
+
+    private static volatile Object sink;
+
+    private WrapperHelperBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File dir = Files.createTempDirectory("wrapper-benchmark").toFile();
+        try {
+            for (int parts : PARTS) {
+                Class<?> wrapperType = compileWrapper(dir, parts);
+                Method[] setMethods = new Method[parts];
+                Method[] getMethods = new Method[parts];
+                Field[] fields = new Field[parts];
+                for (int i = 0; i < parts; ++i) {
+                    setMethods[i] = wrapperType.getMethod("setPart" + i, String.class);
+                    getMethods[i] = wrapperType.getMethod("getPart" + i);
+                    fields[i] = wrapperType.getDeclaredField("part" + i);
+                    fields[i].setAccessible(true);
+                }
+                Method[] jaxbMethods = new Method[parts];
+
+                WrapperHelper compiled = WrapperHelperCompiler.compileWrapperHelper(wrapperType, setMethods,
+                    getMethods, jaxbMethods, fields, null);
+                WrapperHelper methodHandles = MethodHandleWrapperHelper.create(wrapperType, setMethods,
+                    getMethods, jaxbMethods, fields, null);
+                WrapperHelper reflective = new JAXBWrapperHelper(wrapperType, setMethods, getMethods,
+                    jaxbMethods, fields, null);
+
+                List<Object> values = methodHandles.getWrapperParts(wrapperType.newInstance());
+                for (int i = 0; i < parts; ++i) {
+                    values.set(i, "value" + i);
+                }
+                System.out.println(String.format("%2d parts: asm %s, method handles %s, reflection %s", parts,
+                    compiled == null ? "n/a" : format(measure(compiled, values)),
+                    format(measure(methodHandles, values)), format(measure(reflective, values))));
+            }
+        } finally {
+            FileUtils.removeDir(dir);
+        }
+    }
+
+    // returns the time of a wrapper creation followed by the parts extraction in nanoseconds
+    private static double measure(WrapperHelper helper, List<Object> values) throws Exception {
+        for (int i = 0; i < WARMUP; ++i) {
+            sink = helper.getWrapperParts(helper.createWrapperObject(values));
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; ++i) {
+            sink = helper.getWrapperParts(helper.createWrapperObject(values));
+        }
+        return (System.nanoTime() - started) / (double)ITERATIONS;
+    }
+
+    private static String format(double nanos) {
+        return String.format("%8.1f ns", nanos);
+    }
+
+    private static Class<?> compileWrapper(File dir, int parts) throws Exception {
+        String name = "Wrapper" + parts;
+        StringBuilder source = new StringBuilder();
+        source.append("package org.apache.cxf.jaxb.benchmark;\n")
+            .append("@javax.xml.bind.annotation.XmlRootElement\n")
+            .append("public class ").append(name).append(" {\n");
+        for (int i = 0; i < parts; ++i) {
+            source.append("    private String part").append(i).append(";\n")
+                .append("    public String getPart").append(i).append("() { return part").append(i).append("; }\n")
+                .append("    public void setPart").append(i).append("(String v) { part").append(i)
+                .append(" = v; }\n");
+        }
+        source.append("}\n");
+        File file = new File(dir, "org/apache/cxf/jaxb/benchmark/" + name + ".java");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), source.toString().getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null
+            || compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"),
+                            file.getPath()) != 0) {
+            throw new IllegalStateException("The wrapper class can not be compiled");
+        }
+        ClassLoader loader = new URLClassLoader(new URL[] {dir.toURI().toURL()},
+                                                WrapperHelperBenchmark.class.getClassLoader());
+        return loader.loadClass("org.apache.cxf.jaxb.benchmark." + name);
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.clustering;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.apache.cxf.endpoint.Endpoint;
+
+/**
+ * Base class for the strategies selecting a target based on how each alternate
+ * address is actually performing. The in-flight count and the response time of every
+ * address are reported by the target selectors from the exchange lifecycle, and
+ * are kept in lock-free per-address statistics so that selecting a target never blocks.
+ * <p/>
+ * Unlike the failover strategies, these strategies are meant to be consulted on every
+ * request, e.g. by the LoadDistributorTargetSelector or the CircuitBreakerTargetSelector,
+ * so the alternate addresses should list every replica including the default one.
+ */
+public abstract class AbstractLoadAwareStrategy extends AbstractStaticFailoverStrategy {
+
+    private final ConcurrentMap<String, AddressStatistics> statistics = new ConcurrentHashMap<>();
+    private double latencyWeight = 0.3;
+    private long failurePenalty = 1000L;
+
+    /**
+     * Sets the weight given to a new response time sample when updating the exponentially
+     * weighted moving average of an address.
+     *
+     * @param weight a value greater than 0 and up to 1
+     */
+    public void setLatencyWeight(double weight) {
+        if (weight <= 0 || weight > 1) {
+            throw new IllegalArgumentException("The latency weight must be in (0, 1]");
+        }
+        this.latencyWeight = weight;
+    }
+
+    public double getLatencyWeight() {
+        return latencyWeight;
+    }
+
+    /**
+     * Sets the response time in milliseconds accounted for a failed invocation, so that
+     * an address failing fast does not look like the fastest one.
+     *
+     * @param penalty the penalty in milliseconds
+     */
+    public void setFailurePenalty(long penalty) {
+        this.failurePenalty = penalty;
+    }
+
+    public long getFailurePenalty() {
+        return failurePenalty;
+    }
+
+    /**
+     * Called by the target selector when an invocation is sent to the given address.
+     *
+     * @param address the target address
+     */
+    public void invocationStarted(String address) {
+        getStatistics(address).inFlight.incrementAndGet();
+    }
+
+    /**
+     * Called by the target selector when an invocation sent to the given address has completed.
+     *
+     * @param address the target address
+     * @param durationNanos the response time in nanoseconds
+     * @param failed true if the invocation failed
+     */
+    public void invocationCompleted(String address, long durationNanos, boolean failed) {
+        AddressStatistics stats = getStatistics(address);
+        stats.inFlight.decrementAndGet();
+        long sample = durationNanos;
+        if (failed) {
+            stats.failed.incrementAndGet();
+            sample = Math.max(sample, failurePenalty * 1000000L);
+        } else {
+            stats.completed.incrementAndGet();
+        }
+        stats.updateLatency(sample, latencyWeight);
+    }
+
+    /**
+     * Returns the statistics recorded for the given address.
+     *
+     * @param address the target address
+     * @return the statistics, never null
+     */
+    public AddressStatistics getStatistics(String address) {
+        AddressStatistics stats = statistics.get(address);
+        if (stats == null) {
+            stats = new AddressStatistics();
+            AddressStatistics existing = statistics.putIfAbsent(address, stats);
+            if (existing != null) {
+                stats = existing;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Get next alternate endpoint, removing it from the list as the failover strategies do.
+     *
+     * @param alternates non-empty List of alternate endpoints
+     * @return
+     */
+    protected <T> T getNextAlternate(List<T> alternates) {
+        return alternates.remove(selectAlternateIndex(alternates));
+    }
+
+    /**
+     * Select the index of the next alternate.
+     *
+     * @param alternates non-empty List of alternate addresses or endpoints
+     * @return the index of the selected alternate
+     */
+    protected abstract int selectAlternateIndex(List<?> alternates);
+
+    protected AddressStatistics getAlternateStatistics(Object alternate) {
+        return getStatistics(getAddress(alternate));
+    }
+
+    protected static String getAddress(Object alternate) {
+        return alternate instanceof Endpoint
+            ? ((Endpoint)alternate).getEndpointInfo().getAddress() : (String)alternate;
+    }
+
+    /**
+     * The targets are selected on every request, so the selection is not worth a warning.
+     */
+    @Override
+    protected Level getLogLevel() {
+        return Level.FINE;
+    }
+
+    /**
+     * The per-address in-flight count, outcome counts and moving average of the response time.
+     */
+    public static final class AddressStatistics {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        // -1 until the first response time has been recorded
+        private final AtomicLong averageLatency = new AtomicLong(-1);
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        public long getCompleted() {
+            return completed.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        /**
+         * @return the moving average of the response time in nanoseconds, or -1 if unknown
+         */
+        public long getAverageLatency() {
+            return averageLatency.get();
+        }
+
+        void updateLatency(long sample, double weight) {
+            while (true) {
+                long current = averageLatency.get();
+                long next = current < 0 ? sample : current + (long)((sample - current) * weight);
+                if (averageLatency.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -121,7 +121,9 @@ public class CircuitBreakerTargetSelector extends FailoverTargetSelector {
         if (invocation != null && !invocation.getContext().containsKey(IS_SELECTED)) {
             final String address = (String) message.get(Message.ENDPOINT_ADDRESS);
 
-            if (isFailoverRequired(address)) {
+            // a load aware strategy selects one of the addresses with a closed circuit on every request
+            final boolean distribute = getStrategy() instanceof AbstractLoadAwareStrategy;
+            if (distribute || isFailoverRequired(address)) {
                 Endpoint target = getFailoverTarget(exchange, invocation);
 
                 if (target == null) {
@@ -134,6 +136,9 @@ public class CircuitBreakerTargetSelector extends FailoverTargetSelector {
                     message.put(Message.ENDPOINT_ADDRESS, target.getEndpointInfo().getAddress());
                     overrideAddressProperty(invocation.getContext());
                     invocation.getContext().put(IS_SELECTED, null);
+                } else if (distribute) {
+                    // the retries of this invocation are driven by the failover
+                    invocation.getContext().put(IS_SELECTED, null);
                 }
             }
         }
@@ -50,6 +50,10 @@ public class FailoverTargetSelector extends AbstractConduitSelector {
     private static final Logger LOG = LogUtils.getL7dLogger(FailoverTargetSelector.class);
     private static final String COMPLETE_IF_SERVICE_NOT_AVAIL_PROPERTY =
         "org.apache.cxf.transport.complete_if_service_not_available";
+    private static final String TRACKED_ADDRESS =
+        "org.apache.cxf.clustering.FailoverTargetSelector.TRACKED_ADDRESS";
+    private static final String TRACKED_START =
+        "org.apache.cxf.clustering.FailoverTargetSelector.TRACKED_START";
 
     protected FailoverStrategy failoverStrategy;
     private ConcurrentHashMap<String, InvocationContext> inProgress = new ConcurrentHashMap<>();
@@ -137,6 +141,52 @@ public class FailoverTargetSelector extends AbstractConduitSelector {
         return getSelectedConduit(message);
     }
 
+    @Override
+    protected Conduit getSelectedConduit(Message message) {
+        Conduit c = super.getSelectedConduit(message);
+        invocationStarted(message);
+        return c;
+    }
+
+    /**
+     * Reports the start of an invocation to the selected address to a load aware strategy.
+     * The address is taken from the message rather than from the shared endpoint which
+     * the concurrent failovers may be changing.
+     *
+     * @param message the current request
+     */
+    protected void invocationStarted(Message message) {
+        FailoverStrategy strategy = failoverStrategy;
+        Exchange exchange = message.getExchange();
+        if (strategy instanceof AbstractLoadAwareStrategy && exchange != null
+            && exchange.get(TRACKED_ADDRESS) == null) {
+            String address = (String)message.get(Message.ENDPOINT_ADDRESS);
+            if (address == null) {
+                address = getEndpoint().getEndpointInfo().getAddress();
+            }
+            if (address != null) {
+                ((AbstractLoadAwareStrategy)strategy).invocationStarted(address);
+                exchange.put(TRACKED_ADDRESS, address);
+                exchange.put(TRACKED_START, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Reports the outcome and the response time of an invocation to a load aware strategy.
+     *
+     * @param exchange the completed Exchange
+     */
+    protected void invocationCompleted(Exchange exchange) {
+        String address = (String)exchange.remove(TRACKED_ADDRESS);
+        Long start = (Long)exchange.remove(TRACKED_START);
+        FailoverStrategy strategy = failoverStrategy;
+        if (address != null && start != null && strategy instanceof AbstractLoadAwareStrategy) {
+            boolean failed = exchange.getOutMessage() != null && getExceptionIfPresent(exchange) != null;
+            ((AbstractLoadAwareStrategy)strategy).invocationCompleted(address, System.nanoTime() - start, failed);
+        }
+    }
+
     protected InvocationContext getInvocationContext(String key) {
         if (key != null) {
             return inProgress.get(key);
@@ -150,6 +200,7 @@ public class FailoverTargetSelector extends AbstractConduitSelector {
      * @param exchange represents the completed MEP
      */
     public void complete(Exchange exchange) {
+        invocationCompleted(exchange);
         String key = String.valueOf(System.identityHashCode(exchange));
         InvocationContext invocation = getInvocationContext(key);
         if (invocation == null) {
@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.clustering;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Strategy applying the power of two choices to the exponentially weighted moving average
+ * of the response time: two alternates are picked at random and the one with the lower
+ * expected latency, given the invocations it has in progress, is selected.
+ * Alternates without any recorded response time are preferred so that they get probed.
+ */
+public class LatencyAwareStrategy extends AbstractLoadAwareStrategy {
+
+    protected int selectAlternateIndex(List<?> alternates) {
+        int size = alternates.size();
+        if (size == 1) {
+            return 0;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        return getCost(alternates.get(second)) < getCost(alternates.get(first)) ? second : first;
+    }
+
+    protected double getCost(Object alternate) {
+        AddressStatistics stats = getAlternateStatistics(alternate);
+        long latency = stats.getAverageLatency();
+        if (latency < 0) {
+            return 0;
+        }
+        return (double)latency * (stats.getInFlight() + 1);
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.clustering;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Strategy selecting the alternate address with the fewest invocations
+ * in progress, ties being broken randomly so that idle replicas share the load.
+ */
+public class LeastOutstandingRequestsStrategy extends AbstractLoadAwareStrategy {
+
+    protected int selectAlternateIndex(List<?> alternates) {
+        int selected = 0;
+        int lowest = Integer.MAX_VALUE;
+        int ties = 0;
+        for (int i = 0; i < alternates.size(); i++) {
+            int inFlight = getAlternateStatistics(alternates.get(i)).getInFlight();
+            if (inFlight < lowest) {
+                lowest = inFlight;
+                selected = i;
+                ties = 1;
+            } else if (inFlight == lowest && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                // reservoir sampling over the equally loaded alternates
+                selected = i;
+            }
+        }
+        return selected;
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.cxf.clustering;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -189,6 +190,11 @@ public class LoadDistributorTargetSelector extends FailoverTargetSelector {
             }
         }
         alternateAddresses = addressList;
+        if (alternateAddresses != null && getStrategy() instanceof AbstractLoadAwareStrategy) {
+            // a load aware strategy picks from all the addresses on every request
+            // rather than walking through the list
+            alternateAddresses = new ArrayList<>(alternateAddresses);
+        }
 
         if ((alternateAddresses == null) || (alternateAddresses.isEmpty())) {
             alternateAddresses = getStrategy().getAlternateAddresses(exchange);
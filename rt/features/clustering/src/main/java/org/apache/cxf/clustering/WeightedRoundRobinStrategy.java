@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.clustering;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strategy distributing the invocations over the alternate addresses in proportion
+ * to their configured weights. Addresses without a configured weight have a weight of 1.
+ */
+public class WeightedRoundRobinStrategy extends AbstractLoadAwareStrategy {
+
+    private final AtomicLong counter = new AtomicLong();
+    private Map<String, Integer> weights = Collections.emptyMap();
+
+    /**
+     * Sets the weight of each address.
+     *
+     * @param weights the weights keyed by address, each one being greater than 0
+     */
+    public void setWeights(Map<String, Integer> weights) {
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0) {
+                throw new IllegalArgumentException("Invalid weight for address " + entry.getKey());
+            }
+        }
+        this.weights = new HashMap<>(weights);
+    }
+
+    public Map<String, Integer> getWeights() {
+        return Collections.unmodifiableMap(weights);
+    }
+
+    protected int selectAlternateIndex(List<?> alternates) {
+        int total = 0;
+        for (Object alternate : alternates) {
+            total += getWeight(alternate);
+        }
+        long position = Math.floorMod(counter.getAndIncrement(), (long)total);
+        for (int i = 0; i < alternates.size(); i++) {
+            position -= getWeight(alternates.get(i));
+            if (position < 0) {
+                return i;
+            }
+        }
+        return alternates.size() - 1;
+    }
+
+    protected int getWeight(Object alternate) {
+        Integer weight = weights.get(getAddress(alternate));
+        return weight == null ? 1 : weight;
+    }
+}
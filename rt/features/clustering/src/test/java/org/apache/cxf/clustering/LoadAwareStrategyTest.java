@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.clustering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class LoadAwareStrategyTest {
+    private static final String ADDRESS1 = "http://localhost:9001/service";
+    private static final String ADDRESS2 = "http://localhost:9002/service";
+    private static final String ADDRESS3 = "http://localhost:9003/service";
+
+    @Test
+    public void testLeastOutstandingRequests() {
+        LeastOutstandingRequestsStrategy strategy = new LeastOutstandingRequestsStrategy();
+        strategy.invocationStarted(ADDRESS1);
+        strategy.invocationStarted(ADDRESS1);
+        strategy.invocationStarted(ADDRESS3);
+
+        assertEquals(ADDRESS2, strategy.selectAlternateAddress(addresses()));
+
+        strategy.invocationStarted(ADDRESS2);
+        strategy.invocationStarted(ADDRESS2);
+        strategy.invocationCompleted(ADDRESS1, 1000L, false);
+        strategy.invocationCompleted(ADDRESS1, 1000L, false);
+        assertEquals(ADDRESS1, strategy.selectAlternateAddress(addresses()));
+        assertEquals(2, strategy.getStatistics(ADDRESS1).getCompleted());
+        assertEquals(0, strategy.getStatistics(ADDRESS1).getInFlight());
+    }
+
+    @Test
+    public void testSelectedAlternateIsRemoved() {
+        List<String> alternates = addresses();
+        String selected = new LeastOutstandingRequestsStrategy().selectAlternateAddress(alternates);
+        assertEquals(2, alternates.size());
+        assertFalse(alternates.contains(selected));
+    }
+
+    @Test
+    public void testLatencyAwarePrefersFasterAddress() {
+        LatencyAwareStrategy strategy = new LatencyAwareStrategy();
+        record(strategy, ADDRESS1, 5000000L);
+        record(strategy, ADDRESS2, 100000L);
+
+        // with two alternates both are always compared
+        for (int i = 0; i < 20; i++) {
+            assertEquals(ADDRESS2, strategy.selectAlternateAddress(
+                new ArrayList<>(Arrays.asList(ADDRESS1, ADDRESS2))));
+        }
+
+        // a failure is accounted with the penalty
+        strategy.invocationStarted(ADDRESS2);
+        strategy.invocationCompleted(ADDRESS2, 1000L, true);
+        assertEquals(ADDRESS1, strategy.selectAlternateAddress(
+            new ArrayList<>(Arrays.asList(ADDRESS1, ADDRESS2))));
+        assertEquals(1, strategy.getStatistics(ADDRESS2).getFailed());
+    }
+
+    @Test
+    public void testLatencyAwareProbesUnknownAddress() {
+        LatencyAwareStrategy strategy = new LatencyAwareStrategy();
+        record(strategy, ADDRESS1, 100000L);
+        assertEquals(ADDRESS2, strategy.selectAlternateAddress(
+            new ArrayList<>(Arrays.asList(ADDRESS1, ADDRESS2))));
+    }
+
+    @Test
+    public void testWeightedRoundRobin() {
+        WeightedRoundRobinStrategy strategy = new WeightedRoundRobinStrategy();
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put(ADDRESS1, 3);
+        weights.put(ADDRESS3, 2);
+        strategy.setWeights(weights);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 60; i++) {
+            counts.merge(strategy.selectAlternateAddress(addresses()), 1, Integer::sum);
+        }
+        assertEquals(Integer.valueOf(30), counts.get(ADDRESS1));
+        assertEquals(Integer.valueOf(10), counts.get(ADDRESS2));
+        assertEquals(Integer.valueOf(20), counts.get(ADDRESS3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWeight() {
+        new WeightedRoundRobinStrategy().setWeights(Collections.singletonMap(ADDRESS1, 0));
+    }
+
+    private static void record(AbstractLoadAwareStrategy strategy, String address, long latency) {
+        strategy.invocationStarted(address);
+        strategy.invocationCompleted(address, latency, false);
+    }
+
+    private static List<String> addresses() {
+        return new ArrayList<>(Arrays.asList(ADDRESS1, ADDRESS2, ADDRESS3));
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.clustering;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.clustering.AbstractLoadAwareStrategy.AddressStatistics;
+import org.apache.cxf.endpoint.Client;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.transport.Conduit;
+import org.apache.cxf.transport.ConduitInitiator;
+import org.apache.cxf.transport.ConduitInitiatorManager;
+import org.apache.cxf.ws.addressing.EndpointReferenceType;
+
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LoadAwareTargetSelectorTest {
+    private static final String ADDRESS1 = "http://localhost:9001/service";
+    private static final String ADDRESS2 = "http://localhost:9002/service";
+    private static final String ADDRESS3 = "http://localhost:9003/service";
+
+    private Bus bus;
+    private Endpoint endpoint;
+    private EndpointInfo endpointInfo;
+    private Conduit conduit;
+    private LeastOutstandingRequestsStrategy strategy;
+
+    @Before
+    public void setUp() throws Exception {
+        endpointInfo = new EndpointInfo(null, "http://cxf.apache.org/transports/test");
+        endpointInfo.setAddress(ADDRESS1);
+        endpoint = EasyMock.createNiceMock(Endpoint.class);
+        EasyMock.expect(endpoint.getEndpointInfo()).andStubReturn(endpointInfo);
+
+        conduit = EasyMock.createNiceMock(Conduit.class);
+        ConduitInitiator initiator = EasyMock.createNiceMock(ConduitInitiator.class);
+        EasyMock.expect(initiator.getConduit(EasyMock.anyObject(EndpointInfo.class), EasyMock.anyObject(Bus.class)))
+            .andStubReturn(conduit);
+        EasyMock.expect(initiator.getConduit(EasyMock.anyObject(EndpointInfo.class),
+                                             EasyMock.anyObject(EndpointReferenceType.class),
+                                             EasyMock.anyObject(Bus.class)))
+            .andStubReturn(conduit);
+        ConduitInitiatorManager manager = EasyMock.createNiceMock(ConduitInitiatorManager.class);
+        EasyMock.expect(manager.getConduitInitiator(endpointInfo.getTransportId())).andStubReturn(initiator);
+        bus = EasyMock.createNiceMock(Bus.class);
+        EasyMock.expect(bus.getExtension(ConduitInitiatorManager.class)).andStubReturn(manager);
+        EasyMock.replay(endpoint, conduit, initiator, manager, bus);
+
+        strategy = new LeastOutstandingRequestsStrategy();
+        strategy.setAlternateAddresses(new ArrayList<>(Arrays.asList(ADDRESS1, ADDRESS2, ADDRESS3)));
+    }
+
+    @Test
+    public void testStatisticsRecordedPerAddress() {
+        FailoverTargetSelector selector = new FailoverTargetSelector();
+        selector.setEndpoint(endpoint);
+        selector.setStrategy(strategy);
+
+        Message message1 = createMessage();
+        assertSame(conduit, selector.selectConduit(message1));
+        // a conduit selected again for the same exchange is not counted twice
+        selector.selectConduit(message1);
+        endpointInfo.setAddress(ADDRESS2);
+        Message message2 = createMessage();
+        selector.selectConduit(message2);
+        assertEquals(1, strategy.getStatistics(ADDRESS1).getInFlight());
+        assertEquals(1, strategy.getStatistics(ADDRESS2).getInFlight());
+
+        selector.complete(message1.getExchange());
+        AddressStatistics stats1 = strategy.getStatistics(ADDRESS1);
+        assertEquals(0, stats1.getInFlight());
+        assertEquals(1, stats1.getCompleted());
+        assertEquals(0, stats1.getFailed());
+        assertTrue(stats1.getAverageLatency() >= 0);
+        assertEquals(1, strategy.getStatistics(ADDRESS2).getInFlight());
+
+        message2.put(Exception.class, new IOException("connection refused"));
+        selector.complete(message2.getExchange());
+        AddressStatistics stats2 = strategy.getStatistics(ADDRESS2);
+        assertEquals(0, stats2.getInFlight());
+        assertEquals(0, stats2.getCompleted());
+        assertEquals(1, stats2.getFailed());
+        // a failure is accounted with the failure penalty
+        assertTrue(stats2.getAverageLatency() >= strategy.getFailurePenalty() * 1000000L);
+
+        // a completion is only reported once
+        selector.complete(message2.getExchange());
+        assertEquals(1, strategy.getStatistics(ADDRESS2).getFailed());
+        assertEquals(0, strategy.getStatistics(ADDRESS2).getInFlight());
+    }
+
+    @Test
+    public void testStatisticsUseMessageAddress() {
+        FailoverTargetSelector selector = new FailoverTargetSelector();
+        selector.setEndpoint(endpoint);
+        selector.setStrategy(strategy);
+
+        // another invocation failing over has changed the shared endpoint address meanwhile
+        Message message = createMessage();
+        message.put(Message.ENDPOINT_ADDRESS, ADDRESS3);
+        selector.selectConduit(message);
+        assertEquals(0, strategy.getStatistics(ADDRESS1).getInFlight());
+        assertEquals(1, strategy.getStatistics(ADDRESS3).getInFlight());
+
+        endpointInfo.setAddress(ADDRESS2);
+        selector.complete(message.getExchange());
+        assertEquals(0, strategy.getStatistics(ADDRESS3).getInFlight());
+        assertEquals(1, strategy.getStatistics(ADDRESS3).getCompleted());
+        assertEquals(0, strategy.getStatistics(ADDRESS2).getCompleted());
+    }
+
+    @Test
+    public void testCircuitBreakerExcludesOpenCircuits() {
+        CircuitBreakerTargetSelector selector = new CircuitBreakerTargetSelector(1, 60000L);
+        selector.setEndpoint(endpoint);
+        selector.setStrategy(strategy);
+
+        // ADDRESS2 has the least outstanding requests but its circuit is open
+        strategy.invocationStarted(ADDRESS1);
+        strategy.invocationStarted(ADDRESS1);
+        strategy.invocationStarted(ADDRESS3);
+        Map<String, Object> requestContext = new HashMap<>();
+        requestContext.put(Message.ENDPOINT_ADDRESS, ADDRESS2);
+        Map<String, Object> context = new HashMap<>();
+        context.put(Client.REQUEST_CONTEXT, requestContext);
+        selector.onFailure(selector.new InvocationContext(endpoint, null, new Object[0], context),
+                           new IOException("connection refused"));
+
+        Message message = createMessage();
+        selector.prepare(message);
+        selector.selectConduit(message);
+        assertEquals(ADDRESS3, message.get(Message.ENDPOINT_ADDRESS));
+        assertEquals(2, strategy.getStatistics(ADDRESS3).getInFlight());
+
+        for (int i = 0; i < 10; i++) {
+            message = createMessage();
+            selector.prepare(message);
+            selector.selectConduit(message);
+            assertNotEquals(ADDRESS2, message.get(Message.ENDPOINT_ADDRESS));
+        }
+        assertEquals(0, strategy.getStatistics(ADDRESS2).getInFlight());
+    }
+
+    private Message createMessage() {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        exchange.put(Bus.class, bus);
+        exchange.put(Endpoint.class, endpoint);
+        exchange.setOutMessage(message);
+        message.put(Message.ENDPOINT_ADDRESS, endpointInfo.getAddress());
+        message.setContent(List.class, new ArrayList<>());
+        Map<String, Object> context = new HashMap<>();
+        context.put(Client.REQUEST_CONTEXT, new HashMap<String, Object>());
+        message.put(Message.INVOCATION_CONTEXT, context);
+        return message;
+    }
+}
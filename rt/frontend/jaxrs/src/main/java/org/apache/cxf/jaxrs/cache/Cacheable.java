@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the resource methods (or all the methods of the resource class) which responses
+ * can be cached by the {@link ResponseCacheFeature}. Unless the response already carries the
+ * Cache-Control header, the one built from this annotation is added to it.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cacheable {
+    /**
+     * The max-age directive, in seconds
+     */
+    int maxAge() default -1;
+
+    /**
+     * The s-maxage directive, in seconds, takes precedence over maxAge for the server cache
+     */
+    int sMaxAge() default -1;
+
+    boolean mustRevalidate() default false;
+
+    boolean noTransform() default false;
+}
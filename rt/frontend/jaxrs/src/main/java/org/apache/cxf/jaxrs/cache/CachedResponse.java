@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * The serialized representation stored by the {@link ResponseCache}, along with the response
+ * headers and the values of the request headers it varies on.
+ */
+public final class CachedResponse {
+    private final String uri;
+    private final String path;
+    private final MultivaluedMap<String, String> headers;
+    private final MediaType mediaType;
+    private final EntityTag entityTag;
+    private final Date lastModified;
+    private final Map<String, String> vary;
+    private final long expiresAt;
+    private final ByteBuffer body;
+
+    CachedResponse(String uri, String path, MultivaluedMap<String, String> headers, MediaType mediaType,
+                   EntityTag entityTag, Date lastModified, Map<String, String> vary, long expiresAt,
+                   byte[] body, boolean offHeap) {
+        this.uri = uri;
+        this.path = path;
+        this.headers = headers;
+        this.mediaType = mediaType;
+        this.entityTag = entityTag;
+        this.lastModified = lastModified;
+        this.vary = vary == null ? Collections.emptyMap() : vary;
+        this.expiresAt = expiresAt;
+        if (offHeap) {
+            this.body = ByteBuffer.allocateDirect(body.length);
+            this.body.put(body).flip();
+        } else {
+            this.body = ByteBuffer.wrap(body);
+        }
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public MultivaluedMap<String, String> getHeaders() {
+        return headers;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public EntityTag getEntityTag() {
+        return entityTag;
+    }
+
+    public Date getLastModified() {
+        return lastModified == null ? null : new Date(lastModified.getTime());
+    }
+
+    public Map<String, String> getVary() {
+        return Collections.unmodifiableMap(vary);
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    public int getLength() {
+        return body.limit();
+    }
+
+    /**
+     * Checks if this representation could be returned for the request with given headers
+     * and the acceptable media types.
+     */
+    public boolean matches(MultivaluedMap<String, String> requestHeaders, List<MediaType> acceptable) {
+        for (Map.Entry<String, String> entry : vary.entrySet()) {
+            final List<String> values = requestHeaders.get(entry.getKey());
+            final String value = values == null || values.isEmpty() ? null : String.join(",", values);
+            if (entry.getValue() == null ? value != null : !entry.getValue().equals(value)) {
+                return false;
+            }
+        }
+
+        if (mediaType == null || acceptable == null || acceptable.isEmpty()) {
+            return true;
+        }
+        for (MediaType mt : acceptable) {
+            if (mt.isCompatible(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluates the request preconditions against the validators of this representation,
+     * returns null if the representation itself should be returned.
+     */
+    public ResponseBuilder evaluatePreconditions(Request request) {
+        if (entityTag != null && lastModified != null) {
+            return request.evaluatePreconditions(lastModified, entityTag);
+        } else if (entityTag != null) {
+            return request.evaluatePreconditions(entityTag);
+        } else if (lastModified != null) {
+            return request.evaluatePreconditions(lastModified);
+        }
+        return null;
+    }
+
+    public void writeTo(OutputStream os) throws IOException {
+        final ByteBuffer buffer = body.duplicate();
+        if (buffer.hasArray()) {
+            os.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            final byte[] chunk = new byte[Math.min(buffer.remaining(), 8192)];
+            while (buffer.hasRemaining()) {
+                final int len = Math.min(buffer.remaining(), chunk.length);
+                buffer.get(chunk, 0, len);
+                os.write(chunk, 0, len);
+            }
+        }
+    }
+
+    StreamingOutput toStreamingOutput() {
+        return this::writeTo;
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.cache;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * The bounded in-memory store of the serialized representations, keyed by the request URI.
+ * Each URI may have a few variants (differing by the media type or by the values of the
+ * request headers listed in the Vary response header). The least recently used URIs are
+ * evicted once either the number of the representations or their total size exceeds the limits.
+ * The representation bodies could be kept off-heap, in the direct buffers.
+ */
+public class ResponseCache {
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final long DEFAULT_MAX_SIZE = 16L * 1024 * 1024;
+
+    private final int maxEntries;
+    private final long maxSize;
+    private final boolean offHeap;
+    private final Map<String, List<CachedResponse>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private int count;
+    private long size;
+
+    public ResponseCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_SIZE, false);
+    }
+
+    public ResponseCache(int maxEntries, long maxSize, boolean offHeap) {
+        this.maxEntries = maxEntries;
+        this.maxSize = maxSize;
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Returns the fresh representation of the resource identified by the URI matching the
+     * request headers and the acceptable media types, or null if there is none.
+     */
+    public CachedResponse get(String uri, MultivaluedMap<String, String> requestHeaders,
+                              List<MediaType> acceptable) {
+        final long now = System.currentTimeMillis();
+        CachedResponse found = null;
+
+        synchronized (this) {
+            final List<CachedResponse> variants = entries.get(uri);
+            if (variants != null) {
+                for (Iterator<CachedResponse> it = variants.iterator(); it.hasNext();) {
+                    final CachedResponse variant = it.next();
+                    if (variant.isExpired(now)) {
+                        it.remove();
+                        release(variant);
+                    } else if (found == null && variant.matches(requestHeaders, acceptable)) {
+                        found = variant;
+                    }
+                }
+                if (variants.isEmpty()) {
+                    entries.remove(uri);
+                }
+            }
+        }
+
+        if (found != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return found;
+    }
+
+    /**
+     * Stores the representation, replacing the one with the same URI, media type and varying
+     * request header values (if any).
+     */
+    public void put(String uri, String path, MultivaluedMap<String, String> headers, MediaType mediaType,
+                    EntityTag entityTag, Date lastModified,
+                    Map<String, String> vary, long maxAgeMillis, byte[] body) {
+        if (body.length > maxSize || maxEntries <= 0) {
+            return;
+        }
+
+        final CachedResponse response = new CachedResponse(uri, path, headers, mediaType, entityTag,
+            lastModified, vary, System.currentTimeMillis() + maxAgeMillis, body, offHeap);
+
+        synchronized (this) {
+            final List<CachedResponse> variants = entries.computeIfAbsent(uri, k -> new ArrayList<>(1));
+            for (Iterator<CachedResponse> it = variants.iterator(); it.hasNext();) {
+                final CachedResponse variant = it.next();
+                if (isSameVariant(variant, response)) {
+                    it.remove();
+                    release(variant);
+                }
+            }
+
+            variants.add(response);
+            ++count;
+            size += response.getLength();
+
+            evict();
+        }
+    }
+
+    /**
+     * Removes all the representations of the resource identified either by the request URI or
+     * by the request path (in which case the representations for all the queries are removed).
+     *
+     * @return the number of the representations removed
+     */
+    public synchronized int invalidate(String key) {
+        int removed = 0;
+        for (Iterator<List<CachedResponse>> it = entries.values().iterator(); it.hasNext();) {
+            final List<CachedResponse> variants = it.next();
+            if (!variants.isEmpty() && (key.equals(variants.get(0).getUri())
+                || key.equals(variants.get(0).getPath()))) {
+                for (CachedResponse variant : variants) {
+                    release(variant);
+                    ++removed;
+                }
+                it.remove();
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        count = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of the representations stored
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the total size (in bytes) of the representations stored
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    private void evict() {
+        // The entries are iterated from the least recently used one
+        for (Iterator<List<CachedResponse>> it = entries.values().iterator();
+                it.hasNext() && (count > maxEntries || size > maxSize);) {
+            it.next().forEach(this::release);
+            it.remove();
+        }
+    }
+
+    private void release(CachedResponse response) {
+        --count;
+        size -= response.getLength();
+    }
+
+    private static boolean isSameVariant(CachedResponse a, CachedResponse b) {
+        return a.getVary().equals(b.getVary())
+            && (a.getMediaType() == null ? b.getMediaType() == null : a.getMediaType().equals(b.getMediaType()));
+    }
+}
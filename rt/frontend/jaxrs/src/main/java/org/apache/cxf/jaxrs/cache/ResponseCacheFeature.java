@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.cache;
+
+import javax.ws.rs.core.Feature;
+import javax.ws.rs.core.FeatureContext;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Enables the server-side caching of the serialized GET responses, see {@link ResponseCacheFilter}.
+ * The representations are kept in the bounded in-memory {@link ResponseCache}, optionally
+ * off-heap, and could be invalidated explicitly with {@link #invalidate(String)}.
+ */
+@Provider
+public class ResponseCacheFeature implements Feature {
+    private int maxEntries = ResponseCache.DEFAULT_MAX_ENTRIES;
+    private long maxSize = ResponseCache.DEFAULT_MAX_SIZE;
+    private int maxEntrySize = ResponseCacheFilter.DEFAULT_MAX_ENTRY_SIZE;
+    private boolean offHeap;
+    private long defaultMaxAge;
+    private boolean invalidateOnUpdate = true;
+    private ResponseCache cache;
+
+    @Override
+    public boolean configure(FeatureContext context) {
+        final ResponseCacheFilter filter = new ResponseCacheFilter(getCache());
+        filter.setMaxEntrySize(maxEntrySize);
+        filter.setDefaultMaxAge(defaultMaxAge);
+        filter.setInvalidateOnUpdate(invalidateOnUpdate);
+        context.register(filter);
+        return true;
+    }
+
+    public synchronized ResponseCache getCache() {
+        if (cache == null) {
+            cache = new ResponseCache(maxEntries, maxSize, offHeap);
+        }
+        return cache;
+    }
+
+    public void setCache(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Removes the cached representations of the resource identified by the request URI or path.
+     */
+    public int invalidate(String key) {
+        return getCache().invalidate(key);
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public void setMaxEntrySize(int maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    public void setDefaultMaxAge(long defaultMaxAge) {
+        this.defaultMaxAge = defaultMaxAge;
+    }
+
+    public void setInvalidateOnUpdate(boolean invalidateOnUpdate) {
+        this.invalidateOnUpdate = invalidateOnUpdate;
+    }
+}
@@ -0,0 +1,463 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Priority;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.utils.AnnotationUtils;
+import org.apache.cxf.jaxrs.utils.HttpUtils;
+import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.apache.cxf.message.Message;
+
+/**
+ * Serves the GET and HEAD requests from the {@link ResponseCache} and stores the cacheable
+ * responses in it. A response is cacheable if it is 200 OK, its Cache-Control header (or the
+ * {@link Cacheable} annotation of the resource method) allows the shared caching for a positive
+ * max-age or s-maxage, and it does not vary on all the headers or set cookies. The conditional
+ * requests for the cached representations are answered with 304 without invoking the resource.
+ * The ETag is computed from the serialized representation unless the resource provides one.
+ */
+@Priority(Priorities.USER)
+public class ResponseCacheFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
+
+    private static final Logger LOG = LogUtils.getL7dLogger(ResponseCacheFilter.class);
+    private static final String PENDING_PROPERTY = ResponseCacheFilter.class.getName() + ".pending";
+    private static final String CACHED_PROPERTY = ResponseCacheFilter.class.getName() + ".cached";
+    private static final Set<String> UNCACHEABLE_HEADERS = new HashSet<>(Arrays.asList(
+        HttpHeaders.DATE.toLowerCase(Locale.ENGLISH),
+        HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ENGLISH),
+        HttpHeaders.SET_COOKIE.toLowerCase(Locale.ENGLISH),
+        "connection", "transfer-encoding", "keep-alive", "age"));
+    private static final Set<String> VALIDATION_HEADERS = new HashSet<>(Arrays.asList(
+        HttpHeaders.ETAG.toLowerCase(Locale.ENGLISH),
+        HttpHeaders.LAST_MODIFIED.toLowerCase(Locale.ENGLISH),
+        HttpHeaders.CACHE_CONTROL.toLowerCase(Locale.ENGLISH),
+        HttpHeaders.VARY.toLowerCase(Locale.ENGLISH),
+        HttpHeaders.EXPIRES.toLowerCase(Locale.ENGLISH),
+        HttpHeaders.CONTENT_LOCATION.toLowerCase(Locale.ENGLISH)));
+
+    private final ResponseCache cache;
+    private int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+    private long defaultMaxAge;
+    private boolean invalidateOnUpdate = true;
+
+    public ResponseCacheFilter() {
+        this(new ResponseCache());
+    }
+
+    public ResponseCacheFilter(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext context) {
+        final String method = context.getMethod();
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            return;
+        }
+
+        final CacheControl requestCacheControl = getCacheControl(
+            context.getHeaderString(HttpHeaders.CACHE_CONTROL));
+        if (requestCacheControl != null && requestCacheControl.isNoStore()) {
+            return;
+        }
+
+        final String uri = context.getUriInfo().getRequestUri().toString();
+        // The client may ask for the representation to be revalidated
+        if (requestCacheControl == null
+            || (!requestCacheControl.isNoCache() && requestCacheControl.getMaxAge() != 0)) {
+            final CachedResponse cached = cache.get(uri, context.getHeaders(), context.getAcceptableMediaTypes());
+            if (cached != null) {
+                if (LOG.isLoggable(Level.FINE)) {
+                    LOG.fine("Serving the cached representation of " + uri);
+                }
+                context.setProperty(CACHED_PROPERTY, Boolean.TRUE);
+                context.abortWith(toResponse(cached, context));
+                return;
+            }
+        }
+
+        if (HttpMethod.GET.equals(method)) {
+            context.setProperty(PENDING_PROPERTY, uri);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if (request.getProperty(CACHED_PROPERTY) != null) {
+            request.removeProperty(CACHED_PROPERTY);
+            return;
+        }
+
+        final Object uri = request.getProperty(PENDING_PROPERTY);
+        request.removeProperty(PENDING_PROPERTY);
+
+        final int status = response.getStatus();
+        if (uri == null) {
+            if (invalidateOnUpdate && status >= 200 && status < 300 && isUpdate(request.getMethod())) {
+                final String path = request.getUriInfo().getRequestUri().getPath();
+                final int removed = cache.invalidate(path);
+                if (removed > 0 && LOG.isLoggable(Level.FINE)) {
+                    LOG.fine("Invalidated " + removed + " cached representation(s) of " + path);
+                }
+            }
+            return;
+        }
+
+        if (status != Response.Status.OK.getStatusCode() || !response.hasEntity()
+            || hasHeader(response.getHeaders(), HttpHeaders.SET_COOKIE)) {
+            return;
+        }
+
+        final Cacheable cacheable = getCacheable();
+        if (cacheable != null && !hasHeader(response.getHeaders(), HttpHeaders.CACHE_CONTROL)) {
+            response.getHeaders().putSingle(HttpHeaders.CACHE_CONTROL, toCacheControl(cacheable));
+        }
+
+        final String header = response.getHeaderString(HttpHeaders.CACHE_CONTROL);
+        final long maxAge = getMaxAge(getCacheControl(header), header,
+            request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION));
+        if (maxAge <= 0) {
+            return;
+        }
+
+        final Map<String, String> vary = getVary(request, response.getHeaderString(HttpHeaders.VARY));
+        if (vary != null) {
+            request.setProperty(PENDING_PROPERTY, new PendingResponse((String)uri,
+                request.getUriInfo().getRequestUri().getPath(), vary, TimeUnit.SECONDS.toMillis(maxAge)));
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        final Object pending = context.getProperty(PENDING_PROPERTY);
+        if (!(pending instanceof PendingResponse)) {
+            context.proceed();
+            return;
+        }
+        context.removeProperty(PENDING_PROPERTY);
+
+        final OutputStream os = context.getOutputStream();
+        final CapturingOutputStream capturing = new CapturingOutputStream(os, maxEntrySize);
+        context.setOutputStream(capturing);
+        try {
+            context.proceed();
+        } finally {
+            context.setOutputStream(os);
+        }
+
+        if (capturing.isOverflown()) {
+            // The representation is too large to be cached, it is already written out
+            return;
+        }
+
+        final byte[] body = capturing.getBytes();
+        final MultivaluedMap<String, Object> headers = context.getHeaders();
+        if (!hasHeader(headers, HttpHeaders.ETAG)) {
+            headers.putSingle(HttpHeaders.ETAG, HttpUtils.computeEntityTag(body));
+        }
+
+        final PendingResponse response = (PendingResponse)pending;
+        final MultivaluedMap<String, String> stored = new MetadataMap<>(false, true);
+        for (Map.Entry<String, List<Object>> entry : headers.entrySet()) {
+            if (!UNCACHEABLE_HEADERS.contains(entry.getKey().toLowerCase(Locale.ENGLISH))) {
+                for (Object value : entry.getValue()) {
+                    stored.add(entry.getKey(), toString(value));
+                }
+            }
+        }
+
+        cache.put(response.uri, response.path, stored, context.getMediaType(),
+            getEntityTag(stored.getFirst(HttpHeaders.ETAG)), getLastModified(stored),
+            response.vary, response.maxAge, body);
+
+        os.write(body);
+    }
+
+    public ResponseCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets the maximum size (in bytes) of the single representation to be cached
+     */
+    public void setMaxEntrySize(int maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * Sets the max-age (in seconds) for the responses which do not have Cache-Control header
+     * (and are not annotated with {@link Cacheable}), 0 (the default) means such responses
+     * are not cached.
+     */
+    public void setDefaultMaxAge(long defaultMaxAge) {
+        this.defaultMaxAge = defaultMaxAge;
+    }
+
+    /**
+     * If enabled (the default), the representations of the resource are invalidated once
+     * the POST, PUT, PATCH or DELETE request to the same path completes successfully.
+     */
+    public void setInvalidateOnUpdate(boolean invalidateOnUpdate) {
+        this.invalidateOnUpdate = invalidateOnUpdate;
+    }
+
+    private long getMaxAge(CacheControl cc, String header, boolean authorized) {
+        if (cc == null) {
+            return authorized ? 0 : defaultMaxAge;
+        }
+
+        if (cc.isNoStore() || cc.isNoCache() || cc.isPrivate()) {
+            return 0;
+        }
+
+        // The responses to the authorized requests are cached only if explicitly allowed
+        if (cc.getSMaxAge() >= 0) {
+            return cc.getSMaxAge();
+        } else if (authorized && !hasDirective(header, "public")) {
+            return 0;
+        } else if (cc.getMaxAge() >= 0) {
+            return cc.getMaxAge();
+        }
+
+        return defaultMaxAge;
+    }
+
+    private static Map<String, String> getVary(ContainerRequestContext request, String header) {
+        if (header == null) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, String> vary = new LinkedHashMap<>();
+        for (String name : header.split(",")) {
+            final String trimmed = name.trim();
+            if ("*".equals(trimmed)) {
+                return null;
+            } else if (!trimmed.isEmpty()) {
+                final List<String> values = request.getHeaders().get(trimmed);
+                vary.put(trimmed, values == null || values.isEmpty() ? null : String.join(",", values));
+            }
+        }
+        return vary;
+    }
+
+    private static Response toResponse(CachedResponse cached, ContainerRequestContext context) {
+        ResponseBuilder rb = cached.evaluatePreconditions(context.getRequest());
+        if (rb != null) {
+            // Not modified (or the precondition failed), only the validators and the
+            // caching headers are sent back
+            copyHeaders(cached, rb, VALIDATION_HEADERS);
+        } else {
+            rb = Response.ok(cached.toStreamingOutput(), cached.getMediaType());
+            copyHeaders(cached, rb, null);
+        }
+        return rb.build();
+    }
+
+    private static void copyHeaders(CachedResponse cached, ResponseBuilder rb, Set<String> names) {
+        for (Map.Entry<String, List<String>> entry : cached.getHeaders().entrySet()) {
+            final String name = entry.getKey();
+            if (names == null && !HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+                || names != null && names.contains(name.toLowerCase(Locale.ENGLISH))) {
+                for (String value : entry.getValue()) {
+                    rb.header(name, value);
+                }
+            }
+        }
+    }
+
+    private static Cacheable getCacheable() {
+        final Message message = JAXRSUtils.getCurrentMessage();
+        final OperationResourceInfo ori = message == null ? null
+            : message.getExchange().get(OperationResourceInfo.class);
+        if (ori == null) {
+            return null;
+        }
+
+        final Cacheable cacheable = AnnotationUtils.getMethodAnnotation(ori.getAnnotatedMethod(), Cacheable.class);
+        if (cacheable != null) {
+            return cacheable;
+        }
+        return AnnotationUtils.getClassAnnotation(ori.getClassResourceInfo().getServiceClass(), Cacheable.class);
+    }
+
+    static CacheControl toCacheControl(Cacheable cacheable) {
+        final CacheControl cc = new CacheControl();
+        cc.setMaxAge(cacheable.maxAge());
+        cc.setSMaxAge(cacheable.sMaxAge());
+        cc.setMustRevalidate(cacheable.mustRevalidate());
+        cc.setNoTransform(cacheable.noTransform());
+        return cc;
+    }
+
+    private static CacheControl getCacheControl(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return CacheControl.valueOf(header);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static boolean hasHeader(MultivaluedMap<String, Object> headers, String name) {
+        for (String key : headers.keySet()) {
+            if (name.equalsIgnoreCase(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasDirective(String header, String directive) {
+        for (String token : header.split(",")) {
+            if (directive.equalsIgnoreCase(token.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isUpdate(String method) {
+        return HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method)
+            || HttpMethod.DELETE.equals(method) || "PATCH".equals(method);
+    }
+
+    private static EntityTag getEntityTag(String header) {
+        try {
+            return header == null ? null : EntityTag.valueOf(header);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static Date getLastModified(MultivaluedMap<String, String> headers) {
+        final String header = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        return header == null ? null : HttpUtils.getHttpDate(header);
+    }
+
+    private static String toString(Object value) {
+        if (value instanceof String) {
+            return (String)value;
+        } else if (value instanceof Date) {
+            return HttpUtils.toHttpDate((Date)value);
+        }
+        final HeaderDelegate<Object> delegate = HttpUtils.getHeaderDelegate(value);
+        return delegate != null ? delegate.toString(value) : value.toString();
+    }
+
+    private static final class PendingResponse {
+        private final String uri;
+        private final String path;
+        private final Map<String, String> vary;
+        private final long maxAge;
+
+        PendingResponse(String uri, String path, Map<String, String> vary, long maxAge) {
+            this.uri = uri;
+            this.path = path;
+            this.vary = vary;
+            this.maxAge = maxAge;
+        }
+    }
+
+    /**
+     * Buffers the representation as long as it fits the limit, and then switches to writing
+     * it (including the bytes buffered so far) to the target output stream directly.
+     */
+    private static final class CapturingOutputStream extends OutputStream {
+        private final OutputStream target;
+        private final int limit;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+
+        CapturingOutputStream(OutputStream target, int limit) {
+            this.target = target;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (buffer != null && buffer.size() + len > limit) {
+                buffer.writeTo(target);
+                buffer = null;
+            }
+            if (buffer != null) {
+                buffer.write(b, off, len);
+            } else {
+                target.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // The buffered representation is flushed once complete
+            if (buffer == null) {
+                target.flush();
+            }
+        }
+
+        boolean isOverflown() {
+            return buffer == null;
+        }
+
+        byte[] getBytes() {
+            return buffer.toByteArray();
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.cxf.jaxrs.ext;
 
 import java.util.Collections;
+import java.util.List;
 
 import javax.ws.rs.core.MediaType;
 
@@ -29,11 +30,22 @@ import org.apache.cxf.service.invoker.Invoker;
 public abstract class AbstractStreamingResponseExtension implements JAXRSServerFactoryCustomizationExtension {
     protected abstract Invoker createInvoker(JAXRSServerFactoryBean bean);
 
+    /**
+     * Returns the additional providers to register, for example, the readers of
+     * the reactive request bodies
+     */
+    protected List<?> createProviders(JAXRSServerFactoryBean bean) {
+        return Collections.emptyList();
+    }
+
     @Override
     public final void customize(JAXRSServerFactoryBean bean) {
         bean.setInvoker(createInvoker(bean));
         StreamingResponseProvider<Object> streamProvider = new StreamingResponseProvider<>();
         streamProvider.setProduceMediaTypes(Collections.singletonList(MediaType.APPLICATION_JSON));
         bean.setProvider(streamProvider);
+        for (Object provider : createProviders(bean)) {
+            bean.setProvider(provider);
+        }
     }
 }
@@ -23,6 +23,8 @@ import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -42,6 +44,7 @@ import javax.servlet.ServletConfig;
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
@@ -53,6 +56,7 @@ import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
 
 import org.apache.cxf.common.i18n.BundleUtils;
 import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.Base64UrlUtility;
 import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.common.util.StringUtils;
 import org.apache.cxf.common.util.UrlUtils;
@@ -218,6 +222,17 @@ public final class HttpUtils {
         return Headers.toHttpDate(date);
     }
 
+    /**
+     * Returns the strong entity tag of the serialized representation, its SHA-256 digest
+     */
+    public static EntityTag computeEntityTag(byte[] entity) {
+        try {
+            return new EntityTag(Base64UrlUtility.encode(MessageDigest.getInstance("SHA-256").digest(entity)));
+        } catch (NoSuchAlgorithmException ex) {
+            return new EntityTag(Integer.toHexString(Arrays.hashCode(entity)) + "-" + entity.length);
+        }
+    }
+
     public static RuntimeDelegate getOtherRuntimeDelegate() {
         try {
             RuntimeDelegate rd = RuntimeDelegate.getInstance();
@@ -0,0 +1,305 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.WriterInterceptor;
+
+import org.apache.cxf.jaxrs.impl.ContainerRequestContextImpl;
+import org.apache.cxf.jaxrs.impl.ContainerResponseContextImpl;
+import org.apache.cxf.jaxrs.impl.ResponseImpl;
+import org.apache.cxf.jaxrs.impl.WriterInterceptorContextImpl;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the requests through the request filter, the response filter and the writer interceptor
+ * the way the JAX-RS runtime does, the resource is only invoked if the request is not aborted.
+ */
+public class ResponseCacheFilterTest {
+    private static final String ADDRESS = "http://localhost:8080";
+    private static final String MAX_AGE = "max-age=60";
+
+    private final ResponseCacheFilter filter = new ResponseCacheFilter();
+    private int invocations;
+
+    @Test
+    public void testCachedRepresentationIsServedWithoutInvokingResource() throws Exception {
+        TestResponse first = get(ok(MAX_AGE));
+        assertEquals(200, first.status);
+        assertEquals("book", first.body);
+        assertNotNull(first.headers.getFirst(HttpHeaders.ETAG));
+
+        TestResponse second = get(ok(MAX_AGE));
+        assertEquals(1, invocations);
+        assertEquals(200, second.status);
+        assertEquals("book", second.body);
+        assertEquals(first.headers.getFirst(HttpHeaders.ETAG).toString(),
+                     second.headers.getFirst(HttpHeaders.ETAG).toString());
+        assertEquals(1, filter.getCache().getHits());
+    }
+
+    @Test
+    public void testMatchingIfNoneMatchIsAnsweredWith304() throws Exception {
+        String etag = get(ok(MAX_AGE)).headers.getFirst(HttpHeaders.ETAG).toString();
+
+        TestResponse response = get(ok(MAX_AGE), HttpHeaders.IF_NONE_MATCH, etag);
+        assertEquals(1, invocations);
+        assertEquals(304, response.status);
+        assertEquals("", response.body);
+        assertEquals(etag, response.headers.getFirst(HttpHeaders.ETAG).toString());
+
+        response = get(ok(MAX_AGE), HttpHeaders.IF_NONE_MATCH, "\"other\"");
+        assertEquals(1, invocations);
+        assertEquals(200, response.status);
+        assertEquals("book", response.body);
+    }
+
+    @Test
+    public void testNoStoreResponseIsNotCached() throws Exception {
+        assertNotCached(ok("no-store"));
+    }
+
+    @Test
+    public void testPrivateResponseIsNotCached() throws Exception {
+        assertNotCached(ok("private, max-age=60"));
+    }
+
+    @Test
+    public void testNoStoreRequestIsNotServedFromCache() throws Exception {
+        get(ok(MAX_AGE));
+        get(ok(MAX_AGE), HttpHeaders.CACHE_CONTROL, "no-store");
+        assertEquals(2, invocations);
+    }
+
+    @Test
+    public void testAuthorizedRequestIsOnlyCachedIfPublic() throws Exception {
+        get(ok(MAX_AGE), HttpHeaders.AUTHORIZATION, "Basic dXNlcjpwYXNz");
+        get(ok(MAX_AGE), HttpHeaders.AUTHORIZATION, "Basic dXNlcjpwYXNz");
+        assertEquals(2, invocations);
+        assertEquals(0, filter.getCache().getCount());
+
+        get(ok("public, max-age=60"), HttpHeaders.AUTHORIZATION, "Basic dXNlcjpwYXNz");
+        assertEquals(1, filter.getCache().getCount());
+    }
+
+    @Test
+    public void testVaryStarIsNotCached() throws Exception {
+        assertNotCached(() -> Response.ok("book", MediaType.TEXT_PLAIN_TYPE)
+            .header(HttpHeaders.CACHE_CONTROL, MAX_AGE).header(HttpHeaders.VARY, "*").build());
+    }
+
+    @Test
+    public void testVaryHeaderIsMatched() throws Exception {
+        Supplier<Response> resource = () -> Response.ok("book", MediaType.TEXT_PLAIN_TYPE)
+            .header(HttpHeaders.CACHE_CONTROL, MAX_AGE)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE).build();
+
+        get(resource, HttpHeaders.ACCEPT_LANGUAGE, "en");
+        get(resource, HttpHeaders.ACCEPT_LANGUAGE, "en");
+        assertEquals(1, invocations);
+
+        get(resource, HttpHeaders.ACCEPT_LANGUAGE, "de");
+        assertEquals(2, invocations);
+        get(resource, HttpHeaders.ACCEPT_LANGUAGE, "de");
+        get(resource, HttpHeaders.ACCEPT_LANGUAGE, "en");
+        assertEquals(2, invocations);
+        assertEquals(2, filter.getCache().getCount());
+    }
+
+    @Test
+    public void testCacheableMaxAge() throws Exception {
+        Method method = BookResource.class.getMethod("getCacheableBook");
+        TestResponse response = invoke(HttpMethod.GET, ok(null), method);
+        assertTrue(response.headers.getFirst(HttpHeaders.CACHE_CONTROL).toString().contains(MAX_AGE));
+
+        invoke(HttpMethod.GET, ok(null), method);
+        assertEquals(1, invocations);
+    }
+
+    @Test
+    public void testNotCacheableWithoutCacheControl() throws Exception {
+        Method method = BookResource.class.getMethod("getBook");
+        invoke(HttpMethod.GET, ok(null), method);
+        invoke(HttpMethod.GET, ok(null), method);
+        assertEquals(2, invocations);
+    }
+
+    @Test
+    public void testInvalidationOnUpdate() throws Exception {
+        get(ok(MAX_AGE));
+        int expected = 1;
+        for (String method : new String[] {HttpMethod.PUT, HttpMethod.POST, HttpMethod.DELETE}) {
+            assertEquals(1, filter.getCache().getCount());
+            invoke(method, () -> Response.noContent().build(), null);
+            assertEquals(0, filter.getCache().getCount());
+
+            get(ok(MAX_AGE));
+            get(ok(MAX_AGE));
+            expected += 2;
+            assertEquals(expected, invocations);
+        }
+    }
+
+    private void assertNotCached(Supplier<Response> resource) throws Exception {
+        get(resource);
+        get(resource);
+        assertEquals(2, invocations);
+        assertEquals(0, filter.getCache().getCount());
+    }
+
+    private static Supplier<Response> ok(String cacheControl) {
+        return () -> {
+            Response.ResponseBuilder rb = Response.ok("book", MediaType.TEXT_PLAIN_TYPE);
+            if (cacheControl != null) {
+                rb.header(HttpHeaders.CACHE_CONTROL, cacheControl);
+            }
+            return rb.build();
+        };
+    }
+
+    private TestResponse get(Supplier<Response> resource, String... requestHeaders) throws Exception {
+        return invoke(HttpMethod.GET, resource, null, requestHeaders);
+    }
+
+    private TestResponse invoke(String method, Supplier<Response> resource, Method resourceMethod,
+                                String... requestHeaders) throws Exception {
+        Message inMessage = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        inMessage.setExchange(exchange);
+        exchange.setInMessage(inMessage);
+        inMessage.put(Message.HTTP_REQUEST_METHOD, method);
+        inMessage.put(Message.REQUEST_URI, "/books/1");
+        inMessage.put(Message.ENDPOINT_ADDRESS, ADDRESS);
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < requestHeaders.length; i += 2) {
+            headers.put(requestHeaders[i], Collections.singletonList(requestHeaders[i + 1]));
+        }
+        inMessage.put(Message.PROTOCOL_HEADERS, headers);
+        if (resourceMethod != null) {
+            exchange.put(OperationResourceInfo.class, new OperationResourceInfo(resourceMethod,
+                new ClassResourceInfo(resourceMethod.getDeclaringClass())));
+        }
+
+        filter.filter(new ContainerRequestContextImpl(inMessage, false, false));
+        Response response = exchange.get(Response.class);
+        if (response == null) {
+            invocations++;
+            response = resource.get();
+        }
+
+        Message outMessage = new MessageImpl();
+        outMessage.setExchange(exchange);
+        exchange.setOutMessage(outMessage);
+        final ResponseImpl r = (ResponseImpl)response;
+        runWithCurrentMessage(outMessage, () -> filter.filter(
+            new ContainerRequestContextImpl(inMessage, false, true),
+            new ContainerResponseContextImpl(r, outMessage, BookResource.class, resourceMethod)));
+
+        MultivaluedMap<String, Object> responseHeaders = r.getMetadata();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        if (r.hasEntity()) {
+            outMessage.put(Message.PROTOCOL_HEADERS, responseHeaders);
+            List<WriterInterceptor> writers = new ArrayList<>();
+            writers.add(filter);
+            writers.add(context -> {
+                Object entity = context.getEntity();
+                if (entity instanceof StreamingOutput) {
+                    ((StreamingOutput)entity).write(context.getOutputStream());
+                } else {
+                    context.getOutputStream().write(entity.toString().getBytes(StandardCharsets.UTF_8));
+                }
+            });
+            new WriterInterceptorContextImpl(r.getEntity(), r.getEntity().getClass(), r.getEntity().getClass(),
+                new Annotation[0], os, outMessage, writers).proceed();
+        }
+        return new TestResponse(r.getStatus(), responseHeaders, new String(os.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static void runWithCurrentMessage(Message message, Runnable task) {
+        // the resource method is looked up from the current message
+        SortedSet<Phase> phases = new TreeSet<>();
+        phases.add(new Phase(Phase.MARSHAL, 1));
+        PhaseInterceptorChain chain = new PhaseInterceptorChain(phases);
+        chain.add(new AbstractPhaseInterceptor<Message>(Phase.MARSHAL) {
+            @Override
+            public void handleMessage(Message m) {
+                task.run();
+            }
+        });
+        chain.doIntercept(message);
+        assertNull(message.getContent(Exception.class));
+    }
+
+    private static final class TestResponse {
+        private final int status;
+        private final MultivaluedMap<String, Object> headers;
+        private final String body;
+
+        TestResponse(int status, MultivaluedMap<String, Object> headers, String body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    public static class BookResource {
+        @Cacheable(maxAge = 60)
+        public String getCacheableBook() {
+            return "book";
+        }
+
+        public String getBook() {
+            return "book";
+        }
+    }
+}
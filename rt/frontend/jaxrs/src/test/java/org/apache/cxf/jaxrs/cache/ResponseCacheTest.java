@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ResponseCacheTest {
+
+    @Test
+    public void testGetFreshRepresentation() throws Exception {
+        ResponseCache cache = new ResponseCache();
+        put(cache, "http://localhost/books/1", MediaType.APPLICATION_JSON_TYPE, "{}", 60000);
+
+        CachedResponse cached = cache.get("http://localhost/books/1", new MetadataMap<>(),
+            Collections.singletonList(MediaType.WILDCARD_TYPE));
+        assertNotNull(cached);
+        assertEquals("\"1\"", cached.getEntityTag().toString());
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        cached.writeTo(os);
+        assertEquals("{}", new String(os.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testExpiredRepresentationIsRemoved() {
+        ResponseCache cache = new ResponseCache();
+        put(cache, "http://localhost/books/1", MediaType.APPLICATION_JSON_TYPE, "{}", -1);
+
+        assertNull(cache.get("http://localhost/books/1", new MetadataMap<>(), null));
+        assertEquals(0, cache.getCount());
+        assertEquals(0, cache.getSize());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testVariantsByMediaType() {
+        ResponseCache cache = new ResponseCache();
+        put(cache, "http://localhost/books/1", MediaType.APPLICATION_JSON_TYPE, "{}", 60000);
+        put(cache, "http://localhost/books/1", MediaType.APPLICATION_XML_TYPE, "<book/>", 60000);
+        assertEquals(2, cache.getCount());
+
+        CachedResponse cached = cache.get("http://localhost/books/1", new MetadataMap<>(),
+            Collections.singletonList(MediaType.APPLICATION_XML_TYPE));
+        assertEquals(MediaType.APPLICATION_XML_TYPE, cached.getMediaType());
+
+        assertNull(cache.get("http://localhost/books/1", new MetadataMap<>(),
+            Collections.singletonList(MediaType.TEXT_PLAIN_TYPE)));
+    }
+
+    @Test
+    public void testVariantsByVaryHeader() {
+        ResponseCache cache = new ResponseCache();
+        cache.put("http://localhost/books/1", "/books/1", new MetadataMap<>(), MediaType.TEXT_PLAIN_TYPE,
+            null, null, Collections.singletonMap("Accept-Language", "en"), 60000,
+            "book".getBytes(StandardCharsets.UTF_8));
+
+        MultivaluedMap<String, String> headers = new MetadataMap<>(false, true);
+        headers.putSingle("Accept-Language", "de");
+        assertNull(cache.get("http://localhost/books/1", headers, null));
+
+        headers.putSingle("Accept-Language", "en");
+        assertNotNull(cache.get("http://localhost/books/1", headers, null));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        ResponseCache cache = new ResponseCache(2, ResponseCache.DEFAULT_MAX_SIZE, false);
+        put(cache, "http://localhost/books/1", MediaType.TEXT_PLAIN_TYPE, "1", 60000);
+        put(cache, "http://localhost/books/2", MediaType.TEXT_PLAIN_TYPE, "2", 60000);
+        assertNotNull(cache.get("http://localhost/books/1", new MetadataMap<>(), null));
+
+        put(cache, "http://localhost/books/3", MediaType.TEXT_PLAIN_TYPE, "3", 60000);
+        assertEquals(2, cache.getCount());
+        assertNotNull(cache.get("http://localhost/books/1", new MetadataMap<>(), null));
+        assertNull(cache.get("http://localhost/books/2", new MetadataMap<>(), null));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        ResponseCache cache = new ResponseCache(10, 10, true);
+        put(cache, "http://localhost/books/1", MediaType.TEXT_PLAIN_TYPE, "123456", 60000);
+        put(cache, "http://localhost/books/2", MediaType.TEXT_PLAIN_TYPE, "123456", 60000);
+        put(cache, "http://localhost/books/3", MediaType.TEXT_PLAIN_TYPE, "12345678901", 60000);
+
+        assertEquals(1, cache.getCount());
+        assertEquals(6, cache.getSize());
+        assertNotNull(cache.get("http://localhost/books/2", new MetadataMap<>(), null));
+    }
+
+    @Test
+    public void testInvalidateByPath() {
+        ResponseCache cache = new ResponseCache();
+        put(cache, "http://localhost/books/1?fields=title", MediaType.TEXT_PLAIN_TYPE, "1", 60000);
+        put(cache, "http://localhost/books/1", MediaType.TEXT_PLAIN_TYPE, "1", 60000);
+        put(cache, "http://localhost/books/2", MediaType.TEXT_PLAIN_TYPE, "2", 60000);
+
+        assertEquals(2, cache.invalidate("/books/1"));
+        assertEquals(1, cache.getCount());
+        assertEquals(1, cache.invalidate("http://localhost/books/2"));
+        assertEquals(0, cache.getCount());
+    }
+
+    private static void put(ResponseCache cache, String uri, MediaType mt, String body, long maxAge) {
+        final String path = uri.substring("http://localhost".length()).replaceAll("\\?.*", "");
+        cache.put(uri, path, new MetadataMap<>(), mt, new EntityTag(path.substring(path.lastIndexOf('/') + 1)),
+            null, null, maxAge, body.getBytes(StandardCharsets.UTF_8));
+    }
+}
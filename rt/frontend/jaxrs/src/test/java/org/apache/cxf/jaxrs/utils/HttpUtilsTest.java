@@ -20,8 +20,10 @@
 package org.apache.cxf.jaxrs.utils;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -39,6 +41,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 public class HttpUtilsTest {
@@ -66,6 +69,16 @@ public class HttpUtilsTest {
                      HttpUtils.encodePartiallyEncoded("http://localhost:8080/1/ 2", false));
     }
     
+    @Test
+    public void testComputeEntityTag() {
+        EntityTag tag = HttpUtils.computeEntityTag("abc".getBytes(StandardCharsets.UTF_8));
+        assertFalse(tag.isWeak());
+        // the base64url encoded SHA-256 digest of "abc"
+        assertEquals("ungWv48Bz-pBQUDeXa4iI7ADYaOWF3qctBD_YfIAFa0", tag.getValue());
+        assertEquals(tag, HttpUtils.computeEntityTag("abc".getBytes(StandardCharsets.UTF_8)));
+        assertNotEquals(tag, HttpUtils.computeEntityTag("abd".getBytes(StandardCharsets.UTF_8)));
+    }
+
     @Test
     public void testUrlDecode() {
         assertEquals("+ ", HttpUtils.urlDecode("%2B+"));
@@ -20,7 +20,6 @@
 package org.apache.cxf.jaxws.interceptors;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -44,6 +43,7 @@ import org.apache.cxf.databinding.DataWriter;
 import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.helpers.ServiceUtils;
 import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.FaultBeanAccessors;
 import org.apache.cxf.interceptor.FaultOutInterceptor;
 import org.apache.cxf.message.FaultMode;
 import org.apache.cxf.message.Message;
@@ -138,8 +138,7 @@ public class WebFaultOutInterceptor extends FaultOutInterceptor {
             Exception ex = (Exception)cause;
             Object faultInfo = null;
             try {
-                Method method = cause.getClass().getMethod("getFaultInfo", new Class[0]);
-                faultInfo = method.invoke(cause, new Object[0]);
+                faultInfo = FaultBeanAccessors.getFaultInfo(cause);
             } catch (NoSuchMethodException e) {
                 faultInfo = createFaultInfoBean(fault, cause);
 
@@ -201,25 +200,7 @@ public class WebFaultOutInterceptor extends FaultOutInterceptor {
                 if (cls != null) {
                     Object ret = cls.newInstance();
                     //copy props
-                    Method[] meth = cause.getClass().getMethods();
-                    for (Method m : meth) {
-                        if (m.getParameterTypes().length == 0
-                            && (m.getName().startsWith("get")
-                            || m.getName().startsWith("is"))) {
-                            try {
-                                String name;
-                                if (m.getName().startsWith("get")) {
-                                    name = "set" + m.getName().substring(3);
-                                } else {
-                                    name = "set" + m.getName().substring(2);
-                                }
-                                Method m2 = cls.getMethod(name, m.getReturnType());
-                                m2.invoke(ret, m.invoke(cause));
-                            } catch (Exception e) {
-                                //ignore
-                            }
-                        }
-                    }
+                    FaultBeanAccessors.copyProperties(cause, ret);
                     return ret;
                 }
             } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e1) {
@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxws;
+
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxws.service.CopiedPropertiesException;
+import org.apache.cxf.jaxws.service.FaultBeanService;
+import org.apache.cxf.jaxws.service.FaultBeanServiceImpl;
+import org.apache.cxf.jaxws.service.FaultInfoException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Sends the checked exceptions through WebFaultOutInterceptor and ClientFaultConverter, which get the
+ * fault info or copy the properties between the exceptions and the fault beans.
+ */
+public class FaultBeanTest extends AbstractJaxWsTest {
+    private static final String ADDRESS = "local://localhost/faultBean";
+
+    private Server server;
+    private FaultBeanService proxy;
+
+    @Before
+    public void setUpService() throws Exception {
+        JaxWsServerFactoryBean sf = new JaxWsServerFactoryBean();
+        sf.setBus(bus);
+        sf.setAddress(ADDRESS);
+        sf.setServiceClass(FaultBeanService.class);
+        sf.setServiceBean(new FaultBeanServiceImpl());
+        server = sf.create();
+
+        JaxWsProxyFactoryBean cf = new JaxWsProxyFactoryBean();
+        cf.setBus(bus);
+        cf.setAddress(ADDRESS);
+        cf.setServiceClass(FaultBeanService.class);
+        proxy = cf.create(FaultBeanService.class);
+    }
+
+    @After
+    public void tearDownService() {
+        server.destroy();
+    }
+
+    @Test
+    public void testCopiedProperties() throws Exception {
+        try {
+            proxy.failWithProperties(42, "copied");
+            fail("CopiedPropertiesException expected");
+        } catch (CopiedPropertiesException ex) {
+            assertEquals("properties", ex.getMessage());
+            assertEquals(42, ex.getCode());
+            assertEquals("copied", ex.getDetail());
+        }
+    }
+
+    @Test
+    public void testFaultInfo() throws Exception {
+        try {
+            proxy.failWithFaultInfo(7, "fault info");
+            fail("FaultInfoException expected");
+        } catch (FaultInfoException ex) {
+            assertEquals("fault info", ex.getMessage());
+            assertNotNull(ex.getFaultInfo());
+            assertEquals(7, ex.getFaultInfo().getCode());
+            assertEquals("fault info", ex.getFaultInfo().getDetail());
+        }
+    }
+}
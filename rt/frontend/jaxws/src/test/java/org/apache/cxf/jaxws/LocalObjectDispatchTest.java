@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxws;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.ws.BindingProvider;
+
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.ext.logging.LoggingInInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.apache.hello_world_soap_http.BadRecordLitFault;
+import org.apache.hello_world_soap_http.Greeter;
+import org.apache.hello_world_soap_http.GreeterImpl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Invokes a JAX-WS endpoint over the local transport with the object dispatch enabled.
+ * The wire form is only read when the server runs its {@link Phase#RECEIVE} phase.
+ */
+public class LocalObjectDispatchTest extends AbstractJaxWsTest {
+    private static final String ADDRESS = "local://localhost/objectDispatch";
+
+    private GreeterImpl greeterImpl;
+    private Server server;
+    private ReceiveCounter receiveCounter;
+
+    @Before
+    public void setUpServer() throws Exception {
+        localTransport.setObjectDispatch(true);
+
+        greeterImpl = new GreeterImpl();
+        JaxWsServerFactoryBean sf = new JaxWsServerFactoryBean();
+        sf.setBus(bus);
+        sf.setServiceClass(Greeter.class);
+        sf.setServiceBean(greeterImpl);
+        sf.setAddress(ADDRESS);
+        server = sf.create();
+
+        receiveCounter = new ReceiveCounter();
+        server.getEndpoint().getInInterceptors().add(receiveCounter);
+    }
+
+    private Greeter createClient() {
+        JaxWsProxyFactoryBean cf = new JaxWsProxyFactoryBean();
+        cf.setBus(bus);
+        cf.setServiceClass(Greeter.class);
+        cf.setAddress(ADDRESS);
+        return cf.create(Greeter.class);
+    }
+
+    @Test
+    public void testRequestResponse() throws Exception {
+        Greeter greeter = createClient();
+
+        assertEquals("Hello objects", greeter.greetMe("objects"));
+        assertEquals("Bonjour", greeter.sayHi());
+        assertEquals(2, greeterImpl.getInvocationCount());
+        assertEquals(0, receiveCounter.count.get());
+    }
+
+    @Test
+    public void testDeclaredFault() throws Exception {
+        Greeter greeter = createClient();
+
+        try {
+            greeter.testDocLitFault(BadRecordLitFault.class.getSimpleName());
+            fail("BadRecordLitFault expected");
+        } catch (BadRecordLitFault ex) {
+            // the fault is handed over as it is thrown by the implementation
+            assertEquals("TestBadRecordLit", ex.getMessage());
+            assertEquals("BadRecordLitFault", ex.getFaultInfo());
+        }
+        assertEquals(1, greeterImpl.getInvocationCount());
+        assertEquals(0, receiveCounter.count.get());
+    }
+
+    @Test
+    public void testOneWay() throws Exception {
+        Greeter greeter = createClient();
+
+        greeter.greetMeOneWay("objects");
+        // the server is invoked on the calling thread
+        assertEquals(1, greeterImpl.getInvocationCount());
+        assertEquals(0, receiveCounter.count.get());
+
+        assertEquals("Hello again", greeter.greetMe("again"));
+        assertEquals(2, greeterImpl.getInvocationCount());
+        assertEquals(0, receiveCounter.count.get());
+    }
+
+    @Test
+    public void testWireFormInterceptorFallback() throws Exception {
+        server.getEndpoint().getInInterceptors().add(new LoggingInInterceptor());
+        Greeter greeter = createClient();
+
+        assertEquals("Hello wire", greeter.greetMe("wire"));
+        assertEquals(1, greeterImpl.getInvocationCount());
+        assertEquals(1, receiveCounter.count.get());
+    }
+
+    @Test
+    public void testObjectDispatchDisabledPerRequest() throws Exception {
+        Greeter greeter = createClient();
+        ((BindingProvider)greeter).getRequestContext().put(LocalConduit.OBJECT_DISPATCH, Boolean.FALSE);
+
+        assertEquals("Hello wire", greeter.greetMe("wire"));
+        assertEquals(1, receiveCounter.count.get());
+    }
+
+    static class ReceiveCounter extends AbstractPhaseInterceptor<Message> {
+        final AtomicInteger count = new AtomicInteger();
+
+        ReceiveCounter() {
+            super(Phase.RECEIVE);
+        }
+
+        public void handleMessage(Message message) throws Fault {
+            count.incrementAndGet();
+        }
+    }
+}
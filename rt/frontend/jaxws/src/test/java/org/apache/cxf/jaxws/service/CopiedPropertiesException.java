@@ -0,0 +1,53 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxws.service;
+
+import javax.xml.ws.WebFault;
+
+/**
+ * Exception without getFaultInfo(), its properties are copied from and to the fault bean.
+ * The fields are named differently than the fault bean ones so that only the accessors match.
+ */
+@WebFault(faultBean = "org.apache.cxf.jaxws.service.FaultDetail")
+public class CopiedPropertiesException extends Exception {
+    private static final long serialVersionUID = 1L;
+    private int faultCode;
+    private String faultDetail;
+
+    public CopiedPropertiesException(String message) {
+        super(message);
+    }
+
+    public int getCode() {
+        return faultCode;
+    }
+
+    public void setCode(int code) {
+        this.faultCode = code;
+    }
+
+    public String getDetail() {
+        return faultDetail;
+    }
+
+    public void setDetail(String detail) {
+        this.faultDetail = detail;
+    }
+}
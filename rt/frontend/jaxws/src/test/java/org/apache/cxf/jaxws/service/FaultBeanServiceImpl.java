@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxws.service;
+
+@javax.jws.WebService(endpointInterface = "org.apache.cxf.jaxws.service.FaultBeanService")
+public class FaultBeanServiceImpl implements FaultBeanService {
+
+    public void failWithProperties(int code, String detail) throws CopiedPropertiesException {
+        CopiedPropertiesException ex = new CopiedPropertiesException("properties");
+        ex.setCode(code);
+        ex.setDetail(detail);
+        throw ex;
+    }
+
+    public void failWithFaultInfo(int code, String detail) throws FaultInfoException {
+        FaultDetail faultInfo = new FaultDetail();
+        faultInfo.setCode(code);
+        faultInfo.setDetail(detail);
+        throw new FaultInfoException("fault info", faultInfo);
+    }
+}
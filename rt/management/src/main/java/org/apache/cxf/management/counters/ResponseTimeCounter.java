@@ -19,28 +19,30 @@
 package org.apache.cxf.management.counters;
 
 
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.management.ObjectName;
 
 import org.apache.cxf.message.FaultMode;
 
+/**
+ * Response time counter which can be updated concurrently without locking, the counts and
+ * totals are kept in {@link LongAdder}s and the minimum and maximum in {@link LongAccumulator}s.
+ * The values read while the counter is being updated are not necessarily consistent with each other.
+ */
 public class ResponseTimeCounter implements ResponseTimeCounterMBean, Counter {
 
     private ObjectName objectName;
-    private final AtomicInteger invocations = new AtomicInteger();
-    private final AtomicInteger checkedApplicationFaults = new AtomicInteger();
-    private final AtomicInteger unCheckedApplicationFaults = new AtomicInteger();
-    private final AtomicInteger runtimeFaults = new AtomicInteger();
-    private final AtomicInteger logicalRuntimeFaults = new AtomicInteger();
-    private final AtomicLong totalHandlingTime = new AtomicLong();
-    private final ReentrantLock write = new ReentrantLock();
-    private final AtomicLong maxHandlingTime = new AtomicLong();
-    private final AtomicLong minHandlingTime = new AtomicLong();;
-    private final AtomicLong averageProcessingTime = new AtomicLong();;
-    private boolean enabled = true;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder checkedApplicationFaults = new LongAdder();
+    private final LongAdder unCheckedApplicationFaults = new LongAdder();
+    private final LongAdder runtimeFaults = new LongAdder();
+    private final LongAdder logicalRuntimeFaults = new LongAdder();
+    private final LongAdder totalHandlingTime = new LongAdder();
+    private final LongAccumulator maxHandlingTime = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator minHandlingTime = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private volatile boolean enabled = true;
 
     public ResponseTimeCounter(ObjectName on) {
         objectName = on;
@@ -59,52 +61,46 @@ public class ResponseTimeCounter implements ResponseTimeCounterMBean, Counter {
         } else {
             handlingTime = mhtr.getHandlingTime();
         }
-        write.lock();
-        try {
-            FaultMode faultMode = mhtr.getFaultMode();
-
-            invocations.getAndIncrement();
-            if (null == faultMode) {
-                // no exception occured
-            } else {
-                switch (faultMode) {
-                case CHECKED_APPLICATION_FAULT:
-                    checkedApplicationFaults.incrementAndGet();
-                    break;
-                case LOGICAL_RUNTIME_FAULT:
-                    logicalRuntimeFaults.incrementAndGet();
-                    break;
-                case RUNTIME_FAULT:
-                    runtimeFaults.incrementAndGet();
-                    break;
-                case UNCHECKED_APPLICATION_FAULT:
-                    unCheckedApplicationFaults.incrementAndGet();
-                    break;
-                default:
-                    runtimeFaults.incrementAndGet();
-                    break;
-                }
+        FaultMode faultMode = mhtr.getFaultMode();
+
+        if (null == faultMode) {
+            // no exception occured
+        } else {
+            switch (faultMode) {
+            case CHECKED_APPLICATION_FAULT:
+                checkedApplicationFaults.increment();
+                break;
+            case LOGICAL_RUNTIME_FAULT:
+                logicalRuntimeFaults.increment();
+                break;
+            case RUNTIME_FAULT:
+                runtimeFaults.increment();
+                break;
+            case UNCHECKED_APPLICATION_FAULT:
+                unCheckedApplicationFaults.increment();
+                break;
+            default:
+                runtimeFaults.increment();
+                break;
             }
-            totalHandlingTime.addAndGet(handlingTime);
-            averageProcessingTime.getAndSet(totalHandlingTime.get() / invocations.get());
-        } finally {
-            write.unlock();
         }
-        updateMax(handlingTime);
-        updateMin(handlingTime);
+        totalHandlingTime.add(handlingTime);
+        maxHandlingTime.accumulate(handlingTime);
+        minHandlingTime.accumulate(handlingTime);
+        // counted last so that the average is not computed from a total missing this invocation
+        invocations.increment();
     }
 
     public void reset() {
-        invocations.set(0);
-        checkedApplicationFaults.set(0);
-        unCheckedApplicationFaults.set(0);
-        runtimeFaults.set(0);
-        logicalRuntimeFaults.set(0);
-
-        totalHandlingTime.set(0);
-        maxHandlingTime.set(0);
-        minHandlingTime.set(0);
-        averageProcessingTime.set(0);
+        invocations.reset();
+        checkedApplicationFaults.reset();
+        unCheckedApplicationFaults.reset();
+        runtimeFaults.reset();
+        logicalRuntimeFaults.reset();
+
+        totalHandlingTime.reset();
+        maxHandlingTime.reset();
+        minHandlingTime.reset();
     }
 
     public ObjectName getObjectName() {
@@ -112,7 +108,8 @@ public class ResponseTimeCounter implements ResponseTimeCounterMBean, Counter {
     }
 
     public Number getAvgResponseTime() {
-        return averageProcessingTime.get();
+        long count = invocations.sum();
+        return count == 0 ? 0L : totalHandlingTime.sum() / count;
     }
 
     public Number getMaxResponseTime() {
@@ -120,31 +117,32 @@ public class ResponseTimeCounter implements ResponseTimeCounterMBean, Counter {
     }
 
     public Number getMinResponseTime() {
-        return minHandlingTime.get();
+        long min = minHandlingTime.get();
+        return min == Long.MAX_VALUE ? 0L : min;
     }
 
     public Number getNumInvocations() {
-        return invocations.get();
+        return invocations.intValue();
     }
 
     public Number getNumCheckedApplicationFaults() {
-        return checkedApplicationFaults.get();
+        return checkedApplicationFaults.intValue();
     }
 
     public Number getNumLogicalRuntimeFaults() {
-        return logicalRuntimeFaults.get();
+        return logicalRuntimeFaults.intValue();
     }
 
     public Number getNumRuntimeFaults() {
-        return runtimeFaults.get();
+        return runtimeFaults.intValue();
     }
 
     public Number getNumUnCheckedApplicationFaults() {
-        return unCheckedApplicationFaults.get();
+        return unCheckedApplicationFaults.intValue();
     }
 
     public Number getTotalHandlingTime() {
-        return totalHandlingTime;
+        return totalHandlingTime.sum();
     }
 
     @Override
@@ -157,28 +155,4 @@ public class ResponseTimeCounter implements ResponseTimeCounterMBean, Counter {
     public boolean isEnabled() {
         return enabled;
     }
-
-    private void updateMax(long handleTime) {
-        while (true) {
-            long current = maxHandlingTime.get();
-            if (current >= handleTime) {
-                break;
-            }
-            if (maxHandlingTime.compareAndSet(current, handleTime)) {
-                break;
-            }
-        }
-    }
-
-    private void updateMin(long handleTime) {
-        while (true) {
-            long current = minHandlingTime.get();
-            if (current < handleTime && current != 0) {
-                break;
-            }
-            if (minHandlingTime.compareAndSet(current, handleTime)) {
-                break;
-            }
-        }
-    }
 }
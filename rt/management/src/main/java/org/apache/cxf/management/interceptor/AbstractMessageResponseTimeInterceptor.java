@@ -18,6 +18,8 @@
  */
 package org.apache.cxf.management.interceptor;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,6 +30,7 @@ import org.apache.cxf.Bus;
 import org.apache.cxf.BusFactory;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.management.ManagementConstants;
 import org.apache.cxf.management.counters.Counter;
 import org.apache.cxf.management.counters.CounterRepository;
@@ -44,6 +47,8 @@ public abstract class AbstractMessageResponseTimeInterceptor extends AbstractPha
     private static final Logger LOG = LogUtils.getL7dLogger(AbstractMessageResponseTimeInterceptor.class);
     private static final String QUESTION_MARK = "?";
     private static final String ESCAPED_QUESTION_MARK = "\\?";
+    private static final String OPERATION_COUNTER_NAMES =
+        "org.apache.cxf.management.operation.counter.names";
 
     AbstractMessageResponseTimeInterceptor(String phase) {
         super(phase);
@@ -179,26 +184,58 @@ public abstract class AbstractMessageResponseTimeInterceptor extends AbstractPha
 
         if (operationName == null) {
             Object nameProperty = ex.get("org.apache.cxf.resource.operation.name");
-            if (nameProperty != null) {
-                operationName = "\"" + escapePatternChars(nameProperty.toString()) + "\"";
+            if (nameProperty == null) {
+                return sericeCounterName;
             }
+            Map<String, ObjectName> names = getResourceOperationCounterNames(ex);
+            if (names != null) {
+                ObjectName o = names.get(nameProperty.toString());
+                if (o != null) {
+                    return o;
+                }
+            }
+            operationName = "\"" + escapePatternChars(nameProperty.toString()) + "\"";
+            ObjectName operationCounter = createOperationCounterName(sericeCounterName, operationName);
+            if (names != null && operationCounter != null) {
+                names.put(nameProperty.toString(), operationCounter);
+            }
+            return operationCounter;
         }
-        StringBuilder buffer = new StringBuilder(sericeCounterName.toString());
-        if (operationName != null) {
-            buffer.append("," + ManagementConstants.OPERATION_NAME_PROP + "=" + operationName);
+        ObjectName operationCounter = createOperationCounterName(sericeCounterName, operationName);
+        if (operationCounter != null) {
+            opInfo.setProperty("javax.management.ObjectName", operationCounter);
         }
-        String operationCounterName = buffer.toString();
-        ObjectName operationCounter = null;
+        return operationCounter;
+
+    }
+
+    private static ObjectName createOperationCounterName(ObjectName sericeCounterName, String operationName) {
+        String operationCounterName = sericeCounterName.toString()
+            + "," + ManagementConstants.OPERATION_NAME_PROP + "=" + operationName;
         try {
-            operationCounter = new ObjectName(operationCounterName);
-            if (opInfo != null) {
-                opInfo.setProperty("javax.management.ObjectName", operationCounter);
-            }
+            return new ObjectName(operationCounterName);
         } catch (MalformedObjectNameException e) {
             LOG.log(Level.WARNING, "CREATE_COUNTER_OBJECTNAME_FAILED", e);
+            return null;
         }
-        return operationCounter;
+    }
 
+    /**
+     * Returns the cache of the operation counter names of the operations without the
+     * operation info, such as JAX-RS resource methods, or null if the names can not be cached
+     */
+    private static Map<String, ObjectName> getResourceOperationCounterNames(Exchange ex) {
+        Endpoint endpoint = ex.getEndpoint();
+        if (endpoint == null || ex.get("org.apache.cxf.management.service.counter.name") != null) {
+            // the service counter name is set per exchange
+            return null;
+        }
+        Object names = endpoint.get(OPERATION_COUNTER_NAMES);
+        if (names == null) {
+            endpoint.putIfAbsent(OPERATION_COUNTER_NAMES, new ConcurrentHashMap<String, ObjectName>());
+            names = endpoint.get(OPERATION_COUNTER_NAMES);
+        }
+        return CastUtils.cast((Map<?, ?>)names);
     }
     protected String escapePatternChars(String value) {
         // This can be replaced if really needed with pattern-based matching
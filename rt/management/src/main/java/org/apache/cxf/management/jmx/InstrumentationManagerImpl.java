@@ -47,6 +47,7 @@ import org.apache.cxf.Bus;
 import org.apache.cxf.bus.ManagedBus;
 import org.apache.cxf.buslifecycle.BusLifeCycleListener;
 import org.apache.cxf.buslifecycle.BusLifeCycleManager;
+import org.apache.cxf.common.jaxb.ManagedJAXBContextCache;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.management.InstrumentationManager;
@@ -106,6 +107,7 @@ public class InstrumentationManagerImpl extends JMXConnectorPolicyType
                     if (LOG.isLoggable(Level.INFO)) {
                         LOG.info("unregistered " + mbus.getObjectName());
                     }
+                    im.unregister(new ManagedJAXBContextCache(bus));
                 } catch (JMException e) {
                     // ignore
                 }
@@ -186,6 +188,7 @@ public class InstrumentationManagerImpl extends JMXConnectorPolicyType
                     if (LOG.isLoggable(Level.INFO)) {
                         LOG.info("registered " + mbus.getObjectName());
                     }
+                    register(new ManagedJAXBContextCache(bus));
                 } catch (JMException jmex) {
                     LOG.log(Level.SEVERE, "REGISTER_FAILURE_MSG", new Object[]{bus, jmex});
                 }
@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.management.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary encoding of the {@link ExchangeData} log records. A record is the payload length,
+ * the payload and the CRC32 checksum of the payload, a record which has not been completely
+ * written is detected by its length or checksum.
+ */
+final class ExchangeDataCodec {
+    static final int HEADER_SIZE = 4;
+    static final int TRAILER_SIZE = 8;
+    private static final byte VERSION = 1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private ExchangeDataCodec() {
+
+    }
+
+    /**
+     * Returns the complete record, including the length and the checksum
+     */
+    static byte[] encode(ExchangeData data) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bos);
+        out.writeInt(0);
+        out.writeByte(VERSION);
+        writeInteger(out, data.getId());
+        writeDate(out, data.getInDate());
+        writeDate(out, data.getOutDate());
+        writeString(out, data.getServiceName());
+        writeString(out, data.getOperation());
+        writeString(out, data.getStatus());
+        writeString(out, data.getUri());
+        writeString(out, data.getUserAgent());
+        writeString(out, data.getEncoding());
+        writeInteger(out, data.getRequestSize());
+        writeInteger(out, data.getResponseSize());
+        writeString(out, data.getRequest());
+        writeString(out, data.getResponse());
+        writeString(out, data.getExceptionType());
+        writeString(out, data.getStackTrace());
+        List<ExchangeDataProperty> properties = data.getProperties();
+        out.writeInt(properties == null ? -1 : properties.size());
+        if (properties != null) {
+            for (ExchangeDataProperty property : properties) {
+                writeInteger(out, property.getId());
+                writeString(out, property.getName());
+                writeString(out, property.getValue());
+            }
+        }
+        out.writeLong(0);
+        out.flush();
+
+        byte[] record = bos.toByteArray();
+        int length = record.length - HEADER_SIZE - TRAILER_SIZE;
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        buffer.putInt(0, length);
+        CRC32 crc = new CRC32();
+        crc.update(record, HEADER_SIZE, length);
+        buffer.putLong(HEADER_SIZE + length, crc.getValue());
+        return record;
+    }
+
+    /**
+     * Checks the checksum of a record payload
+     */
+    static boolean isValid(byte[] payload, long checksum) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return crc.getValue() == checksum;
+    }
+
+    static ExchangeData decode(DataInputStream in) throws IOException {
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported exchange data record version " + version);
+        }
+        ExchangeData data = new ExchangeData();
+        data.setId(readInteger(in));
+        data.setInDate(readDate(in));
+        data.setOutDate(readDate(in));
+        data.setServiceName(readString(in));
+        data.setOperation(readString(in));
+        data.setStatus(readString(in));
+        data.setUri(readString(in));
+        data.setUserAgent(readString(in));
+        data.setEncoding(readString(in));
+        data.setRequestSize(readInteger(in));
+        data.setResponseSize(readInteger(in));
+        data.setRequest(readString(in));
+        data.setResponse(readString(in));
+        data.setExceptionType(readString(in));
+        data.setStackTrace(readString(in));
+        int count = in.readInt();
+        if (count >= 0) {
+            List<ExchangeDataProperty> properties = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ExchangeDataProperty property = new ExchangeDataProperty();
+                property.setId(readInteger(in));
+                property.setName(readString(in));
+                property.setValue(readString(in));
+                property.setExchangeData(data);
+                properties.add(property);
+            }
+            data.setProperties(properties);
+        }
+        return data;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeDate(DataOutputStream out, Date value) throws IOException {
+        out.writeLong(value == null ? NO_DATE : value.getTime());
+    }
+
+    private static Date readDate(DataInputStream in) throws IOException {
+        long time = in.readLong();
+        return time == NO_DATE ? null : new Date(time);
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.management.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * Reads the exchange data records written by {@link SegmentedExchangeDataDAO} in the order they
+ * have been written, for example, to replay the persisted exchanges. The records of a segment
+ * which follow an incomplete or corrupted record are skipped.
+ */
+public class ExchangeDataLogReader implements Closeable {
+    public static final String SEGMENT_PREFIX = "exchanges-";
+    public static final String SEGMENT_SUFFIX = ".log";
+
+    private static final Logger LOG = LogUtils.getL7dLogger(ExchangeDataLogReader.class);
+
+    private final List<File> segments;
+    private int segmentIndex = -1;
+    private DataInputStream in;
+    private long position;
+    private long recordOffset;
+    private int recordLength;
+
+    public ExchangeDataLogReader(File directory) {
+        this(getSegments(directory));
+    }
+
+    public ExchangeDataLogReader(List<File> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Returns the segment files of a log directory, oldest first
+     */
+    public static List<File> getSegments(File directory) {
+        File[] files = directory.listFiles((dir, name) ->
+            name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX) && getSequence(name) >= 0);
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        List<File> segments = new ArrayList<>(Arrays.asList(files));
+        segments.sort((f1, f2) -> Long.compare(getSequence(f1.getName()), getSequence(f2.getName())));
+        return segments;
+    }
+
+    static long getSequence(String name) {
+        try {
+            String sequence = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+            return Long.parseLong(sequence);
+        } catch (RuntimeException ex) {
+            return -1;
+        }
+    }
+
+    static String getSegmentName(long sequence) {
+        return SEGMENT_PREFIX + String.format("%020d", sequence) + SEGMENT_SUFFIX;
+    }
+
+    /**
+     * Returns the next record or null if all the records have been read
+     */
+    public ExchangeData read() throws IOException {
+        while (true) {
+            if (in == null) {
+                if (++segmentIndex >= segments.size()) {
+                    return null;
+                }
+                in = new DataInputStream(new BufferedInputStream(
+                    Files.newInputStream(segments.get(segmentIndex).toPath())));
+                position = 0;
+            }
+            ExchangeData data = readRecord();
+            if (data != null) {
+                return data;
+            }
+            closeSegment();
+        }
+    }
+
+    /**
+     * Returns the segment of the record which has been read last
+     */
+    File getSegment() {
+        return segments.get(segmentIndex);
+    }
+
+    long getRecordOffset() {
+        return recordOffset;
+    }
+
+    int getRecordLength() {
+        return recordLength;
+    }
+
+    public void close() throws IOException {
+        closeSegment();
+        segmentIndex = segments.size();
+    }
+
+    private ExchangeData readRecord() throws IOException {
+        long offset = position;
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException ex) {
+            return null;
+        }
+        try {
+            if (length <= 0) {
+                throw new IOException("Invalid record length " + length);
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            long checksum = in.readLong();
+            if (!ExchangeDataCodec.isValid(payload, checksum)) {
+                throw new IOException("Invalid record checksum");
+            }
+            ExchangeData data = ExchangeDataCodec.decode(new DataInputStream(new ByteArrayInputStream(payload)));
+            recordOffset = offset;
+            recordLength = ExchangeDataCodec.HEADER_SIZE + length + ExchangeDataCodec.TRAILER_SIZE;
+            position = offset + recordLength;
+            return data;
+        } catch (IOException | OutOfMemoryError ex) {
+            LOG.warning("Incomplete or corrupted exchange data record at " + offset
+                + " in " + segments.get(segmentIndex) + ", the rest of the segment is skipped: " + ex);
+            return null;
+        }
+    }
+
+    private void closeSegment() throws IOException {
+        if (in != null) {
+            try {
+                in.close();
+            } finally {
+                in = null;
+            }
+        }
+    }
+}
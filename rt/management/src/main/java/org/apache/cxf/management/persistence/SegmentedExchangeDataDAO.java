@@ -0,0 +1,624 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.management.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * Appends the exchange data to the size limited segment files of a directory.
+ * <p>
+ * {@link #save(ExchangeData)} only queues the exchange data, the records are encoded and written
+ * by a background thread, in batches. If the queue is full the exchange data is dropped rather than
+ * blocking the caller, see {@link #getDropped()}. The oldest segments are deleted once there are more
+ * than {@link #setMaxSegments(int) maxSegments} segments or once their records are older than
+ * {@link #setMaxAge(long) maxAge}.
+ * <p>
+ * The time, service name and status of the records are indexed per segment so that
+ * {@link #find(Date, Date, String, String)} skips the segments outside of the requested time range and
+ * only reads the matching records. The index of the segment being written and of the
+ * {@link #setMaxIndexedSegments(int) maxIndexedSegments} most recently searched segments is kept in
+ * memory, the index of the other segments is read again from the segment when it is searched. The
+ * index is rebuilt from the existing segments when the first exchange is saved or looked up. All the
+ * records can be read with {@link ExchangeDataLogReader}.
+ */
+public class SegmentedExchangeDataDAO implements ExchangeDataDAO, Closeable {
+    public static final long DEFAULT_MAX_SEGMENT_SIZE = 64L * 1024 * 1024;
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+    public static final int DEFAULT_MAX_INDEXED_SEGMENTS = 16;
+
+    private static final Logger LOG = LogUtils.getL7dLogger(SegmentedExchangeDataDAO.class);
+    private static final int BATCH_SIZE = 256;
+    private static final int MAX_SEGMENT_NAME_ATTEMPTS = 100;
+
+    private String directory;
+    private long maxSegmentSize = DEFAULT_MAX_SEGMENT_SIZE;
+    private int maxSegments;
+    private long maxAge;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private int maxIndexedSegments = DEFAULT_MAX_INDEXED_SEGMENTS;
+
+    private final Object openLock = new Object();
+    private volatile BlockingQueue<ExchangeData> queue;
+    private volatile boolean closed;
+    private volatile Thread writer;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // guarded by segments
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Map<String, String> names = new HashMap<>();
+    private long accessCount;
+
+    // only used by the writer thread
+    private Segment current;
+    private FileChannel channel;
+    private long nextSequence;
+
+    public SegmentedExchangeDataDAO() {
+
+    }
+
+    public SegmentedExchangeDataDAO(String directory) {
+        this.directory = directory;
+    }
+
+    public void save(ExchangeData exchangeData) throws Exception {
+        if (closed) {
+            throw new IllegalStateException("Exchange data log has been closed");
+        }
+        BlockingQueue<ExchangeData> q = open();
+        if (q.offer(exchangeData)) {
+            queued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine("Exchange data queue is full, the exchange data of "
+                    + exchangeData.getServiceName() + " has been dropped");
+            }
+        }
+    }
+
+    /**
+     * Returns the saved exchange data matching all the given criteria
+     * @param from the earliest time, inclusive, can be null
+     * @param to the latest time, exclusive, can be null
+     * @param serviceName the service name, can be null
+     * @param status the status, can be null
+     */
+    public List<ExchangeData> find(Date from, Date to, String serviceName, String status) throws IOException {
+        open();
+        long fromTime = from == null ? Long.MIN_VALUE : from.getTime();
+        long toTime = to == null ? Long.MAX_VALUE : to.getTime();
+        List<Segment> candidates = new ArrayList<>();
+        synchronized (segments) {
+            for (Segment segment : segments) {
+                if (segment.count > 0 && segment.lastTime >= fromTime && segment.firstTime < toTime) {
+                    candidates.add(segment);
+                }
+            }
+        }
+        List<ExchangeData> result = new ArrayList<>();
+        for (Segment segment : candidates) {
+            IndexEntry[] entries;
+            int count;
+            synchronized (segments) {
+                // the entries below count are never modified, they can be scanned without the lock
+                entries = segment.entries;
+                count = segment.count;
+                segment.lastAccess = ++accessCount;
+            }
+            if (entries == null) {
+                entries = loadIndex(segment);
+                count = entries.length;
+            }
+            List<IndexEntry> matches = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                IndexEntry entry = entries[i];
+                if (entry.time >= fromTime && entry.time < toTime
+                    && (serviceName == null || serviceName.equals(entry.serviceName))
+                    && (status == null || status.equals(entry.status))) {
+                    matches.add(entry);
+                }
+            }
+            if (!matches.isEmpty()) {
+                read(segment, matches, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Waits until the exchange data queued so far has been written
+     */
+    public void flush() throws InterruptedException {
+        long target = queued.get();
+        synchronized (processed) {
+            while (processed.get() < target && writer != null && writer.isAlive()) {
+                processed.wait(100);
+            }
+        }
+    }
+
+    /**
+     * Writes the queued exchange data and stops the writer thread
+     */
+    public void close() throws IOException {
+        Thread t;
+        synchronized (openLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            t = writer;
+        }
+        if (t != null) {
+            try {
+                t.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getRecordCount() {
+        synchronized (segments) {
+            int count = 0;
+            for (Segment segment : segments) {
+                count += segment.count;
+            }
+            return count;
+        }
+    }
+
+    public int getSegmentCount() {
+        synchronized (segments) {
+            return segments.size();
+        }
+    }
+
+    private BlockingQueue<ExchangeData> open() throws IOException {
+        BlockingQueue<ExchangeData> q = queue;
+        if (q != null) {
+            return q;
+        }
+        synchronized (openLock) {
+            if (closed) {
+                throw new IllegalStateException("Exchange data log has been closed");
+            }
+            if (queue == null) {
+                if (directory == null) {
+                    throw new IllegalStateException("Exchange data log directory is not set");
+                }
+                File dir = new File(directory);
+                Files.createDirectories(dir.toPath());
+                recover(dir);
+                applyRetention();
+                queue = new ArrayBlockingQueue<>(queueCapacity);
+                writer = new Thread(this::run, "cxf-exchange-log-writer");
+                writer.setDaemon(true);
+                writer.start();
+            }
+            return queue;
+        }
+    }
+
+    private void recover(File dir) throws IOException {
+        for (File file : ExchangeDataLogReader.getSegments(dir)) {
+            Segment segment = new Segment(file, ExchangeDataLogReader.getSequence(file.getName()));
+            for (IndexEntry entry : readIndex(file)) {
+                addEntry(segment, entry);
+            }
+            segment.size = file.length();
+            synchronized (segments) {
+                segments.addLast(segment);
+                trimIndexes();
+            }
+            nextSequence = segment.sequence + 1;
+        }
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Exchange data log " + dir + " has " + getRecordCount() + " records in "
+                + getSegmentCount() + " segments");
+        }
+    }
+
+    private void run() {
+        BlockingQueue<ExchangeData> q = queue;
+        List<ExchangeData> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                ExchangeData first;
+                try {
+                    first = q.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ex) {
+                    first = null;
+                }
+                if (first == null) {
+                    if (closed && q.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                q.drainTo(batch, BATCH_SIZE - 1);
+                try {
+                    write(batch);
+                    applyRetention();
+                } catch (RuntimeException ex) {
+                    // keep the writer thread alive, the next batches may well be written
+                    LOG.log(Level.WARNING, "Exchange data log " + directory + " can not be updated", ex);
+                } finally {
+                    synchronized (processed) {
+                        processed.addAndGet(batch.size());
+                        processed.notifyAll();
+                    }
+                    batch.clear();
+                }
+            }
+        } finally {
+            closeChannel();
+        }
+    }
+
+    private void write(List<ExchangeData> batch) {
+        List<ByteBuffer> buffers = new ArrayList<>(batch.size());
+        List<IndexEntry> entries = new ArrayList<>(batch.size());
+        long now = System.currentTimeMillis();
+        // the records which have been written or dropped so far
+        int done = 0;
+        try {
+            for (ExchangeData data : batch) {
+                byte[] record;
+                try {
+                    record = ExchangeDataCodec.encode(data);
+                } catch (IOException | RuntimeException ex) {
+                    done++;
+                    dropped.incrementAndGet();
+                    LOG.log(Level.WARNING, "Exchange data can not be encoded", ex);
+                    continue;
+                }
+                if (current == null || current.size > 0 && current.size + record.length > maxSegmentSize) {
+                    done += writeBuffers(buffers, entries);
+                    rotate();
+                }
+                entries.add(new IndexEntry(getTime(data, now), intern(data.getServiceName()),
+                                           intern(data.getStatus()), current.size, record.length));
+                buffers.add(ByteBuffer.wrap(record));
+                current.size += record.length;
+            }
+            writeBuffers(buffers, entries);
+        } catch (IOException | RuntimeException ex) {
+            dropped.addAndGet(batch.size() - done);
+            LOG.log(Level.WARNING, "Exchange data can not be written to " + directory, ex);
+            // the next records go to a new segment rather than after a partially written record
+            closeChannel();
+        }
+    }
+
+    private int writeBuffers(List<ByteBuffer> buffers, List<IndexEntry> entries) throws IOException {
+        if (buffers.isEmpty()) {
+            return 0;
+        }
+        ByteBuffer[] srcs = buffers.toArray(new ByteBuffer[0]);
+        ByteBuffer last = srcs[srcs.length - 1];
+        while (last.hasRemaining()) {
+            channel.write(srcs);
+        }
+        for (IndexEntry entry : entries) {
+            addEntry(current, entry);
+        }
+        int count = entries.size();
+        buffers.clear();
+        entries.clear();
+        return count;
+    }
+
+    private void rotate() throws IOException {
+        closeChannel();
+        for (int attempt = 1;; attempt++) {
+            // the sequence number is used up even if the segment can not be created, so that a failure
+            // does not make all the later segments fail the same way
+            long sequence = nextSequence++;
+            File file = new File(directory, ExchangeDataLogReader.getSegmentName(sequence));
+            try {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW,
+                                           StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            } catch (FileAlreadyExistsException ex) {
+                if (attempt >= MAX_SEGMENT_NAME_ATTEMPTS) {
+                    throw ex;
+                }
+                LOG.warning("Exchange data log segment " + file + " already exists, the next name is used");
+                continue;
+            }
+            Segment segment = new Segment(file, sequence);
+            current = segment;
+            synchronized (segments) {
+                segments.addLast(segment);
+                trimIndexes();
+            }
+            return;
+        }
+    }
+
+    private void closeChannel() {
+        current = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                LOG.log(Level.FINE, "Exchange data log segment can not be closed", ex);
+            }
+            channel = null;
+        }
+    }
+
+    private void applyRetention() {
+        long minTime = maxAge > 0 ? System.currentTimeMillis() - maxAge * 1000L : Long.MIN_VALUE;
+        List<Segment> deleted = new ArrayList<>();
+        synchronized (segments) {
+            while (!segments.isEmpty() && segments.peekFirst() != current
+                && (maxSegments > 0 && segments.size() > maxSegments
+                    || segments.peekFirst().lastTime < minTime)) {
+                deleted.add(segments.pollFirst());
+            }
+        }
+        for (Segment segment : deleted) {
+            try {
+                Files.deleteIfExists(segment.file.toPath());
+            } catch (IOException ex) {
+                LOG.log(Level.WARNING, "Exchange data log segment " + segment.file + " can not be deleted", ex);
+            }
+        }
+    }
+
+    private void addEntry(Segment segment, IndexEntry entry) {
+        synchronized (segments) {
+            if (segment.entries != null) {
+                if (segment.count == segment.entries.length) {
+                    // find() may still scan the previous array, it is replaced rather than modified
+                    segment.entries = Arrays.copyOf(segment.entries, Math.max(16, segment.count * 2));
+                }
+                segment.entries[segment.count] = entry;
+            }
+            segment.count++;
+            if (segment.firstTime > entry.time) {
+                segment.firstTime = entry.time;
+            }
+            if (segment.lastTime < entry.time) {
+                segment.lastTime = entry.time;
+            }
+        }
+    }
+
+    /**
+     * Drops the in-memory index of the least recently searched segments, the index of the last segment,
+     * which may still be written to, is always kept
+     */
+    private void trimIndexes() {
+        while (true) {
+            Segment oldest = null;
+            int indexed = 0;
+            Segment last = segments.peekLast();
+            for (Segment segment : segments) {
+                if (segment.entries != null && segment != last) {
+                    indexed++;
+                    if (oldest == null || segment.lastAccess < oldest.lastAccess) {
+                        oldest = segment;
+                    }
+                }
+            }
+            if (oldest == null || indexed <= maxIndexedSegments) {
+                return;
+            }
+            oldest.entries = null;
+        }
+    }
+
+    private IndexEntry[] loadIndex(Segment segment) throws IOException {
+        IndexEntry[] entries;
+        try {
+            entries = readIndex(segment.file).toArray(new IndexEntry[0]);
+        } catch (NoSuchFileException ex) {
+            // the segment has been deleted by the retention policy
+            return new IndexEntry[0];
+        }
+        synchronized (segments) {
+            if (segment.entries == null) {
+                segment.entries = entries;
+                segment.lastAccess = ++accessCount;
+                trimIndexes();
+            }
+        }
+        return entries;
+    }
+
+    private List<IndexEntry> readIndex(File file) throws IOException {
+        List<IndexEntry> entries = new ArrayList<>();
+        long fallbackTime = file.lastModified();
+        try (ExchangeDataLogReader reader = new ExchangeDataLogReader(Collections.singletonList(file))) {
+            for (ExchangeData data = reader.read(); data != null; data = reader.read()) {
+                entries.add(new IndexEntry(getTime(data, fallbackTime), intern(data.getServiceName()),
+                                           intern(data.getStatus()), reader.getRecordOffset(),
+                                           reader.getRecordLength()));
+            }
+        }
+        return entries;
+    }
+
+    private String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        synchronized (segments) {
+            String existing = names.putIfAbsent(name, name);
+            return existing == null ? name : existing;
+        }
+    }
+
+    private static void read(Segment segment, List<IndexEntry> entries, List<ExchangeData> result)
+        throws IOException {
+        FileChannel in;
+        try {
+            in = FileChannel.open(segment.file.toPath(), StandardOpenOption.READ);
+        } catch (NoSuchFileException ex) {
+            // the segment has been deleted by the retention policy
+            return;
+        }
+        try {
+            for (IndexEntry entry : entries) {
+                ExchangeData data = read(in, entry);
+                if (data != null) {
+                    result.add(data);
+                }
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private static ExchangeData read(FileChannel in, IndexEntry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, entry.offset + buffer.position()) < 0) {
+                return null;
+            }
+        }
+        byte[] payload = new byte[entry.length - ExchangeDataCodec.HEADER_SIZE - ExchangeDataCodec.TRAILER_SIZE];
+        buffer.position(ExchangeDataCodec.HEADER_SIZE);
+        buffer.get(payload);
+        if (!ExchangeDataCodec.isValid(payload, buffer.getLong())) {
+            return null;
+        }
+        return ExchangeDataCodec.decode(new DataInputStream(new ByteArrayInputStream(payload)));
+    }
+
+    private static long getTime(ExchangeData data, long fallbackTime) {
+        if (data.getInDate() != null) {
+            return data.getInDate().getTime();
+        }
+        return data.getOutDate() != null ? data.getOutDate().getTime() : fallbackTime;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Sets the size in bytes after which a new segment is started, 64MB by default
+     */
+    public void setMaxSegmentSize(long maxSegmentSize) {
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    /**
+     * Sets the maximum number of segments to keep, unlimited by default
+     */
+    public void setMaxSegments(int maxSegments) {
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * Sets the time in seconds after which a segment is deleted once all its records are older,
+     * unlimited by default
+     */
+    public void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Sets the maximum number of the exchanges waiting to be written, 10000 by default
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Sets the number of segments, besides the one being written, whose index is kept in memory,
+     * 16 by default
+     */
+    public void setMaxIndexedSegments(int maxIndexedSegments) {
+        this.maxIndexedSegments = maxIndexedSegments;
+    }
+
+    private static final class Segment {
+        private final File file;
+        private final long sequence;
+        private long size;
+        // guarded by segments
+        private long firstTime = Long.MAX_VALUE;
+        private long lastTime = Long.MIN_VALUE;
+        private int count;
+        private IndexEntry[] entries = new IndexEntry[16];
+        private long lastAccess;
+
+        Segment(File file, long sequence) {
+            this.file = file;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class IndexEntry {
+        private final long time;
+        private final String serviceName;
+        private final String status;
+        private final long offset;
+        private final int length;
+
+        IndexEntry(long time, String serviceName, String status, long offset, int length) {
+            this.time = time;
+            this.serviceName = serviceName;
+            this.status = status;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
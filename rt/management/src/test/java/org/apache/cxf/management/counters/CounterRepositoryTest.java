@@ -20,12 +20,14 @@ package org.apache.cxf.management.counters;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import javax.management.ObjectName;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.interceptor.Interceptor;
 import org.apache.cxf.management.InstrumentationManager;
+import org.apache.cxf.message.FaultMode;
 import org.apache.cxf.message.Message;
 
 import org.easymock.EasyMock;
@@ -166,6 +168,46 @@ public class CounterRepositoryTest {
     }
 
 
+    @Test
+    public void testConcurrentIncrease() throws Exception {
+        final ResponseTimeCounter counter = new ResponseTimeCounter(serviceCounter);
+        final int threads = 8;
+        final int increases = 1000;
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 1; i <= threads; i++) {
+            final MessageHandlingTimeRecorder mhtr = EasyMock.createMock(MessageHandlingTimeRecorder.class);
+            EasyMock.expect(mhtr.isOneWay()).andReturn(false).anyTimes();
+            EasyMock.expect(mhtr.getHandlingTime()).andReturn((long)i * 100).anyTimes();
+            EasyMock.expect(mhtr.getFaultMode()).andReturn(i % 2 == 0 ? FaultMode.RUNTIME_FAULT : null)
+                .anyTimes();
+            EasyMock.replay(mhtr);
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (int j = 0; j < increases; j++) {
+                    counter.increase(mhtr);
+                }
+            });
+            t.start();
+            workers.add(t);
+        }
+        start.countDown();
+        for (Thread t : workers) {
+            t.join();
+        }
+
+        assertEquals(threads * increases, counter.getNumInvocations());
+        assertEquals(threads / 2 * increases, counter.getNumRuntimeFaults());
+        assertEquals(36L * 100 * increases, counter.getTotalHandlingTime());
+        assertEquals(100L, counter.getMinResponseTime());
+        assertEquals(800L, counter.getMaxResponseTime());
+        assertEquals(450L, counter.getAvgResponseTime());
+    }
+
     private void verifyBus() {
         EasyMock.verify(bus);
 
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.management.counters;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.FaultMode;
+
+/**
+ * Measures the throughput of {@link ResponseTimeCounter#increase(MessageHandlingTimeRecorder)} updated
+ * by the growing number of threads, compared with the counter guarded by a lock as it used to be.
+ * Not run as part of the build, start it manually from the test classpath.
+ */
+public final class ResponseTimeCounterBenchmark {
+    private static final int[] THREADS = {1, 4, 16, 64};
+    private static final int UPDATES = 1000000;
+    private static final int ROUNDS = 5;
+
+    private ResponseTimeCounterBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads : THREADS) {
+            // the first rounds warm up the code
+            double lockFree = 0;
+            double locking = 0;
+            for (int i = 0; i < ROUNDS; ++i) {
+                ResponseTimeCounter counter = new ResponseTimeCounter(null);
+                lockFree = run(threads, counter::increase);
+                locking = run(threads, new LockingCounter()::increase);
+            }
+            System.out.println(String.format("%2d threads: lock-free %8.2f, locking %8.2f million updates/s",
+                threads, lockFree, locking));
+        }
+    }
+
+    private static double run(int threads, Consumer<MessageHandlingTimeRecorder> counter) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; ++t) {
+            final MessageHandlingTimeRecorder recorder = new MessageHandlingTimeRecorder(new ExchangeImpl());
+            recorder.beginHandling();
+            recorder.endHandling();
+            if (t % 4 == 0) {
+                recorder.setFaultMode(FaultMode.RUNTIME_FAULT);
+            }
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < UPDATES; ++i) {
+                        counter.accept(recorder);
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - started;
+        return (double)threads * UPDATES / elapsed * TimeUnit.SECONDS.toNanos(1) / 1000000;
+    }
+
+    /**
+     * Updates the same values as the counter used to, under a lock.
+     */
+    private static class LockingCounter {
+        private final ReentrantLock write = new ReentrantLock();
+        private final AtomicLong invocations = new AtomicLong();
+        private final AtomicLong runtimeFaults = new AtomicLong();
+        private final AtomicLong totalHandlingTime = new AtomicLong();
+        private final AtomicLong averageProcessingTime = new AtomicLong();
+        private final AtomicLong maxHandlingTime = new AtomicLong();
+
+        void increase(MessageHandlingTimeRecorder mhtr) {
+            long handlingTime = mhtr.getHandlingTime();
+            write.lock();
+            try {
+                invocations.getAndIncrement();
+                if (mhtr.getFaultMode() != null) {
+                    runtimeFaults.incrementAndGet();
+                }
+                totalHandlingTime.addAndGet(handlingTime);
+                averageProcessingTime.getAndSet(totalHandlingTime.get() / invocations.get());
+            } finally {
+                write.unlock();
+            }
+            maxHandlingTime.accumulateAndGet(handlingTime, Math::max);
+        }
+    }
+}
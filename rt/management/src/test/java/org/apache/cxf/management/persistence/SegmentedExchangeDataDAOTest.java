@@ -0,0 +1,222 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.management.persistence;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.cxf.helpers.FileUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SegmentedExchangeDataDAOTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("cxf-exchange-log").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.removeDir(directory);
+    }
+
+    @Test
+    public void testSaveAndFind() throws Exception {
+        SegmentedExchangeDataDAO dao = new SegmentedExchangeDataDAO(directory.getAbsolutePath());
+        dao.setMaxSegmentSize(1024);
+        for (int i = 0; i < 50; i++) {
+            dao.save(createExchangeData(i));
+        }
+        dao.flush();
+        assertEquals(50, dao.getRecordCount());
+        assertTrue(dao.getSegmentCount() > 1);
+
+        List<ExchangeData> errors = dao.find(null, null, "service1", "ERROR");
+        assertEquals(5, errors.size());
+        for (ExchangeData data : errors) {
+            assertEquals("service1", data.getServiceName());
+            assertEquals("ERROR", data.getStatus());
+            assertEquals("request" + data.getId(), data.getRequest());
+        }
+        assertEquals(10, dao.find(new Date(10000), new Date(20000), null, null).size());
+        dao.close();
+
+        try (ExchangeDataLogReader reader = new ExchangeDataLogReader(directory)) {
+            for (int i = 0; i < 50; i++) {
+                ExchangeData data = reader.read();
+                assertEquals(Integer.valueOf(i), data.getId());
+                assertEquals(new Date(i * 1000L), data.getInDate());
+                assertNull(data.getOutDate());
+                assertEquals("value" + i, data.getProperties().get(0).getValue());
+            }
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    public void testRecovery() throws Exception {
+        SegmentedExchangeDataDAO dao = new SegmentedExchangeDataDAO(directory.getAbsolutePath());
+        for (int i = 0; i < 10; i++) {
+            dao.save(createExchangeData(i));
+        }
+        dao.close();
+
+        // simulate a record which has not been completely written
+        File segment = ExchangeDataLogReader.getSegments(directory).get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        dao = new SegmentedExchangeDataDAO(directory.getAbsolutePath());
+        assertEquals(9, dao.find(null, null, null, null).size());
+        dao.save(createExchangeData(10));
+        dao.close();
+
+        List<Integer> ids = new ArrayList<>();
+        try (ExchangeDataLogReader reader = new ExchangeDataLogReader(directory)) {
+            for (ExchangeData data = reader.read(); data != null; data = reader.read()) {
+                ids.add(data.getId());
+            }
+        }
+        assertEquals(Collections.singletonList(10), ids.subList(9, ids.size()));
+    }
+
+    @Test
+    public void testRetention() throws Exception {
+        SegmentedExchangeDataDAO dao = new SegmentedExchangeDataDAO(directory.getAbsolutePath());
+        dao.setMaxSegmentSize(1);
+        dao.setMaxSegments(3);
+        for (int i = 0; i < 10; i++) {
+            dao.save(createExchangeData(i));
+        }
+        dao.flush();
+        assertEquals(3, dao.getSegmentCount());
+        assertEquals(3, dao.getRecordCount());
+        assertEquals(3, ExchangeDataLogReader.getSegments(directory).size());
+        dao.close();
+    }
+
+    @Test
+    public void testFindWithUnloadedIndex() throws Exception {
+        SegmentedExchangeDataDAO dao = new SegmentedExchangeDataDAO(directory.getAbsolutePath());
+        dao.setMaxSegmentSize(256);
+        dao.setMaxIndexedSegments(1);
+        for (int i = 0; i < 50; i++) {
+            dao.save(createExchangeData(i));
+        }
+        dao.flush();
+        assertTrue(dao.getSegmentCount() > 3);
+        assertEquals(50, dao.getRecordCount());
+
+        assertEquals(5, dao.find(null, null, "service1", "ERROR").size());
+        List<ExchangeData> range = dao.find(new Date(10000), new Date(20000), null, null);
+        assertEquals(10, range.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(10 + i), range.get(i).getId());
+        }
+        assertEquals(5, dao.find(null, null, "service1", "ERROR").size());
+        dao.close();
+    }
+
+    @Test
+    public void testSegmentNameInUse() throws Exception {
+        SegmentedExchangeDataDAO dao = new SegmentedExchangeDataDAO(directory.getAbsolutePath());
+        dao.setMaxSegmentSize(1);
+        dao.save(createExchangeData(0));
+        dao.flush();
+        // the name of the next segment is already taken, e.g. by a file copied into the directory
+        assertTrue(new File(directory, ExchangeDataLogReader.getSegmentName(1)).createNewFile());
+        for (int i = 1; i < 5; i++) {
+            dao.save(createExchangeData(i));
+        }
+        dao.flush();
+        assertEquals(0, dao.getDropped());
+        assertEquals(5, dao.getRecordCount());
+        assertEquals(5, dao.find(null, null, null, null).size());
+        dao.close();
+        assertEquals(6, ExchangeDataLogReader.getSegments(directory).size());
+    }
+
+    @Test
+    public void testWriterSurvivesRuntimeException() throws Exception {
+        SegmentedExchangeDataDAO dao = new SegmentedExchangeDataDAO(directory.getAbsolutePath());
+        dao.save(new FailingExchangeData());
+        dao.flush();
+        assertEquals(1, dao.getDropped());
+
+        for (int i = 0; i < 5; i++) {
+            dao.save(createExchangeData(i));
+        }
+        dao.flush();
+        assertEquals(5, dao.getRecordCount());
+        assertEquals(5, dao.find(null, null, null, null).size());
+        dao.close();
+    }
+
+    private static ExchangeData createExchangeData(int i) {
+        ExchangeData data = new ExchangeData();
+        data.setId(i);
+        data.setInDate(new Date(i * 1000L));
+        data.setServiceName("service" + i % 2);
+        data.setOperation("operation");
+        data.setStatus(i % 5 == 0 ? "ERROR" : "OK");
+        data.setRequest("request" + i);
+        data.setRequestSize(data.getRequest().length());
+        ExchangeDataProperty property = new ExchangeDataProperty();
+        property.setName("name");
+        property.setValue("value" + i);
+        data.setProperties(Collections.singletonList(property));
+        return data;
+    }
+
+    /**
+     * Can be encoded but fails once its record is indexed
+     */
+    private static class FailingExchangeData extends ExchangeData {
+        private int calls;
+
+        FailingExchangeData() {
+            setServiceName("service");
+            setStatus("OK");
+        }
+
+        @Override
+        public String getStatus() {
+            if (++calls > 1) {
+                throw new IllegalStateException("status is not available");
+            }
+            return super.getStatus();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.client;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ws.rs.BeanParam;
+
+import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.jaxrs.utils.AnnotationUtils;
+import org.apache.cxf.jaxrs.utils.InjectionUtils;
+
+/**
+ * Per-class cache of the setters, getters and fields which provide the values of
+ * the JAX-RS parameters of a given type when a bean parameter is processed by the proxy.
+ * The accessors are listed in the order the values have to be read in.
+ */
+final class BeanParamAccessors {
+
+    private static final ClassValue<ConcurrentMap<Class<? extends Annotation>, List<Accessor>>> ACCESSORS =
+        new ClassValue<ConcurrentMap<Class<? extends Annotation>, List<Accessor>>>() {
+            @Override
+            protected ConcurrentMap<Class<? extends Annotation>, List<Accessor>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    private BeanParamAccessors() {
+
+    }
+
+    static List<Accessor> getAccessors(Class<?> beanClass, Class<? extends Annotation> annClass) {
+        return ACCESSORS.get(beanClass).computeIfAbsent(annClass, a -> createAccessors(beanClass, a));
+    }
+
+    private static List<Accessor> createAccessors(Class<?> beanClass, Class<? extends Annotation> annClass) {
+        List<Accessor> accessors = new ArrayList<>();
+        Map<Field, Accessor> fieldAccessors = new HashMap<>();
+        boolean completeFieldIntrospectionNeeded = false;
+        for (Method m : beanClass.getMethods()) {
+            if (m.getName().startsWith("set")) {
+                String propertyName = m.getName().substring(3);
+                Annotation methodAnnotation = m.getAnnotation(annClass);
+                boolean beanParam = m.getAnnotation(BeanParam.class) != null;
+                if (methodAnnotation != null || beanParam) {
+                    try {
+                        Method getter = beanClass.getMethod("get" + propertyName, new Class<?>[]{});
+                        String name = methodAnnotation != null
+                            ? AnnotationUtils.getAnnotationValue(methodAnnotation) : null;
+                        accessors.add(new Accessor(name, getter, null, m.getParameterAnnotations()[0]));
+                    } catch (NoSuchMethodException ex) {
+                        // ignore
+                    }
+                } else {
+                    Field f = InjectionUtils.getDeclaredField(beanClass, StringUtils.uncapitalize(propertyName));
+                    if (f == null) {
+                        completeFieldIntrospectionNeeded = true;
+                        continue;
+                    }
+                    addFieldAccessor(accessors, fieldAccessors, f, annClass);
+                }
+            }
+            if (completeFieldIntrospectionNeeded) {
+                for (Field f : beanClass.getDeclaredFields()) {
+                    addFieldAccessor(accessors, fieldAccessors, f, annClass);
+                }
+            }
+        }
+        // the values are collected in a map, reading the same field again only matters for its last position
+        Set<Accessor> unique = new LinkedHashSet<>();
+        for (int i = accessors.size() - 1; i >= 0; i--) {
+            unique.add(accessors.get(i));
+        }
+        List<Accessor> result = new ArrayList<>(unique);
+        Collections.reverse(result);
+        return Collections.unmodifiableList(result);
+    }
+
+    private static void addFieldAccessor(List<Accessor> accessors, Map<Field, Accessor> fieldAccessors,
+                                         Field f, Class<? extends Annotation> annClass) {
+        if (f.getAnnotation(annClass) != null || f.getAnnotation(BeanParam.class) != null) {
+            accessors.add(fieldAccessors.computeIfAbsent(f, field -> new Accessor(null, null, field, null)));
+        }
+    }
+
+    static final class Accessor {
+        private final String name;
+        private final Method getter;
+        private final Field field;
+        private final Annotation[] anns;
+
+        Accessor(String name, Method getter, Field field, Annotation[] anns) {
+            this.name = name;
+            this.getter = getter;
+            this.field = field;
+            this.anns = anns;
+        }
+
+        /**
+         * @return the parameter name or null if the getter returns a nested bean parameter
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * @return the getter or null if the value has to be read from the field
+         */
+        Method getGetter() {
+            return getter;
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        /**
+         * @return the annotations of the setter parameter
+         */
+        Annotation[] getAnnotations() {
+            return anns;
+        }
+    }
+}
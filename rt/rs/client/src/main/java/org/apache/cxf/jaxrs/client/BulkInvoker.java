@@ -0,0 +1,265 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.client;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.GenericEntity;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+import org.apache.cxf.jaxrs.model.URITemplate;
+import org.apache.cxf.jaxrs.utils.HttpUtils;
+
+/**
+ * Sends many requests with the same HTTP method to the paths built from the same template,
+ * for example, a batch of GET requests for the individual records.
+ * <p>
+ * The request URI template, the headers inherited from the client and the operation name
+ * used by the interceptors are prepared once rather than for every request, and the requests
+ * are sent asynchronously, at most {@link #getMaxInFlight() maxInFlight} at a time, so that
+ * the asynchronous HTTP conduit, if available, can keep the pooled connections busy.
+ * {@link #invoke(BulkRequest)} blocks the caller until the number of the requests awaiting
+ * the responses drops below the limit.
+ * <p>
+ * The response entities are buffered before the returned stages complete, such that the
+ * connections can be reused immediately. The responses with the error status codes
+ * complete the stages normally, the stages complete exceptionally if no response is available.
+ * <p>
+ * Instances are created with {@link WebClient#bulk(String, String)} and are thread-safe,
+ * further changes to the original client, such as the new path segments or headers,
+ * do not affect the existing invokers.
+ */
+public class BulkInvoker {
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+
+    private final WebClient client;
+    private final String httpMethod;
+    private final String address;
+    private final String query;
+    private final URITemplate pathTemplate;
+    private final MultivaluedMap<String, String> headers;
+    private final String operationName;
+    private final int maxInFlight;
+    private final Semaphore permits;
+
+    BulkInvoker(WebClient client, String httpMethod, String pathTemplate, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.client = client;
+        this.httpMethod = httpMethod;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+
+        URI currentURI = client.getCurrentURI();
+        String current = currentURI.toString();
+        int queryIndex = current.indexOf('?');
+        String currentAddress = queryIndex == -1 ? current : current.substring(0, queryIndex);
+        this.query = currentURI.getRawQuery();
+        if (pathTemplate == null || pathTemplate.isEmpty()) {
+            this.pathTemplate = null;
+            this.address = currentAddress;
+        } else {
+            String path = pathTemplate.startsWith("/") ? pathTemplate.substring(1) : pathTemplate;
+            this.pathTemplate = new URITemplate(path);
+            this.address = currentAddress.endsWith("/") ? currentAddress : currentAddress + "/";
+        }
+        this.headers = client.getHeaders();
+        if (headers.getFirst(HttpHeaders.ACCEPT) == null) {
+            headers.putSingle(HttpHeaders.ACCEPT, MediaType.WILDCARD);
+        }
+        this.operationName = httpMethod + ":" + address
+            + (this.pathTemplate == null ? "" : this.pathTemplate.getValue());
+    }
+
+    /**
+     * Sends the request, blocking the caller while the maximum number of requests are awaiting the responses
+     * @param request the request
+     * @return the stage which completes with the response
+     */
+    public CompletionStage<Response> invoke(BulkRequest request) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(ex);
+        }
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        try {
+            doInvoke(request, future);
+        } catch (RuntimeException ex) {
+            permits.release();
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    /**
+     * Sends the requests as the returned stream is consumed,
+     * see {@link #invoke(BulkRequest)}
+     * @param requests the requests
+     * @return the stream of the stages completing with the responses, in the order of the requests
+     */
+    public Stream<CompletionStage<Response>> invokeAll(Stream<BulkRequest> requests) {
+        return requests.map(this::invoke);
+    }
+
+    /**
+     * Returns the number of the requests which are awaiting the responses
+     */
+    public int getInFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    private void doInvoke(BulkRequest request, CompletableFuture<Response> future) {
+        MultivaluedMap<String, String> requestHeaders = copyHeaders(request);
+        Object body = request.getBody();
+        Class<?> requestClass = null;
+        Type inType = null;
+        Annotation[] inAnns = null;
+        if (body instanceof Entity) {
+            Entity<?> entity = (Entity<?>)body;
+            if (entity.getMediaType() != null) {
+                requestHeaders.putSingle(HttpHeaders.CONTENT_TYPE, entity.getMediaType().toString());
+            }
+            body = entity.getEntity();
+            inAnns = entity.getAnnotations();
+        }
+        if (body instanceof GenericEntity) {
+            GenericEntity<?> genericEntity = (GenericEntity<?>)body;
+            body = genericEntity.getEntity();
+            requestClass = genericEntity.getRawType();
+            inType = genericEntity.getType();
+        } else if (body != null) {
+            requestClass = body.getClass();
+            inType = requestClass;
+        }
+        if (body instanceof Form && requestHeaders.getFirst(HttpHeaders.CONTENT_TYPE) == null) {
+            requestHeaders.putSingle(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED);
+        }
+        JaxrsClientCallback<Response> cb =
+            new JaxrsClientCallback<>(new BulkCallback(future), Response.class, Response.class);
+        client.prepareBulkAsyncClient(buildURI(request), operationName, httpMethod, requestHeaders,
+                                      body, requestClass, inType, inAnns, cb);
+    }
+
+    private URI buildURI(BulkRequest request) {
+        StringBuilder sb = new StringBuilder(address.length() + 64).append(address);
+        if (pathTemplate != null) {
+            List<Object> pathValues = request.getPathValues();
+            List<String> values = new ArrayList<>(pathValues.size());
+            for (Object value : pathValues) {
+                // the same as UriBuilder.build(Object...), the slashes are encoded
+                values.add(HttpUtils.pathEncode(client.convertParamValue(value, null)).replace("/", "%2F"));
+            }
+            sb.append(pathTemplate.substitute(values));
+        }
+        char separator = '?';
+        if (query != null) {
+            sb.append(separator).append(query);
+            separator = '&';
+        }
+        MultivaluedMap<String, Object> queries = request.getQueries();
+        if (queries != null) {
+            for (Map.Entry<String, List<Object>> entry : queries.entrySet()) {
+                String name = HttpUtils.queryEncode(entry.getKey());
+                for (Object value : entry.getValue()) {
+                    sb.append(separator).append(name).append('=')
+                        .append(HttpUtils.queryEncode(client.convertParamValue(value, null)));
+                    separator = '&';
+                }
+            }
+        }
+        return URI.create(sb.toString());
+    }
+
+    private MultivaluedMap<String, String> copyHeaders(BulkRequest request) {
+        // the message headers can be modified by the interceptors and filters
+        MultivaluedMap<String, String> requestHeaders = new MetadataMap<>(false, true);
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            requestHeaders.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        MultivaluedMap<String, Object> extraHeaders = request.getHeaders();
+        if (extraHeaders != null) {
+            for (Map.Entry<String, List<Object>> entry : extraHeaders.entrySet()) {
+                if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(entry.getKey())
+                    || HttpHeaders.ACCEPT.equalsIgnoreCase(entry.getKey())) {
+                    requestHeaders.remove(entry.getKey());
+                }
+                for (Object value : entry.getValue()) {
+                    requestHeaders.add(entry.getKey(), client.convertParamValue(value, null));
+                }
+            }
+        }
+        return requestHeaders;
+    }
+
+    private class BulkCallback implements InvocationCallback<Response> {
+        private final CompletableFuture<Response> future;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        BulkCallback(CompletableFuture<Response> future) {
+            this.future = future;
+        }
+
+        @Override
+        public void completed(Response response) {
+            try {
+                response.bufferEntity();
+            } catch (RuntimeException ex) {
+                failed(ex);
+                return;
+            }
+            if (done.compareAndSet(false, true)) {
+                permits.release();
+                future.complete(response);
+            }
+        }
+
+        @Override
+        public void failed(Throwable throwable) {
+            if (done.compareAndSet(false, true)) {
+                permits.release();
+                future.completeExceptionally(throwable);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.client;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+
+/**
+ * Represents a single request sent with {@link BulkInvoker}: the values of the path template
+ * variables and, optionally, the query parameters, the headers and the body
+ * which are specific to this request.
+ */
+public final class BulkRequest {
+    private final List<Object> pathValues;
+    private MultivaluedMap<String, Object> queries;
+    private MultivaluedMap<String, Object> headers;
+    private Object body;
+
+    private BulkRequest(Object[] pathValues) {
+        this.pathValues = pathValues == null ? Collections.emptyList() : Arrays.asList(pathValues);
+    }
+
+    /**
+     * Creates the request
+     * @param pathValues the values of the path template variables, in the order they appear in the template
+     * @return the request
+     */
+    public static BulkRequest of(Object... pathValues) {
+        return new BulkRequest(pathValues);
+    }
+
+    /**
+     * Sets the request body, it can also be an {@link javax.ws.rs.client.Entity}
+     * or {@link javax.ws.rs.core.GenericEntity}
+     * @param requestBody the body
+     * @return this request
+     */
+    public BulkRequest body(Object requestBody) {
+        this.body = requestBody;
+        return this;
+    }
+
+    /**
+     * Adds the query parameter
+     * @param name the name
+     * @param values the values
+     * @return this request
+     */
+    public BulkRequest query(String name, Object... values) {
+        if (queries == null) {
+            queries = new MetadataMap<>();
+        }
+        queries.addAll(name, values);
+        return this;
+    }
+
+    /**
+     * Adds the header, in addition to the headers of the client the invoker has been created from
+     * @param name the name
+     * @param values the values
+     * @return this request
+     */
+    public BulkRequest header(String name, Object... values) {
+        if (headers == null) {
+            headers = new MetadataMap<>(false, true);
+        }
+        headers.addAll(name, values);
+        return this;
+    }
+
+    List<Object> getPathValues() {
+        return pathValues;
+    }
+
+    MultivaluedMap<String, Object> getQueries() {
+        return queries;
+    }
+
+    MultivaluedMap<String, Object> getHeaders() {
+        return headers;
+    }
+
+    Object getBody() {
+        return body;
+    }
+}
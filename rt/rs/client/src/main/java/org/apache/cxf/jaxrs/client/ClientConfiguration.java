@@ -36,6 +36,7 @@ import org.apache.cxf.message.Exchange;
 import org.apache.cxf.message.ExchangeImpl;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.PhaseChainCache;
 import org.apache.cxf.transport.Conduit;
 import org.apache.cxf.transport.MessageObserver;
 import org.apache.cxf.transport.http.HTTPConduit;
@@ -63,6 +64,8 @@ public class ClientConfiguration implements InterceptorProvider, ConduitSelector
     private long synchronousTimeout = 60000;
     private boolean shutdownBusOnClose;
     private boolean resetThreadLocalStateImmediately;
+    private final PhaseChainCache outChainCache = new PhaseChainCache();
+    private final PhaseChainCache inChainCache = new PhaseChainCache();
 
     public long getSynchronousTimeout() {
         Conduit conduit = getConduit();
@@ -104,6 +107,14 @@ public class ClientConfiguration implements InterceptorProvider, ConduitSelector
         return conduitSelector;
     }
 
+    PhaseChainCache getOutChainCache() {
+        return outChainCache;
+    }
+
+    PhaseChainCache getInChainCache() {
+        return inChainCache;
+    }
+
     void prepareConduitSelector(Message message) {
         try {
             getConduitSelector().prepare(message);
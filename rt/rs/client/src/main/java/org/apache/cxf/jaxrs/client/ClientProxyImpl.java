@@ -42,6 +42,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -111,6 +112,7 @@ public class ClientProxyImpl extends AbstractClient implements
     protected Map<String, Object> valuesMap = Collections.emptyMap();
     protected BodyWriter bodyWriter = new BodyWriter();
     protected Client proxy;
+    private Map<Method, ProxyMethodInfo> methodInfos = new ConcurrentHashMap<>();
     public ClientProxyImpl(URI baseURI,
                            ClassLoader loader,
                            ClassResourceInfo cri,
@@ -139,6 +141,36 @@ public class ClientProxyImpl extends AbstractClient implements
         this.proxy = client;
     }
 
+    /**
+     * Sets the cache of the method information shared by the proxies created by the same factory
+     * and calculates it for all the resource methods of this proxy
+     */
+    void initMethodInfos(Map<Method, ProxyMethodInfo> infos) {
+        this.methodInfos = infos;
+        for (OperationResourceInfo ori : cri.getMethodDispatcher().getOperationResourceInfos()) {
+            try {
+                getMethodInfo(ori.getMethodToInvoke(), ori);
+            } catch (ProcessingException ex) {
+                // invalid methods are reported again when they are invoked
+            }
+        }
+    }
+
+    ProxyMethodInfo getMethodInfo(Method m, OperationResourceInfo ori) {
+        ProxyMethodInfo info = methodInfos.get(m);
+        if (info == null || info.getOperation() != ori) {
+            MultivaluedMap<ParameterType, Parameter> types = getParametersInfo(m, null, ori);
+            info = new ProxyMethodInfo(m, ori, types, getBodyIndex(types, ori));
+            methodInfos.put(m, info);
+        }
+        return info;
+    }
+
+    private ProxyMethodInfo getMethodInfo(OperationResourceInfo ori) {
+        ProxyMethodInfo info = methodInfos.get(ori.getMethodToInvoke());
+        return info != null && info.getOperation() == ori ? info : null;
+    }
+
     private void initValuesMap(Object... varValues) {
         if (isRoot) {
             List<String> vars = cri.getURITemplate().getVariables();
@@ -270,10 +302,11 @@ public class ClientProxyImpl extends AbstractClient implements
             reportInvalidResourceMethod(m, "INVALID_RESOURCE_METHOD");
         }
 
-        MultivaluedMap<ParameterType, Parameter> types = getParametersInfo(m, params, ori);
-        List<Parameter> beanParamsList = getParameters(types, ParameterType.BEAN);
+        ProxyMethodInfo info = getMethodInfo(m, ori);
+        MultivaluedMap<ParameterType, Parameter> types = info.getTypes();
+        List<Parameter> beanParamsList = info.getBeanParams();
 
-        int bodyIndex = getBodyIndex(types, ori);
+        int bodyIndex = info.getBodyIndex();
 
         List<Object> pathParams = getPathParamValues(m, params, types, beanParamsList, ori, bodyIndex);
 
@@ -309,6 +342,7 @@ public class ClientProxyImpl extends AbstractClient implements
             ClientProxyImpl proxyImpl =
                 new ClientProxyImpl(newState, proxyLoader, subCri, false, inheritHeaders);
             proxyImpl.setConfiguration(getConfiguration());
+            proxyImpl.methodInfos = methodInfos;
             return JAXRSClientFactory.createProxy(m.getReturnType(), proxyLoader, proxyImpl);
         }
         headers.putAll(paramHeaders);
@@ -328,7 +362,7 @@ public class ClientProxyImpl extends AbstractClient implements
         }
 
         setRequestHeaders(headers, ori, types.containsKey(ParameterType.FORM),
-            body == null ? null : body.getClass(), m.getReturnType());
+            body == null ? null : body.getClass(), info.getResponseClass());
 
         try {
             return doChainedInvocation(uri, headers, ori, params, body, bodyIndex, null, null);
@@ -344,6 +378,12 @@ public class ClientProxyImpl extends AbstractClient implements
         }
     }
 
+    /**
+     * Groups the parameters of the resource method by their type. The result is cached, this method
+     * is called once per proxy method, when the proxy is created by {@link JAXRSClientFactoryBean}
+     * or on the first invocation otherwise, and not for every invocation as before. The params are
+     * always null, subclasses can not depend on the actual invocation arguments here.
+     */
     protected MultivaluedMap<ParameterType, Parameter> getParametersInfo(Method m,
         Object[] params, OperationResourceInfo ori) {
         MultivaluedMap<ParameterType, Parameter> map = new MetadataMap<>();
@@ -448,15 +488,12 @@ public class ClientProxyImpl extends AbstractClient implements
                                                              boolean formParams,
                                                              Class<?> bodyClass,
                                                              Class<?> responseClass) {
+        ProxyMethodInfo info = getMethodInfo(ori);
         if (headers.getFirst(HttpHeaders.CONTENT_TYPE) == null) {
             if (formParams || bodyClass != null && MultivaluedMap.class.isAssignableFrom(bodyClass)) {
                 headers.putSingle(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED);
             } else {
-                String ctType = null;
-                List<MediaType> consumeTypes = ori.getConsumeTypes();
-                if (!consumeTypes.isEmpty() && !consumeTypes.get(0).equals(MediaType.WILDCARD_TYPE)) {
-                    ctType = JAXRSUtils.mediaTypeToString(ori.getConsumeTypes().get(0));
-                }
+                String ctType = info != null ? info.getContentType() : ProxyMethodInfo.getDefaultContentType(ori);
                 if (ctType != null) {
                     headers.putSingle(HttpHeaders.CONTENT_TYPE, ctType);
                 }
@@ -465,20 +502,10 @@ public class ClientProxyImpl extends AbstractClient implements
 
         List<MediaType> accepts = getAccept(headers);
         if (accepts == null) {
-            boolean produceWildcard = ori.getProduceTypes().isEmpty()
-                || ori.getProduceTypes().get(0).equals(MediaType.WILDCARD_TYPE);
-            if (produceWildcard) {
-                accepts = InjectionUtils.isPrimitive(responseClass)
-                    ? Collections.singletonList(MediaType.TEXT_PLAIN_TYPE)
-                    : Collections.singletonList(MediaType.APPLICATION_XML_TYPE);
-            } else if (responseClass == Void.class || responseClass == Void.TYPE) {
-                accepts = Collections.singletonList(MediaType.WILDCARD_TYPE);
-            } else {
-                accepts = ori.getProduceTypes();
-            }
-
-            for (MediaType mt : accepts) {
-                headers.add(HttpHeaders.ACCEPT, JAXRSUtils.mediaTypeToString(mt));
+            List<String> defaultAccepts = info != null && info.getResponseClass() == responseClass
+                ? info.getAccepts() : ProxyMethodInfo.getDefaultAccepts(ori, responseClass);
+            for (String accept : defaultAccepts) {
+                headers.add(HttpHeaders.ACCEPT, accept);
             }
         }
 
@@ -543,9 +570,10 @@ public class ClientProxyImpl extends AbstractClient implements
         methodVars.forEach(varName -> {
             Parameter p = paramsMap.remove(varName);
             if (p != null) {
+                ProxyMethodInfo info = methodInfos.get(m);
                 list.add(convertParamValue(params[p.getIndex()],
-                        m.getParameterTypes()[p.getIndex()],
-                        getParamAnnotations(m, p)));
+                        info != null ? info.getParamType(p.getIndex()) : m.getParameterTypes()[p.getIndex()],
+                        getCachedParamAnnotations(m, p)));
             } else if (beanParamValues.containsKey(varName)) {
                 BeanPair pair = beanParamValues.get(varName);
                 list.add(convertParamValue(pair.getValue(), pair.getAnns()));
@@ -581,6 +609,11 @@ public class ClientProxyImpl extends AbstractClient implements
         return m.getParameterAnnotations()[p.getIndex()];
     }
 
+    private Annotation[] getCachedParamAnnotations(Method m, Parameter p) {
+        ProxyMethodInfo info = methodInfos.get(m);
+        return info != null ? info.getParamAnnotations(p.getIndex()) : getParamAnnotations(m, p);
+    }
+
     protected static List<Parameter> getParameters(MultivaluedMap<ParameterType, Parameter> map,
                                            ParameterType key) {
         return map.get(key) == null ? Collections.emptyList() : map.get(key);
@@ -596,7 +629,7 @@ public class ClientProxyImpl extends AbstractClient implements
                 filter(p -> params[p.getIndex()] != null).
                 forEachOrdered(p -> {
                     addMatrixQueryParamsToBuilder(ub, p.getName(), ParameterType.QUERY,
-                            getParamAnnotations(m, p), params[p.getIndex()]);
+                            getCachedParamAnnotations(m, p), params[p.getIndex()]);
                 });
         beanParams.stream().
                 map(p -> getValuesFromBeanParam(params[p.getIndex()], QueryParam.class)).
@@ -619,45 +652,19 @@ public class ClientProxyImpl extends AbstractClient implements
     protected Map<String, BeanPair> getValuesFromBeanParam(Object bean,
                                                          Class<? extends Annotation> annClass,
                                                          Map<String, BeanPair> values) {
-        boolean completeFieldIntrospectionNeeded = false;
-        for (Method m : bean.getClass().getMethods()) {
-            if (m.getName().startsWith("set")) {
-                try {
-                    String propertyName = m.getName().substring(3);
-                    Annotation methodAnnotation = m.getAnnotation(annClass);
-                    boolean beanParam = m.getAnnotation(BeanParam.class) != null;
-                    if (methodAnnotation != null || beanParam) {
-                        Method getter = bean.getClass().getMethod("get" + propertyName, new Class<?>[]{});
-                        Object value = getter.invoke(bean, new Object[]{});
-                        if (value != null) {
-                            if (methodAnnotation != null) {
-                                String annotationValue = AnnotationUtils.getAnnotationValue(methodAnnotation);
-                                values.put(annotationValue, new BeanPair(value, m.getParameterAnnotations()[0]));
-                            } else {
-                                getValuesFromBeanParam(value, annClass, values);
-                            }
-                        }
-                    } else {
-                        String fieldName = StringUtils.uncapitalize(propertyName);
-                        Field f = InjectionUtils.getDeclaredField(bean.getClass(), fieldName);
-                        if (f == null) {
-                            completeFieldIntrospectionNeeded = true;
-                            continue;
-                        }
-                        boolean jaxrsParamAnnAvailable = getValuesFromBeanParamField(bean, f, annClass, values);
-                        if (!jaxrsParamAnnAvailable && f.getAnnotation(BeanParam.class) != null) {
-                            Object value = ReflectionUtil.accessDeclaredField(f, bean, Object.class);
-                            if (value != null) {
-                                getValuesFromBeanParam(value, annClass, values);
-                            }
+        for (BeanParamAccessors.Accessor accessor : BeanParamAccessors.getAccessors(bean.getClass(), annClass)) {
+            try {
+                if (accessor.getGetter() != null) {
+                    Object value = accessor.getGetter().invoke(bean, new Object[]{});
+                    if (value != null) {
+                        if (accessor.getName() != null) {
+                            values.put(accessor.getName(), new BeanPair(value, accessor.getAnnotations()));
+                        } else {
+                            getValuesFromBeanParam(value, annClass, values);
                         }
                     }
-                } catch (Throwable t) {
-                    // ignore
-                }
-            }
-            if (completeFieldIntrospectionNeeded) {
-                for (Field f : bean.getClass().getDeclaredFields()) {
+                } else {
+                    Field f = accessor.getField();
                     boolean jaxrsParamAnnAvailable = getValuesFromBeanParamField(bean, f, annClass, values);
                     if (!jaxrsParamAnnAvailable && f.getAnnotation(BeanParam.class) != null) {
                         Object value = ReflectionUtil.accessDeclaredField(f, bean, Object.class);
@@ -666,6 +673,8 @@ public class ClientProxyImpl extends AbstractClient implements
                         }
                     }
                 }
+            } catch (Throwable t) {
+                // ignore
             }
         }
         return values;
@@ -698,7 +707,7 @@ public class ClientProxyImpl extends AbstractClient implements
                 filter(p -> params[p.getIndex()] != null).
                 forEachOrdered(p -> {
                     addMatrixQueryParamsToBuilder(ub, p.getName(), ParameterType.MATRIX,
-                            getParamAnnotations(m, p), params[p.getIndex()]);
+                            getCachedParamAnnotations(m, p), params[p.getIndex()]);
                 });
         beanParams.stream().
                 map(p -> getValuesFromBeanParam(params[p.getIndex()], MatrixParam.class)).
@@ -721,7 +730,7 @@ public class ClientProxyImpl extends AbstractClient implements
 
         List<Parameter> fm = getParameters(map, ParameterType.FORM);
         fm.forEach(p -> {
-            addFormValue(form, p.getName(), params[p.getIndex()], getParamAnnotations(m, p));
+            addFormValue(form, p.getName(), params[p.getIndex()], getCachedParamAnnotations(m, p));
         });
         beanParams.stream().
                 map(p -> getValuesFromBeanParam(params[p.getIndex()], FormParam.class)).
@@ -756,9 +765,10 @@ public class ClientProxyImpl extends AbstractClient implements
                                              Object[] params) {
 
         List<Attachment> atts = new LinkedList<>();
+        ProxyMethodInfo info = getMethodInfo(ori);
         List<Parameter> fm = getParameters(map, ParameterType.REQUEST_BODY);
         fm.forEach(p -> {
-            Multipart part = getMultipart(ori, p.getIndex());
+            Multipart part = info != null ? info.getMultipart(p.getIndex()) : getMultipart(ori, p.getIndex());
             if (part != null) {
                 Object partObject = params[p.getIndex()];
                 if (partObject != null) {
@@ -778,7 +788,8 @@ public class ClientProxyImpl extends AbstractClient implements
         hs.stream().
                 filter(p -> params[p.getIndex()] != null).
                 forEachOrdered(p -> {
-                    headers.add(p.getName(), convertParamValue(params[p.getIndex()], getParamAnnotations(m, p)));
+                    headers.add(p.getName(),
+                                convertParamValue(params[p.getIndex()], getCachedParamAnnotations(m, p)));
                 });
         beanParams.stream().
                 map(p -> getValuesFromBeanParam(params[p.getIndex()], HeaderParam.class)).
@@ -808,7 +819,8 @@ public class ClientProxyImpl extends AbstractClient implements
                 forEachOrdered(p -> {
                     headers.add(HttpHeaders.COOKIE,
                             p.getName() + '='
-                            + convertParamValue(params[p.getIndex()].toString(), getParamAnnotations(m, p)));
+                            + convertParamValue(params[p.getIndex()].toString(),
+                                                getCachedParamAnnotations(m, p)));
                 });
         beanParams.stream().
                 map(p -> getValuesFromBeanParam(params[p.getIndex()], CookieParam.class)).
@@ -852,8 +864,10 @@ public class ClientProxyImpl extends AbstractClient implements
                 origLoader = ClassLoaderUtils.setThreadContextClassloader(loader);
             }
             Message outMessage = createMessage(body, ori, headers, uri, exchange, invocationContext, true);
+            ProxyMethodInfo info = getMethodInfo(ori);
             if (bodyIndex != -1) {
-                outMessage.put(Type.class, ori.getMethodToInvoke().getGenericParameterTypes()[bodyIndex]);
+                outMessage.put(Type.class, info != null
+                    ? info.getBodyGenericType() : ori.getMethodToInvoke().getGenericParameterTypes()[bodyIndex]);
             }
             outMessage.getExchange().setOneWay(ori.isOneway());
             setSupportOnewayResponseProperty(outMessage);
@@ -861,8 +875,7 @@ public class ClientProxyImpl extends AbstractClient implements
             setPlainOperationNameProperty(outMessage, ori.getMethodToInvoke().getName());
             outMessage.getExchange().put(Method.class, ori.getMethodToInvoke());
 
-            outMessage.put(Annotation.class.getName(),
-                           getMethodAnnotations(ori.getAnnotatedMethod(), bodyIndex));
+            outMessage.put(Annotation.class.getName(), getBodyAnnotations(info, ori, bodyIndex));
 
             outMessage.getExchange().put(Message.SERVICE_OBJECT, proxy);
             if (methodParams != null) {
@@ -1003,11 +1016,12 @@ public class ClientProxyImpl extends AbstractClient implements
                                                           returnType,
                                                           method.getGenericReturnType());
             returnType = InjectionUtils.updateParamClassToTypeIfNeeded(returnType, genericType);
+            ProxyMethodInfo info = methodInfos.get(method);
             return readBody(r,
                             outMessage,
                             returnType,
                             genericType,
-                            method.getDeclaredAnnotations());
+                            info != null ? info.getDeclaredAnnotations() : method.getDeclaredAnnotations());
         } finally {
             ClientProviderFactory.getInstance(outMessage).clearThreadLocalProxies();
         }
@@ -1036,6 +1050,12 @@ public class ClientProxyImpl extends AbstractClient implements
             : aMethod.getParameterAnnotations()[bodyIndex];
     }
 
+    private static Annotation[] getBodyAnnotations(ProxyMethodInfo info, OperationResourceInfo ori,
+                                                   int bodyIndex) {
+        return info != null && info.getBodyIndex() == bodyIndex ? info.getBodyAnnotations()
+            : getMethodAnnotations(ori.getAnnotatedMethod(), bodyIndex);
+    }
+
     protected class BodyWriter extends AbstractBodyWriter {
 
         @Override
@@ -1053,15 +1073,17 @@ public class ClientProxyImpl extends AbstractClient implements
 
             Method method = ori.getMethodToInvoke();
             int bodyIndex = (Integer)outMessage.get(PROXY_METHOD_PARAM_BODY_INDEX);
+            ProxyMethodInfo info = getMethodInfo(ori);
 
-            Annotation[] anns = customAnns != null ? customAnns
-                : getMethodAnnotations(ori.getAnnotatedMethod(), bodyIndex);
+            Annotation[] anns = customAnns != null ? customAnns : getBodyAnnotations(info, ori, bodyIndex);
             try {
                 if (bodyIndex != -1) {
-                    Class<?> paramClass = method.getParameterTypes()[bodyIndex];
+                    Class<?> paramClass = info != null
+                        ? info.getParamType(bodyIndex) : method.getParameterTypes()[bodyIndex];
                     Class<?> bodyClass =
                         paramClass.isAssignableFrom(body.getClass()) ? paramClass : body.getClass();
-                    Type genericType = method.getGenericParameterTypes()[bodyIndex];
+                    Type genericType = info != null && info.getBodyIndex() == bodyIndex
+                        ? info.getBodyGenericType() : method.getGenericParameterTypes()[bodyIndex];
                     if (bodyType != null) {
                         genericType = bodyType;
                     }
@@ -19,12 +19,14 @@
 package org.apache.cxf.jaxrs.client;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import javax.ws.rs.CookieParam;
@@ -63,6 +65,7 @@ public class JAXRSClientFactoryBean extends AbstractJAXRSFactoryBean {
     protected long timeToKeepState;
     protected Class<?> serviceClass;
     protected ClassLoader proxyLoader;
+    private final Map<Method, ProxyMethodInfo> proxyMethodInfos = new ConcurrentHashMap<>();
 
     public JAXRSClientFactoryBean() {
         this(new JAXRSServiceFactoryBean());
@@ -307,6 +310,7 @@ public class JAXRSClientFactoryBean extends AbstractJAXRSFactoryBean {
             boolean isRoot = cri.getURITemplate() != null;
             ClientState actualState = getActualState();
             ClientProxyImpl proxyImpl = createClientProxy(cri, isRoot, actualState, varValues);
+            proxyImpl.initMethodInfos(proxyMethodInfos);
             initClient(proxyImpl, ep, actualState == null);
 
             final Class<?> serviceClassFinal = cri.getServiceClass();
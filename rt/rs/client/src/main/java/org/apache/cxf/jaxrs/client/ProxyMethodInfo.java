@@ -0,0 +1,164 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.client;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.cxf.jaxrs.ext.multipart.Multipart;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.model.Parameter;
+import org.apache.cxf.jaxrs.model.ParameterType;
+import org.apache.cxf.jaxrs.utils.AnnotationUtils;
+import org.apache.cxf.jaxrs.utils.InjectionUtils;
+import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+
+/**
+ * The information about a proxy method which does not depend on the actual parameter values:
+ * the parameters grouped by their types, the index of the request body parameter,
+ * the reflection data and the default Content-Type and Accept values.
+ * It is calculated once per method, see {@link ClientProxyImpl}.
+ */
+final class ProxyMethodInfo {
+    private final OperationResourceInfo ori;
+    private final MultivaluedMap<ParameterType, Parameter> types;
+    private final List<Parameter> beanParams;
+    private final int bodyIndex;
+    private final Class<?>[] paramTypes;
+    private final Annotation[][] paramAnnotations;
+    private final Type bodyGenericType;
+    private final Annotation[] bodyAnnotations;
+    private final Multipart[] multiparts;
+    private final Annotation[] declaredAnnotations;
+    private final Class<?> responseClass;
+    private final String contentType;
+    private final List<String> accepts;
+
+    ProxyMethodInfo(Method m, OperationResourceInfo ori,
+                    MultivaluedMap<ParameterType, Parameter> types, int bodyIndex) {
+        this.ori = ori;
+        this.types = types;
+        this.beanParams = ClientProxyImpl.getParameters(types, ParameterType.BEAN);
+        this.bodyIndex = bodyIndex;
+        this.paramTypes = m.getParameterTypes();
+        this.paramAnnotations = m.getParameterAnnotations();
+        this.bodyGenericType = bodyIndex == -1 ? null
+            : ori.getMethodToInvoke().getGenericParameterTypes()[bodyIndex];
+        this.bodyAnnotations = ClientProxyImpl.getMethodAnnotations(ori.getAnnotatedMethod(), bodyIndex);
+        this.multiparts = new Multipart[paramTypes.length];
+        Method aMethod = ori.getAnnotatedMethod();
+        if (aMethod != null) {
+            Annotation[][] anns = aMethod.getParameterAnnotations();
+            for (int i = 0; i < multiparts.length && i < anns.length; i++) {
+                multiparts[i] = AnnotationUtils.getAnnotation(anns[i], Multipart.class);
+            }
+        }
+        this.declaredAnnotations = m.getDeclaredAnnotations();
+        this.responseClass = m.getReturnType();
+        this.contentType = getDefaultContentType(ori);
+        this.accepts = getDefaultAccepts(ori, responseClass);
+    }
+
+    static String getDefaultContentType(OperationResourceInfo ori) {
+        List<MediaType> consumeTypes = ori.getConsumeTypes();
+        if (!consumeTypes.isEmpty() && !consumeTypes.get(0).equals(MediaType.WILDCARD_TYPE)) {
+            return JAXRSUtils.mediaTypeToString(consumeTypes.get(0));
+        }
+        return null;
+    }
+
+    static List<String> getDefaultAccepts(OperationResourceInfo ori, Class<?> responseClass) {
+        List<MediaType> accepts;
+        boolean produceWildcard = ori.getProduceTypes().isEmpty()
+            || ori.getProduceTypes().get(0).equals(MediaType.WILDCARD_TYPE);
+        if (produceWildcard) {
+            accepts = InjectionUtils.isPrimitive(responseClass)
+                ? Collections.singletonList(MediaType.TEXT_PLAIN_TYPE)
+                : Collections.singletonList(MediaType.APPLICATION_XML_TYPE);
+        } else if (responseClass == Void.class || responseClass == Void.TYPE) {
+            accepts = Collections.singletonList(MediaType.WILDCARD_TYPE);
+        } else {
+            accepts = ori.getProduceTypes();
+        }
+        List<String> values = new ArrayList<>(accepts.size());
+        for (MediaType mt : accepts) {
+            values.add(JAXRSUtils.mediaTypeToString(mt));
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    OperationResourceInfo getOperation() {
+        return ori;
+    }
+
+    MultivaluedMap<ParameterType, Parameter> getTypes() {
+        return types;
+    }
+
+    List<Parameter> getBeanParams() {
+        return beanParams;
+    }
+
+    int getBodyIndex() {
+        return bodyIndex;
+    }
+
+    Class<?> getParamType(int index) {
+        return paramTypes[index];
+    }
+
+    Annotation[] getParamAnnotations(int index) {
+        return paramAnnotations[index];
+    }
+
+    Type getBodyGenericType() {
+        return bodyGenericType;
+    }
+
+    Annotation[] getBodyAnnotations() {
+        return bodyAnnotations;
+    }
+
+    Multipart getMultipart(int index) {
+        return multiparts[index];
+    }
+
+    Annotation[] getDeclaredAnnotations() {
+        return declaredAnnotations;
+    }
+
+    Class<?> getResponseClass() {
+        return responseClass;
+    }
+
+    String getContentType() {
+        return contentType;
+    }
+
+    List<String> getAccepts() {
+        return accepts;
+    }
+}
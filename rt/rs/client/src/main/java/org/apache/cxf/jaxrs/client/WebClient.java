@@ -956,9 +956,34 @@ public class WebClient extends AbstractClient {
         MultivaluedMap<String, String> headers = prepareHeaders(respClass, body);
         resetResponse();
 
-        Message m = finalizeMessage(httpMethod, headers, body, requestClass, inType,
+        Message m = finalizeMessage(getCurrentURI(), null, httpMethod, headers, body, requestClass, inType,
                                   inAnns, respClass, outType, null, null);
 
+        doRunAsyncInterceptorChain(m, cb);
+    }
+
+    /**
+     * Sends the request to the given URI without using or modifying the current client state
+     * and completes the callback with the response, see {@link BulkInvoker}
+     */
+    //CHECKSTYLE:OFF
+    void prepareBulkAsyncClient(URI uri,
+                                String operationName,
+                                String httpMethod,
+                                MultivaluedMap<String, String> headers,
+                                Object body,
+                                Class<?> requestClass,
+                                Type inType,
+                                Annotation[] inAnns,
+                                JaxrsClientCallback<?> cb) {
+    //CHECKSTYLE:ON
+        Message m = finalizeMessage(uri, operationName, httpMethod, headers, body, requestClass, inType,
+                                    inAnns, Response.class, Response.class, null, null);
+
+        doRunAsyncInterceptorChain(m, cb);
+    }
+
+    private void doRunAsyncInterceptorChain(Message m, JaxrsClientCallback<?> cb) {
         m.getExchange().setSynchronous(false);
         setAsyncMessageObserverIfNeeded(m.getExchange());
         m.getExchange().put(JaxrsClientCallback.class, cb);
@@ -1046,7 +1071,7 @@ public class WebClient extends AbstractClient {
             if (loader != null) {
                 origLoader = ClassLoaderUtils.setThreadContextClassloader(loader);
             }
-            Message m = finalizeMessage(httpMethod, headers, body, requestClass, inType,
+            Message m = finalizeMessage(getCurrentURI(), null, httpMethod, headers, body, requestClass, inType,
                                         inAnns, respClass, outType, exchange, invContext);
             doRunInterceptorChain(m);
             return doResponse(m, respClass, outType);
@@ -1061,7 +1086,9 @@ public class WebClient extends AbstractClient {
     }
 
     //CHECKSTYLE:OFF
-    private Message finalizeMessage(String httpMethod,
+    private Message finalizeMessage(URI uri,
+                                   String operationName,
+                                   String httpMethod,
                                    MultivaluedMap<String, String> headers,
                                    Object body,
                                    Class<?> requestClass,
@@ -1072,7 +1099,6 @@ public class WebClient extends AbstractClient {
                                    Exchange exchange,
                                    Map<String, Object> invContext) {
    //CHECKSTYLE:ON
-        URI uri = getCurrentURI();
         Message m = createMessage(body, httpMethod, headers, uri, exchange,
                 invContext, false);
         setSupportOnewayResponseProperty(m);
@@ -1092,18 +1118,21 @@ public class WebClient extends AbstractClient {
         }
         m.getInterceptorChain().add(bodyWriter);
 
-        setWebClientOperationProperty(m, httpMethod);
+        setWebClientOperationProperty(m, httpMethod, operationName);
 
         return m;
     }
 
-    private void setWebClientOperationProperty(Message m, String httpMethod) {
+    private void setWebClientOperationProperty(Message m, String httpMethod, String operationName) {
         Object prop = m.getContextualProperty(WEB_CLIENT_OPERATION_REPORTING);
         // Enable the operation reporting by default
         if (prop == null || PropertyUtils.isTrue(prop)) {
-            UriBuilder absPathUri = super.getCurrentBuilder().clone();
-            absPathUri.replaceQuery(null);
-            setPlainOperationNameProperty(m, httpMethod + ":" + absPathUri.build().toString());
+            if (operationName == null) {
+                UriBuilder absPathUri = super.getCurrentBuilder().clone();
+                absPathUri.replaceQuery(null);
+                operationName = httpMethod + ":" + absPathUri.build().toString();
+            }
+            setPlainOperationNameProperty(m, operationName);
         }
 
     }
@@ -1249,6 +1278,29 @@ public class WebClient extends AbstractClient {
         }
     }
 
+    /**
+     * Returns the invoker which sends many requests with the same method to the paths
+     * built from a given template, relative to the current URI, see {@link BulkInvoker}
+     * @param httpMethod the HTTP method
+     * @param pathTemplate the path template, for example, "{id}/details", can be empty
+     * @return the bulk invoker
+     */
+    public BulkInvoker bulk(String httpMethod, String pathTemplate) {
+        return bulk(httpMethod, pathTemplate, BulkInvoker.DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Returns the invoker which sends many requests with the same method to the paths
+     * built from a given template, relative to the current URI, see {@link BulkInvoker}
+     * @param httpMethod the HTTP method
+     * @param pathTemplate the path template, for example, "{id}/details", can be empty
+     * @param maxInFlight the maximum number of requests awaiting the responses
+     * @return the bulk invoker
+     */
+    public BulkInvoker bulk(String httpMethod, String pathTemplate, int maxInFlight) {
+        return new BulkInvoker(fromClient(this, true), httpMethod, pathTemplate, maxInFlight);
+    }
+
     // Link to JAX-RS 2.0 AsyncInvoker
     public AsyncInvoker async() {
         return new AsyncInvokerImpl(this);
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.client;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Response;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BulkInvokerTest {
+
+    @Test
+    public void testInvokeAll() {
+        WebClient wc = createClient().path("books").header("a", "b");
+        BulkInvoker bulk = wc.bulk("GET", "{id}/details", 2);
+        // does not affect the invoker
+        wc.path("authors").header("a", "c");
+
+        List<CompletionStage<Response>> stages = bulk.invokeAll(Stream.of(
+            BulkRequest.of(1),
+            BulkRequest.of("a b/c").query("q", "x y", "z"),
+            BulkRequest.of(3).header("a", "d"))).collect(Collectors.toList());
+        assertEquals("GET http://localhost:8080/books/1/details a=b",
+                     readEntity(stages.get(0)));
+        assertEquals("GET http://localhost:8080/books/a%20b%2Fc/details?q=x+y&q=z a=b",
+                     readEntity(stages.get(1)));
+        assertEquals("GET http://localhost:8080/books/3/details a=b,d",
+                     readEntity(stages.get(2)));
+        assertEquals(0, bulk.getInFlight());
+    }
+
+    @Test
+    public void testInvokeWithBody() {
+        WebClient wc = createClient().path("books").query("debug", true);
+        BulkInvoker bulk = wc.bulk("POST", "");
+        Response r = bulk.invoke(BulkRequest.of().body(Entity.text("book"))).toCompletableFuture().join();
+        assertEquals("POST http://localhost:8080/books?debug=true a=null book", r.readEntity(String.class));
+    }
+
+    @Test
+    public void testInvalidPathValue() {
+        BulkInvoker bulk = createClient().bulk("GET", "{id:[0-9]+}", 1);
+        try {
+            bulk.invoke(BulkRequest.of("abc")).toCompletableFuture().join();
+            fail("CompletionException expected");
+        } catch (CompletionException ex) {
+            assertTrue(ex.getCause() instanceof IllegalArgumentException);
+        }
+        assertEquals(0, bulk.getInFlight());
+        assertEquals(200, bulk.invoke(BulkRequest.of(1)).toCompletableFuture().join().getStatus());
+    }
+
+    private static WebClient createClient() {
+        return WebClient.create("http://localhost:8080",
+                                Collections.singletonList(new EchoRequestFilter()));
+    }
+
+    private static String readEntity(CompletionStage<Response> stage) {
+        return stage.toCompletableFuture().join().readEntity(String.class);
+    }
+
+    private static class EchoRequestFilter implements ClientRequestFilter {
+
+        @Override
+        public void filter(ClientRequestContext context) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(context.getMethod()).append(' ').append(context.getUri())
+                .append(" a=").append(context.getHeaderString("a"));
+            if (context.hasEntity()) {
+                sb.append(' ').append(context.getEntity());
+            }
+            context.abortWith(Response.ok(sb.toString()).build());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.client;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.BeanParam;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.apache.cxf.jaxrs.lifecycle.SingletonResourceProvider;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.apache.cxf.transport.local.LocalTransportFactory;
+
+/**
+ * Measures the proxy method calls against a local transport endpoint. The same calls are made
+ * with a proxy which keeps its method information, as created by {@link JAXRSClientFactoryBean},
+ * and with a proxy which recalculates it for every call, the way all the proxies did before the
+ * method information was cached (the bean parameter accessors stay cached for both). Not run as
+ * part of the build, start it manually from the test classpath.
+ */
+public final class ClientProxyBenchmark {
+    private static final String ADDRESS = "local://proxy-benchmark";
+    private static final int WARMUP = 20000;
+    private static final int ITERATIONS = 100000;
+
+    private ClientProxyBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        JAXRSServerFactoryBean sf = new JAXRSServerFactoryBean();
+        sf.setResourceClasses(BookStore.class);
+        sf.setResourceProvider(BookStore.class, new SingletonResourceProvider(new BookStore(), false));
+        sf.setTransportId(LocalTransportFactory.TRANSPORT_ID);
+        sf.setAddress(ADDRESS);
+        Server server = sf.create();
+        try {
+            JAXRSClientFactoryBean bean = new JAXRSClientFactoryBean();
+            bean.setAddress(ADDRESS);
+            bean.setResourceClass(BookResource.class);
+            BookResource cached = createProxy(bean);
+            BookResource uncached = createProxy(bean);
+            ((ClientProxyImpl)((InvocationHandlerAware)uncached).getInvocationHandler())
+                .initMethodInfos(new UncachedMethodInfos());
+
+            for (int round = 0; round < 3; round++) {
+                run("cached", cached);
+                run("uncached", uncached);
+            }
+        } finally {
+            server.destroy();
+        }
+    }
+
+    private static BookResource createProxy(JAXRSClientFactoryBean bean) {
+        BookResource proxy = bean.create(BookResource.class);
+        WebClient.getConfig(proxy).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+        return proxy;
+    }
+
+    private static void run(String name, BookResource proxy) {
+        BookParams params = new BookParams();
+        params.setLang("en");
+        params.setVersion("2");
+        for (int i = 0; i < WARMUP; i++) {
+            invoke(proxy, params, i);
+        }
+
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            invoke(proxy, params, i);
+        }
+        long elapsed = System.nanoTime() - started;
+        System.out.println(String.format("%-8s: %8.3f us per call pair, %8.0f call pairs/s", name,
+            elapsed / 1000.0 / ITERATIONS, ITERATIONS / (elapsed / (double)TimeUnit.SECONDS.toNanos(1))));
+    }
+
+    private static void invoke(BookResource proxy, BookParams params, int i) {
+        proxy.getBook(Integer.toString(i), "a", params);
+        proxy.addBook("book", "3");
+    }
+
+    /**
+     * Never keeps the method information, so it is recalculated for every call
+     */
+    private static class UncachedMethodInfos extends ConcurrentHashMap<Method, ProxyMethodInfo> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public ProxyMethodInfo put(Method key, ProxyMethodInfo value) {
+            return null;
+        }
+    }
+
+    @Path("books")
+    public interface BookResource {
+        @GET
+        @Path("{id}")
+        @Produces("text/plain")
+        String getBook(@PathParam("id") String id, @QueryParam("q") String q, @BeanParam BookParams params);
+
+        @POST
+        @Consumes("text/plain")
+        @Produces("text/plain")
+        String addBook(String book, @HeaderParam("v") String version);
+    }
+
+    public static class BookStore implements BookResource {
+        @Override
+        public String getBook(String id, String q, BookParams params) {
+            return id;
+        }
+
+        @Override
+        public String addBook(String book, String version) {
+            return book;
+        }
+    }
+
+    public static class BookParams {
+        @QueryParam("lang")
+        private String lang;
+        private String version;
+
+        public String getLang() {
+            return lang;
+        }
+
+        public void setLang(String lang) {
+            this.lang = lang;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        @HeaderParam("v")
+        public void setVersion(String version) {
+            this.version = version;
+        }
+    }
+}
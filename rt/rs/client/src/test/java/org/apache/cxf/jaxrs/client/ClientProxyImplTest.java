@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.client;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+import javax.ws.rs.BeanParam;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+public class ClientProxyImplTest {
+
+    @Test
+    public void testInvoke() {
+        BookResource proxy = createBean().create(BookResource.class);
+        BookParams params = new BookParams();
+        params.setLang("en");
+        params.setVersion("2");
+        assertEquals("GET http://localhost:8080/books/1?q=a&lang=en v=2 text/plain null",
+                     proxy.getBook("1", "a", params));
+        assertEquals("GET http://localhost:8080/books/2 v=null text/plain null",
+                     proxy.getBook("2", null, new BookParams()));
+        assertEquals("POST http://localhost:8080/books v=3 text/plain text/plain book",
+                     proxy.addBook("book", "3"));
+    }
+
+    @Test
+    public void testMethodInfoIsShared() throws Exception {
+        JAXRSClientFactoryBean bean = createBean();
+        ClientProxyImpl impl1 = getProxyImpl(bean.create(BookResource.class));
+        ClientProxyImpl impl2 = getProxyImpl(bean.create(BookResource.class));
+
+        Method m = BookResource.class.getMethod("getBook", String.class, String.class, BookParams.class);
+        OperationResourceInfo ori = impl1.cri.getMethodDispatcher().getOperationResourceInfo(m);
+        ProxyMethodInfo info = impl1.getMethodInfo(m, ori);
+        assertNotNull(info);
+        assertSame(info, impl2.getMethodInfo(m, ori));
+        assertEquals(-1, info.getBodyIndex());
+        assertEquals(1, info.getBeanParams().size());
+        assertEquals(Collections.singletonList("text/plain"), info.getAccepts());
+    }
+
+    @Test
+    public void testBeanParamAccessorsAreCached() {
+        assertSame(BeanParamAccessors.getAccessors(BookParams.class, QueryParam.class),
+                   BeanParamAccessors.getAccessors(BookParams.class, QueryParam.class));
+        assertEquals(1, BeanParamAccessors.getAccessors(BookParams.class, QueryParam.class).size());
+        assertEquals(1, BeanParamAccessors.getAccessors(BookParams.class, HeaderParam.class).size());
+    }
+
+    private static JAXRSClientFactoryBean createBean() {
+        JAXRSClientFactoryBean bean = new JAXRSClientFactoryBean();
+        bean.setAddress("http://localhost:8080");
+        bean.setResourceClass(BookResource.class);
+        bean.setProvider(new EchoRequestFilter());
+        return bean;
+    }
+
+    private static ClientProxyImpl getProxyImpl(Object proxy) {
+        return (ClientProxyImpl)((InvocationHandlerAware)proxy).getInvocationHandler();
+    }
+
+    @Path("books")
+    public interface BookResource {
+        @GET
+        @Path("{id}")
+        @Produces("text/plain")
+        String getBook(@PathParam("id") String id, @QueryParam("q") String q, @BeanParam BookParams params);
+
+        @POST
+        @Consumes("text/plain")
+        @Produces("text/plain")
+        String addBook(String book, @HeaderParam("v") String version);
+    }
+
+    public static class BookParams {
+        @QueryParam("lang")
+        private String lang;
+        private String version;
+
+        public String getLang() {
+            return lang;
+        }
+
+        public void setLang(String lang) {
+            this.lang = lang;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        @HeaderParam("v")
+        public void setVersion(String version) {
+            this.version = version;
+        }
+    }
+
+    private static class EchoRequestFilter implements ClientRequestFilter {
+
+        @Override
+        public void filter(ClientRequestContext context) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(context.getMethod()).append(' ').append(context.getUri())
+                .append(" v=").append(context.getHeaderString("v"))
+                .append(' ').append(context.getHeaderString(HttpHeaders.ACCEPT))
+                .append(' ').append(context.getHeaderString(HttpHeaders.CONTENT_TYPE));
+            if (context.hasEntity()) {
+                sb.append(' ').append(context.getEntity());
+            }
+            context.abortWith(Response.ok(sb.toString(), "text/plain").build());
+        }
+    }
+}
@@ -18,18 +18,26 @@
  */
 package org.apache.cxf.jaxrs.openapi;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.servlet.ServletConfig;
 import javax.ws.rs.GET;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
 
+import org.apache.cxf.jaxrs.utils.HttpUtils;
+
 import io.swagger.v3.jaxrs2.integration.ServletConfigContextUtils;
 import io.swagger.v3.jaxrs2.integration.resources.OpenApiResource;
 import io.swagger.v3.oas.annotations.Operation;
@@ -40,18 +48,97 @@ import io.swagger.v3.oas.integration.api.OpenApiContext;
 import io.swagger.v3.oas.models.OpenAPI;
 
 public class OpenApiCustomizedResource extends OpenApiResource {
+    // the documents are cached per type and base address, there are usually only a few of them,
+    // more documents are only requested if the host names vary, in which case the cache is cleared
+    // rather than letting it grow
+    private static final int MAX_CACHED_DOCUMENTS = 64;
 
     private final OpenApiCustomizer customizer;
+    private final boolean cacheOpenApi;
+    private final Map<String, CachedOpenApi> cache = new ConcurrentHashMap<>();
 
     public OpenApiCustomizedResource(final OpenApiCustomizer customizer) {
+        this(customizer, false);
+    }
+
+    /**
+     * @param customizer the customizer, can be null
+     * @param cacheOpenApi if the serialized document should be cached per base address and type
+     *        and returned with ETag, it is not cached if the configuration has a filter class
+     */
+    public OpenApiCustomizedResource(final OpenApiCustomizer customizer, final boolean cacheOpenApi) {
         this.customizer = customizer;
+        this.cacheOpenApi = cacheOpenApi;
+    }
+
+    /**
+     * Returns the document without evaluating the preconditions of the request
+     */
+    public Response getOpenApi(ServletConfig config, HttpHeaders headers, UriInfo uriInfo, String type)
+        throws Exception {
+        return getOpenApi(config, headers, null, uriInfo, type);
     }
 
     @GET
     @Produces({ MediaType.APPLICATION_JSON, "application/yaml" })
     @Operation(hidden = true)
     public Response getOpenApi(@Context ServletConfig config, @Context HttpHeaders headers,
-            @Context UriInfo uriInfo, @PathParam("type") String type) throws Exception {
+            @Context Request request, @Context UriInfo uriInfo, @PathParam("type") String type) throws Exception {
+
+        if (!cacheOpenApi || !isCacheable(config)) {
+            return doGetOpenApi(config, headers, uriInfo, type);
+        }
+
+        final String format = type != null && "yaml".equalsIgnoreCase(type.trim()) ? "yaml" : "json";
+        final String key = format + ' ' + uriInfo.getBaseUri();
+        CachedOpenApi cached = cache.get(key);
+        if (cached == null) {
+            // the documents are generated one at a time, concurrent requests wait for the first one
+            synchronized (cache) {
+                cached = cache.get(key);
+                if (cached == null) {
+                    final Response response = doGetOpenApi(config, headers, uriInfo, type);
+                    if (response.getStatus() != Response.Status.OK.getStatusCode()
+                        || !(response.getEntity() instanceof String)) {
+                        return response;
+                    }
+                    cached = new CachedOpenApi(((String)response.getEntity()).getBytes(StandardCharsets.UTF_8),
+                        response.getMediaType());
+                    if (cache.size() >= MAX_CACHED_DOCUMENTS) {
+                        cache.clear();
+                    }
+                    cache.put(key, cached);
+                }
+            }
+        }
+
+        final ResponseBuilder rb = request != null ? request.evaluatePreconditions(cached.etag) : null;
+        if (rb != null) {
+            return rb.tag(cached.etag).build();
+        }
+        return Response.ok(cached.entity, cached.mediaType).tag(cached.etag).build();
+    }
+
+    /**
+     * Removes the cached documents, for example, after the resources have been updated
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    private boolean isCacheable(ServletConfig config) {
+        // the filters may produce different documents depending on the request headers or parameters
+        OpenApiContext ctx = getOpenApiContext(config);
+        if (ctx == null) {
+            ctx = getOpenApiContext(null);
+        }
+        final OpenAPIConfiguration configuration = ctx != null && ctx.getOpenApiConfiguration() != null
+            ? ctx.getOpenApiConfiguration() : getOpenApiConfiguration();
+        return configuration == null || configuration.getFilterClass() == null;
+    }
+
+    private Response doGetOpenApi(ServletConfig config, HttpHeaders headers,
+            UriInfo uriInfo, String type) throws Exception {
 
         if (customizer != null) {
             final OpenAPIConfiguration configuration = customizer.customize(getOpenApiConfiguration());
@@ -107,4 +194,16 @@ public class OpenApiCustomizedResource extends OpenApiResource {
         final String ctxId = ServletConfigContextUtils.getContextIdFromServletConfig(config);
         return OpenApiContextLocator.getInstance().getOpenApiContext(ctxId);
     }
+
+    private static final class CachedOpenApi {
+        private final byte[] entity;
+        private final MediaType mediaType;
+        private final EntityTag etag;
+
+        CachedOpenApi(byte[] entity, MediaType mediaType) {
+            this.entity = entity;
+            this.mediaType = mediaType;
+            this.etag = HttpUtils.computeEntityTag(entity);
+        }
+    }
 }
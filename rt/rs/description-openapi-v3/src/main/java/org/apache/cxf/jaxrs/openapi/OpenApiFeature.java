@@ -27,6 +27,9 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import javax.ws.rs.core.Application;
@@ -35,6 +38,7 @@ import org.apache.cxf.Bus;
 import org.apache.cxf.annotations.Provider;
 import org.apache.cxf.annotations.Provider.Scope;
 import org.apache.cxf.annotations.Provider.Type;
+import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.common.util.StringUtils;
 import org.apache.cxf.endpoint.Server;
@@ -45,6 +49,8 @@ import org.apache.cxf.jaxrs.common.openapi.SwaggerProperties;
 import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
 import org.apache.cxf.jaxrs.swagger.ui.SwaggerUiConfig;
 import org.apache.cxf.jaxrs.swagger.ui.SwaggerUiSupport;
+import org.apache.cxf.workqueue.AutomaticWorkQueue;
+import org.apache.cxf.workqueue.WorkQueueManager;
 
 import io.swagger.v3.jaxrs2.integration.JaxrsOpenApiContextBuilder;
 import io.swagger.v3.jaxrs2.integration.resources.OpenApiResource;
@@ -62,6 +68,8 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
 
 @Provider(value = Type.Feature, scope = Scope.Server)
 public class OpenApiFeature extends AbstractFeature implements SwaggerUiSupport, SwaggerProperties {
+    private static final Logger LOG = LogUtils.getL7dLogger(OpenApiFeature.class);
+
     private String version;
     private String title;
     private String description;
@@ -105,6 +113,10 @@ public class OpenApiFeature extends AbstractFeature implements SwaggerUiSupport,
     // are co-located in the same application.
     private boolean useContextBasedConfig;
     private String ctxId;
+    // Caches the serialized OpenAPI documents and returns them with ETag
+    private boolean cacheOpenApi;
+    // Reads the OpenAPI model in the background when the server is initialized
+    private boolean preloadOpenApi;
 
     @Override
     public void initialize(Server server, Bus bus) {
@@ -182,11 +194,40 @@ public class OpenApiFeature extends AbstractFeature implements SwaggerUiSupport,
             if (customizer != null) {
                 customizer.setApplicationInfo(factory.getApplicationProvider());
             }
+
+            if (preloadOpenApi) {
+                preload(context, bus);
+            }
         } catch (OpenApiConfigurationException ex) {
             throw new RuntimeException("Unable to initialize OpenAPI context", ex);
         }
     }
 
+    /**
+     * Reads the OpenAPI model on the bus work queue, the model is kept by the context so that
+     * the first request does not have to scan the resources. Nothing is read if the work queue
+     * is not available or busy, the model is then read by the first request.
+     */
+    void preload(final OpenApiContext context, final Bus bus) {
+        final WorkQueueManager manager = bus != null ? bus.getExtension(WorkQueueManager.class) : null;
+        final AutomaticWorkQueue queue = manager != null ? manager.getAutomaticWorkQueue() : null;
+        if (queue == null) {
+            LOG.fine("No work queue is available, the OpenAPI model is not preloaded");
+            return;
+        }
+        try {
+            queue.execute(() -> {
+                try {
+                    context.read();
+                } catch (RuntimeException ex) {
+                    LOG.log(Level.WARNING, "OpenAPI model can not be read", ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            LOG.fine("The work queue is busy, the OpenAPI model is not preloaded");
+        }
+    }
+
     public boolean isScan() {
         return scan;
     }
@@ -410,6 +451,30 @@ public class OpenApiFeature extends AbstractFeature implements SwaggerUiSupport,
         return useContextBasedConfig;
     }
     
+    /**
+     * Sets if the serialized OpenAPI documents should be cached per base address and type
+     * and returned with ETag, the requests with the matching If-None-Match header get 304.
+     * The documents are not cached if a filter class is configured.
+     */
+    public void setCacheOpenApi(final boolean cacheOpenApi) {
+        this.cacheOpenApi = cacheOpenApi;
+    }
+
+    public boolean isCacheOpenApi() {
+        return cacheOpenApi;
+    }
+
+    /**
+     * Sets if the OpenAPI model should be read in the background when the server is initialized
+     */
+    public void setPreloadOpenApi(final boolean preloadOpenApi) {
+        this.preloadOpenApi = preloadOpenApi;
+    }
+
+    public boolean isPreloadOpenApi() {
+        return preloadOpenApi;
+    }
+
     @Override
     public SwaggerUiConfig getSwaggerUiConfig() {
         return swaggerUiConfig;
@@ -568,6 +633,7 @@ public class OpenApiFeature extends AbstractFeature implements SwaggerUiSupport,
     }
     
     private OpenApiResource createOpenApiResource() {
-        return (customizer == null) ? new OpenApiResource() : new OpenApiCustomizedResource(customizer);
+        return (customizer == null && !cacheOpenApi) ? new OpenApiResource()
+            : new OpenApiCustomizedResource(customizer, cacheOpenApi);
     }
 }
@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.openapi;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+
+import org.apache.cxf.jaxrs.impl.HttpHeadersImpl;
+import org.apache.cxf.jaxrs.impl.RequestImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+
+import io.swagger.v3.oas.integration.SwaggerConfiguration;
+
+import org.easymock.EasyMock;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class OpenApiCustomizedResourceTest {
+
+    @Test
+    public void testCachedOpenApi() throws Exception {
+        OpenApiCustomizedResource resource = createResource();
+        UriInfo uriInfo = mockUriInfo("http://localhost:8080/api/");
+
+        Response r1 = getOpenApi(resource, uriInfo, "json");
+        assertEquals(200, r1.getStatus());
+        EntityTag etag = r1.getEntityTag();
+        assertNotNull(etag);
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, r1.getMediaType());
+        assertTrue(new String((byte[])r1.getEntity(), StandardCharsets.UTF_8).contains("/bookstore"));
+
+        Response r2 = getOpenApi(resource, uriInfo, "json");
+        assertSame(r1.getEntity(), r2.getEntity());
+        assertEquals(etag, r2.getEntityTag());
+
+        // the documents are cached per type and base address
+        Response r3 = getOpenApi(resource, uriInfo, "yaml");
+        assertEquals(200, r3.getStatus());
+        assertFalse(etag.equals(r3.getEntityTag()));
+        Response r4 = getOpenApi(resource, mockUriInfo("http://localhost:9090/api/"), "json");
+        assertEquals(200, r4.getStatus());
+        assertNotSame(r1.getEntity(), r4.getEntity());
+
+        resource.clearCache();
+        Response r5 = getOpenApi(resource, uriInfo, "json");
+        assertNotSame(r1.getEntity(), r5.getEntity());
+        assertEquals(etag, r5.getEntityTag());
+    }
+
+    @Test
+    public void testNotModified() throws Exception {
+        OpenApiCustomizedResource resource = createResource();
+        UriInfo uriInfo = mockUriInfo("http://localhost:8080/api/");
+        EntityTag etag = getOpenApi(resource, uriInfo, "json").getEntityTag();
+
+        Response r1 = getOpenApi(resource, uriInfo, "json", etag.toString());
+        assertEquals(304, r1.getStatus());
+        assertNull(r1.getEntity());
+        assertEquals(etag, r1.getEntityTag());
+
+        Response r2 = getOpenApi(resource, uriInfo, "json", "\"other\"", etag.toString());
+        assertEquals(304, r2.getStatus());
+
+        Response r3 = getOpenApi(resource, uriInfo, "json", "\"other\"");
+        assertEquals(200, r3.getStatus());
+        assertNotNull(r3.getEntity());
+    }
+
+    private static OpenApiCustomizedResource createResource() {
+        OpenApiCustomizedResource resource = new OpenApiCustomizedResource(null, true);
+        resource.setOpenApiConfiguration(new SwaggerConfiguration()
+            .resourceClasses(Collections.singleton(BookStore.class.getName())));
+        return resource;
+    }
+
+    private static Response getOpenApi(OpenApiCustomizedResource resource, UriInfo uriInfo, String type,
+                                       String... ifNoneMatch) throws Exception {
+        Message m = new MessageImpl();
+        m.put(Message.HTTP_REQUEST_METHOD, "GET");
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (ifNoneMatch.length > 0) {
+            headers.put(HttpHeaders.IF_NONE_MATCH, Arrays.asList(ifNoneMatch));
+        }
+        m.put(Message.PROTOCOL_HEADERS, headers);
+        return resource.getOpenApi(null, new HttpHeadersImpl(m), new RequestImpl(m), uriInfo, type);
+    }
+
+    private static UriInfo mockUriInfo(String baseUri) {
+        UriInfo uriInfo = EasyMock.createNiceMock(UriInfo.class);
+        EasyMock.expect(uriInfo.getBaseUri()).andReturn(URI.create(baseUri)).anyTimes();
+        EasyMock.replay(uriInfo);
+        return uriInfo;
+    }
+
+    @Path("/bookstore")
+    public static class BookStore {
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String getBooks() {
+            return "books";
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.openapi;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.workqueue.AutomaticWorkQueue;
+import org.apache.cxf.workqueue.WorkQueueManager;
+
+import io.swagger.v3.oas.integration.api.OpenApiContext;
+import io.swagger.v3.oas.models.OpenAPI;
+
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class OpenApiFeatureTest {
+    private IMocksControl control = EasyMock.createNiceControl();
+
+    @Test
+    public void testPreloadOnWorkQueue() throws Exception {
+        OpenApiFeature feature = new OpenApiFeature();
+        feature.setPreloadOpenApi(true);
+        assertTrue(feature.isPreloadOpenApi());
+
+        AutomaticWorkQueue queue = control.createMock(AutomaticWorkQueue.class);
+        Capture<Runnable> task = EasyMock.newCapture();
+        queue.execute(EasyMock.capture(task));
+        EasyMock.expectLastCall().once();
+        OpenApiContext context = control.createMock(OpenApiContext.class);
+        EasyMock.expect(context.read()).andReturn(new OpenAPI()).once();
+        control.replay();
+
+        feature.preload(context, mockBus(queue));
+        // the model is only read by the work queue
+        assertTrue(task.hasCaptured());
+        task.getValue().run();
+        control.verify();
+    }
+
+    @Test
+    public void testPreloadRejected() throws Exception {
+        // the context is not expected to be read
+        control = EasyMock.createControl();
+        AutomaticWorkQueue queue = control.createMock(AutomaticWorkQueue.class);
+        queue.execute(EasyMock.anyObject(Runnable.class));
+        EasyMock.expectLastCall().andThrow(new RejectedExecutionException());
+        OpenApiContext context = control.createMock(OpenApiContext.class);
+        control.replay();
+
+        new OpenApiFeature().preload(context, mockBus(queue));
+        control.verify();
+    }
+
+    private Bus mockBus(AutomaticWorkQueue queue) {
+        WorkQueueManager manager = EasyMock.createNiceMock(WorkQueueManager.class);
+        EasyMock.expect(manager.getAutomaticWorkQueue()).andReturn(queue).anyTimes();
+        Bus bus = EasyMock.createNiceMock(Bus.class);
+        EasyMock.expect(bus.getExtension(WorkQueueManager.class)).andReturn(manager).anyTimes();
+        EasyMock.replay(manager, bus);
+        return bus;
+    }
+}
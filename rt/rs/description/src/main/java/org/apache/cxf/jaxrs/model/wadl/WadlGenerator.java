@@ -32,6 +32,7 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -62,6 +63,7 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
@@ -125,6 +127,7 @@ import org.apache.cxf.jaxrs.model.doc.JavaDocProvider;
 import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
 import org.apache.cxf.jaxrs.utils.AnnotationUtils;
 import org.apache.cxf.jaxrs.utils.ExceptionUtils;
+import org.apache.cxf.jaxrs.utils.HttpUtils;
 import org.apache.cxf.jaxrs.utils.InjectionUtils;
 import org.apache.cxf.jaxrs.utils.JAXRSUtils;
 import org.apache.cxf.jaxrs.utils.ResourceUtils;
@@ -150,6 +153,7 @@ public class WadlGenerator implements ContainerRequestFilter {
     private static final String JAXB_DEFAULT_NAME = "##default";
     private static final String CLASSPATH_PREFIX = "classpath:";
     private static final String DEFAULT_NS_PREFIX = "prefix";
+    private static final int DEFAULT_WADL_CACHE_SIZE = 64;
     private static final Map<ParameterType, Class<? extends Annotation>> PARAMETER_TYPE_MAP;
     static {
         PARAMETER_TYPE_MAP = new HashMap<>();
@@ -199,6 +203,9 @@ public class WadlGenerator implements ContainerRequestFilter {
     private final List<DocumentationProvider> docProviders = new LinkedList<>();
     private ResourceIdGenerator idGenerator;
     private Map<String, Object> jaxbContextProperties;
+    private boolean cacheWadl;
+    private int wadlCacheSize = DEFAULT_WADL_CACHE_SIZE;
+    private final Map<List<Object>, CachedWadl> wadlCache = new ConcurrentHashMap<>();
 
     public WadlGenerator() {
     }
@@ -278,12 +285,67 @@ public class WadlGenerator implements ContainerRequestFilter {
 
         boolean isJson = isJson(type);
 
+        if (cacheWadl) {
+            CachedWadl wadl = getCachedWadl(m, ui, type);
+            Response.ResponseBuilder rb = context.getRequest().evaluatePreconditions(wadl.etag);
+            if (rb == null) {
+                m.getExchange().put(JAXRSUtils.IGNORE_MESSAGE_WRITERS, !isJson && ignoreMessageWriters);
+                rb = Response.ok().type(type).entity(isJson ? createResponseEntity(m, ui, wadl.entity, true)
+                    : wadl.entity);
+            }
+            context.abortWith(rb.tag(wadl.etag).build());
+            return;
+        }
+
         StringBuilder sbMain = generateWADL(getBaseURI(m, ui), getResourcesList(m, ui), isJson, m, ui);
 
         m.getExchange().put(JAXRSUtils.IGNORE_MESSAGE_WRITERS, !isJson && ignoreMessageWriters);
         Response r = Response.ok().type(type).entity(createResponseEntity(m, ui, sbMain.toString(), isJson)).build();
         context.abortWith(r);
     }
+
+    /**
+     * Returns the WADL generated for a given base address, resources and media type.
+     * Such documents only change when the endpoints are added or removed, the key includes
+     * the resources which are described so the new resources are not served the stale document.
+     * The JSON document is cached in its XML form, before it is converted to DOM.
+     */
+    private CachedWadl getCachedWadl(Message m, UriInfo ui, MediaType type) {
+        boolean isJson = isJson(type);
+        String baseURI = getBaseURI(m, ui);
+        List<ClassResourceInfo> cris = getResourcesList(m, ui);
+        List<Object> key = Arrays.asList(baseURI, ui.getBaseUri().toString(), m.get("http.base.path"),
+                                         type.toString(), new ArrayList<>(cris));
+        CachedWadl wadl = wadlCache.get(key);
+        if (wadl == null) {
+            // the documents are generated one at a time, concurrent requests wait for the first one
+            synchronized (wadlCache) {
+                wadl = wadlCache.get(key);
+                if (wadl == null) {
+                    String entity = generateWADL(baseURI, cris, isJson, m, ui).toString();
+                    if (!isJson) {
+                        entity = createResponseEntity(m, ui, entity, false).toString();
+                    }
+                    wadl = new CachedWadl(entity);
+                    // there is usually a document per base address and media type, once there are
+                    // more, e.g. because of varying host names, the cache is started again rather
+                    // than tracking which documents are still used
+                    if (wadlCache.size() >= wadlCacheSize) {
+                        wadlCache.clear();
+                    }
+                    wadlCache.put(key, wadl);
+                }
+            }
+        }
+        return wadl;
+    }
+
+    /**
+     * Removes the cached documents, for example, after the resource models have been updated
+     */
+    public void clearWadlCache() {
+        wadlCache.clear();
+    }
     private boolean isJson(MediaType mt) {
         return mt == MediaType.APPLICATION_JSON_TYPE;
     }
@@ -2286,6 +2348,35 @@ public class WadlGenerator implements ContainerRequestFilter {
         this.whiteList = whiteList;
     }
 
+    /**
+     * Sets if the generated documents should be cached and returned with ETag, in which case
+     * the requests with the matching If-None-Match header get 304. The documents are cached
+     * per base address, media type and the set of described resources, so this option
+     * should not be enabled if the custom generator methods produce different documents
+     * for the same resources.
+     */
+    public void setCacheWadl(boolean cacheWadl) {
+        this.cacheWadl = cacheWadl;
+    }
+
+    /**
+     * Sets the maximum number of cached documents, 64 by default, the cache is cleared once
+     * it is reached.
+     */
+    public void setWadlCacheSize(int wadlCacheSize) {
+        this.wadlCacheSize = wadlCacheSize;
+    }
+
+    private static final class CachedWadl {
+        private final String entity;
+        private final EntityTag etag;
+
+        CachedWadl(String entity) {
+            this.entity = entity;
+            this.etag = HttpUtils.computeEntityTag(entity.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
     private static class SchemaConverter extends DelegatingXMLStreamWriter {
         private static final String SCHEMA_LOCATION = "schemaLocation";
         private final Map<String, String> locsMap;
@@ -24,7 +24,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.PUT;
@@ -68,6 +70,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class WadlGeneratorTest {
@@ -332,6 +335,33 @@ public class WadlGeneratorTest {
 //        fos.close();
     }
 
+    @Test
+    public void testCachedWadl() throws Exception {
+        WadlGenerator wg = new WadlGenerator();
+        wg.setCacheWadl(true);
+        ClassResourceInfo cri =
+            ResourceUtils.createClassResourceInfo(BookStore.class, BookStore.class, true, true);
+        Response r1 = handleRequest(wg, mockMessage("http://localhost:8080/baz", "/", WadlGenerator.WADL_QUERY, cri));
+        checkResponse(r1);
+        assertNotNull(r1.getEntityTag());
+        Response r2 = handleRequest(wg, mockMessage("http://localhost:8080/baz", "/", WadlGenerator.WADL_QUERY, cri));
+        assertSame(r1.getEntity(), r2.getEntity());
+        assertEquals(r1.getEntityTag(), r2.getEntityTag());
+
+        Message m = mockMessage("http://localhost:8080/baz", "/", WadlGenerator.WADL_QUERY, cri);
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.put(HttpHeaders.IF_NONE_MATCH, Collections.singletonList(r1.getEntityTag().toString()));
+        m.put(Message.PROTOCOL_HEADERS, headers);
+        Response r3 = handleRequest(wg, m);
+        assertEquals(304, r3.getStatus());
+        assertNull(r3.getEntity());
+
+        // another base address
+        Response r4 = handleRequest(wg, mockMessage("http://localhost:8080/bar", "/", WadlGenerator.WADL_QUERY, cri));
+        checkResponse(r4);
+        assertFalse(r1.getEntityTag().equals(r4.getEntityTag()));
+    }
+
     @Test
     public void testMultipleRootResources() throws Exception {
         WadlGenerator wg = new WadlGenerator();
@@ -0,0 +1,213 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.reactivestreams.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Publishes the records of a newline-delimited input stream, for example, of a request body
+ * with newline-delimited JSON. The records are read and converted only when the subscriber
+ * requests them, on the thread which calls {@link Subscription#request(long)},
+ * so only the current record is kept in memory. Empty lines are skipped.
+ * A single subscriber is supported.
+ *
+ * @param <T> the record type
+ */
+public class DelimitedInputPublisher<T> implements Publisher<T> {
+
+    /**
+     * Converts a single record
+     */
+    @FunctionalInterface
+    public interface RecordReader<T> {
+        T read(InputStream record) throws IOException;
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream is;
+    private final RecordReader<T> reader;
+    private final int maxRecordSize;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    public DelimitedInputPublisher(InputStream is, RecordReader<T> reader) {
+        this(is, reader, -1);
+    }
+
+    /**
+     * @param is the input stream
+     * @param reader the record reader
+     * @param maxRecordSize the maximum record size in bytes, the stream fails with IOException
+     *        if a longer record is found, zero or negative value means no limit
+     */
+    public DelimitedInputPublisher(InputStream is, RecordReader<T> reader, int maxRecordSize) {
+        this.is = is;
+        this.reader = reader;
+        this.maxRecordSize = maxRecordSize;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber is null");
+        }
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Only a single subscriber is supported"));
+            return;
+        }
+        RecordSubscription subscription = new RecordSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class RecordSubscription implements Subscription {
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+        private int pos;
+        private int limit;
+        private volatile boolean done;
+        private volatile Throwable error;
+
+        RecordSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (done) {
+                return;
+            }
+            if (n <= 0) {
+                // signalled by the drain loop as onNext may be running on another thread (rule 1.3)
+                if (error == null) {
+                    error = new IllegalArgumentException("Requested number of records must be positive");
+                }
+            } else {
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            }
+            // the records requested from onNext are published by the loop which is already running
+            if (wip.getAndIncrement() == 0) {
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                while (!done) {
+                    if (error != null) {
+                        done = true;
+                        subscriber.onError(error);
+                        return;
+                    }
+                    if (demand.get() == 0) {
+                        break;
+                    }
+                    T value;
+                    try {
+                        byte[] bytes = readRecord();
+                        if (bytes == null) {
+                            done = true;
+                            subscriber.onComplete();
+                            return;
+                        }
+                        value = reader.read(new ByteArrayInputStream(bytes));
+                    } catch (Throwable t) {
+                        done = true;
+                        subscriber.onError(t);
+                        return;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(value);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private byte[] readRecord() throws IOException {
+            record.reset();
+            while (true) {
+                if (pos == limit) {
+                    int read = is.read(buffer);
+                    if (read == -1) {
+                        return record.size() > 0 ? toRecord() : null;
+                    }
+                    pos = 0;
+                    limit = read;
+                }
+                int start = pos;
+                while (pos < limit && buffer[pos] != '\n') {
+                    pos++;
+                }
+                if (maxRecordSize > 0 && record.size() + pos - start > maxRecordSize) {
+                    throw new IOException("Record size exceeds " + maxRecordSize + " bytes");
+                }
+                record.write(buffer, start, pos - start);
+                if (pos < limit) {
+                    // skip the new line
+                    pos++;
+                    byte[] bytes = toRecord();
+                    if (bytes != null) {
+                        return bytes;
+                    }
+                    record.reset();
+                }
+            }
+        }
+
+        private byte[] toRecord() {
+            byte[] bytes = record.toByteArray();
+            int length = bytes.length;
+            if (length > 0 && bytes[length - 1] == '\r') {
+                length--;
+            }
+            if (length == 0) {
+                return null;
+            }
+            return length == bytes.length ? bytes : Arrays.copyOf(bytes, length);
+        }
+    }
+}
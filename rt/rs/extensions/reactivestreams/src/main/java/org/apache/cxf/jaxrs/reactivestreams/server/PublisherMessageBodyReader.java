@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.reactivestreams.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.Providers;
+
+import org.apache.cxf.jaxrs.provider.AbstractConfigurableProvider;
+import org.apache.cxf.jaxrs.utils.InjectionUtils;
+import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.reactivestreams.Publisher;
+
+/**
+ * Reads the newline-delimited request bodies, for example, "application/x-ndjson",
+ * into {@link Publisher} resource method parameters. Every record is converted by the
+ * message body reader which supports the publisher element type, with the delimited
+ * JSON media types being mapped to "application/json". The records are read only when
+ * the subscriber requests them, thus the resource method must consume the publisher
+ * before the request completes.
+ */
+@Consumes({"application/x-ndjson", "application/stream+json" })
+public class PublisherMessageBodyReader extends AbstractConfigurableProvider
+    implements MessageBodyReader<Publisher<?>> {
+    private static final MediaType NDJSON_TYPE = JAXRSUtils.toMediaType("application/x-ndjson");
+    private static final MediaType STREAM_JSON_TYPE = JAXRSUtils.toMediaType("application/stream+json");
+
+    @Context
+    private Providers providers;
+    private int maxRecordSize = -1;
+
+    @Override
+    public boolean isReadable(Class<?> cls, Type type, Annotation[] anns, MediaType mt) {
+        return isPublisherType(cls);
+    }
+
+    @Override
+    public Publisher<?> readFrom(Class<Publisher<?>> cls, Type t, Annotation[] anns, MediaType mt,
+                                 MultivaluedMap<String, String> headers, InputStream is)
+        throws IOException, WebApplicationException {
+        Type elementType = getElementType(t);
+        Class<?> elementCls = InjectionUtils.getRawType(elementType);
+        // the reader is looked up now as the injected providers are only available during the request
+        MediaType elementMt = getElementMediaType(mt);
+        DelimitedInputPublisher<Object> publisher = new DelimitedInputPublisher<>(is,
+            createRecordReader(elementCls, elementType, anns, elementMt, headers), maxRecordSize);
+        return adapt(publisher);
+    }
+
+    /**
+     * Sets the maximum record size in bytes, no limit by default
+     */
+    public void setMaxRecordSize(int maxRecordSize) {
+        this.maxRecordSize = maxRecordSize;
+    }
+
+    protected boolean isPublisherType(Class<?> cls) {
+        return Publisher.class == cls;
+    }
+
+    /**
+     * Adapts the publisher to the type expected by the resource method
+     */
+    protected Publisher<?> adapt(Publisher<?> publisher) {
+        return publisher;
+    }
+
+    protected MediaType getElementMediaType(MediaType mt) {
+        if (mt == null || mt.isCompatible(NDJSON_TYPE) || mt.isCompatible(STREAM_JSON_TYPE)) {
+            return MediaType.APPLICATION_JSON_TYPE;
+        }
+        return mt;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private DelimitedInputPublisher.RecordReader<Object> createRecordReader(Class<?> elementCls,
+                                                                            Type elementType,
+                                                                            Annotation[] anns,
+                                                                            MediaType mt,
+                                                                            MultivaluedMap<String, String> headers) {
+        MessageBodyReader reader = providers.getMessageBodyReader(elementCls, elementType, anns, mt);
+        if (reader == null) {
+            throw new WebApplicationException(415);
+        }
+        return record -> reader.readFrom(elementCls, elementType, anns, mt, headers, record);
+    }
+
+    private static Type getElementType(Type t) {
+        if (t instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType)t).getActualTypeArguments();
+            if (args.length == 1 && (args[0] instanceof Class || args[0] instanceof ParameterizedType)) {
+                return args[0];
+            }
+        }
+        return Object.class;
+    }
+}
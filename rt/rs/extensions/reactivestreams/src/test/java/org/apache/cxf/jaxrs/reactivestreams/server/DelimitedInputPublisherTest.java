@@ -0,0 +1,239 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.reactivestreams.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.cxf.helpers.IOUtils;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DelimitedInputPublisherTest {
+
+    @Test
+    public void testRecordsAreReadOnDemand() {
+        CountingInputStream is = new CountingInputStream("a\nb\nc\n");
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new DelimitedInputPublisher<>(is, DelimitedInputPublisherTest::toString, 0).subscribe(subscriber);
+        assertEquals(0, is.getReads());
+
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList("a"), subscriber.records);
+        assertEquals(1, is.getReads());
+
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList("a", "b"), subscriber.records);
+        assertEquals(2, is.getReads());
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(5);
+        assertEquals(Arrays.asList("a", "b", "c"), subscriber.records);
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testRequestFromOnNextIsNotRecursive() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        subscriber.onNext = s -> {
+            subscriber.subscription.request(1);
+            // the next record is published once this one has been processed
+            assertEquals(s, subscriber.records.get(subscriber.records.size() - 1));
+        };
+        publish("a\nb\nc", subscriber);
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList("a", "b", "c"), subscriber.records);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void testCancel() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        subscriber.onNext = s -> subscriber.subscription.cancel();
+        publish("a\nb\nc\n", subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(Arrays.asList("a"), subscriber.records);
+
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList("a"), subscriber.records);
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testMaxRecordSize() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new DelimitedInputPublisher<>(new ByteArrayInputStream(bytes("abc\nabcdef\nab\n")),
+                                      DelimitedInputPublisherTest::toString, 4).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(Arrays.asList("abc"), subscriber.records);
+        assertTrue(subscriber.error instanceof IOException);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    public void testCrLfAndEmptyLines() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publish("\r\na\r\n\r\n\nb\r\n\n c \r\nd", subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(Arrays.asList("a", "b", " c ", "d"), subscriber.records);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void testRecordsSpanningBuffers() {
+        StringBuilder sb = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String s = "record-" + i;
+            expected.add(s);
+            sb.append(s).append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new DelimitedInputPublisher<>(new CountingInputStream(sb.toString()),
+                                      DelimitedInputPublisherTest::toString, 0).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(expected, subscriber.records);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void testSecondSubscriberIsRejected() {
+        DelimitedInputPublisher<String> publisher =
+            new DelimitedInputPublisher<>(new ByteArrayInputStream(bytes("a\n")), DelimitedInputPublisherTest::toString);
+        RecordingSubscriber first = new RecordingSubscriber();
+        publisher.subscribe(first);
+        RecordingSubscriber second = new RecordingSubscriber();
+        publisher.subscribe(second);
+        assertTrue(second.error instanceof IllegalStateException);
+
+        first.subscription.request(1);
+        assertEquals(Arrays.asList("a"), first.records);
+    }
+
+    @Test
+    public void testInvalidRequestIsSignalledAfterOnNext() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        subscriber.onNext = s -> {
+            subscriber.subscription.request(0);
+            // rule 1.3, onError must not be signalled while onNext is running
+            assertNull(subscriber.error);
+        };
+        publish("a\nb\n", subscriber);
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList("a"), subscriber.records);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publish("a\n", subscriber);
+        subscriber.subscription.request(-1);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.records.isEmpty());
+    }
+
+    @Test
+    public void testReaderFailure() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new DelimitedInputPublisher<String>(new ByteArrayInputStream(bytes("a\nb\n")), record -> {
+            throw new IOException("invalid record");
+        }).subscribe(subscriber);
+        subscriber.subscription.request(2);
+        assertTrue(subscriber.records.isEmpty());
+        assertEquals("invalid record", subscriber.error.getMessage());
+    }
+
+    private static void publish(String data, RecordingSubscriber subscriber) {
+        new DelimitedInputPublisher<>(new ByteArrayInputStream(bytes(data)), DelimitedInputPublisherTest::toString)
+            .subscribe(subscriber);
+    }
+
+    private static String toString(InputStream is) throws IOException {
+        return IOUtils.toString(is, StandardCharsets.UTF_8.name());
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class RecordingSubscriber implements Subscriber<String> {
+        private final List<String> records = new ArrayList<>();
+        private Subscription subscription;
+        private Consumer<String> onNext = s -> { };
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+        }
+
+        @Override
+        public void onNext(String s) {
+            records.add(s);
+            onNext.accept(s);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    // returns at most two bytes per read and counts the reads
+    private static final class CountingInputStream extends ByteArrayInputStream {
+        private int reads;
+
+        CountingInputStream(String data) {
+            super(bytes(data));
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            reads++;
+            return super.read(b, off, Math.min(len, 2));
+        }
+
+        int getReads() {
+            return reads;
+        }
+    }
+}
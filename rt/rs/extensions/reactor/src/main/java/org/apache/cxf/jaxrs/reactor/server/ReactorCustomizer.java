@@ -18,6 +18,9 @@
  */
 package org.apache.cxf.jaxrs.reactor.server;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
 import org.apache.cxf.jaxrs.ext.AbstractStreamingResponseExtension;
 import org.apache.cxf.service.invoker.Invoker;
@@ -33,4 +36,9 @@ public class ReactorCustomizer extends AbstractStreamingResponseExtension {
         }
         return invoker;
     }
-}
\ No newline at end of file
+
+    @Override
+    protected List<?> createProviders(JAXRSServerFactoryBean bean) {
+        return Collections.singletonList(new FluxMessageBodyReader());
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.reactor.server;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.jaxrs.lifecycle.SingletonResourceProvider;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.apache.cxf.transport.local.LocalTransportFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FluxMessageBodyReaderTest {
+    private static final String ADDRESS = "local://flux-records";
+    private static final String LIMITED_ADDRESS = "local://flux-records-limited";
+
+    private static Server server;
+    private static Server limitedServer;
+
+    @BeforeClass
+    public static void startServers() {
+        JAXRSServerFactoryBean sf = createFactoryBean(ADDRESS);
+        new ReactorCustomizer().customize(sf);
+        server = sf.create();
+
+        JAXRSServerFactoryBean limited = createFactoryBean(LIMITED_ADDRESS);
+        limited.setInvoker(new ReactorInvoker());
+        FluxMessageBodyReader reader = new FluxMessageBodyReader();
+        reader.setMaxRecordSize(4);
+        limited.setProvider(reader);
+        limitedServer = limited.create();
+    }
+
+    @AfterClass
+    public static void stopServers() {
+        server.destroy();
+        limitedServer.destroy();
+    }
+
+    @Test
+    public void testFluxRequestBody() {
+        assertEquals("a,b,c", post(ADDRESS, "flux", "a\nb\r\n\n\r\nc\n"));
+    }
+
+    @Test
+    public void testPublisherRequestBody() {
+        assertEquals("a,b", post(ADDRESS, "publisher", "a\nb"));
+    }
+
+    @Test
+    public void testStreamJsonRequestBody() {
+        WebClient wc = createClient(ADDRESS, "flux").type("application/stream+json");
+        assertEquals("{\"a\":1},{\"b\":2}", wc.post("{\"a\":1}\n{\"b\":2}\n", String.class));
+    }
+
+    @Test
+    public void testCancelPartWayThrough() {
+        assertEquals("a,b", post(ADDRESS, "first-two", "a\nb\nc\nd\n"));
+    }
+
+    @Test
+    public void testMaxRecordSize() {
+        assertEquals("abc,error", post(LIMITED_ADDRESS, "flux", "abc\nabcdef\nab\n"));
+    }
+
+    private static String post(String address, String path, String body) {
+        return createClient(address, path).type("application/x-ndjson").post(body, String.class);
+    }
+
+    private static WebClient createClient(String address, String path) {
+        WebClient wc = WebClient.create(address).path(path).accept("text/plain");
+        WebClient.getConfig(wc).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+        return wc;
+    }
+
+    private static JAXRSServerFactoryBean createFactoryBean(String address) {
+        JAXRSServerFactoryBean sf = new JAXRSServerFactoryBean();
+        sf.setAddress(address);
+        sf.setTransportId(LocalTransportFactory.TRANSPORT_ID);
+        sf.setResourceClasses(RecordService.class);
+        sf.setResourceProvider(RecordService.class, new SingletonResourceProvider(new RecordService(), true));
+        return sf;
+    }
+
+    @Path("/")
+    public static class RecordService {
+        @POST
+        @Path("flux")
+        @Consumes({"application/x-ndjson", "application/stream+json" })
+        @Produces("text/plain")
+        public String flux(Flux<String> records) {
+            return join(records.onErrorResume(ex -> Flux.just("error")));
+        }
+
+        @POST
+        @Path("publisher")
+        @Consumes("application/x-ndjson")
+        @Produces("text/plain")
+        public String publisher(Publisher<String> records) {
+            return join(Flux.from(records));
+        }
+
+        @POST
+        @Path("first-two")
+        @Consumes("application/x-ndjson")
+        @Produces("text/plain")
+        public String firstTwo(Flux<String> records) {
+            return join(records.take(2));
+        }
+
+        private static String join(Flux<String> records) {
+            return String.join(",", records.collectList().block());
+        }
+    }
+}
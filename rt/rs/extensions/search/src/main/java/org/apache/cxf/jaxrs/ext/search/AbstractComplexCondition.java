@@ -18,7 +18,6 @@
  */
 package org.apache.cxf.jaxrs.ext.search;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -42,13 +41,7 @@ public abstract class AbstractComplexCondition<T> implements SearchCondition<T>
     }
 
     public List<T> findAll(Collection<T> pojos) {
-        List<T> result = new ArrayList<>();
-        for (T pojo : pojos) {
-            if (isMet(pojo)) {
-                result.add(pojo);
-            }
-        }
-        return result;
+        return SearchConditionCompiler.findAll(this, pojos);
     }
 
     public T getCondition() {
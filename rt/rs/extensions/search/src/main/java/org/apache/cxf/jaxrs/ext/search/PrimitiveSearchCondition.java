@@ -18,9 +18,8 @@
  */
 package org.apache.cxf.jaxrs.ext.search;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -33,7 +32,8 @@ public class PrimitiveSearchCondition<T> implements SearchCondition<T> {
     private Type propertyType;
     private T condition;
     private ConditionType cType;
-    private Beanspector<T> beanspector;
+    private Class<?> beanClass;
+    private String beanPropertyName;
 
     public PrimitiveSearchCondition(String propertyName,
                                     Object propertyValue,
@@ -52,20 +52,15 @@ public class PrimitiveSearchCondition<T> implements SearchCondition<T> {
         this.propertyType = propertyType;
         this.condition = condition;
         this.cType = ct;
-        if (propertyName != null) {
-            this.beanspector = SearchBean.class.isAssignableFrom(condition.getClass())
-                ? null : new Beanspector<T>(condition);
+        if (propertyName != null && !SearchBean.class.isAssignableFrom(condition.getClass())) {
+            this.beanClass = condition.getClass();
+            int index = propertyName.indexOf('.');
+            this.beanPropertyName = (index != -1 ? propertyName.substring(0, index) : propertyName).toLowerCase();
         }
     }
 
     public List<T> findAll(Collection<T> pojos) {
-        List<T> result = new ArrayList<>();
-        for (T pojo : pojos) {
-            if (isMet(pojo)) {
-                result.add(pojo);
-            }
-        }
-        return result;
+        return SearchConditionCompiler.findAll(this, pojos);
     }
 
     public T getCondition() {
@@ -100,28 +95,20 @@ public class PrimitiveSearchCondition<T> implements SearchCondition<T> {
         if (isPrimitive(pojo)) {
             return compare(pojo, cType, propertyValue);
         }
-        Object lValue = getValue(propertyName, pojo);
+        Object lValue = getValue(pojo);
         Object rValue = getPrimitiveValue(propertyName, propertyValue);
         return lValue != null && compare(lValue, cType, rValue);
     }
 
-    private Object getValue(String getter, T pojo) {
-        String thePropertyName;
-        int index = getter.indexOf('.');
-        if (index != -1) {
-            thePropertyName = getter.substring(0, index);
-        } else {
-            thePropertyName = getter;
-        }
-
+    Object getValue(T pojo) {
         Object value;
         try {
-            if (beanspector != null) {
-                value = beanspector.swap(pojo).getValue(thePropertyName.toLowerCase());
+            if (beanClass != null) {
+                value = PropertyAccessors.getValue(beanClass, beanPropertyName, pojo);
             } else {
-                value = ((SearchBean)pojo).get(getter);
+                value = ((SearchBean)pojo).get(propertyName);
             }
-            return getPrimitiveValue(getter, value);
+            return getPrimitiveValue(propertyName, value);
         } catch (Throwable e) {
             return null;
         }
@@ -135,12 +122,12 @@ public class PrimitiveSearchCondition<T> implements SearchCondition<T> {
         visitor.visit(this);
     }
 
-    private boolean isPrimitive(T pojo) {
+    static boolean isPrimitive(Object pojo) {
         return pojo.getClass().getName().startsWith("java.lang");
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
-    private boolean compare(Object lval, ConditionType cond, Object rval) {
+    static boolean compare(Object lval, ConditionType cond, Object rval) {
         boolean compares = true;
         if (cond == ConditionType.EQUALS || cond == ConditionType.NOT_EQUALS) {
             if (rval == null) {
@@ -184,7 +171,7 @@ public class PrimitiveSearchCondition<T> implements SearchCondition<T> {
         return compares;
     }
 
-    private boolean textCompare(String lval, String rval) {
+    static boolean textCompare(String lval, String rval) {
         // check wild cards
         boolean starts = false;
         boolean ends = false;
@@ -223,8 +210,11 @@ public class PrimitiveSearchCondition<T> implements SearchCondition<T> {
                     } else {
                         nextPart = Character.toUpperCase(nextPart.charAt(0)) + nextPart.substring(1);
                     }
-                    Method m = value.getClass().getMethod("get" + nextPart, new Class[]{});
-                    value = m.invoke(value, new Object[]{});
+                    MethodHandle m = PropertyAccessors.getMethod(value.getClass(), "get" + nextPart);
+                    if (m == null) {
+                        throw new NoSuchMethodException("get" + nextPart);
+                    }
+                    value = m.invokeExact(value);
                 } catch (Throwable ex) {
                     throw new RuntimeException();
                 }
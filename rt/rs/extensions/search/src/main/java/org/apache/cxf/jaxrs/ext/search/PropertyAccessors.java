@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.ext.search;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-class cache of the getter method handles used when search conditions are evaluated
+ * against beans. Getter names follow the {@link Beanspector} rules, that is the 'get' or 'is'
+ * prefix is dropped and the remaining name is lower-cased. Unlike {@link Beanspector#swap(Object)}
+ * the lookups do not keep any per-bean state and can be shared between threads.
+ */
+final class PropertyAccessors {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<Map<String, MethodHandle>> GETTERS =
+        new ClassValue<Map<String, MethodHandle>>() {
+            @Override
+            protected Map<String, MethodHandle> computeValue(Class<?> type) {
+                Map<String, MethodHandle> getters = new HashMap<>();
+                for (Method m : type.getMethods()) {
+                    if (isGetter(m)) {
+                        getters.put(getPropertyName(m), toHandle(m));
+                    }
+                }
+                return getters;
+            }
+        };
+
+    private static final ClassValue<ConcurrentMap<String, Optional<MethodHandle>>> METHODS =
+        new ClassValue<ConcurrentMap<String, Optional<MethodHandle>>>() {
+            @Override
+            protected ConcurrentMap<String, Optional<MethodHandle>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    private PropertyAccessors() {
+
+    }
+
+    /**
+     * Returns the handle of the getter with a given (lower-cased) property name,
+     * or null if the class has no such accessible getter. The handle accepts and returns Object.
+     */
+    static MethodHandle getGetter(Class<?> type, String propertyName) {
+        return GETTERS.get(type).get(propertyName);
+    }
+
+    /**
+     * Returns the handle of a public no-argument method with a given name,
+     * or null if the class has no such accessible method. The handle accepts and returns Object.
+     */
+    static MethodHandle getMethod(Class<?> type, String methodName) {
+        return METHODS.get(type).computeIfAbsent(methodName, name -> {
+            try {
+                return Optional.ofNullable(toHandle(type.getMethod(name)));
+            } catch (NoSuchMethodException ex) {
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    static Object getValue(Class<?> type, String propertyName, Object bean) throws Throwable {
+        MethodHandle getter = getGetter(type, propertyName);
+        return getter == null ? null : getter.invokeExact(bean);
+    }
+
+    private static MethodHandle toHandle(Method m) {
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(m);
+            if (Modifier.isStatic(m.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asType(GETTER_TYPE);
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    private static boolean isGetter(Method m) {
+        return m.getParameterTypes().length == 0
+               && (m.getName().startsWith("get") || m.getName().startsWith("is"));
+    }
+
+    private static String getPropertyName(Method m) {
+        String result = m.getName().toLowerCase();
+        return result.startsWith("is") ? result.substring(2) : result.substring(3);
+    }
+}
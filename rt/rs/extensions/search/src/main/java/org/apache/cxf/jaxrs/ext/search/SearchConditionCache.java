@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.ext.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of parsed search conditions keyed by the search expression, the bean type
+ * and the parser configuration. Cached conditions are shared between the requests
+ * and must not be modified by the application code.
+ */
+public class SearchConditionCache {
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private final int maxSize;
+    private final Map<List<Object>, SearchCondition<?>> conditions;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public SearchConditionCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public SearchConditionCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.conditions = new LinkedHashMap<List<Object>, SearchCondition<?>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, SearchCondition<?>> eldest) {
+                return size() > SearchConditionCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached condition or parses the expression and caches the result.
+     *
+     * @param parser creates the parser if the condition has not been cached yet
+     * @param parserId identifies the parser implementation and is a part of the cache key
+     * @param expression search expression
+     * @param cls bean type
+     * @param parserProperties parser properties, part of the cache key
+     * @param beanProperties bean properties, part of the cache key
+     * @return search condition
+     * @throws SearchParseException if the expression can not be parsed, such failures are not cached
+     */
+    public <T> SearchCondition<T> getCondition(Supplier<SearchConditionParser<T>> parser,
+                                               String parserId,
+                                               String expression,
+                                               Class<T> cls,
+                                               Map<String, String> parserProperties,
+                                               Map<String, String> beanProperties)
+        throws SearchParseException {
+        List<Object> key = Arrays.asList(parserId, expression, cls,
+                                         copy(parserProperties), copy(beanProperties));
+        SearchCondition<?> condition;
+        synchronized (conditions) {
+            condition = conditions.get(key);
+        }
+        if (condition == null) {
+            misses.incrementAndGet();
+            condition = parser.get().parse(expression);
+            synchronized (conditions) {
+                conditions.put(key, condition);
+            }
+        } else {
+            hits.incrementAndGet();
+        }
+        @SuppressWarnings("unchecked")
+        SearchCondition<T> result = (SearchCondition<T>)condition;
+        return result;
+    }
+
+    public void clear() {
+        synchronized (conditions) {
+            conditions.clear();
+        }
+    }
+
+    public int getSize() {
+        synchronized (conditions) {
+            return conditions.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static Map<String, String> copy(Map<String, String> props) {
+        return props == null || props.isEmpty() ? null : new HashMap<>(props);
+    }
+}
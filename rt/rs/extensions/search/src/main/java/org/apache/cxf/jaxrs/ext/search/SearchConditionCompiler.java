@@ -0,0 +1,170 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.ext.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Compiles a {@link SearchCondition} tree into a {@link Predicate} which can be applied
+ * to many beans without repeating the per-check work done by {@link SearchCondition#isMet(Object)}:
+ * getters are resolved once per bean class, comparison values are unwrapped once and
+ * text wild cards are analyzed once.
+ * <p>
+ * Only the {@link AndSearchCondition}, {@link OrSearchCondition}, {@link SimpleSearchCondition}
+ * and {@link PrimitiveSearchCondition} classes are compiled; any other condition, including
+ * subclasses of the above, is evaluated by delegating to its own isMet method. The compiled
+ * predicate matches exactly the same beans as the condition it was created from.
+ */
+public final class SearchConditionCompiler {
+
+    private SearchConditionCompiler() {
+
+    }
+
+    public static <T> Predicate<T> compile(SearchCondition<T> condition) {
+        Class<?> type = condition.getClass();
+        if (type == AndSearchCondition.class || type == OrSearchCondition.class) {
+            List<SearchCondition<T>> conditions = ((AbstractComplexCondition<T>)condition).conditions;
+            if (conditions != null) {
+                return join(conditions, type == AndSearchCondition.class);
+            }
+        } else if (type == SimpleSearchCondition.class) {
+            return join(((SimpleSearchCondition<T>)condition).getConditions(), true);
+        } else if (type == PrimitiveSearchCondition.class) {
+            return compilePrimitive((PrimitiveSearchCondition<T>)condition);
+        }
+        return condition::isMet;
+    }
+
+    public static <T> List<T> findAll(SearchCondition<T> condition, Collection<T> pojos) {
+        Predicate<T> predicate = compile(condition);
+        List<T> result = new ArrayList<>();
+        for (T pojo : pojos) {
+            if (predicate.test(pojo)) {
+                result.add(pojo);
+            }
+        }
+        return result;
+    }
+
+    private static <T> Predicate<T> join(List<SearchCondition<T>> conditions, boolean and) {
+        if (conditions.size() == 1) {
+            return compile(conditions.get(0));
+        }
+        @SuppressWarnings("unchecked")
+        final Predicate<T>[] predicates = new Predicate[conditions.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = compile(conditions.get(i));
+        }
+        if (and) {
+            return pojo -> {
+                for (Predicate<T> p : predicates) {
+                    if (!p.test(pojo)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        return pojo -> {
+            for (Predicate<T> p : predicates) {
+                if (p.test(pojo)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static <T> Predicate<T> compilePrimitive(PrimitiveSearchCondition<T> condition) {
+        final String name = condition.getPropertyName();
+        final Object value = condition.getPropertyValue();
+        final ConditionType ct = condition.getConditionType();
+        final Predicate<Object> primitiveMatcher = matcher(ct, value);
+        if (name == null) {
+            return pojo -> PrimitiveSearchCondition.isPrimitive(pojo)
+                ? primitiveMatcher.test(pojo) : condition.isMet(pojo);
+        }
+        final Predicate<Object> matcher;
+        try {
+            Object rValue = PrimitiveSearchCondition.getPrimitiveValue(name, value);
+            matcher = rValue == value ? primitiveMatcher : matcher(ct, rValue);
+        } catch (RuntimeException ex) {
+            // the same exception will be reported by isMet
+            return condition::isMet;
+        }
+        return pojo -> {
+            if (PrimitiveSearchCondition.isPrimitive(pojo)) {
+                return primitiveMatcher.test(pojo);
+            }
+            Object lValue = condition.getValue(pojo);
+            return lValue != null && matcher.test(lValue);
+        };
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Predicate<Object> matcher(ConditionType ct, Object rval) {
+        if (ct == ConditionType.EQUALS || ct == ConditionType.NOT_EQUALS) {
+            if (rval == null) {
+                return lval -> true;
+            }
+            if (rval instanceof String && ((String)rval).length() > 1) {
+                Predicate<String> text = textMatcher((String)rval);
+                Predicate<Object> equals = lval -> lval != null
+                    && (lval instanceof String ? text.test((String)lval) : lval.equals(rval));
+                return ct == ConditionType.EQUALS ? equals
+                    : lval -> lval != null && !equals.test(lval);
+            }
+        } else if (!(rval instanceof Comparable)) {
+            return lval -> true;
+        } else {
+            final Comparable rcomp = (Comparable)rval;
+            switch (ct) {
+            case GREATER_THAN:
+                return lval -> !(lval instanceof Comparable) || ((Comparable)lval).compareTo(rcomp) > 0;
+            case GREATER_OR_EQUALS:
+                return lval -> !(lval instanceof Comparable) || ((Comparable)lval).compareTo(rcomp) >= 0;
+            case LESS_THAN:
+                return lval -> !(lval instanceof Comparable) || ((Comparable)lval).compareTo(rcomp) < 0;
+            case LESS_OR_EQUALS:
+                return lval -> !(lval instanceof Comparable) || ((Comparable)lval).compareTo(rcomp) <= 0;
+            default:
+                break;
+            }
+        }
+        return lval -> PrimitiveSearchCondition.compare(lval, ct, rval);
+    }
+
+    private static Predicate<String> textMatcher(String rval) {
+        final boolean starts = rval.charAt(0) == '*';
+        final boolean ends = rval.charAt(rval.length() - 1) == '*';
+        final String text = rval.substring(starts ? 1 : 0, ends ? rval.length() - 1 : rval.length());
+        if (starts && ends) {
+            return lval -> lval.contains(text);
+        } else if (starts) {
+            return lval -> lval.endsWith(text);
+        } else if (ends) {
+            return lval -> lval.startsWith(text);
+        }
+        return lval -> lval.equals(text);
+    }
+}
@@ -31,6 +31,7 @@ import javax.ws.rs.core.MultivaluedMap;
 import org.apache.cxf.common.classloader.ClassLoaderUtils;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.PropertyUtils;
+import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.jaxrs.ext.search.client.CompleteCondition;
 import org.apache.cxf.jaxrs.ext.search.client.SearchConditionBuilder;
@@ -47,6 +48,15 @@ public class SearchContextImpl implements SearchContext {
     public static final String CUSTOM_SEARCH_PARSER_PROPERTY = "search.parser";
     public static final String CUSTOM_SEARCH_PARSER_CLASS_PROPERTY = "search.parser.class";
     public static final String CUSTOM_SEARCH_QUERY_PARAM_NAME = "search.query.parameter.name";
+    /**
+     * Enables caching of the parsed conditions per endpoint when set to a positive
+     * number of the conditions to keep
+     */
+    public static final String SEARCH_CONDITION_CACHE_SIZE = "search.condition.cache.size";
+    /**
+     * {@link SearchConditionCache} instance to use instead of the one created per endpoint
+     */
+    public static final String SEARCH_CONDITION_CACHE = "search.condition.cache";
     private static final String USE_PLAIN_QUERY_PARAMETERS = "search.use.plain.queries";
     private static final String USE_ALL_QUERY_COMPONENT = "search.use.all.query.component";
     private static final String BLOCK_SEARCH_EXCEPTION = "search.block.search.exception";
@@ -92,10 +102,27 @@ public class SearchContextImpl implements SearchContext {
             throw new IllegalArgumentException(errorMessage);
         }
 
-        SearchConditionParser<T> parser = getParser(cls, beanProperties, parserProperties);
-
         String theExpression = expression == null
             ? getSearchExpression() : expression;
+        Object parserProp = message.getContextualProperty(CUSTOM_SEARCH_PARSER_PROPERTY);
+        SearchConditionCache cache = parserProp == null && theExpression != null ? getConditionCache() : null;
+        if (cache != null) {
+            Map<String, String> props = getParserProperties(parserProperties);
+            Map<String, String> beanProps = getBeanProperties(beanProperties);
+            String parserClassProp = (String)message.getContextualProperty(CUSTOM_SEARCH_PARSER_CLASS_PROPERTY);
+            try {
+                return cache.getCondition(() -> createParser(cls, props, beanProps, parserClassProp),
+                                          parserClassProp, theExpression, cls, props, beanProps);
+            } catch (SearchParseException ex) {
+                if (PropertyUtils.isTrue(message.getContextualProperty(BLOCK_SEARCH_EXCEPTION))) {
+                    return null;
+                }
+                throw ex;
+            }
+        }
+
+        SearchConditionParser<T> parser = getParser(cls, beanProperties, parserProperties);
+
         if (theExpression != null) {
             try {
                 return parser.parse(theExpression);
@@ -184,33 +211,43 @@ public class SearchContextImpl implements SearchContext {
             return getCustomParser(parserProp);
         }
 
-        Map<String, String> props = null;
-        if (parserProperties == null) {
-            props = new LinkedHashMap<>(4);
-            props.put(SearchUtils.DATE_FORMAT_PROPERTY,
-                      (String)message.getContextualProperty(SearchUtils.DATE_FORMAT_PROPERTY));
-            props.put(SearchUtils.TIMEZONE_SUPPORT_PROPERTY,
-                      (String)message.getContextualProperty(SearchUtils.TIMEZONE_SUPPORT_PROPERTY));
-            props.put(SearchUtils.LAX_PROPERTY_MATCH,
-                      (String)message.getContextualProperty(SearchUtils.LAX_PROPERTY_MATCH));
-            props.put(SearchUtils.DECODE_QUERY_VALUES,
-                      (String)message.getContextualProperty(SearchUtils.DECODE_QUERY_VALUES));
-            // FIQL specific
-            props.put(FiqlParser.SUPPORT_SINGLE_EQUALS,
-                      (String)message.getContextualProperty(FiqlParser.SUPPORT_SINGLE_EQUALS));
-        } else {
-            props = parserProperties;
-        }
+        Map<String, String> props = getParserProperties(parserProperties);
+        Map<String, String> beanProps = getBeanProperties(beanProperties);
 
-        Map<String, String> beanProps = null;
+        String parserClassProp = (String) message.getContextualProperty(CUSTOM_SEARCH_PARSER_CLASS_PROPERTY);
+        return createParser(cls, props, beanProps, parserClassProp);
+    }
 
-        if (beanProperties == null) {
-            beanProps = CastUtils.cast((Map<?, ?>)message.getContextualProperty(SearchUtils.BEAN_PROPERTY_MAP));
-        } else {
-            beanProps = beanProperties;
+    private Map<String, String> getParserProperties(Map<String, String> parserProperties) {
+        if (parserProperties != null) {
+            return parserProperties;
+        }
+        Map<String, String> props = new LinkedHashMap<>(4);
+        props.put(SearchUtils.DATE_FORMAT_PROPERTY,
+                  (String)message.getContextualProperty(SearchUtils.DATE_FORMAT_PROPERTY));
+        props.put(SearchUtils.TIMEZONE_SUPPORT_PROPERTY,
+                  (String)message.getContextualProperty(SearchUtils.TIMEZONE_SUPPORT_PROPERTY));
+        props.put(SearchUtils.LAX_PROPERTY_MATCH,
+                  (String)message.getContextualProperty(SearchUtils.LAX_PROPERTY_MATCH));
+        props.put(SearchUtils.DECODE_QUERY_VALUES,
+                  (String)message.getContextualProperty(SearchUtils.DECODE_QUERY_VALUES));
+        // FIQL specific
+        props.put(FiqlParser.SUPPORT_SINGLE_EQUALS,
+                  (String)message.getContextualProperty(FiqlParser.SUPPORT_SINGLE_EQUALS));
+        return props;
+    }
+
+    private Map<String, String> getBeanProperties(Map<String, String> beanProperties) {
+        if (beanProperties != null) {
+            return beanProperties;
         }
+        return CastUtils.cast((Map<?, ?>)message.getContextualProperty(SearchUtils.BEAN_PROPERTY_MAP));
+    }
 
-        String parserClassProp = (String) message.getContextualProperty(CUSTOM_SEARCH_PARSER_CLASS_PROPERTY);
+    private static <T> SearchConditionParser<T> createParser(Class<T> cls,
+                                                             Map<String, String> props,
+                                                             Map<String, String> beanProps,
+                                                             String parserClassProp) {
         if (parserClassProp != null) {
             try {
                 final Class<?> parserClass = ClassLoaderUtils.loadClass(parserClassProp, SearchContextImpl.class);
@@ -226,6 +263,30 @@ public class SearchContextImpl implements SearchContext {
         return new FiqlParser<T>(cls, props, beanProps);
     }
 
+    private SearchConditionCache getConditionCache() {
+        Object cacheProp = message.getContextualProperty(SEARCH_CONDITION_CACHE);
+        if (cacheProp instanceof SearchConditionCache) {
+            return (SearchConditionCache)cacheProp;
+        }
+        Object sizeProp = message.getContextualProperty(SEARCH_CONDITION_CACHE_SIZE);
+        Endpoint endpoint = message.getExchange() == null ? null : message.getExchange().getEndpoint();
+        if (sizeProp == null || endpoint == null) {
+            return null;
+        }
+        int size = Integer.parseInt(sizeProp.toString());
+        if (size <= 0) {
+            return null;
+        }
+        synchronized (endpoint) {
+            SearchConditionCache cache = (SearchConditionCache)endpoint.get(SEARCH_CONDITION_CACHE);
+            if (cache == null) {
+                cache = new SearchConditionCache(size);
+                endpoint.put(SEARCH_CONDITION_CACHE, cache);
+            }
+            return cache;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <T> SearchConditionParser<T> getCustomParser(Object parserProp) {
         return (SearchConditionParser<T>)parserProp;
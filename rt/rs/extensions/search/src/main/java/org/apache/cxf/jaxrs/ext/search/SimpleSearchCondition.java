@@ -142,6 +142,13 @@ public class SimpleSearchCondition<T> implements SearchCondition<T> {
         return null;
     }
 
+    /**
+     * Returns the per-getter conditions joined by this condition, even if there is only one of them.
+     */
+    List<SearchCondition<T>> getConditions() {
+        return scts;
+    }
+
     private List<SearchCondition<T>> createConditions(Map<String, ConditionType> getters2operators,
                                                       Map<String, String> realGetters,
                                                       Map<String, TypeInfo> propertyTypeInfo,
@@ -299,13 +306,7 @@ public class SimpleSearchCondition<T> implements SearchCondition<T> {
 
     @Override
     public List<T> findAll(Collection<T> pojos) {
-        List<T> result = new ArrayList<>();
-        for (T pojo : pojos) {
-            if (isMet(pojo)) {
-                result.add(pojo);
-            }
-        }
-        return result;
+        return SearchConditionCompiler.findAll(this, pojos);
     }
 
     public String toSQL(String table, String... columns) {
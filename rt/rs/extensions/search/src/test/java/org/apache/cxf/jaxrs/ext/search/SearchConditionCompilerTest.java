@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.ext.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SearchConditionCompilerTest {
+
+    private static final List<Book> BOOKS = Arrays.asList(new Book("CXF in Action", 1L),
+                                                          new Book("CXF Rocks", 2L),
+                                                          new Book("Java", 3L),
+                                                          new Book("Apache CXF", 4L),
+                                                          new Book(null, 5L));
+
+    @Test
+    public void testPrimitiveConditions() {
+        for (ConditionType ct : Arrays.asList(ConditionType.EQUALS, ConditionType.NOT_EQUALS,
+                                              ConditionType.GREATER_THAN, ConditionType.GREATER_OR_EQUALS,
+                                              ConditionType.LESS_THAN, ConditionType.LESS_OR_EQUALS)) {
+            assertSameResults(new PrimitiveSearchCondition<Book>("id", 3L, ct, new Book()));
+            assertSameResults(new PrimitiveSearchCondition<Book>("name", "Java", ct, new Book()));
+        }
+    }
+
+    @Test
+    public void testWildCards() {
+        for (String value : Arrays.asList("CXF*", "*CXF", "*CXF*", "**", "Java")) {
+            assertSameResults(new PrimitiveSearchCondition<Book>("name", value, ConditionType.EQUALS, new Book()));
+            assertSameResults(new PrimitiveSearchCondition<Book>("name", value, ConditionType.NOT_EQUALS,
+                                                                 new Book()));
+        }
+        Predicate<Book> p = SearchConditionCompiler.compile(
+            new PrimitiveSearchCondition<Book>("name", "*CXF*", ConditionType.EQUALS, new Book()));
+        assertTrue(p.test(BOOKS.get(3)));
+        assertFalse(p.test(BOOKS.get(2)));
+        assertFalse(p.test(BOOKS.get(4)));
+    }
+
+    @Test
+    public void testComplexConditions() {
+        SearchCondition<Book> name =
+            new PrimitiveSearchCondition<Book>("name", "CXF*", ConditionType.EQUALS, new Book());
+        SearchCondition<Book> id =
+            new PrimitiveSearchCondition<Book>("id", 1L, ConditionType.GREATER_THAN, new Book());
+        SearchCondition<Book> java =
+            new PrimitiveSearchCondition<Book>("name", "Java", ConditionType.EQUALS, new Book());
+        SearchCondition<Book> and = new AndSearchCondition<Book>(Arrays.asList(name, id));
+        SearchCondition<Book> or = new OrSearchCondition<Book>(Arrays.asList(and, java));
+        assertSameResults(and);
+        assertSameResults(or);
+        assertEquals(Arrays.asList(BOOKS.get(1), BOOKS.get(2)), or.findAll(BOOKS));
+    }
+
+    @Test
+    public void testSimpleCondition() {
+        Map<String, ConditionType> operators = new HashMap<>();
+        operators.put("name", ConditionType.EQUALS);
+        operators.put("id", ConditionType.LESS_OR_EQUALS);
+        SearchCondition<Book> sc = new SimpleSearchCondition<Book>(operators, new Book("CXF*", 2L));
+        assertSameResults(sc);
+        assertEquals(BOOKS.subList(0, 2), sc.findAll(BOOKS));
+    }
+
+    @Test
+    public void testBuiltInCondition() {
+        SearchCondition<String> sc = new SimpleSearchCondition<String>(ConditionType.EQUALS, "*bar");
+        Predicate<String> p = SearchConditionCompiler.compile(sc);
+        for (String s : Arrays.asList("foobar", "bar", "barfoo")) {
+            assertEquals(sc.isMet(s), p.test(s));
+        }
+        assertTrue(p.test("foobar"));
+        assertFalse(p.test("barfoo"));
+    }
+
+    @Test
+    public void testCustomConditionIsDelegated() {
+        SearchCondition<Book> custom =
+            new PrimitiveSearchCondition<Book>("id", 1L, ConditionType.EQUALS, new Book()) {
+                @Override
+                public boolean isMet(Book pojo) {
+                    return pojo.getId() == 4L;
+                }
+            };
+        assertSameResults(custom);
+        assertEquals(Arrays.asList(BOOKS.get(3)), custom.findAll(BOOKS));
+    }
+
+    @Test
+    public void testSearchConditionCache() {
+        SearchConditionCache cache = new SearchConditionCache(1);
+        SearchCondition<Book> sc =
+            new PrimitiveSearchCondition<Book>("id", 1L, ConditionType.EQUALS, new Book());
+        assertSame(sc, cache.getCondition(() -> expression -> sc, null, "id==1", Book.class, null, null));
+        assertSame(sc, cache.getCondition(() -> expression -> null, null, "id==1", Book.class, null, null));
+        assertEquals(1L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+
+        cache.getCondition(() -> expression -> sc, null, "id==2", Book.class, null, null);
+        assertEquals(1, cache.getSize());
+        assertEquals(2L, cache.getMisses());
+    }
+
+    private static <T> void assertSameResults(SearchCondition<T> sc) {
+        @SuppressWarnings("unchecked")
+        List<T> pojos = (List<T>)BOOKS;
+        Predicate<T> p = SearchConditionCompiler.compile(sc);
+        for (T pojo : pojos) {
+            assertEquals(sc.isMet(pojo), p.test(pojo));
+        }
+    }
+}
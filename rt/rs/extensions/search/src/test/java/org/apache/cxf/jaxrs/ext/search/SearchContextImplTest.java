@@ -32,6 +32,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class SearchContextImplTest {
@@ -60,6 +61,24 @@ public class SearchContextImplTest {
         new SearchContextImpl(m).getCondition(Book.class);
     }
 
+    @Test
+    public void testConditionCache() {
+        SearchConditionCache cache = new SearchConditionCache();
+        Message m = new MessageImpl();
+        m.put(SearchContextImpl.SEARCH_CONDITION_CACHE, cache);
+        m.put(Message.QUERY_STRING, "_s=name==CXF");
+        SearchCondition<Book> sc = new SearchContextImpl(m).getCondition(Book.class);
+        assertNotNull(sc);
+        assertSame(sc, new SearchContextImpl(m).getCondition(Book.class));
+        assertEquals(1L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+
+        m.put(Message.QUERY_STRING, "_s=ab");
+        m.put("search.block.search.exception", true);
+        assertNull(new SearchContextImpl(m).getCondition(Book.class));
+        assertEquals(1, cache.getSize());
+    }
+
     @Test
     public void testPlainQuery2() {
         Message m = new MessageImpl();
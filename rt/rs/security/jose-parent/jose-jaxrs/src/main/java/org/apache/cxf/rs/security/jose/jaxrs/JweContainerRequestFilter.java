@@ -20,36 +20,92 @@ package org.apache.cxf.rs.security.jose.jaxrs;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import javax.annotation.Priority;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
 
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.jaxrs.utils.ExceptionUtils;
 import org.apache.cxf.jaxrs.utils.HttpUtils;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
+import org.apache.cxf.rs.security.jose.jwe.JweCompactStreamConsumer;
 import org.apache.cxf.rs.security.jose.jwe.JweDecryptionOutput;
+import org.apache.cxf.rs.security.jose.jwe.JweException;
+import org.apache.cxf.rs.security.jose.jwe.JweHeaders;
 
 @PreMatching
 @Priority(Priorities.JWE_SERVER_READ_PRIORITY)
-public class JweContainerRequestFilter extends AbstractJweDecryptingFilter implements ContainerRequestFilter {
+public class JweContainerRequestFilter extends AbstractJweDecryptingFilter
+    implements ContainerRequestFilter, ReaderInterceptor {
+    private static final String CONTENT_STREAM = JweContainerRequestFilter.class.getName() + ".content";
+    private boolean useJweInputStream;
     @Override
     public void filter(ContainerRequestContext context) throws IOException {
         if (isMethodWithNoContent(context.getMethod())
             || isCheckEmptyStream() && !context.hasEntity()) {
             return;
         }
-        JweDecryptionOutput out = decrypt(context.getEntityStream());
-        byte[] bytes = out.getContent();
-        context.setEntityStream(new ByteArrayInputStream(bytes));
-        context.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
-        String ct = JoseUtils.checkContentType(out.getHeaders().getContentType(), getDefaultMediaType());
+        JweHeaders headers;
+        if (useJweInputStream) {
+            JweCompactStreamConsumer jwe = new JweCompactStreamConsumer(context.getEntityStream());
+            headers = jwe.getJweHeaders();
+            JoseUtils.traceHeaders(headers);
+            validateHeaders(headers);
+            InputStream content = jwe.getDecryptedContentStream(getInitializedDecryptionProvider(headers));
+            context.setEntityStream(content);
+            context.getHeaders().remove("Content-Length");
+            context.setProperty(CONTENT_STREAM, content);
+        } else {
+            JweDecryptionOutput out = decrypt(context.getEntityStream());
+            headers = out.getHeaders();
+            byte[] bytes = out.getContent();
+            context.setEntityStream(new ByteArrayInputStream(bytes));
+            context.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
+        }
+        String ct = JoseUtils.checkContentType(headers.getContentType(), getDefaultMediaType());
         if (ct != null) {
             context.getHeaders().putSingle("Content-Type", ct);
         }
         if (super.isValidateHttpHeaders()) {
-            super.validateHttpHeadersIfNeeded(context.getHeaders(), out.getHeaders());
+            super.validateHttpHeadersIfNeeded(context.getHeaders(), headers);
+        }
+    }
+
+    /**
+     * Decrypt the content while it is being read by the message body reader instead of
+     * buffering it, see {@link JweCompactStreamConsumer}. The filter must then also be registered
+     * as a reader interceptor, which it is when it is registered as a provider: it reads the rest
+     * of the content after the message body reader and reports an invalid authentication tag
+     * with the 400 response.
+     */
+    public void setUseJweInputStream(boolean useJweInputStream) {
+        this.useJweInputStream = useJweInputStream;
+    }
+
+    /**
+     * Completes the decryption of the content streamed with {@link #setUseJweInputStream(boolean)}:
+     * the message body reader may stop before the end of the content, so the rest of it is read
+     * to have the authentication tag verified before the entity is returned.
+     */
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+        InputStream content = (InputStream)context.getProperty(CONTENT_STREAM);
+        if (content == null) {
+            return context.proceed();
+        }
+        context.removeProperty(CONTENT_STREAM);
+        try {
+            Object entity = context.proceed();
+            IOUtils.consume(content);
+            return entity;
+        } catch (JweException ex) {
+            throw ExceptionUtils.toBadRequestException(ex, null);
         }
     }
     
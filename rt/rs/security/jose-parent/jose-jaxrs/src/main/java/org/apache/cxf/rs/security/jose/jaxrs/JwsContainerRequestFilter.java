@@ -20,6 +20,7 @@ package org.apache.cxf.rs.security.jose.jaxrs;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
 
 import javax.annotation.Priority;
@@ -27,55 +28,123 @@ import javax.ws.rs.HttpMethod;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
 
 import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.jaxrs.utils.ExceptionUtils;
 import org.apache.cxf.jaxrs.utils.HttpUtils;
 import org.apache.cxf.jaxrs.utils.JAXRSUtils;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
 import org.apache.cxf.rs.security.jose.jws.JwsCompactConsumer;
+import org.apache.cxf.rs.security.jose.jws.JwsCompactStreamConsumer;
+import org.apache.cxf.rs.security.jose.jws.JwsException;
+import org.apache.cxf.rs.security.jose.jws.JwsHeaders;
 import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
 import org.apache.cxf.rs.security.jose.jws.PublicKeyJwsSignatureVerifier;
 import org.apache.cxf.security.SecurityContext;
 
 @PreMatching
 @Priority(Priorities.JWS_SERVER_READ_PRIORITY)
-public class JwsContainerRequestFilter extends AbstractJwsReaderProvider implements ContainerRequestFilter {
+public class JwsContainerRequestFilter extends AbstractJwsReaderProvider
+    implements ContainerRequestFilter, ReaderInterceptor {
+    private static final String PAYLOAD_STREAM = JwsContainerRequestFilter.class.getName() + ".payload";
+    private static final String SIG_VERIFIER = JwsContainerRequestFilter.class.getName() + ".verifier";
+    private boolean useJwsInputStream;
     @Override
     public void filter(ContainerRequestContext context) throws IOException {
         if (isMethodWithNoContent(context.getMethod())
             || isCheckEmptyStream() && !context.hasEntity()) {
             return;
         }
-        JwsCompactConsumer p = new JwsCompactConsumer(IOUtils.readStringFromStream(context.getEntityStream()));
-        JwsSignatureVerifier theSigVerifier = getInitializedSigVerifier(p.getJwsHeaders());
-        if (!p.verifySignatureWith(theSigVerifier)) {
-            context.abortWith(JAXRSUtils.toResponse(400));
-            return;
+        JwsHeaders headers;
+        JwsSignatureVerifier theSigVerifier;
+        if (useJwsInputStream) {
+            JwsCompactStreamConsumer p = new JwsCompactStreamConsumer(context.getEntityStream());
+            headers = p.getJwsHeaders();
+            theSigVerifier = getInitializedSigVerifier(headers);
+            JoseUtils.validateRequestContextProperty(headers);
+            InputStream payload = p.getDecodedPayloadStream(theSigVerifier);
+            context.setEntityStream(payload);
+            context.getHeaders().remove("Content-Length");
+            // the signature is verified and the security context is set once the payload has been read
+            context.setProperty(PAYLOAD_STREAM, payload);
+            context.setProperty(SIG_VERIFIER, theSigVerifier);
+        } else {
+            JwsCompactConsumer p = new JwsCompactConsumer(IOUtils.readStringFromStream(context.getEntityStream()));
+            headers = p.getJwsHeaders();
+            theSigVerifier = getInitializedSigVerifier(headers);
+            if (!p.verifySignatureWith(theSigVerifier)) {
+                context.abortWith(JAXRSUtils.toResponse(400));
+                return;
+            }
+            JoseUtils.validateRequestContextProperty(headers);
+
+            byte[] bytes = p.getDecodedJwsPayloadBytes();
+            context.setEntityStream(new ByteArrayInputStream(bytes));
+            context.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
         }
-        JoseUtils.validateRequestContextProperty(p.getJwsHeaders());
-        
-        byte[] bytes = p.getDecodedJwsPayloadBytes();
-        context.setEntityStream(new ByteArrayInputStream(bytes));
-        context.getHeaders().putSingle("Content-Length", Integer.toString(bytes.length));
 
-        String ct = JoseUtils.checkContentType(p.getJwsHeaders().getContentType(), getDefaultMediaType());
+        String ct = JoseUtils.checkContentType(headers.getContentType(), getDefaultMediaType());
         if (ct != null) {
             context.getHeaders().putSingle("Content-Type", ct);
         }
 
         if (super.isValidateHttpHeaders()) {
-            super.validateHttpHeadersIfNeeded(context.getHeaders(), p.getJwsHeaders());
+            super.validateHttpHeadersIfNeeded(context.getHeaders(), headers);
+        }
+
+        if (!useJwsInputStream) {
+            setSecurityContextIfNeeded(context.getSecurityContext().getUserPrincipal(), theSigVerifier);
+        }
+    }
+
+    /**
+     * Completes the verification of the payload streamed with {@link #setUseJwsInputStream(boolean)}:
+     * the message body reader may stop before the end of the payload, so the rest of it is read
+     * to have the signature verified before the entity is returned and the security context is set.
+     */
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+        InputStream payload = (InputStream)context.getProperty(PAYLOAD_STREAM);
+        if (payload == null) {
+            return context.proceed();
         }
-        
-        Principal currentPrincipal = context.getSecurityContext().getUserPrincipal();
+        context.removeProperty(PAYLOAD_STREAM);
+        JwsSignatureVerifier theSigVerifier = (JwsSignatureVerifier)context.getProperty(SIG_VERIFIER);
+        context.removeProperty(SIG_VERIFIER);
+        Object entity;
+        try {
+            entity = context.proceed();
+            IOUtils.consume(payload);
+        } catch (JwsException ex) {
+            throw ExceptionUtils.toBadRequestException(ex, null);
+        }
+        SecurityContext sc = JAXRSUtils.getCurrentMessage().get(SecurityContext.class);
+        setSecurityContextIfNeeded(sc == null ? null : sc.getUserPrincipal(), theSigVerifier);
+        return entity;
+    }
+
+    private void setSecurityContextIfNeeded(Principal currentPrincipal, JwsSignatureVerifier sigVerifier) {
         if (currentPrincipal == null || currentPrincipal.getName() == null) {
-            SecurityContext securityContext = configureSecurityContext(theSigVerifier);
+            SecurityContext securityContext = configureSecurityContext(sigVerifier);
             if (securityContext != null) {
                 JAXRSUtils.getCurrentMessage().put(SecurityContext.class, securityContext);
             }
         }
     }
 
+    /**
+     * Verify the payload while it is being read by the message body reader instead of
+     * buffering it, see {@link JwsCompactStreamConsumer}. The filter must then also be registered
+     * as a reader interceptor, which it is when it is registered as a provider: it reads the rest
+     * of the payload after the message body reader, reports an invalid signature with the 400 response
+     * and only then sets the security context.
+     */
+    public void setUseJwsInputStream(boolean useJwsInputStream) {
+        this.useJwsInputStream = useJwsInputStream;
+    }
+
     protected SecurityContext configureSecurityContext(JwsSignatureVerifier sigVerifier) {
         if (sigVerifier instanceof PublicKeyJwsSignatureVerifier
             && ((PublicKeyJwsSignatureVerifier)sigVerifier).getX509Certificate() != null) {
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.common;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Decodes Base64 URL encoded content, with or without the padding, while it is being read.
+ * Unlike the streams returned by {@link Base64.Decoder#wrap(InputStream)} the content is
+ * decoded in blocks rather than one character at a time.
+ */
+public class Base64UrlDecodingInputStream extends FilterInputStream {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int[] DECODING_TABLE = new int[128];
+    static {
+        Arrays.fill(DECODING_TABLE, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODING_TABLE[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private final byte[] encoded = new byte[BUFFER_SIZE];
+    private final byte[] decoded = new byte[BUFFER_SIZE / 4 * 3];
+    private int encodedLength;
+    private int decodedPos;
+    private int decodedLimit;
+    private boolean endOfStream;
+
+    public Base64UrlDecodingInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (decodedPos == decodedLimit) {
+            if (endOfStream) {
+                return -1;
+            }
+            decodeNext();
+        }
+        int n = Math.min(len, decodedLimit - decodedPos);
+        System.arraycopy(decoded, decodedPos, b, off, n);
+        decodedPos += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] b = new byte[(int)Math.min(n, BUFFER_SIZE)];
+        long skipped = 0;
+        int num;
+        while (skipped < n && (num = read(b, 0, (int)Math.min(b.length, n - skipped))) != -1) {
+            skipped += num;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return decodedLimit - decodedPos;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void decodeNext() throws IOException {
+        int num = in.read(encoded, encodedLength, encoded.length - encodedLength);
+        if (num == -1) {
+            endOfStream = true;
+            while (encodedLength > 0 && encoded[encodedLength - 1] == '=') {
+                encodedLength--;
+            }
+        } else {
+            encodedLength += num;
+        }
+        // only the complete 4 character groups can be decoded until the end of the content is reached
+        int length = endOfStream ? encodedLength : encodedLength & ~3;
+        if (length % 4 == 1) {
+            throw new IOException("Incorrect Base64 URL encoding");
+        }
+        decodedPos = 0;
+        decodedLimit = 0;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            int bits = decode(encoded[i]) << 18 | decode(encoded[i + 1]) << 12
+                | decode(encoded[i + 2]) << 6 | decode(encoded[i + 3]);
+            decoded[decodedLimit++] = (byte)(bits >> 16);
+            decoded[decodedLimit++] = (byte)(bits >> 8);
+            decoded[decodedLimit++] = (byte)bits;
+        }
+        if (i < length) {
+            int bits = decode(encoded[i]) << 18 | decode(encoded[i + 1]) << 12;
+            decoded[decodedLimit++] = (byte)(bits >> 16);
+            if (length - i == 3) {
+                bits |= decode(encoded[i + 2]) << 6;
+                decoded[decodedLimit++] = (byte)(bits >> 8);
+            }
+        }
+        System.arraycopy(encoded, length, encoded, 0, encodedLength - length);
+        encodedLength -= length;
+    }
+
+    private static int decode(byte b) throws IOException {
+        int value = b < 0 ? -1 : DECODING_TABLE[b];
+        if (value == -1) {
+            throw new IOException("Incorrect Base64 URL encoding");
+        }
+        return value;
+    }
+}
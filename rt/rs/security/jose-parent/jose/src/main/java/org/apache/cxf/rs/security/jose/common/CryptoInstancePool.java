@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.common;
+
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+
+/**
+ * Keeps the Cipher, Mac and Signature instances per thread, in order to avoid looking up
+ * the security providers for every JWE or JWS being processed.
+ * <p>
+ * An acquired instance is owned by the caller until it is released, so the same
+ * instance is never used by two sequences being processed concurrently on the same thread.
+ * The acquired instances must be initialized by the caller before every use.
+ */
+public final class CryptoInstancePool {
+    private static final ThreadLocal<Map<String, Object>> INSTANCES = ThreadLocal.withInitial(HashMap::new);
+
+    private CryptoInstancePool() {
+
+    }
+
+    public static Cipher acquireCipher(String transformation) {
+        Object cipher = INSTANCES.get().remove("Cipher/" + transformation);
+        try {
+            return cipher != null ? (Cipher)cipher : Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException ex) {
+            throw new SecurityException(ex);
+        }
+    }
+
+    public static void releaseCipher(Cipher cipher) {
+        INSTANCES.get().put("Cipher/" + cipher.getAlgorithm(), cipher);
+    }
+
+    public static Mac acquireMac(String algorithm) {
+        Object mac = INSTANCES.get().remove("Mac/" + algorithm);
+        try {
+            return mac != null ? (Mac)mac : Mac.getInstance(algorithm);
+        } catch (GeneralSecurityException ex) {
+            throw new SecurityException(ex);
+        }
+    }
+
+    public static void releaseMac(Mac mac) {
+        INSTANCES.get().put("Mac/" + mac.getAlgorithm(), mac);
+    }
+
+    public static Signature acquireSignature(String algorithm) {
+        Object signature = INSTANCES.get().remove("Signature/" + algorithm);
+        try {
+            return signature != null ? (Signature)signature : Signature.getInstance(algorithm);
+        } catch (GeneralSecurityException ex) {
+            throw new SecurityException(ex);
+        }
+    }
+
+    public static void releaseSignature(Signature signature) {
+        INSTANCES.get().put("Signature/" + signature.getAlgorithm(), signature);
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the '.' separated parts of a compact JWS or JWE sequence from a stream,
+ * without loading the whole sequence into memory.
+ * <p>
+ * The parts are read in order, either fully with {@link #readPart(int)}, typically the headers,
+ * keys and signatures, or as streams with {@link #getPartStream()}, typically the payload
+ * or the encrypted content. The next part can only be read once the current one has been consumed.
+ */
+public class JoseCompactStreamReader {
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte SEPARATOR = '.';
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private boolean endOfStream;
+
+    public JoseCompactStreamReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next part
+     * @param maxLength maximum expected length of the part
+     * @return the part or null if it is longer than maxLength
+     */
+    public String readPart(int maxLength) throws IOException {
+        InputStream part = getPartStream();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.min(maxLength, 256));
+        byte[] bytes = new byte[Math.min(maxLength + 1, BUFFER_SIZE)];
+        int n;
+        while ((n = part.read(bytes, 0, bytes.length)) != -1) {
+            bos.write(bytes, 0, n);
+            if (bos.size() > maxLength) {
+                return null;
+            }
+        }
+        return new String(bos.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns the stream of the next part which ends at the next separator or at the end of the sequence
+     */
+    public InputStream getPartStream() {
+        return new PartInputStream();
+    }
+
+    /**
+     * Returns true if the last part read has not been followed by a separator
+     */
+    public boolean isEndOfStream() {
+        return endOfStream;
+    }
+
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean fill() throws IOException {
+        if (pos < limit) {
+            return true;
+        }
+        if (endOfStream) {
+            return false;
+        }
+        int n;
+        do {
+            n = in.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n == -1) {
+            endOfStream = true;
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private class PartInputStream extends InputStream {
+        private boolean partEnded;
+
+        @Override
+        public int read() throws IOException {
+            if (partEnded || !fill()) {
+                partEnded = true;
+                return -1;
+            }
+            byte b = buffer[pos++];
+            if (b == SEPARATOR) {
+                partEnded = true;
+                return -1;
+            }
+            return b & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (partEnded || !fill()) {
+                partEnded = true;
+                return -1;
+            }
+            int end = Math.min(limit, pos + len);
+            int i = pos;
+            while (i < end && buffer[i] != SEPARATOR) {
+                i++;
+            }
+            int n = i - pos;
+            System.arraycopy(buffer, pos, b, off, n);
+            pos = i;
+            if (i < end) {
+                // skip the separator
+                pos++;
+                partEnded = true;
+                if (n == 0) {
+                    return -1;
+                }
+            }
+            return n;
+        }
+    }
+}
@@ -83,6 +83,36 @@ public abstract class AbstractJweDecryption implements JweDecryptionProvider {
 
         return new JweDecryptionOutput(jweDecryptionInput.getJweHeaders(), bytes);
     }
+
+    /**
+     * Creates the cipher which decrypts the content of {@link JweCompactStreamConsumer} incrementally.
+     * @param jweDecryptionInput the input with the headers, the encrypted key and the IV only
+     * @return the cipher or null if the content algorithm can not be processed incrementally
+     */
+    ContentDecryptionCipher createContentDecryptionCipher(JweDecryptionInput jweDecryptionInput) {
+        byte[] cek = keyDecryptionAlgo.getDecryptedContentEncryptionKey(jweDecryptionInput);
+        try {
+            return doCreateContentDecryptionCipher(jweDecryptionInput, cek);
+        } finally {
+            Arrays.fill(cek, (byte) 0);
+        }
+    }
+
+    protected ContentDecryptionCipher doCreateContentDecryptionCipher(JweDecryptionInput jweDecryptionInput,
+                                                                      byte[] cek) {
+        String algo = jweDecryptionInput.getJweHeaders().getContentEncryptionAlgorithm().getJwaName();
+        if (!AlgorithmUtils.isAesGcm(algo)) {
+            return null;
+        }
+        ContentAlgorithm supportedAlgo = getContentAlgorithm();
+        if (supportedAlgo == null || !supportedAlgo.getJwaName().equals(algo)) {
+            LOG.warning("Invalid content encryption algorithm");
+            throw new JweException(JweException.Error.INVALID_CONTENT_ALGORITHM);
+        }
+        return new AesGcmContentDecryptionCipher(getActualCek(cek, algo),
+                                                 getContentEncryptionCipherInitVector(jweDecryptionInput),
+                                                 getContentEncryptionCipherAAD(jweDecryptionInput));
+    }
     protected byte[] getEncryptedContentEncryptionKey(JweCompactConsumer consumer) {
         return consumer.getEncryptedContentEncryptionKey();
     }
@@ -18,11 +18,16 @@
  */
 package org.apache.cxf.rs.security.jose.jwe;
 
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
 
+import javax.crypto.Cipher;
 import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 
+import org.apache.cxf.rs.security.jose.common.CryptoInstancePool;
 import org.apache.cxf.rs.security.jose.jwa.AlgorithmUtils;
 import org.apache.cxf.rs.security.jose.jwa.ContentAlgorithm;
 
@@ -62,6 +67,67 @@ public class AesCbcHmacJweDecryption extends JweDecryption {
         }
 
     }
+    @Override
+    protected ContentDecryptionCipher doCreateContentDecryptionCipher(JweDecryptionInput jweDecryptionInput,
+                                                                      byte[] cek) {
+        byte[] actualCek = getActualCek(cek,
+                               jweDecryptionInput.getJweHeaders().getContentEncryptionAlgorithm().getJwaName());
+        try {
+            return new AesCbcHmacContentDecryptionCipher(jweDecryptionInput, cek, actualCek,
+                                                         getContentEncryptionAlgorithm(jweDecryptionInput));
+        } finally {
+            Arrays.fill(actualCek, (byte) 0);
+        }
+    }
+    private static class AesCbcHmacContentDecryptionCipher implements ContentDecryptionCipher {
+        private final AesCbcHmacJweEncryption.MacState macState;
+        private final Cipher cipher;
+        AesCbcHmacContentDecryptionCipher(JweDecryptionInput jweDecryptionInput, byte[] cek,
+                                          byte[] actualCek, String cipherAlgo) {
+            macState = AesCbcHmacJweEncryption.getInitializedMacState(cek,
+                                                                      jweDecryptionInput.getInitVector(),
+                                                                      jweDecryptionInput.getAad(),
+                                                                      jweDecryptionInput.getJweHeaders(),
+                                                                      jweDecryptionInput.getDecodedJsonHeaders());
+            try {
+                cipher = CryptoInstancePool.acquireCipher(cipherAlgo);
+                cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(actualCek, AlgorithmUtils.AES),
+                            new IvParameterSpec(jweDecryptionInput.getInitVector()));
+            } catch (GeneralSecurityException | SecurityException ex) {
+                LOG.warning("AES-CBC cipher can not be initialized");
+                throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex);
+            }
+        }
+        @Override
+        public int getOutputSize(int inputLen) {
+            return cipher.getOutputSize(inputLen);
+        }
+        @Override
+        public int update(byte[] input, int inputOff, int inputLen, byte[] output, int outputOff) {
+            macState.mac.update(input, inputOff, inputLen);
+            try {
+                return cipher.update(input, inputOff, inputLen, output, outputOff);
+            } catch (GeneralSecurityException ex) {
+                throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex);
+            }
+        }
+        @Override
+        public int doFinal(byte[] authTag, byte[] output, int outputOff) {
+            // the tag is checked before the padding is, as the non-streaming decryption does
+            byte[] expectedAuthTag = AesCbcHmacJweEncryption.signAndGetTag(macState);
+            if (!MessageDigest.isEqual(authTag, expectedAuthTag)) {
+                LOG.warning("Invalid authentication tag");
+                throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE);
+            }
+            try {
+                int n = cipher.doFinal(output, outputOff);
+                CryptoInstancePool.releaseCipher(cipher);
+                return n;
+            } catch (GeneralSecurityException ex) {
+                throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex);
+            }
+        }
+    }
     private static class AesCbcContentDecryptionAlgorithm extends AbstractContentEncryptionCipherProperties
         implements ContentDecryptionProvider {
         AesCbcContentDecryptionAlgorithm(ContentAlgorithm supportedAlgo) {
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwe;
+
+import java.security.GeneralSecurityException;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.MessageDigest;
+import java.util.logging.Logger;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.rs.security.jose.common.CryptoInstancePool;
+
+/**
+ * Streaming AES-GCM content decryption.
+ * <p>
+ * JCE AES-GCM ciphers buffer the whole content in the decryption mode until the tag has been
+ * verified, so the content is decrypted with AES-CTR instead, starting from the same counter
+ * block as GCM does, while the authentication tag is recalculated by encrypting the decrypted
+ * content with AES-GCM and is compared to the received tag at the end.
+ */
+class AesGcmContentDecryptionCipher implements ContentDecryptionCipher {
+    private static final Logger LOG = LogUtils.getL7dLogger(AesGcmContentDecryptionCipher.class);
+    private static final String CTR_TRANSFORMATION = "AES/CTR/NoPadding";
+    private static final String GCM_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 16;
+
+    private final Cipher ctrCipher;
+    private Cipher gcmCipher;
+    private byte[] gcmOutput = new byte[0];
+
+    AesGcmContentDecryptionCipher(byte[] cek, byte[] iv, byte[] aad) {
+        if (iv == null || iv.length != IV_LENGTH) {
+            LOG.warning("Invalid AES-GCM initialization vector");
+            throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE);
+        }
+        SecretKeySpec key = new SecretKeySpec(cek, "AES");
+        // J0 is IV || 0^31 || 1, the content is encrypted starting from inc32(J0);
+        // CTR increments the whole counter block, which only makes a difference past the GCM content size limit
+        byte[] counter = new byte[16];
+        System.arraycopy(iv, 0, counter, 0, IV_LENGTH);
+        counter[15] = 2;
+        try {
+            ctrCipher = CryptoInstancePool.acquireCipher(CTR_TRANSFORMATION);
+            ctrCipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(counter));
+            gcmCipher = CryptoInstancePool.acquireCipher(GCM_TRANSFORMATION);
+            GCMParameterSpec spec = new GCMParameterSpec(TAG_LENGTH * 8, iv);
+            try {
+                gcmCipher.init(Cipher.ENCRYPT_MODE, key, spec);
+            } catch (InvalidAlgorithmParameterException ex) {
+                // the same cipher has just processed the content with this key and IV,
+                // JCE does not allow reusing them for the encryption
+                gcmCipher = Cipher.getInstance(GCM_TRANSFORMATION);
+                gcmCipher.init(Cipher.ENCRYPT_MODE, key, spec);
+            }
+            gcmCipher.updateAAD(aad);
+        } catch (GeneralSecurityException | SecurityException ex) {
+            LOG.warning("AES-GCM ciphers can not be initialized");
+            throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex);
+        }
+    }
+
+    @Override
+    public int getOutputSize(int inputLen) {
+        return inputLen;
+    }
+
+    @Override
+    public int update(byte[] input, int inputOff, int inputLen, byte[] output, int outputOff) {
+        try {
+            int n = ctrCipher.update(input, inputOff, inputLen, output, outputOff);
+            updateTag(output, outputOff, n);
+            return n;
+        } catch (GeneralSecurityException ex) {
+            throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex);
+        }
+    }
+
+    @Override
+    public int doFinal(byte[] authTag, byte[] output, int outputOff) {
+        try {
+            int n = ctrCipher.doFinal(output, outputOff);
+            updateTag(output, outputOff, n);
+            byte[] last = gcmCipher.doFinal();
+            byte[] expectedTag = new byte[TAG_LENGTH];
+            System.arraycopy(last, last.length - TAG_LENGTH, expectedTag, 0, TAG_LENGTH);
+            CryptoInstancePool.releaseCipher(ctrCipher);
+            CryptoInstancePool.releaseCipher(gcmCipher);
+            if (!MessageDigest.isEqual(expectedTag, authTag)) {
+                LOG.warning("Invalid authentication tag");
+                throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE);
+            }
+            return n;
+        } catch (GeneralSecurityException ex) {
+            throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex);
+        }
+    }
+
+    private void updateTag(byte[] content, int off, int len) throws GeneralSecurityException {
+        if (len > 0) {
+            int outputSize = gcmCipher.getOutputSize(len);
+            if (gcmOutput.length < outputSize) {
+                gcmOutput = new byte[outputSize];
+            }
+            gcmCipher.update(content, off, len, gcmOutput, 0);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwe;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.logging.Logger;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.jaxrs.json.basic.JsonMapObject;
+import org.apache.cxf.jaxrs.json.basic.JsonMapObjectReaderWriter;
+import org.apache.cxf.rs.security.jose.common.JoseCompactStreamReader;
+import org.apache.cxf.rs.security.jose.common.JoseConstants;
+
+/**
+ * Streaming alternative to {@link JweCompactConsumer}: only the headers, the encrypted key and
+ * the IV are read eagerly, the content is decrypted while the stream returned by
+ * {@link #getDecryptedContentStream(JweDecryptionProvider)} is read, see {@link JweInputStream}.
+ * <p>
+ * AES-GCM and AES-CBC-HMAC content is decrypted incrementally by the {@link AbstractJweDecryption}
+ * providers, the content of the other providers or algorithms is read fully and decrypted at once.
+ */
+public class JweCompactStreamConsumer {
+    protected static final Logger LOG = LogUtils.getL7dLogger(JweCompactStreamConsumer.class);
+    private static final int MAX_HEADERS_LENGTH = 64 * 1024;
+    private static final int MAX_KEY_LENGTH = 16 * 1024;
+    private static final int MAX_IV_LENGTH = 128;
+    private static final int MAX_AUTH_TAG_LENGTH = 128;
+
+    private final JoseCompactStreamReader reader;
+    private final JweDecryptionInput jweDecryptionInput;
+
+    public JweCompactStreamConsumer(InputStream jweStream) throws IOException {
+        reader = new JoseCompactStreamReader(jweStream);
+        String headersJson = new String(decodePart(MAX_HEADERS_LENGTH, false), StandardCharsets.UTF_8);
+        byte[] encryptedCEK = decodePart(MAX_KEY_LENGTH, false);
+        byte[] initVector = decodePart(MAX_IV_LENGTH, false);
+        JsonMapObject joseHeaders = new JsonMapObjectReaderWriter().fromJsonToJsonObject(headersJson);
+        if (joseHeaders.getUpdateCount() != null) {
+            LOG.warning("Duplicate headers have been detected");
+            throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
+        }
+        JweHeaders jweHeaders = new JweHeaders(joseHeaders.asMap());
+        jweDecryptionInput = new JweDecryptionInput(encryptedCEK,
+                                                    initVector,
+                                                    null,
+                                                    null,
+                                                    null,
+                                                    headersJson,
+                                                    jweHeaders);
+    }
+
+    public String getDecodedJsonHeaders() {
+        return jweDecryptionInput.getDecodedJsonHeaders();
+    }
+
+    public JweHeaders getJweHeaders() {
+        return jweDecryptionInput.getJweHeaders();
+    }
+
+    public byte[] getEncryptedContentEncryptionKey() {
+        return jweDecryptionInput.getEncryptedCEK();
+    }
+
+    public byte[] getContentDecryptionCipherInitVector() {
+        return jweDecryptionInput.getInitVector();
+    }
+
+    /**
+     * Returns the stream of the decrypted content, it can only be called once
+     */
+    public InputStream getDecryptedContentStream(JweDecryptionProvider decryption) throws IOException {
+        ContentDecryptionCipher cipher = decryption instanceof AbstractJweDecryption
+            ? ((AbstractJweDecryption)decryption).createContentDecryptionCipher(jweDecryptionInput) : null;
+        if (cipher == null) {
+            return new ByteArrayInputStream(decryption.decrypt(readDecryptionInput()));
+        }
+        JweInputStream is = new JweInputStream(reader, cipher);
+        if (JoseConstants.JWE_DEFLATE_ZIP_ALGORITHM.equals(getJweHeaders().getZipAlgorithm())) {
+            return new JweInflaterInputStream(is);
+        }
+        return is;
+    }
+
+    public boolean validateCriticalHeaders() {
+        return JweUtils.validateCriticalHeaders(getJweHeaders());
+    }
+
+    private JweDecryptionInput readDecryptionInput() throws IOException {
+        byte[] encryptedContent = decodePart(Integer.MAX_VALUE - 1, false);
+        byte[] authTag = decodePart(MAX_AUTH_TAG_LENGTH, true);
+        return new JweDecryptionInput(jweDecryptionInput.getEncryptedCEK(),
+                                      jweDecryptionInput.getInitVector(),
+                                      encryptedContent,
+                                      authTag,
+                                      null,
+                                      jweDecryptionInput.getDecodedJsonHeaders(),
+                                      jweDecryptionInput.getJweHeaders());
+    }
+
+    private byte[] decodePart(int maxLength, boolean lastPart) throws IOException {
+        String part = reader.readPart(maxLength);
+        if (part == null || reader.isEndOfStream() != lastPart) {
+            LOG.warning("5 JWE parts are expected");
+            throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
+        }
+        try {
+            return Base64.getUrlDecoder().decode(part);
+        } catch (IllegalArgumentException ex) {
+            LOG.warning("Incorrect Base64 URL encoding");
+            throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
+        }
+    }
+
+    /**
+     * The inflater reports the end of the content as soon as the last deflated block has been read,
+     * the rest of the encrypted content is then read to have the authentication tag verified.
+     */
+    private static class JweInflaterInputStream extends InflaterInputStream {
+        private final JweInputStream jweStream;
+
+        JweInflaterInputStream(JweInputStream jweStream) {
+            super(jweStream, new Inflater(true));
+            this.jweStream = jweStream;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n == -1) {
+                jweStream.readToEnd();
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+}
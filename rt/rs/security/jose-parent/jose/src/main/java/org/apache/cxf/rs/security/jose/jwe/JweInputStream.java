@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwe;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.rs.security.jose.common.Base64UrlDecodingInputStream;
+import org.apache.cxf.rs.security.jose.common.JoseCompactStreamReader;
+
+/**
+ * Decrypts the content of a compact JWE while it is being read, the counterpart of {@link JweOutputStream}.
+ * The authentication tag is verified when the end of the content is reached, a {@link JweException} is
+ * thrown by the last read if the verification fails, so the content must not be acted upon until
+ * it has been read fully. Closing the stream before the end reads and verifies the rest of the content,
+ * so the failure is reported by {@link #close()} instead.
+ */
+public class JweInputStream extends FilterInputStream {
+    protected static final Logger LOG = LogUtils.getL7dLogger(JweInputStream.class);
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_AUTH_TAG_LENGTH = 128;
+
+    private final JoseCompactStreamReader reader;
+    private final ContentDecryptionCipher decryptingCipher;
+    private final byte[] encrypted = new byte[BUFFER_SIZE];
+    private byte[] decrypted = new byte[BUFFER_SIZE];
+    private int decryptedPos;
+    private int decryptedLimit;
+    private boolean finished;
+    private boolean verified;
+    private boolean closed;
+
+    /**
+     * @param reader the reader positioned at the encrypted content part
+     * @param decryptingCipher the content cipher
+     */
+    public JweInputStream(JoseCompactStreamReader reader, ContentDecryptionCipher decryptingCipher) {
+        super(new Base64UrlDecodingInputStream(reader.getPartStream()));
+        this.reader = reader;
+        this.decryptingCipher = decryptingCipher;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (decryptedPos == decryptedLimit) {
+            if (finished) {
+                if (!verified) {
+                    // the verification has failed and the failure has been ignored
+                    throw new JweException(JweException.Error.CONTENT_DECRYPTION_FAILURE);
+                }
+                return -1;
+            }
+            decryptNext();
+        }
+        int n = Math.min(len, decryptedLimit - decryptedPos);
+        System.arraycopy(decrypted, decryptedPos, b, off, n);
+        decryptedPos += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] b = new byte[(int)Math.min(n, BUFFER_SIZE)];
+        long skipped = 0;
+        int num;
+        while (skipped < n && (num = read(b, 0, (int)Math.min(b.length, n - skipped))) != -1) {
+            skipped += num;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return decryptedLimit - decryptedPos;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            readToEnd();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads and discards the rest of the content, the authentication tag is verified once it returns
+     */
+    void readToEnd() throws IOException {
+        byte[] b = new byte[BUFFER_SIZE];
+        while (read(b, 0, b.length) != -1) {
+            // discard
+        }
+    }
+
+    private void decryptNext() throws IOException {
+        decryptedPos = 0;
+        decryptedLimit = 0;
+        int num = in.read(encrypted, 0, encrypted.length);
+        if (num > 0) {
+            ensureCapacity(decryptingCipher.getOutputSize(num));
+            decryptedLimit = decryptingCipher.update(encrypted, 0, num, decrypted, 0);
+        } else if (num == -1) {
+            finished = true;
+            byte[] authTag = readAuthTag();
+            ensureCapacity(decryptingCipher.getOutputSize(0));
+            decryptedLimit = decryptingCipher.doFinal(authTag, decrypted, 0);
+            verified = true;
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (decrypted.length < size) {
+            decrypted = new byte[size];
+        }
+    }
+
+    private byte[] readAuthTag() throws IOException {
+        String encodedTag = reader.readPart(MAX_AUTH_TAG_LENGTH);
+        if (encodedTag == null || !reader.isEndOfStream()) {
+            LOG.warning("Compact JWE does not end with the authentication tag");
+            throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
+        }
+        try {
+            return Base64.getUrlDecoder().decode(encodedTag);
+        } catch (IllegalArgumentException ex) {
+            LOG.warning("Incorrect Base64 URL encoding");
+            throw new JweException(JweException.Error.INVALID_COMPACT_JWE);
+        }
+    }
+}
@@ -21,7 +21,6 @@ package org.apache.cxf.rs.security.jose.jwe;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.ByteBuffer;
 import java.util.logging.Logger;
 
 import javax.crypto.Cipher;
@@ -48,8 +47,7 @@ public class JweOutputStream extends FilterOutputStream {
 
     @Override
     public void write(int value) throws IOException {
-        byte[] bytes = ByteBuffer.allocate(Integer.SIZE / 8).putInt(value).array();
-        write(bytes, 0, bytes.length);
+        write(new byte[] {(byte)value}, 0, 1);
     }
 
     @Override
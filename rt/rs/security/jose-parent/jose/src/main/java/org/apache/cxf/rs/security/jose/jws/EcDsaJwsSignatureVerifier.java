@@ -62,6 +62,27 @@ public class EcDsaJwsSignatureVerifier extends PublicKeyJwsSignatureVerifier {
         return super.verify(headers, unsignedText, der);
     }
     @Override
+    public JwsVerificationSignature createJwsVerificationSignature(JwsHeaders headers) {
+        final JwsVerificationSignature sig = super.createJwsVerificationSignature(headers);
+        return new JwsVerificationSignature() {
+            @Override
+            public void update(byte[] src, int off, int len) {
+                sig.update(src, off, len);
+            }
+            @Override
+            public boolean verify(byte[] signature) {
+                final String algoName = getAlgorithm().getJwaName();
+                if (SIGNATURE_LENGTH_MAP.get(algoName) != signature.length) {
+                    LOG.warning("Algorithm " + algoName + " signature length is "
+                                + SIGNATURE_LENGTH_MAP.get(algoName)
+                                + ", actual length is " + signature.length);
+                    throw new JwsException(JwsException.Error.INVALID_SIGNATURE);
+                }
+                return sig.verify(signatureToDer(signature));
+            }
+        };
+    }
+    @Override
     protected boolean isValidAlgorithmFamily(String algo) {
         return AlgorithmUtils.isEcDsaSign(algo);
     }
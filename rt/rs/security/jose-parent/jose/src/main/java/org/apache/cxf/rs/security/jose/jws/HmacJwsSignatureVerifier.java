@@ -18,13 +18,16 @@
  */
 package org.apache.cxf.rs.security.jose.jws;
 
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.spec.AlgorithmParameterSpec;
 import java.util.logging.Logger;
 
 import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 
 import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.rs.security.jose.common.CryptoInstancePool;
 import org.apache.cxf.rs.security.jose.common.JoseUtils;
 import org.apache.cxf.rs.security.jose.jwa.AlgorithmUtils;
 import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
@@ -87,9 +90,16 @@ public class HmacJwsSignatureVerifier implements JwsSignatureVerifier {
     @Override
     public JwsVerificationSignature createJwsVerificationSignature(JwsHeaders headers) {
         final String sigAlgo = checkAlgorithm(headers.getSignatureAlgorithm());
-        Mac mac = HmacUtils.getInitializedMac(key,
-                                     AlgorithmUtils.toJavaName(sigAlgo),
-                                     hmacSpec);
+        Mac mac = CryptoInstancePool.acquireMac(AlgorithmUtils.toJavaName(sigAlgo));
+        try {
+            if (hmacSpec == null) {
+                mac.init(new SecretKeySpec(key, mac.getAlgorithm()));
+            } else {
+                mac.init(new SecretKeySpec(key, mac.getAlgorithm()), hmacSpec);
+            }
+        } catch (GeneralSecurityException ex) {
+            throw new SecurityException(ex);
+        }
         return new HmacJwsVerificationSignature(mac);
     }
     
@@ -109,6 +119,7 @@ public class HmacJwsSignatureVerifier implements JwsSignatureVerifier {
         @Override
         public boolean verify(byte[] signature) {
             byte[] macBytes = mac.doFinal();
+            CryptoInstancePool.releaseMac(mac);
             return MessageDigest.isEqual(macBytes, signature);
         }
         
@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jws;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.jaxrs.json.basic.JsonMapObject;
+import org.apache.cxf.jaxrs.json.basic.JsonMapObjectReaderWriter;
+import org.apache.cxf.rs.security.jose.common.Base64UrlDecodingInputStream;
+import org.apache.cxf.rs.security.jose.common.JoseCompactStreamReader;
+import org.apache.cxf.rs.security.jose.common.JoseUtils;
+
+/**
+ * Streaming alternative to {@link JwsCompactConsumer}: only the headers are read eagerly,
+ * the payload is verified while the stream returned by {@link #getDecodedPayloadStream(JwsSignatureVerifier)}
+ * is read and a {@link JwsException} is thrown by its last read if the signature is not valid,
+ * so the payload must not be acted upon until it has been read fully. Closing the stream before
+ * the end reads and verifies the rest of the payload, the failure is then reported by the close.
+ * <p>
+ * Both the attached and detached payloads are supported, with the unencoded payloads (RFC 7797)
+ * being passed to the signature verifier as they are read.
+ */
+public class JwsCompactStreamConsumer {
+    protected static final Logger LOG = LogUtils.getL7dLogger(JwsCompactStreamConsumer.class);
+    private static final int MAX_HEADERS_LENGTH = 64 * 1024;
+    private static final int MAX_SIGNATURE_LENGTH = 4 * 1024;
+
+    private final String encodedHeaders;
+    private final String headersJson;
+    private final JwsHeaders jwsHeaders;
+    private final JoseCompactStreamReader reader;
+    private final InputStream detachedPayload;
+    private final String encodedSignature;
+
+    /**
+     * @param jwsStream compact JWS with the attached payload
+     */
+    public JwsCompactStreamConsumer(InputStream jwsStream) throws IOException {
+        reader = new JoseCompactStreamReader(jwsStream);
+        encodedHeaders = reader.readPart(MAX_HEADERS_LENGTH);
+        if (encodedHeaders == null || reader.isEndOfStream()) {
+            LOG.warning("Compact JWS does not have 3 parts");
+            throw new JwsException(JwsException.Error.INVALID_COMPACT_JWS);
+        }
+        detachedPayload = null;
+        encodedSignature = null;
+        headersJson = JoseUtils.decodeToString(encodedHeaders);
+        jwsHeaders = parseHeaders(headersJson);
+    }
+
+    /**
+     * @param detachedJws compact JWS with the empty payload part
+     * @param payload detached payload, not Base64 URL encoded
+     */
+    public JwsCompactStreamConsumer(String detachedJws, InputStream payload) {
+        String[] parts = JoseUtils.getCompactParts(detachedJws);
+        if (parts.length != 3 && !(parts.length == 2 && detachedJws.endsWith("."))) {
+            LOG.warning("Compact JWS does not have 3 parts");
+            throw new JwsException(JwsException.Error.INVALID_COMPACT_JWS);
+        }
+        if (!StringUtils.isEmpty(parts[1])) {
+            LOG.warning("Compact JWS includes a payload expected to be detached");
+            throw new JwsException(JwsException.Error.INVALID_COMPACT_JWS);
+        }
+        reader = null;
+        detachedPayload = payload;
+        encodedHeaders = parts[0];
+        encodedSignature = parts.length == 3 ? parts[2] : "";
+        headersJson = JoseUtils.decodeToString(encodedHeaders);
+        jwsHeaders = parseHeaders(headersJson);
+    }
+
+    public String getDecodedJsonHeaders() {
+        return headersJson;
+    }
+
+    public JwsHeaders getJwsHeaders() {
+        return jwsHeaders;
+    }
+
+    public boolean validateCriticalHeaders() {
+        return JwsUtils.validateCriticalHeaders(getJwsHeaders());
+    }
+
+    /**
+     * Returns the stream of the decoded payload, it can only be called once
+     */
+    public InputStream getDecodedPayloadStream(JwsSignatureVerifier verifier) {
+        JwsVerificationSignature signature = verifier.createJwsVerificationSignature(jwsHeaders);
+        byte[] signingInputPrefix = StringUtils.toBytesASCII(encodedHeaders + ".");
+        signature.update(signingInputPrefix, 0, signingInputPrefix.length);
+        boolean unencoded = JwsUtils.isPayloadUnencoded(jwsHeaders);
+        if (detachedPayload == null) {
+            InputStream is = new JwsInputStream(reader.getPartStream(), signature, null, true) {
+                @Override
+                protected byte[] getSignatureBytes() throws IOException {
+                    return readSignature();
+                }
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        reader.close();
+                    }
+                }
+            };
+            return unencoded ? is : new Base64UrlDecodingInputStream(is);
+        }
+        byte[] signatureBytes = decodeSignature(encodedSignature);
+        if (unencoded) {
+            return new JwsInputStream(detachedPayload, signature, signatureBytes, true);
+        }
+        // the signing input includes the encoded payload
+        final OutputStream encodingStream = Base64.getUrlEncoder().withoutPadding()
+            .wrap(new SignatureOutputStream(signature));
+        return new JwsInputStream(detachedPayload, signature, signatureBytes, true) {
+            @Override
+            protected void updateSignature(byte[] b, int off, int len) {
+                try {
+                    encodingStream.write(b, off, len);
+                } catch (IOException ex) {
+                    throw new JwsException(JwsException.Error.INVALID_SIGNATURE, ex);
+                }
+            }
+            @Override
+            protected byte[] getSignatureBytes() throws IOException {
+                // writes the last encoded characters
+                encodingStream.close();
+                return super.getSignatureBytes();
+            }
+        };
+    }
+
+    private byte[] readSignature() throws IOException {
+        String signaturePart = reader.readPart(MAX_SIGNATURE_LENGTH);
+        if (signaturePart == null || !reader.isEndOfStream()) {
+            LOG.warning("Compact JWS does not have 3 parts");
+            throw new JwsException(JwsException.Error.INVALID_COMPACT_JWS);
+        }
+        return decodeSignature(signaturePart);
+    }
+
+    private static byte[] decodeSignature(String signaturePart) {
+        try {
+            return Base64.getUrlDecoder().decode(signaturePart);
+        } catch (IllegalArgumentException ex) {
+            LOG.warning("Incorrect Base64 URL encoding");
+            throw new JwsException(JwsException.Error.INVALID_COMPACT_JWS);
+        }
+    }
+
+    private static JwsHeaders parseHeaders(String headersJson) {
+        JsonMapObject joseHeaders = new JsonMapObjectReaderWriter().fromJsonToJsonObject(headersJson);
+        if (joseHeaders.getUpdateCount() != null) {
+            LOG.warning("Duplicate headers have been detected");
+            throw new JwsException(JwsException.Error.INVALID_COMPACT_JWS);
+        }
+        return new JwsHeaders(joseHeaders.asMap());
+    }
+
+    private static class SignatureOutputStream extends OutputStream {
+        private final JwsVerificationSignature signature;
+
+        SignatureOutputStream(JwsVerificationSignature signature) {
+            this.signature = signature;
+        }
+
+        @Override
+        public void write(int b) {
+            signature.update(new byte[] {(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            signature.update(b, off, len);
+        }
+    }
+}
@@ -21,12 +21,12 @@ package org.apache.cxf.rs.security.jose.jws;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.ByteBuffer;
 
 public class JwsInputStream extends FilterInputStream {
     private JwsVerificationSignature signature;
     private byte[] signatureBytes;
     private boolean verifyOnLastRead;
+    private Boolean verified;
     public JwsInputStream(InputStream out, 
                           JwsVerificationSignature signature,
                           byte[] signatureBytes,
@@ -41,8 +41,7 @@ public class JwsInputStream extends FilterInputStream {
     public int read() throws IOException {
         int value = super.read();
         if (value != -1) {
-            byte[] bytes = ByteBuffer.allocate(Integer.SIZE / 8).putInt(value).array();
-            signature.update(bytes, 0, bytes.length);
+            updateSignature(new byte[] {(byte)value}, 0, 1);
         } else {
             verify();
         }
@@ -52,16 +51,68 @@ public class JwsInputStream extends FilterInputStream {
     public int read(byte[] b, int off, int len) throws IOException {
         int num = in.read(b, off, len);
         if (num != -1) {
-            signature.update(b, off, num);
+            updateSignature(b, off, num);
         } else {
             verify();
         }
         return num;
     }
-    
-    private void verify() {
-        if (verifyOnLastRead && !signature.verify(signatureBytes)) {
-            throw new JwsException(JwsException.Error.INVALID_SIGNATURE);    
+
+    @Override
+    public long skip(long n) throws IOException {
+        // the skipped bytes are still signed
+        byte[] b = new byte[(int)Math.min(n, 8192)];
+        long skipped = 0;
+        int num;
+        while (skipped < n && (num = read(b, 0, (int)Math.min(b.length, n - skipped))) != -1) {
+            skipped += num;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Reads the rest of the signed content to have the signature verified if it is expected
+     * to be verified on the last read but the content has not been read fully
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (verifyOnLastRead && !Boolean.TRUE.equals(verified)) {
+                byte[] b = new byte[8192];
+                while (read(b, 0, b.length) != -1) {
+                    // discard
+                }
+            }
+        } finally {
+            super.close();
+        }
+    }
+
+    protected void updateSignature(byte[] b, int off, int len) {
+        signature.update(b, off, len);
+    }
+
+    /**
+     * Returns the signature to verify, called once all the signed content has been read
+     */
+    protected byte[] getSignatureBytes() throws IOException {
+        return signatureBytes;
+    }
+
+    private void verify() throws IOException {
+        if (verifyOnLastRead) {
+            if (verified == null) {
+                verified = Boolean.FALSE;
+                verified = signature.verify(getSignatureBytes());
+            }
+            if (!verified) {
+                throw new JwsException(JwsException.Error.INVALID_SIGNATURE);
+            }
         }
     }
 }
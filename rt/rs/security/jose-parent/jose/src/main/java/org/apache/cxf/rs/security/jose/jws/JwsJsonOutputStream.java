@@ -21,7 +21,6 @@ package org.apache.cxf.rs.security.jose.jws;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -48,8 +47,7 @@ public class JwsJsonOutputStream extends FilterOutputStream {
 
     @Override
     public void write(int value) throws IOException {
-        byte[] bytes = ByteBuffer.allocate(Integer.SIZE / 8).putInt(value).array();
-        write(bytes, 0, bytes.length);
+        write(new byte[] {(byte)value}, 0, 1);
     }
 
     @Override
@@ -26,6 +26,7 @@ import java.util.logging.Logger;
 
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.rs.security.jose.common.CryptoInstancePool;
 import org.apache.cxf.rs.security.jose.jwa.AlgorithmUtils;
 import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
 import org.apache.cxf.rt.security.crypto.CryptoUtils;
@@ -100,10 +101,16 @@ public class PublicKeyJwsSignatureVerifier implements JwsSignatureVerifier {
     }
     @Override
     public JwsVerificationSignature createJwsVerificationSignature(JwsHeaders headers) {
-        Signature sig = CryptoUtils.getVerificationSignature(key,
-                                    AlgorithmUtils.toJavaName(checkAlgorithm(
-                                                              headers.getSignatureAlgorithm())),
-                                    signatureSpec);
+        Signature sig = CryptoInstancePool.acquireSignature(
+            AlgorithmUtils.toJavaName(checkAlgorithm(headers.getSignatureAlgorithm())));
+        try {
+            sig.initVerify(key);
+            if (signatureSpec != null) {
+                sig.setParameter(signatureSpec);
+            }
+        } catch (Exception ex) {
+            throw new SecurityException(ex);
+        }
         return new PublicKeyJwsVerificationSignature(sig);
     }
     
@@ -125,7 +132,9 @@ public class PublicKeyJwsSignatureVerifier implements JwsSignatureVerifier {
         @Override
         public boolean verify(byte[] signatureBytes) {
             try {
-                return sig.verify(signatureBytes);
+                boolean verified = sig.verify(signatureBytes);
+                CryptoInstancePool.releaseSignature(sig);
+                return verified;
             } catch (Exception ex) {
                 throw new JwsException(JwsException.Error.INVALID_SIGNATURE, ex);
             }
@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwe;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.Security;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.rs.security.jose.jwa.ContentAlgorithm;
+import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
+import org.apache.cxf.rs.security.jose.jws.HmacJwsSignatureVerifier;
+import org.apache.cxf.rs.security.jose.jws.JwsCompactConsumer;
+import org.apache.cxf.rs.security.jose.jws.JwsCompactProducer;
+import org.apache.cxf.rs.security.jose.jws.JwsCompactStreamConsumer;
+import org.apache.cxf.rs.security.jose.jws.JwsHeaders;
+import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
+import org.apache.cxf.rs.security.jose.jws.JwsUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+/**
+ * Compares the throughput of {@link JweCompactConsumer} and {@link JwsCompactConsumer}
+ * with the one of their streaming alternatives for the growing content sizes.
+ * Not run as part of the build, start it manually from the test classpath.
+ */
+public final class JoseStreamingBenchmark {
+    private static final int[] SIZES = {16 * 1024, 1024 * 1024, 16 * 1024 * 1024};
+    private static final long TOTAL_BYTES = 512L * 1024 * 1024;
+
+    private JoseStreamingBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // A128CBC-HS256 uses AES/CBC/PKCS7Padding
+        Security.addProvider(new BouncyCastleProvider());
+        byte[] key = new byte[32];
+        new Random().nextBytes(key);
+        for (ContentAlgorithm algo : new ContentAlgorithm[] {ContentAlgorithm.A256GCM,
+                                                             ContentAlgorithm.A128CBC_HS256}) {
+            JweDecryptionProvider decryption = JweUtils.getDirectKeyJweDecryption(key, algo);
+            for (int size : SIZES) {
+                byte[] jwe = JweUtils.getDirectKeyJweEncryption(key, algo).encrypt(content(size), null)
+                    .getBytes(StandardCharsets.US_ASCII);
+                run(algo.getJwaName() + " compact", size, () -> {
+                    new JweCompactConsumer(new String(jwe, StandardCharsets.US_ASCII))
+                        .getDecryptedContent(decryption);
+                });
+                run(algo.getJwaName() + " stream", size, () -> {
+                    drain(new JweCompactStreamConsumer(new ByteArrayInputStream(jwe))
+                        .getDecryptedContentStream(decryption));
+                });
+            }
+        }
+        JwsSignatureVerifier verifier = new HmacJwsSignatureVerifier(key, SignatureAlgorithm.HS256);
+        for (int size : SIZES) {
+            String payload = new String(content(size), StandardCharsets.ISO_8859_1);
+            byte[] jws = new JwsCompactProducer(new JwsHeaders(SignatureAlgorithm.HS256), payload)
+                .signWith(JwsUtils.getHmacSignatureProvider(key, SignatureAlgorithm.HS256))
+                .getBytes(StandardCharsets.US_ASCII);
+            run("HS256 compact", size, () -> {
+                JwsCompactConsumer consumer = new JwsCompactConsumer(new String(jws, StandardCharsets.US_ASCII));
+                consumer.verifySignatureWith(verifier);
+                consumer.getDecodedJwsPayloadBytes();
+            });
+            run("HS256 stream", size, () -> {
+                drain(new JwsCompactStreamConsumer(new ByteArrayInputStream(jws))
+                    .getDecodedPayloadStream(verifier));
+            });
+        }
+    }
+
+    private static void run(String name, int size, Task task) throws Exception {
+        int iterations = (int)Math.max(1, TOTAL_BYTES / size);
+        for (int i = 0; i < Math.max(1, iterations / 10); i++) {
+            task.run();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        double seconds = (System.nanoTime() - started) / (double)TimeUnit.SECONDS.toNanos(1);
+        System.out.println(String.format("%-22s %9d bytes: %8.1f MB/s",
+            name, size, (double)size * iterations / (1024 * 1024) / seconds));
+    }
+
+    private static void drain(InputStream is) throws Exception {
+        byte[] buffer = new byte[8192];
+        while (is.read(buffer) != -1) {
+            // complete
+        }
+    }
+
+    private static byte[] content(int size) {
+        // printable content, so that the unencoded and the compact payloads are the same size
+        byte[] bytes = new byte[size];
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte)('a' + random.nextInt(26));
+        }
+        return bytes;
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+}
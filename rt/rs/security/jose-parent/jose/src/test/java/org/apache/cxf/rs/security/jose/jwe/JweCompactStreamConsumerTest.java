@@ -0,0 +1,220 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jwe;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.Security;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.crypto.Cipher;
+
+import org.apache.cxf.common.util.Base64UrlUtility;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.rs.security.jose.jwa.AlgorithmUtils;
+import org.apache.cxf.rs.security.jose.jwa.ContentAlgorithm;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class JweCompactStreamConsumerTest {
+    private static final String JWE_OUTPUT_A3 =
+        "eyJhbGciOiJBMTI4S1ciLCJlbmMiOiJBMTI4Q0JDLUhTMjU2In0"
+        + ".6KB707dM9YTIgHtLvtgWQ8mKwboJW3of9locizkDTHzBC2IlrT1oOQ"
+        + ".AxY8DCtDaGlsbGljb3RoZQ"
+        + ".KDlTtXchhZTGufMYmOYGS4HffxPSUrfmqCHXaI9wOGY"
+        + ".U0m_YmjN04DJvceFICbCVQ";
+
+    @BeforeClass
+    public static void registerBouncyCastleIfNeeded() throws Exception {
+        try {
+            Cipher.getInstance(AlgorithmUtils.AES_GCM_ALGO_JAVA);
+            Cipher.getInstance(AlgorithmUtils.AES_CBC_ALGO_JAVA);
+        } catch (Throwable t) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+    @AfterClass
+    public static void unregisterBouncyCastleIfNeeded() throws Exception {
+        Security.removeProvider(BouncyCastleProvider.PROVIDER_NAME);
+    }
+
+    @Test
+    public void testAesWrapA128CBCHS256SpecExample() throws Exception {
+        byte[] cekEncryptionKey = Base64UrlUtility.decode(JweCompactReaderWriterTest.KEY_ENCRYPTION_KEY_A3);
+        JweDecryptionProvider decryption =
+            new AesCbcHmacJweDecryption(new AesWrapKeyDecryptionAlgorithm(cekEncryptionKey));
+        JweCompactStreamConsumer consumer = new JweCompactStreamConsumer(toStream(JWE_OUTPUT_A3));
+        assertEquals(ContentAlgorithm.A128CBC_HS256, consumer.getJweHeaders().getContentEncryptionAlgorithm());
+        assertEquals("Live long and prosper.",
+                     IOUtils.readStringFromStream(consumer.getDecryptedContentStream(decryption)));
+    }
+
+    @Test
+    public void testDirectKeyA128GCM() throws Exception {
+        doTestDirectKey(ContentAlgorithm.A128GCM, 16);
+    }
+
+    @Test
+    public void testDirectKeyA256GCM() throws Exception {
+        doTestDirectKey(ContentAlgorithm.A256GCM, 32);
+    }
+
+    @Test
+    public void testDirectKeyA128CBCHS256() throws Exception {
+        doTestDirectKey(ContentAlgorithm.A128CBC_HS256, 32);
+    }
+
+    @Test
+    public void testDirectKeyA256CBCHS512() throws Exception {
+        doTestDirectKey(ContentAlgorithm.A256CBC_HS512, 64);
+    }
+
+    @Test
+    public void testInvalidGcmAuthTag() throws Exception {
+        doTestInvalidAuthTag(ContentAlgorithm.A128GCM, 16);
+    }
+
+    @Test
+    public void testInvalidCbcHmacAuthTag() throws Exception {
+        doTestInvalidAuthTag(ContentAlgorithm.A128CBC_HS256, 32);
+    }
+
+    @Test
+    public void testInvalidAuthTagPartialRead() throws Exception {
+        byte[] key = randomBytes(16);
+        String jwe = tamperAuthTag(JweUtils.getDirectKeyJweEncryption(key, ContentAlgorithm.A128GCM)
+            .encrypt(randomBytes(100000), null));
+        InputStream is = new JweCompactStreamConsumer(toStream(jwe))
+            .getDecryptedContentStream(JweUtils.getDirectKeyJweDecryption(key, ContentAlgorithm.A128GCM));
+        assertEquals(100, is.read(new byte[100]));
+        assertClosingFails(is);
+    }
+
+    @Test
+    public void testInvalidAuthTagEarlyClose() throws Exception {
+        byte[] key = randomBytes(32);
+        String jwe = tamperAuthTag(JweUtils.getDirectKeyJweEncryption(key, ContentAlgorithm.A128CBC_HS256)
+            .encrypt(randomBytes(1000), null));
+        InputStream is = new JweCompactStreamConsumer(toStream(jwe))
+            .getDecryptedContentStream(JweUtils.getDirectKeyJweDecryption(key, ContentAlgorithm.A128CBC_HS256));
+        assertClosingFails(is);
+    }
+
+    @Test
+    public void testDeflatedContent() throws Exception {
+        byte[] key = randomBytes(16);
+        byte[] content = new byte[100000];
+        String jwe = encryptDeflated(key, content);
+        JweDecryptionProvider decryption = JweUtils.getDirectKeyJweDecryption(key, ContentAlgorithm.A128GCM);
+
+        InputStream is = new JweCompactStreamConsumer(toStream(jwe)).getDecryptedContentStream(decryption);
+        assertArrayEquals(content, IOUtils.readBytesFromStream(is));
+        is.close();
+
+        // the inflater reaches the end of the deflated content before the tag is read
+        is = new JweCompactStreamConsumer(toStream(tamperAuthTag(jwe))).getDecryptedContentStream(decryption);
+        try {
+            IOUtils.readBytesFromStream(is);
+            fail("JweException expected");
+        } catch (JweException ex) {
+            assertEquals(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex.getError());
+        }
+
+        is = new JweCompactStreamConsumer(toStream(tamperAuthTag(jwe))).getDecryptedContentStream(decryption);
+        assertEquals(100, is.read(new byte[100]));
+        assertClosingFails(is);
+    }
+
+    private static String encryptDeflated(byte[] key, byte[] content) throws Exception {
+        JweEncryptionOutput encryption = JweUtils.getDirectKeyJweEncryption(key, ContentAlgorithm.A128GCM)
+            .getEncryptionOutput(new JweEncryptionInput(new JweHeaders(ContentAlgorithm.A128GCM, true)));
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        JweCompactBuilder.startJweContent(bos, encryption.getHeaders(),
+                                          encryption.getEncryptedContentEncryptionKey(), encryption.getIv());
+        JweOutputStream jweStream =
+            new JweOutputStream(bos, encryption.getCipher(), encryption.getAuthTagProducer());
+        // "DEF" is the raw DEFLATE format
+        DeflaterOutputStream deflater =
+            new DeflaterOutputStream(jweStream, new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+        deflater.write(content);
+        deflater.finish();
+        jweStream.finalFlush();
+        return new String(bos.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    private static void assertClosingFails(InputStream is) throws Exception {
+        try {
+            is.close();
+            fail("JweException expected");
+        } catch (JweException ex) {
+            assertEquals(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex.getError());
+        }
+    }
+
+    private static String tamperAuthTag(String jwe) {
+        return jwe.substring(0, jwe.length() - 2) + (jwe.endsWith("AA") ? "BA" : "AA");
+    }
+
+    private static void doTestDirectKey(ContentAlgorithm algo, int keySize) throws Exception {
+        byte[] key = randomBytes(keySize);
+        // not a multiple of the block or the stream buffer size
+        byte[] content = randomBytes(100003);
+        String jwe = JweUtils.getDirectKeyJweEncryption(key, algo).encrypt(content, null);
+        JweDecryptionProvider decryption = JweUtils.getDirectKeyJweDecryption(key, algo);
+        // the same content is decrypted twice on the same thread with the pooled ciphers
+        for (int i = 0; i < 2; i++) {
+            InputStream is = new JweCompactStreamConsumer(toStream(jwe)).getDecryptedContentStream(decryption);
+            assertArrayEquals(content, IOUtils.readBytesFromStream(is));
+        }
+    }
+
+    private static void doTestInvalidAuthTag(ContentAlgorithm algo, int keySize) throws Exception {
+        byte[] key = randomBytes(keySize);
+        String jwe = tamperAuthTag(JweUtils.getDirectKeyJweEncryption(key, algo).encrypt(randomBytes(1000), null));
+        InputStream is = new JweCompactStreamConsumer(toStream(jwe))
+            .getDecryptedContentStream(JweUtils.getDirectKeyJweDecryption(key, algo));
+        try {
+            IOUtils.readBytesFromStream(is);
+            fail("JweException expected");
+        } catch (JweException ex) {
+            assertEquals(JweException.Error.CONTENT_DECRYPTION_FAILURE, ex.getError());
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static InputStream toStream(String str) {
+        return new ByteArrayInputStream(str.getBytes(StandardCharsets.US_ASCII));
+    }
+}
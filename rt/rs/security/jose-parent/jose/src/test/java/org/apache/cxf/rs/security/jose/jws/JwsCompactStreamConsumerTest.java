@@ -0,0 +1,179 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.jose.jws;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JwsCompactStreamConsumerTest {
+    private static final String ENCODED_MAC_KEY = "AyM1SysPpbyDfgZld3umj1qzKObwVMkoqQ-EstJQLr_T-1qS0gZH75"
+        + "aKtMN3Yj0iPS4hcgUuTwjAzZr1Z9CAow";
+
+    @Test
+    public void testAttachedPayload() throws Exception {
+        String jws = JwsCompactReaderWriterTest.ENCODED_TOKEN_SIGNED_BY_MAC;
+        JwsCompactStreamConsumer consumer = new JwsCompactStreamConsumer(toStream(jws));
+        assertEquals(SignatureAlgorithm.HS256, consumer.getJwsHeaders().getSignatureAlgorithm());
+        InputStream is = consumer.getDecodedPayloadStream(getVerifier());
+        assertEquals(new JwsCompactConsumer(jws).getDecodedJwsPayload(), IOUtils.readStringFromStream(is));
+    }
+
+    @Test
+    public void testAttachedLargePayload() throws Exception {
+        char[] chars = new char[100000];
+        Arrays.fill(chars, 'a');
+        String payload = new String(chars);
+        JwsCompactProducer producer = new JwsCompactProducer(new JwsHeaders(SignatureAlgorithm.HS256), payload);
+        String jws = producer.signWith(new HmacJwsSignatureProvider(ENCODED_MAC_KEY, SignatureAlgorithm.HS256));
+
+        InputStream is = new JwsCompactStreamConsumer(toStream(jws)).getDecodedPayloadStream(getVerifier());
+        assertEquals(payload, IOUtils.readStringFromStream(is));
+    }
+
+    @Test
+    public void testAttachedPayloadLengths() throws Exception {
+        // all the possible lengths of the last Base64 group, also around the decoding buffer size
+        for (int length : new int[] {0, 1, 2, 3, 4, 5, 6142, 6143, 6144, 6145, 6146}) {
+            char[] chars = new char[length];
+            Arrays.fill(chars, 'b');
+            String payload = new String(chars);
+            String jws = new JwsCompactProducer(new JwsHeaders(SignatureAlgorithm.HS256), payload)
+                .signWith(new HmacJwsSignatureProvider(ENCODED_MAC_KEY, SignatureAlgorithm.HS256));
+
+            InputStream is = new JwsCompactStreamConsumer(toStream(jws)).getDecodedPayloadStream(getVerifier());
+            assertEquals(payload, IOUtils.readStringFromStream(is));
+        }
+    }
+
+    @Test
+    public void testAttachedPayloadInvalidSignature() throws Exception {
+        String jws = tamperSignature(JwsCompactReaderWriterTest.ENCODED_TOKEN_SIGNED_BY_MAC);
+        InputStream is = new JwsCompactStreamConsumer(toStream(jws)).getDecodedPayloadStream(getVerifier());
+        try {
+            IOUtils.readStringFromStream(is);
+            fail("JwsException expected");
+        } catch (JwsException ex) {
+            assertEquals(JwsException.Error.INVALID_SIGNATURE, ex.getError());
+        }
+    }
+
+    @Test
+    public void testAttachedPayloadPartialRead() throws Exception {
+        char[] chars = new char[100000];
+        Arrays.fill(chars, 'c');
+        String jws = new JwsCompactProducer(new JwsHeaders(SignatureAlgorithm.HS256), new String(chars))
+            .signWith(new HmacJwsSignatureProvider(ENCODED_MAC_KEY, SignatureAlgorithm.HS256));
+
+        InputStream is = new JwsCompactStreamConsumer(toStream(jws)).getDecodedPayloadStream(getVerifier());
+        assertEquals(100, is.read(new byte[100]));
+        is.close();
+
+        // the rest of the payload is verified by the close
+        is = new JwsCompactStreamConsumer(toStream(tamperSignature(jws))).getDecodedPayloadStream(getVerifier());
+        assertEquals(100, is.read(new byte[100]));
+        assertClosingFails(is);
+    }
+
+    @Test
+    public void testAttachedPayloadInvalidSignatureEarlyClose() throws Exception {
+        String jws = tamperSignature(JwsCompactReaderWriterTest.ENCODED_TOKEN_SIGNED_BY_MAC);
+        assertClosingFails(new JwsCompactStreamConsumer(toStream(jws)).getDecodedPayloadStream(getVerifier()));
+    }
+
+    @Test
+    public void testAttachedUnencodedPayload() throws Exception {
+        JwsHeaders headers = new JwsHeaders(SignatureAlgorithm.HS256);
+        headers.setPayloadEncodingStatus(false);
+        // '.' is not allowed in the attached unencoded payloads
+        String payload = "$02";
+        JwsCompactProducer producer = new JwsCompactProducer(headers, payload, true);
+        String detached =
+            producer.signWith(new HmacJwsSignatureProvider(ENCODED_MAC_KEY, SignatureAlgorithm.HS256));
+        int index = detached.indexOf("..");
+        String jws = detached.substring(0, index + 1) + payload + detached.substring(index + 1);
+
+        InputStream is = new JwsCompactStreamConsumer(toStream(jws)).getDecodedPayloadStream(getVerifier());
+        assertEquals(payload, IOUtils.readStringFromStream(is));
+    }
+
+    @Test
+    public void testDetachedUnencodedPayload() throws Exception {
+        JwsCompactStreamConsumer consumer =
+            new JwsCompactStreamConsumer(JwsCompactReaderWriterTest.TOKEN_WITH_DETACHED_UNENCODED_PAYLOAD,
+                                         toStream(JwsCompactReaderWriterTest.UNSIGNED_PLAIN_DOCUMENT));
+        assertTrue(JwsUtils.isPayloadUnencoded(consumer.getJwsHeaders()));
+        InputStream is = consumer.getDecodedPayloadStream(getVerifier());
+        assertEquals(JwsCompactReaderWriterTest.UNSIGNED_PLAIN_DOCUMENT, IOUtils.readStringFromStream(is));
+    }
+
+    @Test
+    public void testDetachedEncodedPayload() throws Exception {
+        String payload = "Detached payload";
+        JwsCompactProducer producer =
+            new JwsCompactProducer(new JwsHeaders(SignatureAlgorithm.HS256), payload, true);
+        String jws = producer.signWith(new HmacJwsSignatureProvider(ENCODED_MAC_KEY, SignatureAlgorithm.HS256));
+
+        InputStream is = new JwsCompactStreamConsumer(jws, toStream(payload)).getDecodedPayloadStream(getVerifier());
+        assertEquals(payload, IOUtils.readStringFromStream(is));
+
+        is = new JwsCompactStreamConsumer(jws, toStream(payload + "!")).getDecodedPayloadStream(getVerifier());
+        try {
+            IOUtils.readStringFromStream(is);
+            fail("JwsException expected");
+        } catch (JwsException ex) {
+            assertEquals(JwsException.Error.INVALID_SIGNATURE, ex.getError());
+        }
+
+        is = new JwsCompactStreamConsumer(jws, toStream(payload + "!")).getDecodedPayloadStream(getVerifier());
+        assertEquals(1, is.read(new byte[1]));
+        assertClosingFails(is);
+    }
+
+    private static void assertClosingFails(InputStream is) throws Exception {
+        try {
+            is.close();
+            fail("JwsException expected");
+        } catch (JwsException ex) {
+            assertEquals(JwsException.Error.INVALID_SIGNATURE, ex.getError());
+        }
+    }
+
+    private static String tamperSignature(String jws) {
+        return jws.substring(0, jws.length() - 2) + (jws.endsWith("AA") ? "BA" : "AA");
+    }
+
+    private static JwsSignatureVerifier getVerifier() {
+        return new HmacJwsSignatureVerifier(ENCODED_MAC_KEY, SignatureAlgorithm.HS256);
+    }
+
+    private static InputStream toStream(String str) {
+        return new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.oauth2.filters;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.cxf.common.util.Base64UrlUtility;
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.apache.cxf.rs.security.oauth2.common.AccessTokenValidation;
+import org.apache.cxf.rs.security.oauth2.provider.AccessTokenValidator;
+import org.apache.cxf.rs.security.oauth2.provider.OAuthServiceException;
+import org.apache.cxf.rt.security.crypto.MessageDigestUtils;
+
+/**
+ * Caches the results of a delegate {@link AccessTokenValidator}, typically
+ * {@link AccessTokenIntrospectionClient} or {@link AccessTokenValidatorClient}, in order to avoid
+ * a remote call to the authorization server for every request.
+ * <p>
+ * Validations are keyed by the SHA-256 hash of the authorization scheme and token and are kept
+ * for no longer than {@link #setMaxTtl(long) maxTtl} and never past the token expiry time.
+ * Invalid (inactive) tokens are remembered for {@link #setNegativeTtl(long) negativeTtl}.
+ * Concurrent requests carrying the same token which is not in the cache yet are validated once.
+ * <p>
+ * The cached results only depend on the token, the delegate must not use the other request
+ * properties to validate it.
+ */
+public class CachingAccessTokenValidator implements AccessTokenValidator {
+
+    private AccessTokenValidator tokenValidator;
+    private long maxTtl = 300;
+    private long negativeTtl = 30;
+    private int maxCacheSize = 10000;
+    private boolean cacheValidationErrors;
+
+    private final ConcurrentMap<String, CacheEntry> validations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<AccessTokenValidation>> pendingValidations =
+        new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingAccessTokenValidator() {
+
+    }
+
+    public CachingAccessTokenValidator(AccessTokenValidator tokenValidator) {
+        this.tokenValidator = tokenValidator;
+    }
+
+    public List<String> getSupportedAuthorizationSchemes() {
+        return tokenValidator.getSupportedAuthorizationSchemes();
+    }
+
+    public AccessTokenValidation validateAccessToken(MessageContext mc,
+                                                     String authScheme,
+                                                     String authSchemeData,
+                                                     MultivaluedMap<String, String> extraProps)
+        throws OAuthServiceException {
+        String key = getCacheKey(authScheme, authSchemeData);
+        CacheEntry entry = validations.get(key);
+        if (entry != null) {
+            if (entry.expiresAt > currentTimeMillis()) {
+                hits.incrementAndGet();
+                return entry.getValidation();
+            }
+            validations.remove(key, entry);
+        }
+
+        CompletableFuture<AccessTokenValidation> future = new CompletableFuture<>();
+        CompletableFuture<AccessTokenValidation> pending = pendingValidations.putIfAbsent(key, future);
+        if (pending != null) {
+            // the same token is being validated by another thread
+            hits.incrementAndGet();
+            try {
+                return pending.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof Error) {
+                    throw (Error)ex.getCause();
+                }
+                throw (RuntimeException)ex.getCause();
+            }
+        }
+        misses.incrementAndGet();
+        try {
+            AccessTokenValidation validation =
+                tokenValidator.validateAccessToken(mc, authScheme, authSchemeData, extraProps);
+            cache(key, validation, null);
+            future.complete(validation);
+            return validation;
+        } catch (RuntimeException ex) {
+            if (cacheValidationErrors) {
+                cache(key, null, ex);
+            }
+            future.completeExceptionally(ex);
+            throw ex;
+        } catch (Error ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            pendingValidations.remove(key, future);
+        }
+    }
+
+    /**
+     * Removes the cached validation of a given token, for example, after it has been revoked
+     */
+    public void invalidate(String authScheme, String authSchemeData) {
+        validations.remove(getCacheKey(authScheme, authSchemeData));
+    }
+
+    public void clear() {
+        validations.clear();
+    }
+
+    public int getCacheSize() {
+        return validations.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private void cache(String key, AccessTokenValidation validation, RuntimeException error) {
+        long now = currentTimeMillis();
+        long expiresAt;
+        if (validation != null && validation.isInitialValidationSuccessful()) {
+            expiresAt = now + maxTtl * 1000L;
+            if (validation.getTokenLifetime() > 0) {
+                long tokenExpiresAt = (validation.getTokenIssuedAt() + validation.getTokenLifetime()) * 1000L;
+                expiresAt = Math.min(expiresAt, tokenExpiresAt);
+            }
+        } else {
+            expiresAt = now + negativeTtl * 1000L;
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        if (validations.size() >= maxCacheSize) {
+            evict(now);
+        }
+        validations.put(key, new CacheEntry(validation, error, expiresAt));
+    }
+
+    private void evict(long now) {
+        validations.values().removeIf(e -> e.expiresAt <= now);
+        for (Iterator<String> it = validations.keySet().iterator();
+            it.hasNext() && validations.size() >= maxCacheSize;) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String getCacheKey(String authScheme, String authSchemeData) {
+        return Base64UrlUtility.encode(
+            MessageDigestUtils.createDigest(authScheme + ' ' + authSchemeData, MessageDigestUtils.ALGO_SHA_256));
+    }
+
+    public void setTokenValidator(AccessTokenValidator tokenValidator) {
+        this.tokenValidator = tokenValidator;
+    }
+
+    /**
+     * Sets the maximum time in seconds the successful validations are cached for, 300 by default
+     */
+    public void setMaxTtl(long maxTtl) {
+        this.maxTtl = maxTtl;
+    }
+
+    /**
+     * Sets the time in seconds the unsuccessful validations are cached for, 30 by default
+     */
+    public void setNegativeTtl(long negativeTtl) {
+        this.negativeTtl = negativeTtl;
+    }
+
+    public void setMaxCacheSize(int maxCacheSize) {
+        this.maxCacheSize = maxCacheSize;
+    }
+
+    /**
+     * Sets if the exceptions thrown by the delegate validator should be cached for
+     * {@link #setNegativeTtl(long) negativeTtl}. These exceptions may be caused by the network or
+     * authorization server failures, thus they are not cached by default.
+     */
+    public void setCacheValidationErrors(boolean cacheValidationErrors) {
+        this.cacheValidationErrors = cacheValidationErrors;
+    }
+
+    private static final class CacheEntry {
+        private final AccessTokenValidation validation;
+        private final RuntimeException error;
+        private final long expiresAt;
+
+        CacheEntry(AccessTokenValidation validation, RuntimeException error, long expiresAt) {
+            this.validation = validation;
+            this.error = error;
+            this.expiresAt = expiresAt;
+        }
+
+        AccessTokenValidation getValidation() {
+            if (error != null) {
+                throw new OAuthServiceException(error);
+            }
+            return validation;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.oauth2.filters;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
+import org.apache.cxf.rs.security.jose.jwk.JsonWebKey;
+import org.apache.cxf.rs.security.jose.jwk.JsonWebKeys;
+import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
+import org.apache.cxf.rs.security.jose.jws.JwsUtils;
+
+/**
+ * Keeps the JSON Web Key set published by the authorization server (its "jwks_uri" endpoint)
+ * and the signature verifiers created from its keys.
+ * <p>
+ * The key set is loaded on the first use and is refreshed in the background once it is older
+ * than {@link #setRefreshInterval(long) refreshInterval}, with the current keys being used until
+ * the refreshed ones are available. If a token refers to a key id which is not in the set, the set
+ * is reloaded immediately, unless it has been loaded less than
+ * {@link #setMinReloadInterval(long) minReloadInterval} ago, so that the tokens with the unknown
+ * key ids can not cause a reload for every request.
+ */
+public class JsonWebKeysCache {
+    private static final Logger LOG = LogUtils.getL7dLogger(JsonWebKeysCache.class);
+
+    private WebClient jwkSetClient;
+    private long refreshInterval = 3600;
+    private long minReloadInterval = 30;
+    private Executor executor = ForkJoinPool.commonPool();
+
+    private volatile KeySet keySet;
+    private final Object loadLock = new Object();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public JsonWebKeysCache() {
+
+    }
+
+    public JsonWebKeysCache(WebClient jwkSetClient) {
+        this.jwkSetClient = jwkSetClient;
+    }
+
+    /**
+     * Returns the key with a given key id or the only available key if the key id is null
+     * @param keyId the key id, can be null
+     * @return the key or null if no matching key is available
+     */
+    public JsonWebKey getKey(String keyId) {
+        KeySet current = getKeySet();
+        JsonWebKey key = current.getKey(keyId);
+        if (key == null && keyId != null
+            && currentTimeMillis() - current.loadedAt >= minReloadInterval * 1000L) {
+            try {
+                key = reload(current).getKey(keyId);
+            } catch (RuntimeException ex) {
+                LOG.log(Level.WARNING, "JSON Web Key set can not be reloaded", ex);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Returns the signature verifier for the key with a given key id,
+     * see {@link #getKey(String)}. The verifiers are cached until the key set is reloaded.
+     * @param keyId the key id, can be null
+     * @param algo the algorithm to use if the key does not specify it
+     * @return the verifier or null if no matching key is available
+     */
+    public JwsSignatureVerifier getSignatureVerifier(String keyId, SignatureAlgorithm algo) {
+        JsonWebKey key = getKey(keyId);
+        if (key == null) {
+            return null;
+        }
+        KeySet current = keySet;
+        String verifierKey = (keyId == null ? "" : keyId) + '/' + (algo == null ? "" : algo.getJwaName());
+        JwsSignatureVerifier verifier = current.verifiers.get(verifierKey);
+        if (verifier == null) {
+            verifier = JwsUtils.getSignatureVerifier(key, algo);
+            if (verifier != null && current.getKey(keyId) == key) {
+                current.verifiers.put(verifierKey, verifier);
+            }
+        }
+        return verifier;
+    }
+
+    public JsonWebKeys getKeys() {
+        JsonWebKeys keys = new JsonWebKeys();
+        keys.setKeys(getKeySet().keys);
+        return keys;
+    }
+
+    /**
+     * Loads the key set synchronously
+     */
+    public void refresh() {
+        reload(keySet);
+    }
+
+    protected JsonWebKeys loadKeys() {
+        return WebClient.fromClient(jwkSetClient, true).get(JsonWebKeys.class);
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private KeySet getKeySet() {
+        KeySet current = keySet;
+        if (current == null) {
+            return reload(null);
+        }
+        if (refreshInterval > 0 && currentTimeMillis() - current.loadedAt >= refreshInterval * 1000L
+            && refreshing.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    reload(current);
+                } catch (RuntimeException ex) {
+                    LOG.log(Level.WARNING, "JSON Web Key set can not be refreshed", ex);
+                } finally {
+                    refreshing.set(false);
+                }
+            }, executor);
+        }
+        return current;
+    }
+
+    private KeySet reload(KeySet stale) {
+        synchronized (loadLock) {
+            KeySet current = keySet;
+            if (current != null && current != stale) {
+                // the key set has been loaded by another thread while this one was waiting
+                return current;
+            }
+            JsonWebKeys keys = loadKeys();
+            KeySet loaded = new KeySet(keys == null ? null : keys.getKeys(), currentTimeMillis());
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine("JSON Web Key set with " + loaded.keys.size() + " keys has been loaded");
+            }
+            keySet = loaded;
+            return loaded;
+        }
+    }
+
+    public void setJwkSetClient(WebClient jwkSetClient) {
+        this.jwkSetClient = jwkSetClient;
+    }
+
+    /**
+     * Sets the time in seconds after which the key set is refreshed in the background,
+     * 3600 by default. Zero or negative value disables the background refresh.
+     */
+    public void setRefreshInterval(long refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Sets the minimum time in seconds between the reloads caused by the unknown key ids, 30 by default
+     */
+    public void setMinReloadInterval(long minReloadInterval) {
+        this.minReloadInterval = minReloadInterval;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    private static final class KeySet {
+        private final List<JsonWebKey> keys;
+        private final Map<String, JsonWebKey> keyIdMap = new HashMap<>();
+        private final Map<String, JwsSignatureVerifier> verifiers = new ConcurrentHashMap<>();
+        private final long loadedAt;
+
+        KeySet(List<JsonWebKey> keys, long loadedAt) {
+            this.keys = keys == null ? Collections.emptyList() : keys;
+            this.loadedAt = loadedAt;
+            for (JsonWebKey key : this.keys) {
+                if (key.getKeyId() != null) {
+                    keyIdMap.put(key.getKeyId(), key);
+                }
+            }
+        }
+
+        JsonWebKey getKey(String keyId) {
+            if (keyId != null) {
+                return keyIdMap.get(keyId);
+            }
+            return keys.size() == 1 ? keys.get(0) : null;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.apache.cxf.common.util.StringUtils;
 import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.jaxrs.ext.MessageContext;
 import org.apache.cxf.rs.security.jose.common.JoseConstants;
+import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
 import org.apache.cxf.rs.security.jose.jwt.JoseJwtConsumer;
 import org.apache.cxf.rs.security.jose.jwt.JwtClaims;
 import org.apache.cxf.rs.security.jose.jwt.JwtConstants;
@@ -47,6 +48,7 @@ public class JwtAccessTokenValidator extends JoseJwtConsumer implements AccessTo
     private static final String USERNAME_PROP = "username";
 
     private Map<String, String> jwtAccessTokenClaimMap;
+    private JsonWebKeysCache jwkSetCache;
 
     public List<String> getSupportedAuthorizationSchemes() {
         return Collections.singletonList(OAuthConstants.BEARER_AUTHORIZATION_SCHEME);
@@ -65,6 +67,17 @@ public class JwtAccessTokenValidator extends JoseJwtConsumer implements AccessTo
         }
     }
 
+    @Override
+    protected JwsSignatureVerifier getInitializedSignatureVerifier(JwtToken jwt) {
+        if (jwkSetCache != null) {
+            JwsSignatureVerifier theJwsVerifier = jwkSetCache.getSignatureVerifier(
+                jwt.getJwsHeaders().getKeyId(), jwt.getJwsHeaders().getSignatureAlgorithm());
+            if (theJwsVerifier != null) {
+                return theJwsVerifier;
+            }
+        }
+        return super.getInitializedSignatureVerifier(jwt);
+    }
 
     private AccessTokenValidation convertClaimsToValidation(JwtClaims claims) {
         AccessTokenValidation atv = new AccessTokenValidation();
@@ -136,4 +149,11 @@ public class JwtAccessTokenValidator extends JoseJwtConsumer implements AccessTo
         this.jwtAccessTokenClaimMap = jwtAccessTokenClaimMap;
     }
 
+    /**
+     * Sets the cache of the authorization server keys used to verify the token signatures
+     */
+    public void setJwkSetCache(JsonWebKeysCache jwkSetCache) {
+        this.jwkSetCache = jwkSetCache;
+    }
+
 }
@@ -0,0 +1,218 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.oauth2.filters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.apache.cxf.rs.security.oauth2.common.AccessTokenValidation;
+import org.apache.cxf.rs.security.oauth2.provider.AccessTokenValidator;
+import org.apache.cxf.rs.security.oauth2.provider.OAuthServiceException;
+import org.apache.cxf.rs.security.oauth2.utils.OAuthConstants;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class CachingAccessTokenValidatorTest {
+
+    private static final String BEARER = OAuthConstants.BEARER_AUTHORIZATION_SCHEME;
+
+    @Test
+    public void testValidationIsCached() {
+        StubAuthorizationServer server = new StubAuthorizationServer();
+        TestValidator validator = new TestValidator(server);
+
+        AccessTokenValidation atv = validator.validateAccessToken(null, BEARER, "token", null);
+        assertSame(atv, validator.validateAccessToken(null, BEARER, "token", null));
+        assertEquals(1, server.calls.get());
+        assertEquals(1L, validator.getHits());
+
+        validator.validateAccessToken(null, BEARER, "token2", null);
+        assertEquals(2, server.calls.get());
+
+        validator.invalidate(BEARER, "token");
+        validator.validateAccessToken(null, BEARER, "token", null);
+        assertEquals(3, server.calls.get());
+    }
+
+    @Test
+    public void testCachedValidationExpiresWithToken() {
+        StubAuthorizationServer server = new StubAuthorizationServer();
+        server.lifetime = 60;
+        TestValidator validator = new TestValidator(server);
+        validator.setMaxTtl(300);
+
+        validator.validateAccessToken(null, BEARER, "token", null);
+        validator.time += 59_000;
+        validator.validateAccessToken(null, BEARER, "token", null);
+        assertEquals(1, server.calls.get());
+        validator.time += 1_000;
+        validator.validateAccessToken(null, BEARER, "token", null);
+        assertEquals(2, server.calls.get());
+    }
+
+    @Test
+    public void testCachedValidationExpiresWithMaxTtl() {
+        StubAuthorizationServer server = new StubAuthorizationServer();
+        TestValidator validator = new TestValidator(server);
+        validator.setMaxTtl(10);
+
+        validator.validateAccessToken(null, BEARER, "token", null);
+        validator.time += 10_000;
+        validator.validateAccessToken(null, BEARER, "token", null);
+        assertEquals(2, server.calls.get());
+    }
+
+    @Test
+    public void testInactiveTokenIsCached() {
+        StubAuthorizationServer server = new StubAuthorizationServer();
+        server.active = false;
+        TestValidator validator = new TestValidator(server);
+        validator.setNegativeTtl(5);
+
+        assertFalse(validator.validateAccessToken(null, BEARER, "token", null).isInitialValidationSuccessful());
+        assertFalse(validator.validateAccessToken(null, BEARER, "token", null).isInitialValidationSuccessful());
+        assertEquals(1, server.calls.get());
+        validator.time += 5_000;
+        validator.validateAccessToken(null, BEARER, "token", null);
+        assertEquals(2, server.calls.get());
+    }
+
+    @Test
+    public void testValidationErrors() {
+        StubAuthorizationServer server = new StubAuthorizationServer();
+        server.fail = true;
+        TestValidator validator = new TestValidator(server);
+        for (int i = 0; i < 2; i++) {
+            try {
+                validator.validateAccessToken(null, BEARER, "token", null);
+                fail("OAuthServiceException expected");
+            } catch (OAuthServiceException ex) {
+                // expected
+            }
+        }
+        assertEquals(2, server.calls.get());
+
+        validator.setCacheValidationErrors(true);
+        for (int i = 0; i < 2; i++) {
+            try {
+                validator.validateAccessToken(null, BEARER, "token2", null);
+                fail("OAuthServiceException expected");
+            } catch (OAuthServiceException ex) {
+                // expected
+            }
+        }
+        assertEquals(3, server.calls.get());
+    }
+
+    @Test
+    public void testConcurrentValidationsOfSameToken() throws Exception {
+        StubAuthorizationServer server = new StubAuthorizationServer();
+        server.latch = new CountDownLatch(1);
+        TestValidator validator = new TestValidator(server);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AccessTokenValidation>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> validator.validateAccessToken(null, BEARER, "token", null)));
+            }
+            Thread.sleep(200);
+            server.latch.countDown();
+            AccessTokenValidation atv = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<AccessTokenValidation> result : results) {
+                assertSame(atv, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, server.calls.get());
+    }
+
+    @Test
+    public void testMaxCacheSize() {
+        StubAuthorizationServer server = new StubAuthorizationServer();
+        TestValidator validator = new TestValidator(server);
+        validator.setMaxCacheSize(10);
+        for (int i = 0; i < 25; i++) {
+            validator.validateAccessToken(null, BEARER, "token" + i, null);
+        }
+        assertEquals(10, validator.getCacheSize());
+    }
+
+    private static final class TestValidator extends CachingAccessTokenValidator {
+        private long time = 1_000_000_000L;
+
+        TestValidator(AccessTokenValidator validator) {
+            super(validator);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return time;
+        }
+    }
+
+    private static final class StubAuthorizationServer implements AccessTokenValidator {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean active = true;
+        private volatile boolean fail;
+        private volatile long lifetime;
+        private volatile CountDownLatch latch;
+
+        public List<String> getSupportedAuthorizationSchemes() {
+            return Collections.singletonList(BEARER);
+        }
+
+        public AccessTokenValidation validateAccessToken(MessageContext mc, String authScheme,
+                                                         String authSchemeData,
+                                                         MultivaluedMap<String, String> extraProps) {
+            calls.incrementAndGet();
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (fail) {
+                throw new OAuthServiceException("Authorization server is not available");
+            }
+            AccessTokenValidation atv = new AccessTokenValidation();
+            atv.setInitialValidationSuccessful(active);
+            atv.setTokenIssuedAt(1_000_000L);
+            atv.setTokenLifetime(lifetime);
+            return atv;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.oauth2.filters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.cxf.rs.security.jose.jwa.SignatureAlgorithm;
+import org.apache.cxf.rs.security.jose.jwk.JsonWebKey;
+import org.apache.cxf.rs.security.jose.jwk.JsonWebKeys;
+import org.apache.cxf.rs.security.jose.jwk.KeyType;
+import org.apache.cxf.rs.security.jose.jws.JwsSignatureVerifier;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class JsonWebKeysCacheTest {
+
+    private static final String SECRET =
+        "AyM1SysPpbyDfgZld3umj1qzKObwVMkoqQ-EstJQLr_T-1qS0gZH75aKtMN3Yj0iPS4hcgUuTwjAzZr1Z9CAow";
+
+    @Test
+    public void testKeysAreLoadedOnce() {
+        TestKeysCache cache = new TestKeysCache();
+        cache.keys.add(createKey("1"));
+
+        assertNotNull(cache.getKey("1"));
+        assertNotNull(cache.getKey(null));
+        assertEquals(1, cache.loads);
+    }
+
+    @Test
+    public void testUnknownKeyIdReload() {
+        TestKeysCache cache = new TestKeysCache();
+        cache.setMinReloadInterval(30);
+        cache.keys.add(createKey("1"));
+        assertNotNull(cache.getKey("1"));
+
+        // the key set has just been loaded
+        cache.keys.add(createKey("2"));
+        assertNull(cache.getKey("2"));
+        assertEquals(1, cache.loads);
+
+        cache.time += 30_000;
+        assertNotNull(cache.getKey("2"));
+        assertEquals(2, cache.loads);
+
+        cache.time += 30_000;
+        assertNull(cache.getKey("3"));
+        assertNull(cache.getKey("3"));
+        assertEquals(3, cache.loads);
+    }
+
+    @Test
+    public void testBackgroundRefresh() {
+        TestKeysCache cache = new TestKeysCache();
+        cache.setRefreshInterval(60);
+        cache.setExecutor(Runnable::run);
+        cache.keys.add(createKey("1"));
+        assertNotNull(cache.getKey("1"));
+
+        cache.keys.clear();
+        cache.keys.add(createKey("2"));
+        cache.time += 59_000;
+        assertNotNull(cache.getKey("1"));
+        assertEquals(1, cache.loads);
+
+        cache.time += 1_000;
+        cache.getKey("1");
+        assertEquals(2, cache.loads);
+        assertNotNull(cache.getKey("2"));
+        assertEquals(1, cache.getKeys().getKeys().size());
+    }
+
+    @Test
+    public void testSignatureVerifierIsCached() {
+        TestKeysCache cache = new TestKeysCache();
+        cache.keys.add(createKey("1"));
+        JwsSignatureVerifier verifier = cache.getSignatureVerifier("1", SignatureAlgorithm.HS256);
+        assertNotNull(verifier);
+        assertSame(verifier, cache.getSignatureVerifier("1", SignatureAlgorithm.HS256));
+        assertNull(cache.getSignatureVerifier("2", SignatureAlgorithm.HS256));
+
+        cache.refresh();
+        assertEquals(2, cache.loads);
+        JwsSignatureVerifier newVerifier = cache.getSignatureVerifier("1", SignatureAlgorithm.HS256);
+        assertNotNull(newVerifier);
+        assertSame(newVerifier, cache.getSignatureVerifier("1", SignatureAlgorithm.HS256));
+    }
+
+    private static JsonWebKey createKey(String kid) {
+        JsonWebKey key = new JsonWebKey();
+        key.setKeyType(KeyType.OCTET);
+        key.setKeyId(kid);
+        key.setProperty(JsonWebKey.OCTET_KEY_VALUE, SECRET);
+        return key;
+    }
+
+    private static final class TestKeysCache extends JsonWebKeysCache {
+        private final List<JsonWebKey> keys = new ArrayList<>();
+        private long time = 1_000_000_000L;
+        private int loads;
+
+        @Override
+        protected JsonWebKeys loadKeys() {
+            loads++;
+            JsonWebKeys jwks = new JsonWebKeys();
+            jwks.setKeys(new ArrayList<>(keys));
+            return jwks;
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return time;
+        }
+    }
+}
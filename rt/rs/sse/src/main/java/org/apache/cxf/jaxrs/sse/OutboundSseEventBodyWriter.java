@@ -61,6 +61,13 @@ public class OutboundSseEventBodyWriter implements MessageBodyWriter<OutboundSse
         this.message.setExchange(exchange);
     }
 
+    /**
+     * Returns the provider factory the event payloads are serialized with (if any). The events
+     * encoded by the writers sharing the same provider factory are expected to be identical.
+     */
+    ServerProviderFactory getProviderFactory() {
+        return factory;
+    }
 
     @Override
     public boolean isWriteable(Class<?> cls, Type type, Annotation[] anns, MediaType mt) {
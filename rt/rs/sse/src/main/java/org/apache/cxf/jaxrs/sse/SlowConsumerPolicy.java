@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.sse;
+
+import java.util.Locale;
+
+/**
+ * Determines what happens when an event is sent to a sink whose buffer of
+ * not yet written events is full, typically because the client is reading
+ * slower than the events are produced.
+ */
+public enum SlowConsumerPolicy {
+    /**
+     * The event is rejected (its completion stage fails) while the sink and
+     * the events already buffered are kept intact. This is the default.
+     */
+    REJECT,
+    /**
+     * The oldest buffered event is discarded (its completion stage fails) to
+     * make room for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * The sink is closed without waiting for the buffered events to be
+     * written, the buffered and the new events are failed.
+     */
+    CLOSE;
+
+    public static SlowConsumerPolicy fromValue(Object value, SlowConsumerPolicy defaultValue) {
+        if (value instanceof SlowConsumerPolicy) {
+            return (SlowConsumerPolicy)value;
+        } else if (value != null) {
+            try {
+                return valueOf(value.toString().trim().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException ex) {
+                // fall back to the default
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -21,11 +21,14 @@ package org.apache.cxf.jaxrs.sse;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -38,9 +41,49 @@ import javax.ws.rs.sse.SseEventSink;
 
 public final class SseBroadcasterImpl implements SseBroadcaster {
     private final Set<SseEventSink> subscribers = new CopyOnWriteArraySet<>();
+    private final SlowConsumerPolicy policy;
     private final Set<Consumer<SseEventSink>> closers = new CopyOnWriteArraySet<>();
     private final Set<BiConsumer<SseEventSink, Throwable>> exceptioners = new CopyOnWriteArraySet<>();
     private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final LongAdder droppedSubscribers = new LongAdder();
+
+    public SseBroadcasterImpl() {
+        this(SlowConsumerPolicy.REJECT);
+    }
+
+    public SseBroadcasterImpl(SlowConsumerPolicy policy) {
+        this.policy = policy;
+    }
+
+    public SlowConsumerPolicy getSlowConsumerPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of the currently registered sinks.
+     */
+    public int getSubscribers() {
+        return subscribers.size();
+    }
+
+    /**
+     * Returns the number of the events accepted by the registered sinks but not yet written out.
+     */
+    public long getQueuedEvents() {
+        long queued = 0;
+        for (SseEventSink sink: subscribers) {
+            queued += ((SseEventSinkImpl)sink).getQueuedEvents();
+        }
+        return queued;
+    }
+
+    /**
+     * Returns the number of the sinks which have been unregistered because of the errors or
+     * timeouts, or evicted for not keeping up with the events, as opposed to being closed.
+     */
+    public long getDroppedSubscribers() {
+        return droppedSubscribers.sum();
+    }
 
     @Override
     public void register(SseEventSink sink) {
@@ -52,19 +95,25 @@ public final class SseBroadcasterImpl implements SseBroadcaster {
         ctx.addListener(new AsyncListener() {
             @Override
             public void onComplete(AsyncEvent asyncEvent) throws IOException {
-                subscribers.remove(sink);
+                if (subscribers.remove(sink) && sinkImpl.isFailed()) {
+                    droppedSubscribers.increment();
+                }
                 // The SseEventSinkImpl completes the asynchronous operation on close() method call.
                 closers.forEach(closer -> closer.accept(sink));
             }
 
             @Override
             public void onTimeout(AsyncEvent asyncEvent) throws IOException {
-                subscribers.remove(sink);
+                if (subscribers.remove(sink)) {
+                    droppedSubscribers.increment();
+                }
             }
 
             @Override
             public void onError(AsyncEvent asyncEvent) throws IOException {
-                subscribers.remove(sink);
+                if (subscribers.remove(sink)) {
+                    droppedSubscribers.increment();
+                }
                 // Propagate the error from SseEventSinkImpl asynchronous context
                 exceptioners.forEach(exceptioner -> exceptioner.accept(sink, asyncEvent.getThrowable()));
             }
@@ -78,22 +127,59 @@ public final class SseBroadcasterImpl implements SseBroadcaster {
         subscribers.add(sink);
     }
 
+    /**
+     * Sends the event to all registered sinks. The event is serialized only once per distinct
+     * set of providers (usually just once) and the resulting frame is shared by the sinks,
+     * instead of each sink serializing the same event on its own.
+     */
     @Override
     public CompletionStage<?> broadcast(OutboundSseEvent event) {
         assertNotClosed();
 
-        final Collection<CompletableFuture<?>> futures = new ArrayList<>();
+        final Collection<CompletableFuture<?>> futures = new ArrayList<>(subscribers.size());
+        final Map<Object, Object> frames = new IdentityHashMap<>(4);
+
         for (SseEventSink sink: subscribers) {
             try {
-                futures.add(sink.send(event).toCompletableFuture());
+                // The subclasses may customize the send(event) behavior, so the frames
+                // are used only for the sinks known to write them as-is.
+                if (sink.getClass() == SseEventSinkImpl.class) {
+                    futures.add(send((SseEventSinkImpl)sink, event, frames));
+                } else {
+                    futures.add(sink.send(event).toCompletableFuture());
+                }
             } catch (final Exception ex) {
                 exceptioners.forEach(exceptioner -> exceptioner.accept(sink, ex));
             }
         }
-        
+
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
+    private CompletableFuture<?> send(SseEventSinkImpl sink, OutboundSseEvent event, Map<Object, Object> frames) {
+        final Object key = sink.getFrameKey();
+
+        Object frame = frames.get(key);
+        if (frame == null) {
+            try {
+                frame = sink.encode(event);
+            } catch (final Exception ex) {
+                // Every sink sharing the same key would fail the same way, the exception
+                // is remembered and reported back to each of them.
+                frame = ex;
+            }
+            frames.put(key, frame);
+        }
+
+        if (frame instanceof Exception) {
+            final CompletableFuture<?> future = new CompletableFuture<>();
+            future.completeExceptionally((Exception)frame);
+            return future;
+        }
+
+        return sink.send(event, (byte[])frame, policy).toCompletableFuture();
+    }
+
     @Override
     public void onClose(Consumer<SseEventSink> subscriber) {
         assertNotClosed();
@@ -24,8 +24,15 @@ import org.apache.cxf.jaxrs.ext.ContextProvider;
 import org.apache.cxf.message.Message;
 
 public class SseContextProvider implements ContextProvider<Sse> {
+    /**
+     * The {@link SlowConsumerPolicy} the broadcasters apply to the sinks which do not keep up
+     * with the events.
+     */
+    public static final String SLOW_CONSUMER_POLICY = "org.apache.cxf.sse.broadcaster.slowConsumerPolicy";
+
     @Override
     public Sse createContext(Message message) {
-        return new SseImpl();
+        return new SseImpl(SlowConsumerPolicy.fromValue(message.getContextualProperty(SLOW_CONSUMER_POLICY),
+            SlowConsumerPolicy.REJECT));
     }
 }
@@ -30,9 +30,19 @@ import org.apache.cxf.jaxrs.ext.ContextProvider;
 import org.apache.cxf.jaxrs.impl.AsyncResponseImpl;
 import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
 import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.transport.http.AbstractHTTPDestination;
 
 public class SseEventSinkContextProvider implements ContextProvider<SseEventSink> {
+    /**
+     * The maximum number of the events each sink buffers before they are written out.
+     */
+    public static final String BUFFER_SIZE = "org.apache.cxf.sse.sink.bufferSize";
+    /**
+     * If true, the events are written using the Servlet 3.1 non-blocking I/O so the slow clients
+     * never block the threads sending the events.
+     */
+    public static final String NON_BLOCKING = "org.apache.cxf.sse.sink.nonBlocking";
 
     @Override
     public SseEventSink createContext(Message message) {
@@ -45,6 +55,9 @@ public class SseEventSinkContextProvider implements ContextProvider<SseEventSink
             ServerProviderFactory.getInstance(message), message.getExchange());
 
         final AsyncResponse async = new AsyncResponseImpl(message);
-        return new SseEventSinkImpl(writer, async, request.getAsyncContext());
+        final int bufferSize = MessageUtils.getContextualInteger(message, BUFFER_SIZE,
+            SseEventSinkImpl.BUFFER_SIZE);
+        final boolean nonBlocking = MessageUtils.getContextualBoolean(message, NON_BLOCKING, false);
+        return new SseEventSinkImpl(writer, async, request.getAsyncContext(), bufferSize, nonBlocking);
     }
 }
\ No newline at end of file
@@ -19,14 +19,16 @@
 
 package org.apache.cxf.jaxrs.sse;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
-import java.util.Queue;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Logger;
@@ -34,6 +36,8 @@ import java.util.logging.Logger;
 import javax.servlet.AsyncContext;
 import javax.servlet.AsyncEvent;
 import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.sse.OutboundSseEvent;
@@ -44,21 +48,47 @@ import org.apache.cxf.common.logging.LogUtils;
 public class SseEventSinkImpl implements SseEventSink {
     private static final Annotation[] EMPTY_ANNOTATIONS = new Annotation [] {};
     private static final Logger LOG = LogUtils.getL7dLogger(SseEventSinkImpl.class);
-    private static final int BUFFER_SIZE = 10000; // buffering 10000 messages
+    static final int BUFFER_SIZE = 10000; // buffering 10000 messages
 
     private final AsyncContext ctx;
     private final MessageBodyWriter<OutboundSseEvent> writer;
-    private final Queue<QueuedEvent> buffer;
+    private final int bufferSize;
+    private final BlockingQueue<QueuedEvent> buffer;
+    private final boolean nonBlocking;
     private final AtomicBoolean closed = new AtomicBoolean(false);
     private final AtomicBoolean dispatching = new AtomicBoolean(false);
     private final AtomicReference<Throwable> throwable = new AtomicReference<>();
     private final AtomicBoolean completed = new AtomicBoolean(false);
+    private final AtomicBoolean listening = new AtomicBoolean(false);
+    private final AtomicInteger signals = new AtomicInteger();
+    private boolean flushPending;
 
     public SseEventSinkImpl(final MessageBodyWriter<OutboundSseEvent> writer, 
             final AsyncResponse async, final AsyncContext ctx) {
+        this(writer, async, ctx, BUFFER_SIZE);
+    }
+
+    public SseEventSinkImpl(final MessageBodyWriter<OutboundSseEvent> writer,
+            final AsyncResponse async, final AsyncContext ctx, final int bufferSize) {
+        this(writer, async, ctx, bufferSize, false);
+    }
+
+    /**
+     * Creates the sink which buffers up to bufferSize events. In the non-blocking mode the events
+     * are written by the Servlet 3.1 {@link WriteListener} only when the output is ready to accept
+     * them, so no thread is ever blocked by a slow client: the {@link CompletionStage}s returned from
+     * send(event) complete once the events are handed over to the container.
+     */
+    public SseEventSinkImpl(final MessageBodyWriter<OutboundSseEvent> writer,
+            final AsyncResponse async, final AsyncContext ctx, final int bufferSize,
+            final boolean nonBlocking) {
         
         this.writer = writer;
-        this.buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+        this.bufferSize = bufferSize;
+        this.nonBlocking = nonBlocking;
+        // The linked queue does not preallocate its capacity upfront, which matters
+        // when a broadcaster fans out to the thousands of sinks.
+        this.buffer = new LinkedBlockingQueue<>(bufferSize);
         this.ctx = ctx;
 
         if (ctx == null) {
@@ -72,7 +102,13 @@ public class SseEventSinkImpl implements SseEventSink {
             public void onComplete(AsyncEvent event) throws IOException {
                 // This callback should be called when dequeue() has encountered an
                 // error during the execution and is forced to complete the context.
-                close();
+                if (nonBlocking) {
+                    // Nothing could be written anymore, no reason to wait
+                    completed.set(true);
+                    close(false);
+                } else {
+                    close();
+                }
             }
 
             @Override
@@ -85,7 +121,7 @@ public class SseEventSinkImpl implements SseEventSink {
                 // the connection.
                 if (throwable.get() != null || throwable.compareAndSet(null, event.getThrowable())) {
                     // This callback should be called when dequeue() has encountered an
-                    close();
+                    close(!nonBlocking);
                 }
             }
 
@@ -99,43 +135,81 @@ public class SseEventSinkImpl implements SseEventSink {
         return ctx;
     }
     
+    /**
+     * Returns the number of the events accepted for sending but not yet written.
+     */
+    public int getQueuedEvents() {
+        return buffer.size();
+    }
+
+    public boolean isNonBlocking() {
+        return nonBlocking;
+    }
+
+    /**
+     * Returns true if the sink has been closed due to an error (including the slow
+     * consumer being evicted).
+     */
+    boolean isFailed() {
+        return throwable.get() != null;
+    }
+
     @Override
     public void close() {
+        close(true);
+    }
+
+    private void close(boolean drain) {
         if (closed.compareAndSet(false, true)) {
             LOG.fine("Closing SSE sink now");
             
-            // In case we are still dispatching, give the events the chance to be
-            // sent over to the consumers. The good example would be sent(event) call,
-            // immediately followed by the close() call.
-            if (!awaitQueueToDrain(5, TimeUnit.SECONDS)) {
+            if (nonBlocking) {
+                // Never wait for the slow consumer, the AsyncContext is completed by the
+                // write listener as soon as the queued events are written out.
+                if (drain && listening.get()) {
+                    drain();
+                    return;
+                }
+            } else if (drain && !awaitQueueToDrain(5, TimeUnit.SECONDS)) {
+                // In case we are still dispatching, give the events the chance to be
+                // sent over to the consumers. The good example would be sent(event) call,
+                // immediately followed by the close() call.
                 LOG.warning("There are still SSE events the queue which may not be delivered (closing now)");
             }
             
-            if (completed.compareAndSet(false, true)) {
-                try {
-                    // In case of Tomcat, the context may be already closed (f.e. due to error),
-                    // in this case request is set to null.
-                    if (ctx.getRequest() != null) {
-                        LOG.fine("Completing the AsyncContext");
-                        ctx.complete();
-                    }
-                } catch (final IllegalStateException ex) {
-                    LOG.warning("Failed to close the AsyncContext cleanly: " + ex.getMessage());
+            terminate();
+        } else if (!drain) {
+            // The sink is being closed gracefully but the queued events could not be
+            // written anymore.
+            terminate();
+        }
+    }
+
+    private void terminate() {
+        if (completed.compareAndSet(false, true)) {
+            try {
+                // In case of Tomcat, the context may be already closed (f.e. due to error),
+                // in this case request is set to null.
+                if (ctx.getRequest() != null) {
+                    LOG.fine("Completing the AsyncContext");
+                    ctx.complete();
                 }
+            } catch (final IllegalStateException ex) {
+                LOG.warning("Failed to close the AsyncContext cleanly: " + ex.getMessage());
             }
-            
-            // Complete all the accepted but not dispatched send request with the
-            // error (if any) or signal that sink has been closed already.
-            Throwable ex = throwable.get();
-            if (ex == null) {
-                ex = new IllegalStateException("The sink has been already closed");
-            }
-            
-            QueuedEvent queuedEvent = buffer.poll();
-            while (queuedEvent != null) {
-                queuedEvent.completion.completeExceptionally(ex);
-                queuedEvent = buffer.poll();
-            }
+        }
+
+        // Complete all the accepted but not dispatched send request with the
+        // error (if any) or signal that sink has been closed already.
+        Throwable ex = throwable.get();
+        if (ex == null) {
+            ex = new IllegalStateException("The sink has been already closed");
+        }
+
+        QueuedEvent queuedEvent = buffer.poll();
+        while (queuedEvent != null) {
+            queuedEvent.completion.completeExceptionally(ex);
+            queuedEvent = buffer.poll();
         }
     }
 
@@ -157,19 +231,70 @@ public class SseEventSinkImpl implements SseEventSink {
 
     @Override
     public CompletionStage<?> send(OutboundSseEvent event) {
+        return send(event, null, SlowConsumerPolicy.REJECT);
+    }
+
+    /**
+     * Encodes the event into the frame which could be written to any sink sharing the
+     * same {@link #getFrameKey()} as this one.
+     */
+    byte[] encode(OutboundSseEvent event) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream(256);
+        writer.writeTo(event, event.getClass(), event.getGenericType(), EMPTY_ANNOTATIONS,
+            event.getMediaType(), null, os);
+        return os.toByteArray();
+    }
+
+    /**
+     * Returns the key the encoded frames could be shared by: the sinks with the same key
+     * serialize the events identically.
+     */
+    Object getFrameKey() {
+        if (writer instanceof OutboundSseEventBodyWriter) {
+            final Object factory = ((OutboundSseEventBodyWriter)writer).getProviderFactory();
+            if (factory != null) {
+                return factory;
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Queues the event for sending. If the frame is provided, it is written to the output
+     * as-is instead of serializing the event once more. The policy is applied when the buffer
+     * is full.
+     */
+    CompletionStage<?> send(OutboundSseEvent event, byte[] frame, SlowConsumerPolicy policy) {
         final CompletableFuture<?> future = new CompletableFuture<>();
 
         if (!closed.get() && writer != null) {
             final Throwable ex = throwable.get(); 
             if (ex != null) {
                 future.completeExceptionally(ex);
-            } else if (buffer.offer(new QueuedEvent(event, future))) {
-                if (dispatching.compareAndSet(false, true)) {
+            } else if (nonBlocking && frame == null) {
+                // The non-blocking writes could not be done by the message body writers,
+                // the event is serialized upfront.
+                try {
+                    return send(event, encode(event), policy);
+                } catch (final Exception e) {
+                    future.completeExceptionally(e);
+                }
+            } else if (enqueue(new QueuedEvent(event, frame, future), policy)) {
+                if (nonBlocking) {
+                    signal();
+                } else if (dispatching.compareAndSet(false, true)) {
                     ctx.start(this::dequeue);
                 }
             } else {
                 future.completeExceptionally(new IllegalStateException(
-                    "The buffer is full (10000), unable to queue SSE event for send"));
+                    "The buffer is full (" + bufferSize + "), unable to queue SSE event for send"));
+
+                if (policy == SlowConsumerPolicy.CLOSE) {
+                    LOG.fine("Closing SSE sink since the consumer is not keeping up with the events");
+                    throwable.compareAndSet(null, new IllegalStateException(
+                        "The sink has been closed since the consumer is not keeping up with the events"));
+                    close(false);
+                }
             }
         } else {
             future.completeExceptionally(new IllegalStateException(
@@ -179,6 +304,99 @@ public class SseEventSinkImpl implements SseEventSink {
         return future;
     }
 
+    private boolean enqueue(QueuedEvent queuedEvent, SlowConsumerPolicy policy) {
+        if (buffer.offer(queuedEvent)) {
+            return true;
+        }
+
+        if (policy == SlowConsumerPolicy.DROP_OLDEST) {
+            // The dispatcher may be draining the buffer concurrently, so only a few
+            // attempts are made to make room for the event.
+            for (int attempt = 0; attempt < 3; ++attempt) {
+                final QueuedEvent oldest = buffer.poll();
+                if (oldest != null) {
+                    oldest.completion.completeExceptionally(new IllegalStateException(
+                        "The SSE event has been dropped since the consumer is not keeping up with the events"));
+                }
+                if (buffer.offer(queuedEvent)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Registers the write listener on the first event sent or, if it has been registered
+     * already, writes the queued events out (as many as the output is ready to accept).
+     */
+    private void signal() {
+        if (listening.compareAndSet(false, true)) {
+            try {
+                // The container calls onWritePossible() as soon as the listener is set
+                ctx.getResponse().getOutputStream().setWriteListener(new SinkWriteListener());
+            } catch (final IOException | RuntimeException ex) {
+                fail(ex);
+            }
+        } else {
+            drain();
+        }
+    }
+
+    /**
+     * Writes the queued events out while the output is ready. Only one thread (either the
+     * container one calling onWritePossible() or the one sending the event) is writing at any
+     * time, the others just signal that there is more work to do.
+     */
+    private void drain() {
+        if (signals.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            write();
+            missed = signals.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void write() {
+        try {
+            final ServletOutputStream os = ctx.getResponse().getOutputStream();
+            while (os.isReady()) {
+                final QueuedEvent queuedEvent = buffer.poll();
+
+                if (queuedEvent != null) {
+                    LOG.fine("Dispatching SSE event over the wire");
+                    os.write(queuedEvent.frame);
+                    flushPending = true;
+                    queuedEvent.completion.complete(null);
+                } else if (flushPending) {
+                    flushPending = false;
+                    os.flush();
+                } else {
+                    if (closed.get()) {
+                        // All the events accepted before close() are written out
+                        terminate();
+                    }
+                    break;
+                }
+            }
+        } catch (final IOException | IllegalStateException ex) {
+            // Very likely the connection is closed by the client (but we cannot
+            // detect if for sure, container-specific).
+            fail(ex);
+        }
+    }
+
+    private void fail(Throwable ex) {
+        if (throwable.compareAndSet(null, ex)) {
+            LOG.warning("Prematurely completing the AsyncContext due to error encountered: " + ex);
+        }
+        close(false);
+    }
+
     /**
      * Processes the buffered events and sends the off to the output channel. There  is
      * a special handling for the IOException, which forces the sink to switch to closed 
@@ -208,8 +426,12 @@ public class SseEventSinkImpl implements SseEventSink {
                     if (error == null) {
                         LOG.fine("Dispatching SSE event over the wire");
                         
-                        writer.writeTo(event, event.getClass(), event.getGenericType(), EMPTY_ANNOTATIONS,
-                            event.getMediaType(), null, ctx.getResponse().getOutputStream());
+                        if (queuedEvent.frame != null) {
+                            ctx.getResponse().getOutputStream().write(queuedEvent.frame);
+                        } else {
+                            writer.writeTo(event, event.getClass(), event.getGenericType(), EMPTY_ANNOTATIONS,
+                                event.getMediaType(), null, ctx.getResponse().getOutputStream());
+                        }
                         ctx.getResponse().flushBuffer();
                         
                         LOG.fine("Completing the future successfully");
@@ -253,12 +475,26 @@ public class SseEventSinkImpl implements SseEventSink {
         }
     }
 
+    private class SinkWriteListener implements WriteListener {
+        @Override
+        public void onWritePossible() throws IOException {
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            fail(t);
+        }
+    }
+
     private static class QueuedEvent {
         private final OutboundSseEvent event;
+        private final byte[] frame;
         private final CompletableFuture<?> completion;
 
-        QueuedEvent(OutboundSseEvent event, CompletableFuture<?> completion) {
+        QueuedEvent(OutboundSseEvent event, byte[] frame, CompletableFuture<?> completion) {
             this.event = event;
+            this.frame = frame;
             this.completion = completion;
         }
     }
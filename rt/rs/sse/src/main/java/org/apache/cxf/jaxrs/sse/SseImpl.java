@@ -23,7 +23,14 @@ import javax.ws.rs.sse.Sse;
 import javax.ws.rs.sse.SseBroadcaster;
 
 class SseImpl implements Sse {
+    private final SlowConsumerPolicy policy;
+
     SseImpl() {
+        this(SlowConsumerPolicy.REJECT);
+    }
+
+    SseImpl(SlowConsumerPolicy policy) {
+        this.policy = policy;
     }
 
     @Override
@@ -33,6 +40,6 @@ class SseImpl implements Sse {
 
     @Override
     public SseBroadcaster newBroadcaster() {
-        return new SseBroadcasterImpl();
+        return new SseBroadcasterImpl(policy);
     }
 }
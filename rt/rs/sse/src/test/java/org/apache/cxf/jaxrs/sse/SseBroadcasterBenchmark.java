@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.sse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.SseBroadcaster;
+
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Measures the latency of {@link SseBroadcasterImpl#broadcast(OutboundSseEvent)} for the
+ * growing number of the sinks. The sinks write to the output streams which discard the data,
+ * so the numbers reflect the serialization and the dispatching overhead only. Not run as part
+ * of the build, start it manually from the test classpath.
+ */
+public final class SseBroadcasterBenchmark {
+    private static final int[] SINKS = {1000, 10000, 50000};
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    private SseBroadcasterBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int sinks: SINKS) {
+            final SseBroadcaster broadcaster = new SseBroadcasterImpl();
+            final PayloadWriter writer = new PayloadWriter();
+            for (int i = 0; i < sinks; ++i) {
+                broadcaster.register(new SseEventSinkImpl(writer, null,
+                    new MockAsyncContext(new MockHttpServletRequest(), new DiscardingResponse())));
+            }
+
+            for (int i = 0; i < WARMUP; ++i) {
+                broadcast(broadcaster, i);
+            }
+
+            long total = 0;
+            long max = 0;
+            for (int i = 0; i < ITERATIONS; ++i) {
+                final long started = System.nanoTime();
+                broadcast(broadcaster, i);
+                final long elapsed = System.nanoTime() - started;
+                total += elapsed;
+                max = Math.max(max, elapsed);
+            }
+
+            System.out.println(String.format("%6d sinks: avg %8.3f ms, max %8.3f ms, %d serializations",
+                sinks, toMillis(total / ITERATIONS), toMillis(max), writer.count));
+            broadcaster.close();
+        }
+    }
+
+    private static void broadcast(SseBroadcaster broadcaster, int i) throws Exception {
+        final OutboundSseEvent event = new OutboundSseEventImpl.BuilderImpl()
+            .id(Integer.toString(i))
+            .name("benchmark")
+            .data("The event payload of the broadcast number " + i)
+            .build();
+        broadcaster.broadcast(event).toCompletableFuture().get(1, TimeUnit.MINUTES);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double)TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Serializes the event the same way {@link OutboundSseEventBodyWriter} does for the
+     * string payloads and counts the serializations.
+     */
+    private static class PayloadWriter extends OutboundSseEventBodyWriter {
+        private long count;
+
+        @Override
+        public void writeTo(OutboundSseEvent p, Class<?> cls, Type t, Annotation[] anns, MediaType mt,
+                MultivaluedMap<String, Object> headers, OutputStream os) throws IOException {
+            ++count;
+            os.write(("id: " + p.getId() + "\nevent: " + p.getName() + "\ndata: " + p.getData() + "\n\n")
+                .getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static class DiscardingResponse extends MockHttpServletResponse {
+        private final ServletOutputStream os = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return os;
+        }
+
+        @Override
+        public void flushBuffer() {
+        }
+    }
+}
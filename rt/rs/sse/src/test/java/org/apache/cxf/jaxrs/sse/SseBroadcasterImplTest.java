@@ -20,6 +20,10 @@
 package org.apache.cxf.jaxrs.sse;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.LongAdder;
@@ -38,8 +42,13 @@ import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SseBroadcasterImplTest {
@@ -119,4 +128,97 @@ public class SseBroadcasterImplTest {
 
         assertThat(adder.intValue(), equalTo(1));
     }
+
+    @Test
+    public void testEventIsEncodedOnceForAllSinks() throws WebApplicationException, IOException {
+        doAnswer(invocation -> {
+            ((OutputStream)invocation.getArgument(6)).write("data: test\n\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(writer).writeTo(any(), any(), any(), any(), any(), any(), any());
+
+        final List<MockHttpServletResponse> responses = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            final MockHttpServletResponse r = new MockHttpServletResponse();
+            broadcaster.register(new SseEventSinkImpl(writer, null,
+                new MockAsyncContext(new MockHttpServletRequest(), r)));
+            responses.add(r);
+        }
+
+        final CompletionStage<?> stage = broadcaster.broadcast(new OutboundSseEventImpl.BuilderImpl()
+            .data("test").build());
+        assertTrue(stage.toCompletableFuture().isDone());
+        assertFalse(stage.toCompletableFuture().isCompletedExceptionally());
+
+        verify(writer, times(1)).writeTo(any(), any(), any(), any(), any(), any(), any());
+        for (MockHttpServletResponse r: responses) {
+            assertThat(r.getContentAsString(), equalTo("data: test\n\n"));
+        }
+    }
+
+    @Test
+    public void testSlowConsumerEventIsRejected() {
+        final SseEventSinkImpl sink = new SseEventSinkImpl(writer, null, new StalledAsyncContext(), 1);
+        broadcaster.register(sink);
+
+        final CompletableFuture<?> first = broadcast(broadcaster);
+        final CompletableFuture<?> second = broadcast(broadcaster);
+
+        assertFalse(first.isDone());
+        assertTrue(second.isCompletedExceptionally());
+        assertFalse(sink.isClosed());
+        assertThat(sink.getQueuedEvents(), equalTo(1));
+        assertThat(((SseBroadcasterImpl)broadcaster).getQueuedEvents(), equalTo(1L));
+    }
+
+    @Test
+    public void testSlowConsumerOldestEventIsDropped() {
+        final SseBroadcaster dropping = new SseBroadcasterImpl(SlowConsumerPolicy.DROP_OLDEST);
+        final SseEventSinkImpl sink = new SseEventSinkImpl(writer, null, new StalledAsyncContext(), 1);
+        dropping.register(sink);
+
+        final CompletableFuture<?> first = broadcast(dropping);
+        final CompletableFuture<?> second = broadcast(dropping);
+
+        assertTrue(first.isCompletedExceptionally());
+        assertFalse(second.isDone());
+        assertFalse(sink.isClosed());
+        assertThat(sink.getQueuedEvents(), equalTo(1));
+    }
+
+    @Test
+    public void testSlowConsumerIsClosed() {
+        final LongAdder adder = new LongAdder();
+        final SseBroadcaster closing = new SseBroadcasterImpl(SlowConsumerPolicy.CLOSE);
+        final SseEventSinkImpl sink = new SseEventSinkImpl(writer, null, new StalledAsyncContext(), 1);
+        closing.register(sink);
+        closing.onClose(s -> adder.increment());
+
+        final CompletableFuture<?> first = broadcast(closing);
+        final CompletableFuture<?> second = broadcast(closing);
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertTrue(sink.isClosed());
+        assertThat(adder.intValue(), equalTo(1));
+        assertThat(((SseBroadcasterImpl)closing).getDroppedSubscribers(), equalTo(1L));
+        assertThat(((SseBroadcasterImpl)closing).getSubscribers(), equalTo(0));
+    }
+
+    private static CompletableFuture<?> broadcast(SseBroadcaster b) {
+        return b.broadcast(new OutboundSseEventImpl.BuilderImpl().data("test").build()).toCompletableFuture();
+    }
+
+    /**
+     * The asynchronous context which never runs the dispatching task, simulating the
+     * consumer which does not read the events.
+     */
+    private static class StalledAsyncContext extends MockAsyncContext {
+        StalledAsyncContext() {
+            super(new MockHttpServletRequest(), new MockHttpServletResponse());
+        }
+
+        @Override
+        public void start(Runnable runnable) {
+        }
+    }
 }
@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.jaxrs.sse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.sse.OutboundSseEvent;
+
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class SseEventSinkImplTest {
+    private MessageBodyWriter<OutboundSseEvent> writer;
+    private NonBlockingResponse response;
+    private MockHttpServletRequest request;
+    private SseEventSinkImpl sink;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws WebApplicationException, IOException {
+        writer = mock(MessageBodyWriter.class);
+        doAnswer(invocation -> {
+            final OutboundSseEvent event = invocation.getArgument(0);
+            ((OutputStream)invocation.getArgument(6)).write(("data: " + event.getData() + "\n\n")
+                .getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(writer).writeTo(any(), any(), any(), any(), any(), any(), any());
+
+        request = new MockHttpServletRequest();
+        request.setAsyncStarted(true);
+        response = new NonBlockingResponse();
+        sink = new SseEventSinkImpl(writer, null, new MockAsyncContext(request, response), 10, true);
+    }
+
+    @Test
+    public void testEventsAreWrittenWhenOutputIsReady() throws IOException {
+        final CompletableFuture<?> first = send("first");
+        final CompletableFuture<?> second = send("second");
+
+        assertNotNull(response.os.listener);
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+        assertThat(sink.getQueuedEvents(), equalTo(2));
+
+        response.os.ready = true;
+        response.os.listener.onWritePossible();
+
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertThat(sink.getQueuedEvents(), equalTo(0));
+        assertThat(new String(response.os.content.toByteArray(), StandardCharsets.UTF_8),
+            equalTo("data: first\n\ndata: second\n\n"));
+        assertThat(response.os.flushes, equalTo(1));
+    }
+
+    @Test
+    public void testCloseDoesNotWaitForSlowConsumer() throws IOException {
+        final CompletableFuture<?> event = send("event");
+
+        sink.close();
+        assertTrue(sink.isClosed());
+        assertFalse(event.isDone());
+        assertTrue(request.isAsyncStarted());
+        assertTrue(send("rejected").isCompletedExceptionally());
+
+        response.os.ready = true;
+        response.os.listener.onWritePossible();
+
+        assertTrue(event.isDone());
+        assertFalse(event.isCompletedExceptionally());
+        assertFalse(request.isAsyncStarted());
+    }
+
+    @Test
+    public void testWriteErrorFailsQueuedEvents() {
+        final CompletableFuture<?> event = send("event");
+
+        response.os.listener.onError(new IOException("Connection reset"));
+
+        assertTrue(sink.isClosed());
+        assertTrue(event.isCompletedExceptionally());
+        assertFalse(request.isAsyncStarted());
+    }
+
+    private CompletableFuture<?> send(String data) {
+        return sink.send(new OutboundSseEventImpl.BuilderImpl().data(data).build()).toCompletableFuture();
+    }
+
+    /**
+     * The response which output is only ready to accept the data when told so.
+     */
+    private static class NonBlockingResponse extends MockHttpServletResponse {
+        private final NonBlockingOutputStream os = new NonBlockingOutputStream();
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return os;
+        }
+    }
+
+    private static class NonBlockingOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        private WriteListener listener;
+        private boolean ready;
+        private int flushes;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!ready) {
+                throw new IllegalStateException("The output is not ready");
+            }
+            content.write(b);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            ++flushes;
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            listener = writeListener;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.i18n.Message;
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * A bounded pool of plain HTTP/1.1 connections, kept per host and port.  Idle connections
+ * are reused most recently used first so that the least used ones age out and are closed
+ * after the idle timeout.  Connections that have been idle for longer than the validation
+ * interval are checked for having been closed by the server before they are handed out.
+ */
+public class HttpConnectionPool implements Closeable {
+    private static final Logger LOG = LogUtils.getL7dLogger(HttpConnectionPool.class);
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Map<String, HostPool> hostPools = new ConcurrentHashMap<>();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    // 0 or less is unbounded
+    private volatile int maxPerHost = 5;
+    private volatile long idleTimeout = 60000L;
+    private volatile long validateAfterInactivity = 2000L;
+    private volatile boolean shutdown;
+
+    public void setMaxPerHost(int max) {
+        maxPerHost = max;
+    }
+    public int getMaxPerHost() {
+        return maxPerHost;
+    }
+
+    public void setIdleTimeout(long timeout) {
+        idleTimeout = timeout;
+    }
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setValidateAfterInactivity(long timeout) {
+        validateAfterInactivity = timeout;
+    }
+    public long getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    HostPool getHostPool(String host, int port) {
+        return hostPools.computeIfAbsent(host + ':' + port, k -> new HostPool(host, port));
+    }
+
+    /**
+     * @return the number of connections currently handed out
+     */
+    public int getLeased() {
+        int count = 0;
+        for (HostPool pool : hostPools.values()) {
+            count += pool.getLeased();
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of idle connections ready to be reused
+     */
+    public int getAvailable() {
+        int count = 0;
+        for (HostPool pool : hostPools.values()) {
+            count += pool.getAvailable();
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of requests waiting for a connection
+     */
+    public int getPending() {
+        int count = 0;
+        for (HostPool pool : hostPools.values()) {
+            count += pool.getPending();
+        }
+        return count;
+    }
+
+    public long getCreated() {
+        return created.get();
+    }
+
+    public long getClosed() {
+        return closed.get();
+    }
+
+    public void close() {
+        shutdown = true;
+        for (HostPool pool : hostPools.values()) {
+            pool.closeIdle();
+        }
+        hostPools.clear();
+    }
+
+    final class HostPool {
+        final String host;
+        final int port;
+        // guarded by this
+        private final Deque<PooledSocket> idle = new ArrayDeque<>();
+        private int leased;
+        private int pending;
+
+        HostPool(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+
+        PooledSocket lease(int connectTimeout, int readTimeout, long requestTimeout) throws IOException {
+            PooledSocket socket = null;
+            synchronized (this) {
+                long deadline = requestTimeout > 0 ? System.nanoTime()
+                    + TimeUnit.MILLISECONDS.toNanos(requestTimeout) : 0;
+                while (true) {
+                    closeExpired();
+                    socket = idle.pollFirst();
+                    if (socket != null) {
+                        socket.reused = true;
+                    }
+                    if (socket != null || maxPerHost <= 0 || leased < maxPerHost) {
+                        leased++;
+                        break;
+                    }
+                    long remaining = 0;
+                    if (deadline != 0) {
+                        remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                        if (remaining <= 0) {
+                            throw new SocketTimeoutException(new Message("CONNECTION_POOL_TIMEOUT", LOG,
+                                                                         host, port, requestTimeout).toString());
+                        }
+                    }
+                    pending++;
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException(ex);
+                    } finally {
+                        pending--;
+                    }
+                }
+            }
+            try {
+                if (socket != null && !socket.isReusable(validateAfterInactivity)) {
+                    socket.close();
+                    socket = null;
+                }
+                if (socket == null) {
+                    socket = connect(connectTimeout);
+                }
+                socket.socket.setSoTimeout(readTimeout);
+                return socket;
+            } catch (IOException | RuntimeException ex) {
+                if (socket != null) {
+                    socket.close();
+                }
+                synchronized (this) {
+                    leased--;
+                    notifyAll();
+                }
+                throw ex;
+            }
+        }
+
+        void release(PooledSocket socket, boolean reusable) {
+            synchronized (this) {
+                leased--;
+                if (reusable && !shutdown && (maxPerHost <= 0 || idle.size() < maxPerHost)) {
+                    socket.lastUsed = System.nanoTime();
+                    idle.offerFirst(socket);
+                    socket = null;
+                }
+                notifyAll();
+            }
+            if (socket != null) {
+                socket.close();
+            }
+        }
+
+        private PooledSocket connect(int connectTimeout) throws IOException {
+            Socket s = new Socket();
+            try {
+                s.setTcpNoDelay(true);
+                s.setKeepAlive(true);
+                s.connect(new InetSocketAddress(host, port), connectTimeout);
+            } catch (IOException ex) {
+                s.close();
+                throw ex;
+            }
+            created.incrementAndGet();
+            return new PooledSocket(this, s);
+        }
+
+        private void closeExpired() {
+            long timeout = idleTimeout;
+            if (timeout <= 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            while (!idle.isEmpty()
+                && now - idle.peekLast().lastUsed > TimeUnit.MILLISECONDS.toNanos(timeout)) {
+                idle.pollLast().close();
+            }
+        }
+
+        void closeIdle() {
+            synchronized (this) {
+                while (!idle.isEmpty()) {
+                    idle.pollFirst().close();
+                }
+                notifyAll();
+            }
+        }
+
+        synchronized int getLeased() {
+            return leased;
+        }
+        synchronized int getPending() {
+            return pending;
+        }
+        synchronized int getAvailable() {
+            return idle.size();
+        }
+    }
+
+    final class PooledSocket {
+        final HostPool pool;
+        final Socket socket;
+        final InputStream in;
+        final OutputStream out;
+        long lastUsed;
+        boolean reused;
+        private boolean closed;
+
+        PooledSocket(HostPool pool, Socket socket) throws IOException {
+            this.pool = pool;
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+            this.out = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+            lastUsed = System.nanoTime();
+        }
+
+        boolean isReusable(long validateAfter) {
+            if (socket.isClosed() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+                return false;
+            }
+            if (validateAfter < 0
+                || System.nanoTime() - lastUsed <= TimeUnit.MILLISECONDS.toNanos(validateAfter)) {
+                return true;
+            }
+            try {
+                if (in.available() > 0) {
+                    //unexpected data from the server, cannot use the connection for a new request
+                    return false;
+                }
+                int timeout = socket.getSoTimeout();
+                socket.setSoTimeout(1);
+                try {
+                    //either the server closed the connection or sent something unexpected
+                    in.read();
+                    return false;
+                } catch (SocketTimeoutException ex) {
+                    //nothing to read, still open
+                    return true;
+                } finally {
+                    socket.setSoTimeout(timeout);
+                }
+            } catch (IOException ex) {
+                return false;
+            }
+        }
+
+        void release(boolean reusable) {
+            pool.release(this, reusable);
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            HttpConnectionPool.this.closed.incrementAndGet();
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                LOG.log(Level.FINEST, "Failed to close pooled connection", ex);
+            }
+        }
+    }
+}
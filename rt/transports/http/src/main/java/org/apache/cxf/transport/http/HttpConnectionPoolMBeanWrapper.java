@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.management.ManagedComponent;
+import org.apache.cxf.management.ManagementConstants;
+import org.apache.cxf.management.annotation.ManagedAttribute;
+import org.apache.cxf.management.annotation.ManagedResource;
+
+@ManagedResource(componentName = "HTTPConnectionPool",
+                 description = "The connection pool of an HTTP conduit",
+                 currencyTimeLimit = 15, persistPolicy = "OnUpdate", persistPeriod = 200)
+public class HttpConnectionPoolMBeanWrapper implements ManagedComponent {
+    private static final String TYPE_VALUE = "HTTPConnectionPool";
+
+    private final HttpConnectionPool pool;
+    private final String conduitName;
+    private final Bus bus;
+
+    public HttpConnectionPoolMBeanWrapper(HttpConnectionPool pool, String conduitName, Bus bus) {
+        this.pool = pool;
+        this.conduitName = conduitName;
+        this.bus = bus;
+    }
+
+    @ManagedAttribute(description = "The number of connections currently in use")
+    public int getLeased() {
+        return pool.getLeased();
+    }
+
+    @ManagedAttribute(description = "The number of idle connections available for reuse")
+    public int getAvailable() {
+        return pool.getAvailable();
+    }
+
+    @ManagedAttribute(description = "The number of requests waiting for a connection")
+    public int getPending() {
+        return pool.getPending();
+    }
+
+    @ManagedAttribute(description = "The number of connections opened")
+    public long getCreated() {
+        return pool.getCreated();
+    }
+
+    @ManagedAttribute(description = "The number of connections closed")
+    public long getClosed() {
+        return pool.getClosed();
+    }
+
+    @ManagedAttribute(description = "The maximum number of connections per host")
+    public int getMaxPerHost() {
+        return pool.getMaxPerHost();
+    }
+
+    public ObjectName getObjectName() throws JMException {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append(ManagementConstants.DEFAULT_DOMAIN_NAME).append(':');
+        buffer.append(ManagementConstants.BUS_ID_PROP).append('=').append(bus.getId()).append(',');
+        buffer.append(ManagementConstants.TYPE_PROP).append('=').append(TYPE_VALUE).append(',');
+        buffer.append(ManagementConstants.NAME_PROP).append('=').append(ObjectName.quote(conduitName)).append(',');
+        // Added the instance id to make the ObjectName unique
+        buffer.append(ManagementConstants.INSTANCE_ID_PROP).append('=').append(pool.hashCode());
+        return new ObjectName(buffer.toString());
+    }
+}
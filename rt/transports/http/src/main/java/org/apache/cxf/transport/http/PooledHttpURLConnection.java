@@ -0,0 +1,806 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.SocketException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.cxf.helpers.HttpHeaderHelper;
+
+/**
+ * An HttpURLConnection that speaks HTTP/1.1 over a connection leased from an
+ * HttpConnectionPool instead of going through the JVM wide keep-alive cache.  The response
+ * is read straight off the pooled socket and the connection goes back to the pool as soon
+ * as the response body has been read to the end.  Request bodies up to the replay limit are
+ * buffered so that they can be sent again when the server has closed a reused connection in the
+ * meantime, larger bodies are streamed after the reused connection has been checked.
+ */
+class PooledHttpURLConnection extends HttpURLConnection {
+    private static final String HTTP_11 = "HTTP/1.1";
+    /**
+     * How many bytes of an unread response body are read and discarded on close to keep the
+     * connection reusable; a connection with more left is closed instead
+     */
+    static final int MAX_DRAIN_SIZE = 64 * 1024;
+
+    private final HttpConnectionPool.HostPool pool;
+    private final long requestTimeout;
+    private final int replayLimit;
+    private HttpConnectionPool.PooledSocket socket;
+    private Map<String, List<String>> requestHeaders;
+    private RequestOutputStream requestStream;
+    private boolean requestSent;
+    private byte[] replayableBody;
+    private String statusLine;
+    private final List<String> headerKeys = new ArrayList<>();
+    private final List<String> headerValues = new ArrayList<>();
+    private Map<String, List<String>> headerFields = Collections.emptyMap();
+    private ResponseInputStream responseStream;
+    private boolean closeAfterResponse;
+
+    PooledHttpURLConnection(URL url, HttpConnectionPool connectionPool, long requestTimeout, int replayLimit) {
+        super(url);
+        this.pool = connectionPool.getHostPool(url.getHost(),
+                                               url.getPort() == -1 ? url.getDefaultPort() : url.getPort());
+        this.requestTimeout = requestTimeout;
+        this.replayLimit = replayLimit;
+    }
+
+    @Override
+    public synchronized void connect() throws IOException {
+        if (connected) {
+            return;
+        }
+        requestHeaders = getRequestProperties();
+        socket = pool.lease(getConnectTimeout(), getReadTimeout(), requestTimeout);
+        connected = true;
+    }
+
+    @Override
+    public synchronized void disconnect() {
+        releaseSocket(false);
+    }
+
+    @Override
+    public boolean usingProxy() {
+        return false;
+    }
+
+    @Override
+    public synchronized OutputStream getOutputStream() throws IOException {
+        if (requestStream != null) {
+            return requestStream;
+        }
+        if (requestSent) {
+            throw new ProtocolException("Cannot write output after reading input.");
+        }
+        if (!doOutput) {
+            throw new ProtocolException("cannot write to a URLConnection if doOutput=false"
+                                        + " - call setDoOutput(true)");
+        }
+        if ("GET".equals(method)) {
+            method = "POST";
+        }
+        connect();
+        long length = fixedContentLengthLong != -1 ? fixedContentLengthLong : fixedContentLength;
+        if (length != -1 && length <= replayLimit) {
+            requestStream = new BufferedRequestOutputStream(length);
+        } else if (length != -1) {
+            checkStreamedConnection();
+            writeHead(length, false);
+            requestStream = new FixedLengthOutputStream(length);
+        } else if (chunkLength != -1) {
+            requestStream = new ChunkedOutputStream(chunkLength);
+        } else {
+            requestStream = new BufferedRequestOutputStream(-1);
+        }
+        return requestStream;
+    }
+
+    @Override
+    public synchronized InputStream getInputStream() throws IOException {
+        if (!doInput) {
+            throw new ProtocolException("Cannot read from URLConnection if doInput=false"
+                                        + " (call setDoInput(true))");
+        }
+        readResponse();
+        if (responseCode == HTTP_NOT_FOUND || responseCode == HTTP_GONE) {
+            throw new FileNotFoundException(url.toString());
+        } else if (responseCode >= HTTP_BAD_REQUEST) {
+            throw new IOException("Server returned HTTP response code: " + responseCode
+                                  + " for URL: " + url);
+        }
+        return responseStream;
+    }
+
+    @Override
+    public synchronized InputStream getErrorStream() {
+        if (statusLine == null || responseCode < HTTP_BAD_REQUEST) {
+            return null;
+        }
+        return responseStream;
+    }
+
+    @Override
+    public synchronized int getResponseCode() throws IOException {
+        readResponse();
+        return responseCode;
+    }
+
+    @Override
+    public synchronized String getResponseMessage() throws IOException {
+        readResponse();
+        return responseMessage;
+    }
+
+    @Override
+    public synchronized String getHeaderField(String name) {
+        if (!tryReadResponse()) {
+            return null;
+        }
+        for (int x = headerKeys.size() - 1; x >= 0; x--) {
+            if (headerKeys.get(x).equalsIgnoreCase(name)) {
+                return headerValues.get(x);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized Map<String, List<String>> getHeaderFields() {
+        tryReadResponse();
+        return headerFields;
+    }
+
+    @Override
+    public synchronized String getHeaderField(int n) {
+        if (!tryReadResponse()) {
+            return null;
+        }
+        if (n == 0) {
+            return statusLine;
+        }
+        return n <= headerValues.size() ? headerValues.get(n - 1) : null;
+    }
+
+    @Override
+    public synchronized String getHeaderFieldKey(int n) {
+        if (!tryReadResponse() || n == 0) {
+            return null;
+        }
+        return n <= headerKeys.size() ? headerKeys.get(n - 1) : null;
+    }
+
+    private boolean tryReadResponse() {
+        try {
+            readResponse();
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private void checkStreamedConnection() throws IOException {
+        if (socket.reused && !socket.isReusable(0)) {
+            //a streamed body cannot be sent again, so make sure the server still has the connection open
+            reconnect();
+        }
+    }
+
+    private void reconnect() throws IOException {
+        //the server closed the idle connection as we reused it, the others will be gone too
+        releaseSocket(false);
+        pool.closeIdle();
+        connected = false;
+        requestSent = false;
+        connect();
+    }
+
+    private void writeHead(long contentLength, boolean chunked) throws IOException {
+        StringBuilder b = new StringBuilder(256);
+        String file = url.getFile();
+        b.append(method).append(' ').append(file.isEmpty() ? "/" : file).append(' ')
+            .append(HTTP_11).append("\r\n");
+        boolean host = false;
+        for (Map.Entry<String, List<String>> entry : requestHeaders.entrySet()) {
+            String key = entry.getKey();
+            if (key == null
+                || HttpHeaderHelper.CONTENT_LENGTH.equalsIgnoreCase(key)
+                || HttpHeaderHelper.TRANSFER_ENCODING.equalsIgnoreCase(key)) {
+                continue;
+            }
+            if ("Host".equalsIgnoreCase(key)) {
+                host = true;
+            } else if (HttpHeaderHelper.CONNECTION.equalsIgnoreCase(key)) {
+                for (String value : entry.getValue()) {
+                    closeAfterResponse |= HttpHeaderHelper.CLOSE.equalsIgnoreCase(value);
+                }
+            }
+            for (String value : entry.getValue()) {
+                b.append(key).append(": ").append(value).append("\r\n");
+            }
+        }
+        if (!host) {
+            b.append("Host: ").append(url.getHost());
+            if (url.getPort() != -1 && url.getPort() != url.getDefaultPort()) {
+                b.append(':').append(url.getPort());
+            }
+            b.append("\r\n");
+        }
+        if (chunked) {
+            b.append("Transfer-Encoding: chunked\r\n");
+        } else if (contentLength >= 0) {
+            b.append("Content-Length: ").append(contentLength).append("\r\n");
+        }
+        b.append("\r\n");
+        socket.out.write(b.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void sendRequest() throws IOException {
+        if (requestSent) {
+            return;
+        }
+        connect();
+        if (requestStream != null) {
+            requestStream.close();
+        } else {
+            replayableBody = new byte[0];
+            writeReplayableBody();
+        }
+    }
+
+    private void writeReplayableBody() throws IOException {
+        try {
+            writeBody(replayableBody, replayableBody.length);
+        } catch (SocketException ex) {
+            if (!socket.reused) {
+                releaseSocket(false);
+                throw ex;
+            }
+            reconnect();
+            writeBody(replayableBody, replayableBody.length);
+        }
+    }
+
+    private void writeBody(byte[] body, int length) throws IOException {
+        boolean expectsBody = !("GET".equals(method) || "HEAD".equals(method)
+            || "DELETE".equals(method) || "OPTIONS".equals(method) || "TRACE".equals(method));
+        writeHead(length > 0 || expectsBody ? length : -1, false);
+        socket.out.write(body, 0, length);
+        socket.out.flush();
+        requestSent = true;
+    }
+
+    private void readResponse() throws IOException {
+        if (statusLine != null) {
+            return;
+        }
+        sendRequest();
+        try {
+            readStatusAndHeaders();
+        } catch (SocketException | EOFException ex) {
+            if (!socket.reused || replayableBody == null) {
+                releaseSocket(false);
+                throw ex;
+            }
+            reconnect();
+            writeBody(replayableBody, replayableBody.length);
+            try {
+                readStatusAndHeaders();
+            } catch (IOException ex2) {
+                releaseSocket(false);
+                throw ex2;
+            }
+        } catch (IOException ex) {
+            releaseSocket(false);
+            throw ex;
+        }
+
+        String version = statusLine.substring(0, statusLine.indexOf(' '));
+        boolean reusable = HTTP_11.equals(version) && !closeAfterResponse
+            && !HttpHeaderHelper.CLOSE.equalsIgnoreCase(getHeaderField(HttpHeaderHelper.CONNECTION));
+        String transferEncoding = getHeaderField(HttpHeaderHelper.TRANSFER_ENCODING);
+        String contentLength = getHeaderField(HttpHeaderHelper.CONTENT_LENGTH);
+        InputStream body;
+        if ("HEAD".equals(method) || responseCode == HTTP_NO_CONTENT || responseCode == HTTP_NOT_MODIFIED) {
+            body = new FixedLengthInputStream(socket.in, 0);
+        } else if (transferEncoding != null
+            && transferEncoding.toLowerCase(Locale.ENGLISH).contains(HttpHeaderHelper.CHUNKED)) {
+            body = new ChunkedInputStream(socket.in);
+        } else if (contentLength != null) {
+            long length;
+            try {
+                length = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException ex) {
+                length = -1;
+            }
+            if (length >= 0) {
+                body = new FixedLengthInputStream(socket.in, length);
+            } else {
+                body = socket.in;
+                reusable = false;
+            }
+        } else {
+            body = socket.in;
+            reusable = false;
+        }
+        responseStream = new ResponseInputStream(body, reusable);
+        responseStream.checkComplete();
+    }
+
+    private void readStatusAndHeaders() throws IOException {
+        InputStream in = socket.in;
+        String status;
+        do {
+            headerKeys.clear();
+            headerValues.clear();
+            String line = readLine(in);
+            if (line == null) {
+                throw new EOFException("Unexpected end of file from server");
+            }
+            int idx = line.indexOf(' ');
+            if (!line.startsWith("HTTP/") || idx == -1) {
+                throw new ProtocolException("Invalid Http response: " + line);
+            }
+            int end = line.indexOf(' ', idx + 1);
+            try {
+                responseCode = Integer.parseInt(end == -1 ? line.substring(idx + 1).trim()
+                                                : line.substring(idx + 1, end));
+            } catch (NumberFormatException ex) {
+                throw new ProtocolException("Invalid Http response: " + line);
+            }
+            responseMessage = end == -1 ? null : line.substring(end + 1).trim();
+            status = line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headerKeys.add(line.substring(0, colon).trim());
+                    headerValues.add(line.substring(colon + 1).trim());
+                }
+            }
+        } while (responseCode >= 100 && responseCode < 200 && responseCode != 101);
+
+        statusLine = status;
+        Map<String, List<String>> fields = new LinkedHashMap<>();
+        fields.put(null, Collections.singletonList(statusLine));
+        for (int x = 0; x < headerKeys.size(); x++) {
+            fields.computeIfAbsent(headerKeys.get(x), k -> new ArrayList<>()).add(headerValues.get(x));
+        }
+        headerFields = Collections.unmodifiableMap(fields);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder b = new StringBuilder(64);
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                b.append((char)c);
+            }
+            c = in.read();
+        }
+        return b.toString();
+    }
+
+    private void releaseSocket(boolean reusable) {
+        if (socket != null) {
+            HttpConnectionPool.PooledSocket s = socket;
+            socket = null;
+            s.release(reusable);
+        }
+    }
+
+    private abstract class RequestOutputStream extends OutputStream {
+        boolean closed;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (PooledHttpURLConnection.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                finish();
+                socket.out.flush();
+                requestSent = true;
+            }
+        }
+
+        protected void checkOpen() throws IOException {
+            if (closed) {
+                throw new IOException("Stream is closed");
+            }
+        }
+
+        protected abstract void finish() throws IOException;
+    }
+
+    private class FixedLengthOutputStream extends RequestOutputStream {
+        private final long length;
+        private long written;
+
+        FixedLengthOutputStream(long length) {
+            this.length = length;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkOpen();
+            if (written + len > length) {
+                throw new IOException("too many bytes written");
+            }
+            socket.out.write(b, off, len);
+            written += len;
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            if (written != length) {
+                releaseSocket(false);
+                throw new IOException("insufficient data written");
+            }
+        }
+    }
+
+    private class ChunkedOutputStream extends RequestOutputStream {
+        private final byte[] chunk;
+        private int count;
+        //the start of the body, kept until it grows beyond the replay limit
+        private ByteArrayOutputStream start = new ByteArrayOutputStream();
+
+        ChunkedOutputStream(int chunkSize) {
+            chunk = new byte[chunkSize];
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkOpen();
+            if (start != null) {
+                if (start.size() + len <= replayLimit) {
+                    start.write(b, off, len);
+                    return;
+                }
+                byte[] buffered = start.toByteArray();
+                start = null;
+                checkStreamedConnection();
+                writeHead(-1, true);
+                writeChunked(buffered, 0, buffered.length);
+            }
+            writeChunked(b, off, len);
+        }
+
+        private void writeChunked(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int n = Math.min(len, chunk.length - count);
+                System.arraycopy(b, off, chunk, count, n);
+                count += n;
+                off += n;
+                len -= n;
+                if (count == chunk.length) {
+                    writeChunk();
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (start != null) {
+                return;
+            }
+            if (!closed && count > 0) {
+                writeChunk();
+            }
+            socket.out.flush();
+        }
+
+        private void writeChunk() throws IOException {
+            socket.out.write((Integer.toHexString(count) + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            socket.out.write(chunk, 0, count);
+            socket.out.write('\r');
+            socket.out.write('\n');
+            count = 0;
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            if (start != null) {
+                //the whole body fits into the replay limit, it is sent with its length
+                replayableBody = start.toByteArray();
+                start = null;
+                writeReplayableBody();
+                return;
+            }
+            if (count > 0) {
+                writeChunk();
+            }
+            socket.out.write("0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    private class BufferedRequestOutputStream extends RequestOutputStream {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final long length;
+
+        BufferedRequestOutputStream(long length) {
+            this.length = length;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkOpen();
+            if (length != -1 && buffer.size() + len > length) {
+                throw new IOException("too many bytes written");
+            }
+            buffer.write(b, off, len);
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            if (length != -1 && buffer.size() != length) {
+                releaseSocket(false);
+                throw new IOException("insufficient data written");
+            }
+            replayableBody = buffer.toByteArray();
+            writeReplayableBody();
+        }
+    }
+
+    private class ResponseInputStream extends InputStream {
+        private final InputStream body;
+        private final boolean reusable;
+        private boolean complete;
+
+        ResponseInputStream(InputStream body, boolean reusable) {
+            this.body = body;
+            this.reusable = reusable;
+        }
+
+        void checkComplete() {
+            if (body instanceof FixedLengthInputStream && ((FixedLengthInputStream)body).remaining == 0) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            if (!complete) {
+                complete = true;
+                synchronized (PooledHttpURLConnection.this) {
+                    releaseSocket(reusable);
+                }
+            }
+        }
+
+        private void abort() {
+            if (!complete) {
+                complete = true;
+                synchronized (PooledHttpURLConnection.this) {
+                    releaseSocket(false);
+                }
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (complete) {
+                return -1;
+            }
+            int c;
+            try {
+                c = body.read();
+            } catch (IOException ex) {
+                //the rest of the response is lost, the connection cannot be reused
+                abort();
+                throw ex;
+            }
+            if (c == -1) {
+                complete();
+            }
+            return c;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (complete) {
+                return -1;
+            }
+            int n;
+            try {
+                n = body.read(b, off, len);
+            } catch (IOException ex) {
+                abort();
+                throw ex;
+            }
+            if (n == -1) {
+                complete();
+            }
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return complete ? 0 : body.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (complete) {
+                return;
+            }
+            if (!reusable || (body instanceof FixedLengthInputStream
+                && ((FixedLengthInputStream)body).remaining > MAX_DRAIN_SIZE)) {
+                abort();
+                return;
+            }
+            //the readers usually stop at the end of the document, read what is left of the
+            //response so that the connection can still be reused
+            byte[] buffer = new byte[4096];
+            int drained = 0;
+            try {
+                int n;
+                while ((n = body.read(buffer, 0, buffer.length)) != -1) {
+                    drained += n;
+                    if (drained > MAX_DRAIN_SIZE) {
+                        abort();
+                        return;
+                    }
+                }
+            } catch (IOException ex) {
+                abort();
+                return;
+            }
+            complete();
+        }
+    }
+
+    private static class FixedLengthInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        FixedLengthInputStream(InputStream in, long length) {
+            this.in = in;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int c = in.read();
+            if (c == -1) {
+                throw new EOFException("Unexpected end of file from server");
+            }
+            remaining--;
+            return c;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int n = in.read(b, off, (int)Math.min(len, remaining));
+            if (n == -1) {
+                throw new EOFException("Unexpected end of file from server");
+            }
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int)Math.min(in.available(), remaining);
+        }
+    }
+
+    private static class ChunkedInputStream extends InputStream {
+        private final InputStream in;
+        private long chunkRemaining;
+        private boolean eof;
+
+        ChunkedInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (eof) {
+                return false;
+            }
+            if (chunkRemaining == 0) {
+                String line = readLine(in);
+                if (line != null && line.isEmpty()) {
+                    //CRLF ending the previous chunk
+                    line = readLine(in);
+                }
+                if (line == null) {
+                    throw new EOFException("Unexpected end of file from server");
+                }
+                int idx = line.indexOf(';');
+                try {
+                    chunkRemaining = Long.parseLong((idx == -1 ? line : line.substring(0, idx)).trim(), 16);
+                } catch (NumberFormatException ex) {
+                    throw new IOException("Invalid chunk size: " + line);
+                }
+                if (chunkRemaining == 0) {
+                    //skip the trailers
+                    while ((line = readLine(in)) != null && !line.isEmpty()) {
+                        //ignore
+                    }
+                    eof = true;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextChunk()) {
+                return -1;
+            }
+            int c = in.read();
+            if (c == -1) {
+                throw new EOFException("Unexpected end of file from server");
+            }
+            chunkRemaining--;
+            return c;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (!nextChunk()) {
+                return -1;
+            }
+            int n = in.read(b, off, (int)Math.min(len, chunkRemaining));
+            if (n == -1) {
+                throw new EOFException("Unexpected end of file from server");
+            }
+            chunkRemaining -= n;
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return eof ? 0 : (int)Math.min(in.available(), chunkRemaining);
+        }
+    }
+}
@@ -34,6 +34,7 @@ import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.util.logging.Level;
 
+import javax.management.JMException;
 import javax.net.ssl.HttpsURLConnection;
 
 import org.apache.cxf.Bus;
@@ -42,6 +43,7 @@ import org.apache.cxf.common.util.SystemPropertyAction;
 import org.apache.cxf.configuration.jsse.TLSClientParameters;
 import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.io.CacheAndWriteOutputStream;
+import org.apache.cxf.management.InstrumentationManager;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.service.model.EndpointInfo;
@@ -76,6 +78,13 @@ public class URLConnectionHTTPConduit extends HTTPConduit {
      */
     protected HttpsURLConnectionFactory connectionFactory;
 
+    /**
+     * The connections used for plain http addresses when the client policy enables
+     * ConnectionPooling, created on first use.
+     */
+    private HttpConnectionPool connectionPool;
+    private HttpConnectionPoolMBeanWrapper connectionPoolMBean;
+
 
     public URLConnectionHTTPConduit(Bus b, EndpointInfo ei) throws IOException {
         super(b, ei);
@@ -105,6 +114,47 @@ public class URLConnectionHTTPConduit extends HTTPConduit {
             }
             //defaultEndpointURL = null;
         }
+        synchronized (this) {
+            if (connectionPool != null) {
+                if (connectionPoolMBean != null) {
+                    try {
+                        bus.getExtension(InstrumentationManager.class).unregister(connectionPoolMBean);
+                    } catch (JMException ex) {
+                        LOG.log(Level.FINE, ex.getMessage(), ex);
+                    }
+                    connectionPoolMBean = null;
+                }
+                connectionPool.close();
+                connectionPool = null;
+            }
+        }
+    }
+
+    /**
+     * @return the connection pool of this conduit, null if ConnectionPooling has not been used
+     */
+    public synchronized HttpConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    private synchronized HttpConnectionPool getConnectionPool(HTTPClientPolicy csPolicy) {
+        if (connectionPool == null) {
+            connectionPool = new HttpConnectionPool();
+            InstrumentationManager manager = bus.getExtension(InstrumentationManager.class);
+            if (manager != null) {
+                try {
+                    connectionPoolMBean = new HttpConnectionPoolMBeanWrapper(connectionPool, getConduitName(), bus);
+                    manager.register(connectionPoolMBean);
+                } catch (JMException ex) {
+                    LOG.log(Level.WARNING, ex.getMessage(), ex);
+                    connectionPoolMBean = null;
+                }
+            }
+        }
+        connectionPool.setMaxPerHost(csPolicy.getMaxConnectionsPerHost());
+        connectionPool.setIdleTimeout(csPolicy.getConnectionIdleTimeout());
+        connectionPool.setValidateAfterInactivity(csPolicy.getValidateAfterInactivity());
+        return connectionPool;
     }
 
     private HttpURLConnection createConnection(Message message, Address address, HTTPClientPolicy csPolicy)
@@ -118,8 +168,16 @@ public class URLConnectionHTTPConduit extends HTTPConduit {
         if (clientParameters == null) {
             clientParameters = tlsClientParameters;
         }
-        return connectionFactory.createConnection(clientParameters,
-                                                  proxy != null ? proxy : address.getDefaultProxy(), url);
+        if (proxy == null) {
+            proxy = address.getDefaultProxy();
+        }
+        if (csPolicy.isConnectionPooling() && "http".equals(uri.getScheme())
+            && proxy != null && proxy.type() == Proxy.Type.DIRECT) {
+            return new PooledHttpURLConnection(url, getConnectionPool(csPolicy),
+                                               csPolicy.getConnectionRequestTimeout(),
+                                               csPolicy.getChunkingThreshold());
+        }
+        return connectionFactory.createConnection(clientParameters, proxy, url);
     }
     protected void setupConnection(Message message, Address address, HTTPClientPolicy csPolicy) throws IOException {
         HttpURLConnection connection = createConnection(message, address, csPolicy);
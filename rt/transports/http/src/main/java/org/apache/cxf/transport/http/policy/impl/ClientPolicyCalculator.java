@@ -70,6 +70,14 @@ public class ClientPolicyCalculator implements PolicyCalculator<HTTPClientPolicy
                   && (p1.getConnectionRequestTimeout() == p2.getConnectionRequestTimeout())
                   && (p1.getReceiveTimeout() == p2.getReceiveTimeout())
                   && StringUtils.equals(p1.getReferer(), p2.getReferer());
+        if (!result) {
+            return false;
+        }
+
+        result &= (p1.isConnectionPooling() == p2.isConnectionPooling())
+                  && (p1.getMaxConnectionsPerHost() == p2.getMaxConnectionsPerHost())
+                  && (p1.getConnectionIdleTimeout() == p2.getConnectionIdleTimeout())
+                  && (p1.getValidateAfterInactivity() == p2.getValidateAfterInactivity());
 
         return result;
     }
@@ -152,6 +160,26 @@ public class ClientPolicyCalculator implements PolicyCalculator<HTTPClientPolicy
         } else if (p2.isSetReceiveTimeout()) {
             p.setReceiveTimeout(p2.getReceiveTimeout());
         }
+        if (p1.isSetConnectionPooling()) {
+            p.setConnectionPooling(p1.isConnectionPooling());
+        } else if (p2.isSetConnectionPooling()) {
+            p.setConnectionPooling(p2.isConnectionPooling());
+        }
+        if (p1.isSetMaxConnectionsPerHost()) {
+            p.setMaxConnectionsPerHost(p1.getMaxConnectionsPerHost());
+        } else if (p2.isSetMaxConnectionsPerHost()) {
+            p.setMaxConnectionsPerHost(p2.getMaxConnectionsPerHost());
+        }
+        if (p1.isSetConnectionIdleTimeout()) {
+            p.setConnectionIdleTimeout(p1.getConnectionIdleTimeout());
+        } else if (p2.isSetConnectionIdleTimeout()) {
+            p.setConnectionIdleTimeout(p2.getConnectionIdleTimeout());
+        }
+        if (p1.isSetValidateAfterInactivity()) {
+            p.setValidateAfterInactivity(p1.getValidateAfterInactivity());
+        } else if (p2.isSetValidateAfterInactivity()) {
+            p.setValidateAfterInactivity(p2.getValidateAfterInactivity());
+        }
 
         return p;
     }
@@ -0,0 +1,472 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class HttpConnectionPoolTest {
+    private ServerSocket serverSocket;
+    private Thread serverThread;
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final List<String> requests = new ArrayList<>();
+    private HttpConnectionPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        serverThread = new Thread(this::serve);
+        serverThread.setDaemon(true);
+        serverThread.start();
+        pool = new HttpConnectionPool();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.close();
+        serverSocket.close();
+    }
+
+    @Test
+    public void testConnectionIsReused() throws Exception {
+        for (int x = 0; x < 5; x++) {
+            PooledHttpURLConnection connection = createConnection("/echo");
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            if (x % 2 == 0) {
+                connection.setFixedLengthStreamingMode(6);
+            }
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(("hello" + x).getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals(200, connection.getResponseCode());
+            assertEquals("6", connection.getHeaderField("content-length"));
+            assertNull(connection.getErrorStream());
+            try (InputStream in = connection.getInputStream()) {
+                assertEquals("hello" + x, IOUtils.toString(in));
+            }
+        }
+        assertEquals(1, pool.getCreated());
+        assertEquals(1, pool.getAvailable());
+        assertEquals(0, pool.getLeased());
+        assertEquals(1, accepted.get());
+    }
+
+    @Test
+    public void testMaxPerHost() throws Exception {
+        pool.setMaxPerHost(1);
+        HttpConnectionPool.HostPool hostPool = pool.getHostPool("127.0.0.1", serverSocket.getLocalPort());
+        HttpConnectionPool.PooledSocket socket = hostPool.lease(5000, 5000, 0);
+        assertEquals(1, pool.getLeased());
+        try {
+            hostPool.lease(5000, 5000, 100);
+            fail("Expected the pool to be exhausted");
+        } catch (SocketTimeoutException ex) {
+            //expected
+        }
+        socket.release(true);
+        assertEquals(0, pool.getLeased());
+        assertEquals(1, pool.getAvailable());
+        hostPool.lease(5000, 5000, 100).release(false);
+        assertEquals(1, pool.getCreated());
+        assertEquals(1, pool.getClosed());
+    }
+
+    @Test
+    public void testChunkedRequestAndResponse() throws Exception {
+        byte[] body = new byte[10000];
+        Arrays.fill(body, (byte)'a');
+        for (int x = 0; x < 2; x++) {
+            PooledHttpURLConnection connection = createConnection("/chunked");
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setChunkedStreamingMode(1024);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+            assertEquals(200, connection.getResponseCode());
+            assertEquals("chunked", connection.getHeaderField("Transfer-Encoding"));
+            try (InputStream in = connection.getInputStream()) {
+                assertEquals(new String(body, StandardCharsets.ISO_8859_1), IOUtils.toString(in));
+            }
+        }
+        assertEquals("POST /chunked chunked 10000", requests.get(0));
+        assertEquals(1, pool.getCreated());
+        assertEquals(1, pool.getAvailable());
+    }
+
+    @Test
+    public void testSmallChunkedBodyIsSentWithLength() throws Exception {
+        PooledHttpURLConnection connection = createConnection("/echo");
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setChunkedStreamingMode(1024);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write("small".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+        try (InputStream in = connection.getInputStream()) {
+            assertEquals("small", IOUtils.toString(in));
+        }
+        assertEquals("POST /echo length 5", requests.get(0));
+    }
+
+    @Test
+    public void testResponsesWithoutBody() throws Exception {
+        PooledHttpURLConnection connection = createConnection("/echo");
+        connection.setRequestMethod("HEAD");
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("5", connection.getHeaderField("Content-Length"));
+        assertEquals(-1, connection.getInputStream().read());
+
+        connection = createConnection("/status/204");
+        assertEquals(204, connection.getResponseCode());
+        assertEquals(-1, connection.getInputStream().read());
+
+        connection = createConnection("/status/304");
+        assertEquals(304, connection.getResponseCode());
+        assertEquals(-1, connection.getInputStream().read());
+
+        //all of them went back to the pool without reading anything
+        assertEquals(1, pool.getCreated());
+        assertEquals(1, pool.getAvailable());
+        assertEquals(0, pool.getLeased());
+    }
+
+    @Test
+    public void testIdleConnectionsExpire() throws Exception {
+        pool.setIdleTimeout(100);
+        get("/echo");
+        assertEquals(1, pool.getAvailable());
+        Thread.sleep(300);
+        get("/echo");
+        assertEquals(2, pool.getCreated());
+        assertEquals(1, pool.getClosed());
+        assertEquals(2, accepted.get());
+    }
+
+    @Test
+    public void testStaleConnectionIsRetried() throws Exception {
+        //the server closes the connection after the response without telling the client
+        pool.setValidateAfterInactivity(-1);
+        get("/close");
+        assertEquals(1, pool.getAvailable());
+        Thread.sleep(100);
+
+        PooledHttpURLConnection connection = createConnection("/echo");
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setChunkedStreamingMode(1024);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write("replayed".getBytes(StandardCharsets.UTF_8));
+        }
+        try (InputStream in = connection.getInputStream()) {
+            assertEquals("replayed", IOUtils.toString(in));
+        }
+        assertEquals(2, pool.getCreated());
+        assertEquals(2, accepted.get());
+    }
+
+    @Test
+    public void testStaleConnectionIsNotUsedForStreamedBody() throws Exception {
+        pool.setValidateAfterInactivity(-1);
+        get("/close");
+        Thread.sleep(100);
+
+        byte[] body = new byte[5000];
+        Arrays.fill(body, (byte)'b');
+        PooledHttpURLConnection connection = createConnection("/echo");
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setChunkedStreamingMode(1024);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        try (InputStream in = connection.getInputStream()) {
+            assertEquals(new String(body, StandardCharsets.ISO_8859_1), IOUtils.toString(in));
+        }
+        assertEquals(2, pool.getCreated());
+        assertEquals("POST /echo chunked 5000", requests.get(1));
+    }
+
+    @Test
+    public void testTruncatedResponseReleasesConnection() throws Exception {
+        PooledHttpURLConnection connection = createConnection("/truncated");
+        try (InputStream in = connection.getInputStream()) {
+            IOUtils.toString(in);
+            fail("Expected the truncated response to fail");
+        } catch (EOFException ex) {
+            //expected
+        }
+        assertEquals(0, pool.getLeased());
+        assertEquals(0, pool.getAvailable());
+        assertEquals(1, pool.getClosed());
+    }
+
+    @Test
+    public void testPartiallyReadResponseIsDrained() throws Exception {
+        byte[] body = new byte[10000];
+        Arrays.fill(body, (byte)'d');
+        for (String path : new String[] {"/echo", "/chunked"}) {
+            PooledHttpURLConnection connection = createConnection(path);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+            try (InputStream in = connection.getInputStream()) {
+                assertEquals('d', in.read());
+            }
+            assertEquals(0, pool.getLeased());
+            assertEquals(1, pool.getAvailable());
+        }
+        get("/echo");
+        assertEquals(1, pool.getCreated());
+        assertEquals(0, pool.getClosed());
+        assertEquals(1, accepted.get());
+    }
+
+    @Test
+    public void testLargeUnreadResponseIsNotDrained() throws Exception {
+        byte[] body = new byte[PooledHttpURLConnection.MAX_DRAIN_SIZE + 1000];
+        Arrays.fill(body, (byte)'e');
+        for (String path : new String[] {"/echo", "/chunked"}) {
+            PooledHttpURLConnection connection = createConnection(path);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+            try (InputStream in = connection.getInputStream()) {
+                assertEquals('e', in.read());
+            }
+            assertEquals(0, pool.getLeased());
+            assertEquals(0, pool.getAvailable());
+        }
+        assertEquals(2, pool.getClosed());
+        assertEquals(2, accepted.get());
+    }
+
+    @Test
+    public void testConduitWithConnectionPooling() throws Exception {
+        Bus bus = new ExtensionManagerBus();
+        EndpointInfo ei = new EndpointInfo();
+        ei.setAddress("http://127.0.0.1:" + serverSocket.getLocalPort() + "/echo");
+        URLConnectionHTTPConduit conduit = new URLConnectionHTTPConduit(bus, ei, null);
+        HTTPClientPolicy client = new HTTPClientPolicy();
+        client.setConnectionPooling(true);
+        client.setChunkingThreshold(1024);
+        client.setReceiveTimeout(5000);
+        conduit.setClient(client);
+        conduit.finalizeConfig();
+        List<String> responses = new ArrayList<>();
+        conduit.setMessageObserver(m -> {
+            try {
+                responses.add(IOUtils.toString(m.getContent(InputStream.class)));
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        try {
+            char[] large = new char[3000];
+            Arrays.fill(large, 'c');
+            String[] bodies = {"first", new String(large), "third"};
+            for (String body : bodies) {
+                Message message = new MessageImpl();
+                Exchange exchange = new ExchangeImpl();
+                exchange.setOutMessage(message);
+                message.setExchange(exchange);
+                message.put(Message.HTTP_REQUEST_METHOD, "POST");
+                message.put(Message.CONTENT_TYPE, "text/plain");
+                conduit.prepare(message);
+                try (OutputStream out = message.getContent(OutputStream.class)) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            assertEquals(Arrays.asList(bodies), responses);
+            assertEquals("POST /echo length 5", requests.get(0));
+            assertEquals("POST /echo chunked 3000", requests.get(1));
+            assertEquals(1, conduit.getConnectionPool().getCreated());
+            assertEquals(1, accepted.get());
+        } finally {
+            conduit.close();
+        }
+    }
+
+    private void get(String path) throws IOException {
+        PooledHttpURLConnection connection = createConnection(path);
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            IOUtils.toString(in);
+        }
+    }
+
+    private PooledHttpURLConnection createConnection(String path) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + serverSocket.getLocalPort() + path);
+        PooledHttpURLConnection connection = new PooledHttpURLConnection(url, pool, 5000, 1024);
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(5000);
+        return connection;
+    }
+
+    private void serve() {
+        try {
+            while (true) {
+                Socket socket = serverSocket.accept();
+                accepted.incrementAndGet();
+                Thread t = new Thread(() -> handle(socket));
+                t.setDaemon(true);
+                t.start();
+            }
+        } catch (IOException ex) {
+            //closed
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket) {
+            InputStream in = s.getInputStream();
+            OutputStream out = s.getOutputStream();
+            String line = readLine(in);
+            while (line != null) {
+                String[] request = line.split(" ");
+                int length = 0;
+                boolean chunked = false;
+                while (!(line = readLine(in)).isEmpty()) {
+                    String header = line.toLowerCase(Locale.ENGLISH);
+                    if (header.startsWith("content-length:")) {
+                        length = Integer.parseInt(line.substring(15).trim());
+                    } else if (header.startsWith("transfer-encoding:") && header.contains("chunked")) {
+                        chunked = true;
+                    }
+                }
+                byte[] body = chunked ? readChunked(in) : readFully(in, length);
+                synchronized (requests) {
+                    requests.add(request[0] + " " + request[1] + (chunked ? " chunked " : " length ")
+                                 + body.length);
+                }
+                String path = request[1];
+                if (path.startsWith("/status/")) {
+                    write(out, "HTTP/1.1 " + path.substring(8) + " No Body\r\n\r\n");
+                } else if ("HEAD".equals(request[0])) {
+                    write(out, "HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\n");
+                } else if ("/truncated".equals(path)) {
+                    write(out, "HTTP/1.1 200 OK\r\nContent-Length: 100\r\n\r\nshort");
+                    return;
+                } else if ("/chunked".equals(path)) {
+                    write(out, "HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nTransfer-Encoding: chunked\r\n\r\n");
+                    for (int off = 0; off < body.length; off += 1000) {
+                        int n = Math.min(1000, body.length - off);
+                        write(out, Integer.toHexString(n) + "\r\n");
+                        out.write(body, off, n);
+                        write(out, "\r\n");
+                    }
+                    write(out, "0\r\n\r\n");
+                } else {
+                    write(out, "HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: " + body.length
+                        + "\r\n\r\n");
+                    out.write(body);
+                }
+                out.flush();
+                if ("/close".equals(path)) {
+                    return;
+                }
+                line = readLine(in);
+            }
+        } catch (IOException ex) {
+            //closed
+        }
+    }
+
+    private static void write(OutputStream out, String s) throws IOException {
+        out.write(s.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static byte[] readChunked(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int size = Integer.parseInt(readLine(in).trim(), 16);
+        while (size > 0) {
+            body.write(readFully(in, size));
+            readLine(in);
+            size = Integer.parseInt(readLine(in).trim(), 16);
+        }
+        readLine(in);
+        return body.toByteArray();
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] b = new byte[length];
+        int read = 0;
+        while (read < length) {
+            int n = in.read(b, read, length - read);
+            if (n == -1) {
+                throw new EOFException();
+            }
+            read += n;
+        }
+        return b;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder b = new StringBuilder();
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                b.append((char)c);
+            }
+            c = in.read();
+        }
+        return b.toString();
+    }
+}
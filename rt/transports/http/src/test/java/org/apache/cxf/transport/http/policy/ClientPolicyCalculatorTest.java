@@ -98,6 +98,29 @@ public class ClientPolicyCalculatorTest {
         assertFalse(calc.equals(p1, p2));
     }
 
+    @Test
+    public void testEqualPoolingClientPolicies() {
+        ClientPolicyCalculator calc = new ClientPolicyCalculator();
+        HTTPClientPolicy p1 = new HTTPClientPolicy();
+        HTTPClientPolicy p2 = new HTTPClientPolicy();
+        p1.setConnectionPooling(true);
+        assertFalse(calc.equals(p1, p2));
+        p2.setConnectionPooling(true);
+        assertTrue(calc.equals(p1, p2));
+        p1.setMaxConnectionsPerHost(20);
+        assertFalse(calc.equals(p1, p2));
+        p2.setMaxConnectionsPerHost(20);
+        assertTrue(calc.equals(p1, p2));
+        p1.setConnectionIdleTimeout(1000L);
+        assertFalse(calc.equals(p1, p2));
+        p2.setConnectionIdleTimeout(1000L);
+        assertTrue(calc.equals(p1, p2));
+        p1.setValidateAfterInactivity(500L);
+        assertFalse(calc.equals(p1, p2));
+        p2.setValidateAfterInactivity(500L);
+        assertTrue(calc.equals(p1, p2));
+    }
+
     @Test
     public void testLongTimeouts() {
         ClientPolicyCalculator calc = new ClientPolicyCalculator();
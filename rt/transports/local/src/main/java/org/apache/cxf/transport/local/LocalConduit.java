@@ -39,7 +39,6 @@ import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
 import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.transport.AbstractConduit;
-import org.apache.cxf.workqueue.SynchronousExecutor;
 
 public class LocalConduit extends AbstractConduit {
 
@@ -106,16 +105,7 @@ public class LocalConduit extends AbstractConduit {
             };
             Executor ex = message.getExchange() != null
                 ? message.getExchange().get(Executor.class) : null;
-            if (ex == null || SynchronousExecutor.isA(ex)) {
-                ex = transportFactory.getExecutor(destination.getBus());
-                if (ex != null) {
-                    ex.execute(receiver);
-                } else {
-                    new Thread(receiver).start();
-                }
-            } else {
-                ex.execute(receiver);
-            }
+            transportFactory.execute(ex, destination.getBus(), receiver);
         }
     }
 
@@ -123,20 +113,29 @@ public class LocalConduit extends AbstractConduit {
     public static final String RESPONSE_CONDUIT = LocalConduit.class.getName() + ".inConduit";
     public static final String IN_EXCHANGE = LocalConduit.class.getName() + ".inExchange";
     public static final String DIRECT_DISPATCH = LocalConduit.class.getName() + ".directDispatch";
+    public static final String OBJECT_DISPATCH = LocalConduit.class.getName() + ".objectDispatch";
     public static final String MESSAGE_FILTER_PROPERTIES = LocalTransportFactory.MESSAGE_FILTER_PROPERTIES;
 
     private static final Logger LOG = LogUtils.getL7dLogger(LocalConduit.class);
 
     private LocalDestination destination;
     private LocalTransportFactory transportFactory;
+    private LocalObjectDispatcher objectDispatcher;
 
     public LocalConduit(LocalTransportFactory transportFactory, LocalDestination destination) {
         super(destination.getAddress());
         this.destination = destination;
         this.transportFactory = transportFactory;
+        this.objectDispatcher = new LocalObjectDispatcher(transportFactory, destination);
     }
 
     public void prepare(final Message message) throws IOException {
+        if (MessageUtils.getContextualBoolean(message, OBJECT_DISPATCH, transportFactory.isObjectDispatch())
+            && !Boolean.TRUE.equals(message.get(Message.INBOUND_MESSAGE))
+            && objectDispatcher.dispatch(message)) {
+            // the logical contents have been handed over, nothing is written
+            return;
+        }
         if (!MessageUtils.getContextualBoolean(message, DIRECT_DISPATCH)) {
             dispatchViaPipe(message);
         } else {
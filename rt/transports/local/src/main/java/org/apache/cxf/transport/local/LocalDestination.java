@@ -39,7 +39,6 @@ import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.AbstractConduit;
 import org.apache.cxf.transport.AbstractDestination;
 import org.apache.cxf.transport.Conduit;
-import org.apache.cxf.workqueue.SynchronousExecutor;
 import org.apache.cxf.ws.addressing.EndpointReferenceType;
 
 public class LocalDestination extends AbstractDestination {
@@ -116,21 +115,7 @@ public class LocalDestination extends AbstractDestination {
                 };
                 Executor ex = message.getExchange() != null
                     ? message.getExchange().get(Executor.class) : null;
-                // Need to avoid to get the SynchronousExecutor
-                if (ex == null || SynchronousExecutor.isA(ex)) {
-                    if (exchange == null) {
-                        ex = localDestinationFactory.getExecutor(bus);
-                    } else {
-                        ex = localDestinationFactory.getExecutor(exchange.getBus());
-                    }
-                    if (ex != null) {
-                        ex.execute(receiver);
-                    } else {
-                        new Thread(receiver).start();
-                    }
-                } else {
-                    ex.execute(receiver);
-                }
+                localDestinationFactory.execute(ex, exchange == null ? bus : exchange.getBus(), receiver);
             }
         }
 
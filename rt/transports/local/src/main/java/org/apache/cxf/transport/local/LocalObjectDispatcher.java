@@ -0,0 +1,296 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.local;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.binding.Binding;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.databinding.DataBinding;
+import org.apache.cxf.endpoint.ClientCallback;
+import org.apache.cxf.endpoint.ClientImpl;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.InterceptorChain;
+import org.apache.cxf.interceptor.OutFaultChainInitiatorObserver;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseChainUtil;
+import org.apache.cxf.service.Service;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.service.model.FaultInfo;
+import org.apache.cxf.service.model.MessageInfo;
+import org.apache.cxf.service.model.OperationInfo;
+import org.apache.cxf.service.model.ServiceModelUtil;
+import org.apache.cxf.transport.ChainInitiationObserver;
+import org.apache.cxf.transport.Destination;
+import org.apache.cxf.transport.MessageObserver;
+
+/**
+ * Hands the logical contents of a message over to a local destination without serializing them.
+ * Only the logical phases of the client and server chains are run, with the chains built by
+ * {@link PhaseChainUtil} the same way the coloc binding does for co-located endpoints, so the dispatch
+ * is only done when both sides use the same data binding and the same part and fault classes, and
+ * when no interceptor or policy needs the wire form.
+ */
+final class LocalObjectDispatcher {
+    private static final Logger LOG = LogUtils.getL7dLogger(LocalObjectDispatcher.class);
+    private static final String ASSERTION_INFO_MAP = "org.apache.cxf.ws.policy.AssertionInfoMap";
+
+    private final LocalTransportFactory transportFactory;
+    private final LocalDestination destination;
+
+    LocalObjectDispatcher(LocalTransportFactory transportFactory, LocalDestination destination) {
+        this.transportFactory = transportFactory;
+        this.destination = destination;
+    }
+
+    /**
+     * Dispatches the message as objects if possible.
+     *
+     * @param message the outbound client message
+     * @return false if the message has to be dispatched in its wire form
+     */
+    boolean dispatch(Message message) {
+        Exchange exchange = message.getExchange();
+        MessageObserver observer = destination.getMessageObserver();
+        if (exchange == null || message.getContent(List.class) == null
+            || !(observer instanceof ChainInitiationObserver)
+            || exchange.get(ClientCallback.class) != null) {
+            // the asynchronous invocations are completed by the client's message observer
+            return false;
+        }
+        BindingOperationInfo boi = exchange.getBindingOperationInfo();
+        Endpoint clientEndpoint = exchange.getEndpoint();
+        Endpoint serverEndpoint = ((ChainInitiationObserver)observer).getEndpoint();
+        if (boi == null || clientEndpoint == null || serverEndpoint == null) {
+            return false;
+        }
+        BindingOperationInfo serverBoi = serverEndpoint.getEndpointInfo().getBinding().getOperation(boi.getName());
+        if (serverBoi == null) {
+            return false;
+        }
+        if (serverBoi.isUnwrapped()) {
+            serverBoi = serverBoi.getWrappedOperation();
+        }
+        if (!isCompatible(clientEndpoint, boi, serverEndpoint, serverBoi)
+            || requiresWireForm(message, serverEndpoint)) {
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine("Operation " + boi.getName() + " dispatched in its wire form.");
+            }
+            return false;
+        }
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("Operation " + boi.getName() + " dispatched as objects.");
+        }
+
+        // the client chain ends here, the objects are handed over to the server chain
+        message.getInterceptorChain().abort();
+        Bus bus = destination.getBus();
+        Bus origBus = BusFactory.getAndSetThreadDefaultBus(bus);
+        try {
+            Exchange serverExchange = invokeServer(message, serverEndpoint, serverBoi, bus);
+            if (!exchange.isOneWay()) {
+                handleResponse(exchange, serverExchange, boi);
+            }
+        } finally {
+            if (origBus != bus) {
+                BusFactory.setThreadDefaultBus(origBus);
+            }
+        }
+        return true;
+    }
+
+    private Exchange invokeServer(Message message, Endpoint endpoint, BindingOperationInfo boi, Bus bus) {
+        Exchange ex = new ExchangeImpl();
+        ex.put(Bus.class, bus);
+        ex.put(Endpoint.class, endpoint);
+        ex.put(Service.class, endpoint.getService());
+        ex.put(Binding.class, endpoint.getBinding());
+        ex.put(BindingOperationInfo.class, boi);
+        ex.put(LocalConduit.IN_EXCHANGE, message.getExchange());
+        ex.setOneWay(message.getExchange().isOneWay());
+        ex.setDestination(destination);
+
+        Message inMsg = endpoint.getBinding().createMessage();
+        transportFactory.copy(message, inMsg);
+        // the contents are handed over as they are
+        MessageImpl.copyContent(message, inMsg);
+        inMsg.put(Message.REQUESTOR_ROLE, Boolean.FALSE);
+        inMsg.put(Message.INBOUND_MESSAGE, Boolean.TRUE);
+        inMsg.put(MessageInfo.class, boi.getOperationInfo().getInput());
+        inMsg.put(Destination.class, destination);
+        ex.setInMessage(inMsg);
+        inMsg.setExchange(ex);
+
+        InterceptorChain chain = PhaseChainUtil.getInInterceptorChain(ex,
+            PhaseChainUtil.getPhases(bus, true, Phase.USER_LOGICAL, Phase.INVOKE), new LogicalOutFaultObserver(bus));
+        inMsg.setInterceptorChain(chain);
+        chain.doIntercept(inMsg);
+
+        Message outMsg = ex.getOutMessage();
+        if (inMsg.getContent(Exception.class) == null && outMsg != null && !ex.isOneWay()) {
+            outMsg.put(MessageInfo.class, boi.getOperationInfo().getOutput());
+            outMsg.put(Message.INBOUND_MESSAGE, Boolean.FALSE);
+            chain = PhaseChainUtil.getOutInterceptorChain(ex,
+                PhaseChainUtil.getPhases(bus, false, Phase.SETUP, Phase.USER_LOGICAL));
+            outMsg.setInterceptorChain(chain);
+            chain.doIntercept(outMsg);
+        }
+        return ex;
+    }
+
+    private void handleResponse(Exchange exchange, Exchange serverExchange, BindingOperationInfo boi) {
+        Message serverIn = serverExchange.getInMessage();
+        Message serverOut = serverExchange.getOutMessage();
+        Exception fault = serverIn.getContent(Exception.class);
+        if (fault == null) {
+            fault = serverExchange.get(Exception.class);
+        }
+        if (fault == null && serverOut != null) {
+            fault = serverOut.getContent(Exception.class);
+        }
+        if (fault == null && serverOut == null) {
+            fault = new Fault(new org.apache.cxf.common.i18n.Message("NO_OBJECT_RESPONSE", LOG,
+                                                                   boi.getName()));
+        }
+
+        Endpoint endpoint = exchange.getEndpoint();
+        Message inMsg = endpoint.getBinding().createMessage();
+        if (serverOut != null) {
+            transportFactory.copy(serverOut, inMsg);
+            MessageImpl.copyContent(serverOut, inMsg);
+        }
+        inMsg.put(Message.REQUESTOR_ROLE, Boolean.TRUE);
+        inMsg.put(Message.INBOUND_MESSAGE, Boolean.TRUE);
+        inMsg.setExchange(exchange);
+
+        if (fault != null) {
+            inMsg.removeContent(List.class);
+            exchange.setInFaultMessage(inMsg);
+            // both sides share the classes, so a declared fault is handed over as it is
+            exchange.put(Exception.class, getDeclaredFault(fault, boi));
+        } else {
+            exchange.setInMessage(inMsg);
+            InterceptorChain chain = PhaseChainUtil.getInInterceptorChain(exchange,
+                PhaseChainUtil.getPhases(exchange.getBus(), true, Phase.USER_LOGICAL, Phase.PRE_INVOKE),
+                new LogicalOutFaultObserver(exchange.getBus()));
+            inMsg.setInterceptorChain(chain);
+            chain.doIntercept(inMsg);
+        }
+        exchange.put(ClientImpl.FINISHED, Boolean.TRUE);
+    }
+
+    private static Exception getDeclaredFault(Exception fault, BindingOperationInfo boi) {
+        Throwable cause = fault instanceof Fault ? fault.getCause() : fault;
+        if (cause instanceof Exception) {
+            for (FaultInfo fi : boi.getOperationInfo().getFaults()) {
+                Class<?> cls = fi.getProperty(Class.class.getName(), Class.class);
+                if (cls != null && cls.isInstance(cause)) {
+                    return (Exception)cause;
+                }
+            }
+        }
+        return fault;
+    }
+
+    private boolean isCompatible(Endpoint clientEndpoint, BindingOperationInfo clientBoi,
+                                 Endpoint serverEndpoint, BindingOperationInfo serverBoi) {
+        DataBinding clientDb = clientEndpoint.getService().getDataBinding();
+        DataBinding serverDb = serverEndpoint.getService().getDataBinding();
+        if (clientDb == null || serverDb == null || clientDb.getClass() != serverDb.getClass()) {
+            return false;
+        }
+        OperationInfo clientOi = clientBoi.getOperationInfo();
+        OperationInfo serverOi = serverBoi.getOperationInfo();
+        // the same part and fault classes imply that both sides share the class loader
+        return clientOi.isOneWay() == serverOi.isOneWay() && ServiceModelUtil.isSameOperationInfo(clientOi, serverOi);
+    }
+
+    private boolean requiresWireForm(Message message, Endpoint serverEndpoint) {
+        if (message.containsKey(ASSERTION_INFO_MAP)) {
+            // the policy assertions are asserted by the interceptors processing the wire form
+            return true;
+        }
+        Set<String> prefixes = transportFactory.getWireFormInterceptors();
+        for (Iterator<Interceptor<? extends Message>> it = message.getInterceptorChain().iterator();
+            it.hasNext();) {
+            if (isWireFormInterceptor(it.next(), prefixes)) {
+                return true;
+            }
+        }
+        return requiresWireForm(serverEndpoint.getInInterceptors(), prefixes)
+            || requiresWireForm(serverEndpoint.getOutInterceptors(), prefixes)
+            || requiresWireForm(serverEndpoint.getService().getInInterceptors(), prefixes)
+            || requiresWireForm(serverEndpoint.getService().getOutInterceptors(), prefixes)
+            || requiresWireForm(serverEndpoint.getBinding().getInInterceptors(), prefixes)
+            || requiresWireForm(serverEndpoint.getBinding().getOutInterceptors(), prefixes)
+            || requiresWireForm(destination.getBus().getInInterceptors(), prefixes)
+            || requiresWireForm(destination.getBus().getOutInterceptors(), prefixes);
+    }
+
+    private static boolean requiresWireForm(List<Interceptor<? extends Message>> interceptors,
+                                            Set<String> prefixes) {
+        for (Interceptor<? extends Message> i : interceptors) {
+            if (isWireFormInterceptor(i, prefixes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWireFormInterceptor(Interceptor<? extends Message> i, Set<String> prefixes) {
+        String name = i.getClass().getName();
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the logical phases of the out fault chain for the faults raised by the in chains.
+     */
+    private static final class LogicalOutFaultObserver extends OutFaultChainInitiatorObserver {
+        private final SortedSet<Phase> phases;
+
+        LogicalOutFaultObserver(Bus bus) {
+            super(bus);
+            phases = PhaseChainUtil.getPhases(bus, false, Phase.SETUP, Phase.USER_LOGICAL);
+        }
+
+        @Override
+        protected SortedSet<Phase> getPhases() {
+            return phases;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Logger;
 
 import org.apache.cxf.Bus;
@@ -42,6 +43,7 @@ import org.apache.cxf.transport.Conduit;
 import org.apache.cxf.transport.ConduitInitiator;
 import org.apache.cxf.transport.Destination;
 import org.apache.cxf.transport.DestinationFactory;
+import org.apache.cxf.workqueue.SynchronousExecutor;
 import org.apache.cxf.workqueue.WorkQueueManager;
 import org.apache.cxf.ws.addressing.AttributedURIType;
 import org.apache.cxf.ws.addressing.EndpointReferenceType;
@@ -77,6 +79,8 @@ public class LocalTransportFactory extends AbstractTransportFactory
     private Set<String> messageIncludeProperties;
     private Set<String> uriPrefixes = new HashSet<>(URI_PREFIXES);
     private volatile Executor executor;
+    private boolean objectDispatch;
+    private Set<String> wireFormInterceptors;
 
     public LocalTransportFactory() {
         super(DEFAULT_NAMESPACES);
@@ -93,6 +97,13 @@ public class LocalTransportFactory extends AbstractTransportFactory
         messageIncludeProperties.add(Message.REQUEST_URI);
         messageIncludeProperties.add(Message.ENDPOINT_ADDRESS);
         messageIncludeProperties.add(Message.HTTP_REQUEST_METHOD);
+
+        wireFormInterceptors = new HashSet<>();
+        wireFormInterceptors.add("org.apache.cxf.ext.logging.");
+        wireFormInterceptors.add("org.apache.cxf.interceptor.Logging");
+        wireFormInterceptors.add("org.apache.cxf.binding.soap.saaj.");
+        wireFormInterceptors.add("org.apache.cxf.ws.security.");
+        wireFormInterceptors.add("org.apache.cxf.rs.security.");
     }
 
     public Destination getDestination(EndpointInfo ei, Bus bus) throws IOException {
@@ -152,6 +163,28 @@ public class LocalTransportFactory extends AbstractTransportFactory
         return executor;
     }
 
+    /**
+     * Runs the task on the executor of the exchange or, if there is none, on the executor of
+     * this factory or the work queue of the bus.  A new thread is only started when there is no
+     * work queue at all or when the work queue rejects the task.
+     */
+    void execute(Executor exchangeExecutor, Bus bus, Runnable task) {
+        Executor ex = exchangeExecutor;
+        // Need to avoid to get the SynchronousExecutor
+        if (ex == null || SynchronousExecutor.isA(ex)) {
+            ex = getExecutor(bus);
+        }
+        if (ex != null) {
+            try {
+                ex.execute(task);
+                return;
+            } catch (RejectedExecutionException e) {
+                LOG.fine("Work queue rejected the local message, starting a new thread.");
+            }
+        }
+        new Thread(task).start();
+    }
+
     public void setExecutor(Executor executor) {
         this.executor = executor;
     }
@@ -194,6 +227,31 @@ public class LocalTransportFactory extends AbstractTransportFactory
         this.messageIncludeProperties = props;
     }
 
+    public boolean isObjectDispatch() {
+        return objectDispatch;
+    }
+
+    /**
+     * Enables handing the logical message contents over to the destination instead of their
+     * serialized form whenever both sides share the data binding and the part classes.
+     * It can also be enabled per client with the LocalConduit.OBJECT_DISPATCH property.
+     */
+    public void setObjectDispatch(boolean objectDispatch) {
+        this.objectDispatch = objectDispatch;
+    }
+
+    public Set<String> getWireFormInterceptors() {
+        return wireFormInterceptors;
+    }
+
+    /**
+     * Sets the class name prefixes of the interceptors which need the wire form of the messages,
+     * the messages of the endpoints using any of them are never dispatched as objects.
+     */
+    public void setWireFormInterceptors(Set<String> prefixes) {
+        this.wireFormInterceptors = prefixes;
+    }
+
 
     public void copy(Message message, Message copy) {
         Set<String> filter = CastUtils.cast((Set<?>)message.get(MESSAGE_FILTER_PROPERTIES));
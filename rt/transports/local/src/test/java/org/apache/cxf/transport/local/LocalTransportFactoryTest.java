@@ -24,6 +24,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.BusFactory;
@@ -39,6 +44,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class LocalTransportFactoryTest {
@@ -52,10 +58,53 @@ public class LocalTransportFactoryTest {
         testInvocation(true);
     }
 
+    @Test
+    public void testLocalTransportWithObjectDispatchFallback() throws Exception {
+        // a message without logical contents is dispatched in its wire form
+        testInvocation(false, true);
+    }
+
+    @Test
+    public void testDispatchOnWorkQueue() throws Exception {
+        LocalTransportFactory factory = new LocalTransportFactory();
+        Bus bus = BusFactory.getDefaultBus();
+        CountDownLatch latch = new CountDownLatch(1);
+        List<String> threads = new ArrayList<>();
+        factory.execute(null, bus, () -> {
+            threads.add(Thread.currentThread().getName());
+            latch.countDown();
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(threads.get(0), threads.get(0).contains("-workqueue-"));
+    }
+
+    @Test
+    public void testDispatchFallsBackToThreadWhenRejected() throws Exception {
+        LocalTransportFactory factory = new LocalTransportFactory();
+        List<Runnable> queued = new ArrayList<>();
+        factory.setExecutor(queued::add);
+        CountDownLatch latch = new CountDownLatch(1);
+        Runnable task = latch::countDown;
+        factory.execute(null, null, task);
+        assertEquals(1, queued.size());
+        assertEquals(1, latch.getCount());
+
+        factory.setExecutor(r -> {
+            throw new RejectedExecutionException();
+        });
+        factory.execute(null, null, task);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
     private void testInvocation(boolean isDirectDispatch) throws Exception {
+        testInvocation(isDirectDispatch, false);
+    }
+
+    private void testInvocation(boolean isDirectDispatch, boolean isObjectDispatch) throws Exception {
         // Need to create a DefaultBus
         Bus bus = BusFactory.getDefaultBus();
         LocalTransportFactory factory = new LocalTransportFactory();
+        factory.setObjectDispatch(isObjectDispatch);
 
         EndpointInfo ei = new EndpointInfo(null, "http://schemas.xmlsoap.org/soap/http");
         ei.setAddress("http://localhost/test");
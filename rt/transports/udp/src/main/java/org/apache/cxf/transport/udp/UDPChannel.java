@@ -0,0 +1,173 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.udp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.i18n.Message;
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * Wraps a non-blocking DatagramChannel that is drained by a single selector thread.  Each
+ * wakeup reads as many queued datagrams as are available, up to the batch size, before
+ * handing them to the handler; that is as close as the JDK gets to recvmmsg.  Sending is
+ * safe from any thread.
+ */
+class UDPChannel implements Runnable, Closeable {
+    /**
+     * The largest payload that fits in a single IPv4 UDP datagram
+     */
+    static final int MAX_DATAGRAM_SIZE = 64 * 1024 - 42;
+    static final int DEFAULT_BATCH_SIZE = 32;
+
+    private static final Logger LOG = LogUtils.getL7dLogger(UDPChannel.class);
+    private static final long SEND_TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+    private static final long SEND_RETRY_DELAY = TimeUnit.MICROSECONDS.toNanos(100);
+
+    interface DatagramHandler {
+        void datagramReceived(SocketAddress from, byte[] data);
+
+        /**
+         * Called by the reader thread after every wakeup, once the datagrams that were read have
+         * been dispatched, or after the select timeout has elapsed without any.
+         */
+        default void selected() {
+        }
+    }
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final DatagramBufferPool bufferPool;
+    private final DatagramHandler handler;
+    private final int batchSize;
+    private long selectTimeout;
+
+    UDPChannel(DatagramChannel channel, DatagramHandler handler) throws IOException {
+        this(channel, new DatagramBufferPool(), DEFAULT_BATCH_SIZE, handler);
+    }
+    UDPChannel(DatagramChannel channel, DatagramBufferPool bufferPool,
+               int batchSize, DatagramHandler handler) throws IOException {
+        this.channel = channel;
+        this.bufferPool = bufferPool;
+        this.batchSize = batchSize;
+        this.handler = handler;
+        channel.configureBlocking(false);
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+    }
+
+    public void run() {
+        ByteBuffer buffer = bufferPool.acquire();
+        List<SocketAddress> senders = new ArrayList<>(batchSize);
+        List<byte[]> datagrams = new ArrayList<>(batchSize);
+        try {
+            while (selector.isOpen()) {
+                selector.select(selectTimeout);
+                selector.selectedKeys().clear();
+                SocketAddress from = null;
+                while (datagrams.size() < batchSize && (from = channel.receive(buffer)) != null) {
+                    buffer.flip();
+                    byte[] data = new byte[buffer.remaining()];
+                    buffer.get(data);
+                    buffer.clear();
+                    senders.add(from);
+                    datagrams.add(data);
+                }
+                for (int x = 0; x < datagrams.size(); x++) {
+                    try {
+                        handler.datagramReceived(senders.get(x), datagrams.get(x));
+                    } catch (RuntimeException ex) {
+                        LOG.log(Level.WARNING, "DATAGRAM_DISPATCH_FAILED", ex);
+                    }
+                }
+                senders.clear();
+                datagrams.clear();
+                handler.selected();
+            }
+        } catch (ClosedSelectorException | ClosedChannelException ex) {
+            //closed
+        } catch (IOException ex) {
+            if (channel.isOpen()) {
+                LOG.log(Level.WARNING, "DATAGRAM_READ_FAILED", ex);
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Sets how long, in milliseconds, the reader thread waits for datagrams before it wakes up
+     * the handler anyway, 0 to wait indefinitely.  Must be set before the channel is run.
+     */
+    void setSelectTimeout(long selectTimeout) {
+        this.selectTimeout = selectTimeout;
+    }
+
+    void send(byte[] data, int off, int len, SocketAddress target) throws IOException {
+        if (len > MAX_DATAGRAM_SIZE) {
+            throw new IOException(new Message("DATAGRAM_TOO_LARGE", LOG, len, MAX_DATAGRAM_SIZE).toString());
+        }
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            buffer.put(data, off, len);
+            buffer.flip();
+            long deadline = 0;
+            while (channel.send(buffer, target) == 0) {
+                //the socket send buffer is full, back off until it drains
+                if (deadline == 0) {
+                    deadline = System.nanoTime() + SEND_TIMEOUT;
+                } else if (System.nanoTime() - deadline > 0) {
+                    throw new SocketTimeoutException(new Message("DATAGRAM_SEND_TIMEOUT", LOG,
+                                                                 target).toString());
+                }
+                LockSupport.parkNanos(SEND_RETRY_DELAY);
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    SocketAddress getLocalAddress() throws IOException {
+        return channel.getLocalAddress();
+    }
+
+    public void close() throws IOException {
+        try {
+            selector.close();
+        } finally {
+            channel.close();
+        }
+    }
+}
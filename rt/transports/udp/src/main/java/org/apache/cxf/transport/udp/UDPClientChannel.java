@@ -0,0 +1,290 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.udp;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.buslifecycle.BusLifeCycleListener;
+import org.apache.cxf.buslifecycle.BusLifeCycleManager;
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * The single unconnected DatagramChannel that every UDPConduit on a Bus uses for unicast
+ * requests.  A response is matched to its request by the WS-Addressing RelatesTo it carries
+ * if the request had a MessageID, otherwise it goes to the oldest outstanding request that
+ * was sent to the address the response came from.
+ */
+final class UDPClientChannel implements UDPChannel.DatagramHandler, BusLifeCycleListener {
+    private static final Logger LOG = LogUtils.getL7dLogger(UDPClientChannel.class);
+    private static final byte[] RELATES_TO = "RelatesTo".getBytes(StandardCharsets.US_ASCII);
+    private static final long EXPIRY_INTERVAL = 1000L;
+
+    private final UDPChannel channel;
+    private final Map<String, PendingRequest> byMessageId = new ConcurrentHashMap<>();
+    private final Map<SocketAddress, Queue<PendingRequest>> byAddress = new ConcurrentHashMap<>();
+    //only used by the reader thread
+    private long nextExpiry;
+
+    UDPClientChannel() throws IOException {
+        DatagramChannel dc = DatagramChannel.open();
+        dc.setOption(StandardSocketOptions.SO_RCVBUF, 64 * 1024);
+        dc.setOption(StandardSocketOptions.SO_SNDBUF, 64 * 1024);
+        dc.bind(null);
+        channel = new UDPChannel(dc, this);
+        channel.setSelectTimeout(EXPIRY_INTERVAL);
+        Thread reader = new Thread(channel, "udp-conduit-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    static UDPClientChannel getInstance(Bus bus) throws IOException {
+        synchronized (bus) {
+            UDPClientChannel clientChannel = bus.getExtension(UDPClientChannel.class);
+            if (clientChannel == null) {
+                clientChannel = new UDPClientChannel();
+                bus.setExtension(clientChannel, UDPClientChannel.class);
+                BusLifeCycleManager lifeCycleManager = bus.getExtension(BusLifeCycleManager.class);
+                if (lifeCycleManager != null) {
+                    lifeCycleManager.registerLifeCycleListener(clientChannel);
+                }
+            }
+            return clientChannel;
+        }
+    }
+
+    /**
+     * Registers interest in the response to a request that is about to be sent.
+     * @param target the address the request is sent to
+     * @param messageId the WS-Addressing MessageID of the request, may be null
+     * @param timeout how long, in milliseconds, to keep waiting for a response
+     * @param callback receives the response datagram
+     */
+    PendingRequest register(SocketAddress target, String messageId, long timeout, Consumer<byte[]> callback) {
+        PendingRequest request = new PendingRequest(target, messageId,
+                                                    System.currentTimeMillis() + timeout, callback);
+        if (messageId != null) {
+            byMessageId.put(messageId, request);
+        }
+        byAddress.compute(target, (a, queue) -> {
+            Queue<PendingRequest> q = queue == null ? new ConcurrentLinkedQueue<>() : queue;
+            q.offer(request);
+            return q;
+        });
+        return request;
+    }
+
+    void cancel(PendingRequest request) {
+        if (request.claimed.compareAndSet(false, true)) {
+            remove(request);
+        }
+    }
+
+    void send(byte[] data, int len, SocketAddress target) throws IOException {
+        channel.send(data, 0, len, target);
+    }
+
+    public void datagramReceived(SocketAddress from, byte[] data) {
+        PendingRequest request = null;
+        String relatesTo = getRelatesTo(data);
+        if (relatesTo == null) {
+            request = claimOldest(from, false);
+        } else {
+            request = byMessageId.get(relatesTo);
+            if (request == null) {
+                //not one of our MessageIDs, the request may not have had one at all
+                request = claimOldest(from, true);
+            } else if (!request.claimed.compareAndSet(false, true)) {
+                //duplicate response
+                request = null;
+            }
+        }
+        if (request == null) {
+            LOG.log(Level.FINE, "UNCORRELATED_DATAGRAM", from);
+            return;
+        }
+        remove(request);
+        request.callback.accept(data);
+    }
+
+    private PendingRequest claimOldest(SocketAddress from, boolean withoutMessageId) {
+        Queue<PendingRequest> queue = byAddress.get(from);
+        if (queue != null) {
+            for (PendingRequest request : queue) {
+                if ((!withoutMessageId || request.messageId == null)
+                    && request.claimed.compareAndSet(false, true)) {
+                    return request;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void remove(PendingRequest request) {
+        if (request.messageId != null) {
+            byMessageId.remove(request.messageId, request);
+        }
+        byAddress.computeIfPresent(request.target, (a, queue) -> {
+            queue.remove(request);
+            return queue.isEmpty() ? null : queue;
+        });
+    }
+
+    /**
+     * Drops the requests that have not been answered in time, at most once per EXPIRY_INTERVAL.
+     * The reader thread wakes up at least that often, so the requests expire even if no more
+     * datagrams arrive and no more requests are sent.
+     */
+    public void selected() {
+        long now = System.currentTimeMillis();
+        if (now >= nextExpiry) {
+            nextExpiry = now + EXPIRY_INTERVAL;
+            expire(now);
+        }
+    }
+
+    private void expire(long now) {
+        for (Map.Entry<SocketAddress, Queue<PendingRequest>> entry : byAddress.entrySet()) {
+            for (Iterator<PendingRequest> it = entry.getValue().iterator(); it.hasNext();) {
+                PendingRequest request = it.next();
+                if (request.expires < now && request.claimed.compareAndSet(false, true)) {
+                    it.remove();
+                    if (request.messageId != null) {
+                        byMessageId.remove(request.messageId, request);
+                    }
+                }
+            }
+            //drop the queues of the targets without outstanding requests
+            byAddress.computeIfPresent(entry.getKey(), (a, queue) -> queue.isEmpty() ? null : queue);
+        }
+    }
+
+    int getTargetCount() {
+        return byAddress.size();
+    }
+
+    int getPendingCount() {
+        int count = 0;
+        for (Queue<PendingRequest> queue : byAddress.values()) {
+            count += queue.size();
+        }
+        return count;
+    }
+
+    /**
+     * Finds the text content of the first RelatesTo element without parsing the message.
+     */
+    static String getRelatesTo(byte[] data) {
+        int idx = indexOf(data, RELATES_TO, 0);
+        while (idx != -1) {
+            int end = idx + RELATES_TO.length;
+            if (idx > 0 && (data[idx - 1] == '<' || data[idx - 1] == ':')
+                && end < data.length && (data[end] == '>' || Character.isWhitespace(data[end]))) {
+                int start = indexOf(data, (byte)'>', end);
+                if (start == -1 || data[start - 1] == '/') {
+                    return null;
+                }
+                int close = indexOf(data, (byte)'<', start + 1);
+                if (close == -1) {
+                    return null;
+                }
+                String value = new String(data, start + 1, close - start - 1, StandardCharsets.UTF_8).trim();
+                return value.isEmpty() ? null : value;
+            }
+            idx = indexOf(data, RELATES_TO, end);
+        }
+        return null;
+    }
+
+    private static int indexOf(byte[] data, byte b, int from) {
+        for (int x = from; x < data.length; x++) {
+            if (data[x] == b) {
+                return x;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern, int from) {
+        for (int x = from; x <= data.length - pattern.length; x++) {
+            if (regionMatches(data, x, pattern)) {
+                return x;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(byte[] data, int offset, byte[] pattern) {
+        for (int y = 0; y < pattern.length; y++) {
+            if (data[offset + y] != pattern[y]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            //ignore
+        }
+        byMessageId.clear();
+        byAddress.clear();
+    }
+
+    public void initComplete() {
+    }
+
+    public void preShutdown() {
+    }
+
+    public void postShutdown() {
+        close();
+    }
+
+    static final class PendingRequest {
+        final SocketAddress target;
+        final String messageId;
+        final long expires;
+        final Consumer<byte[]> callback;
+        final AtomicBoolean claimed = new AtomicBoolean();
+
+        PendingRequest(SocketAddress target, String messageId, long expires, Consumer<byte[]> callback) {
+            this.target = target;
+            this.messageId = messageId;
+            this.expires = expires;
+            this.callback = callback;
+        }
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.cxf.transport.udp;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -29,6 +30,7 @@ import java.net.InetSocketAddress;
 import java.net.InterfaceAddress;
 import java.net.MulticastSocket;
 import java.net.NetworkInterface;
+import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -36,27 +38,23 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.endpoint.ClientImpl;
 import org.apache.cxf.helpers.LoadingByteArrayOutputStream;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
 import org.apache.cxf.transport.AbstractConduit;
 import org.apache.cxf.workqueue.WorkQueue;
 import org.apache.cxf.workqueue.WorkQueueManager;
+import org.apache.cxf.ws.addressing.AddressingProperties;
 import org.apache.cxf.ws.addressing.EndpointReferenceType;
-import org.apache.mina.core.buffer.IoBuffer;
-import org.apache.mina.core.future.ConnectFuture;
-import org.apache.mina.core.service.IoHandlerAdapter;
-import org.apache.mina.core.session.IoSession;
-import org.apache.mina.transport.socket.DatagramSessionConfig;
-import org.apache.mina.transport.socket.nio.NioDatagramConnector;
+import org.apache.cxf.ws.addressing.JAXWSAConstants;
 
 /**
  *
@@ -68,37 +66,34 @@ public class UDPConduit extends AbstractConduit {
      */
     public static final String NETWORK_INTERFACE = UDPConduit.class.getName() + ".NETWORK_INTERFACE";
 
-    private static final String CXF_MESSAGE_ATTR = "CXFMessage";
-    private static final String MULTI_RESPONSE_TIMEOUT = "udp.multi.response.timeout";
-    private static final String HOST_PORT = UDPConduit.class + ".host:port";
+    /**
+     * For broadcast/multicast, the number of milliseconds to collect responses for.  Without it
+     * (or for synchronous invocations) only the first response is read.
+     */
+    public static final String MULTI_RESPONSE_TIMEOUT = "udp.multi.response.timeout";
+
+    /**
+     * For broadcast/multicast with a MULTI_RESPONSE_TIMEOUT, stop collecting as soon as this
+     * many responses have been received rather than waiting for the timeout to expire.
+     */
+    public static final String MULTI_RESPONSE_COUNT = "udp.multi.response.count";
+
     private static final Logger LOG = LogUtils.getL7dLogger(UDPDestination.class);
+    private static final long DEFAULT_RESPONSE_TIMEOUT = 60000L;
 
     Bus bus;
-    NioDatagramConnector connector = new NioDatagramConnector();
-    ConcurrentHashMap<String, Queue<ConnectFuture>> connections
-        = new ConcurrentHashMap<>();
 
     public UDPConduit(EndpointReferenceType t,
                       final Bus bus) {
         super(t);
         this.bus = bus;
-        connector.getSessionConfig().setReadBufferSize(64 * 1024);
-        connector.getSessionConfig().setSendBufferSize(64 * 1024);
-        connector.setHandler(new IoHandlerAdapter() {
-            public void messageReceived(IoSession session, Object buf) {
-                Message message = (Message)session.getAttribute(CXF_MESSAGE_ATTR);
-                dataReceived(message, (IoBuffer)buf, true, false);
-            }
-        });
     }
 
-    private void dataReceived(Message message, IoBuffer buf, boolean async, boolean multi) {
+    private void dataReceived(Message message, InputStream ins, boolean async, boolean multi) {
         synchronized (message.getExchange()) {
             if (message.getExchange().getInMessage() == null) {
                 final Message inMessage = new MessageImpl();
-                IoSessionInputStream ins = new IoSessionInputStream(buf);
                 inMessage.setContent(InputStream.class, ins);
-                inMessage.put(IoSessionInputStream.class, ins);
 
                 message.getExchange().setInMessage(inMessage);
                 inMessage.setExchange(message.getExchange());
@@ -130,46 +125,11 @@ public class UDPConduit extends AbstractConduit {
                     message.getExchange().putAll(mp);
                 }
             } else {
-                IoSessionInputStream ins = message.getExchange().getInMessage().get(IoSessionInputStream.class);
-                ins.setBuffer(buf);
-            }
-        }
-    }
-
-    public void close(Message msg) throws IOException {
-        super.close(msg);
-        if (msg.getExchange().isOneWay()
-            || msg.getExchange().getInMessage() == msg
-            || msg.getExchange().getInFaultMessage() == msg) {
-            String s = (String)msg.getExchange().get(HOST_PORT);
-            ConnectFuture c = msg.getExchange().get(ConnectFuture.class);
-            if (s != null && c != null) {
-                c.getSession().removeAttribute(CXF_MESSAGE_ATTR);
-
-                Queue<ConnectFuture> q = connections.get(s);
-                if (q == null) {
-                    connections.putIfAbsent(s, new ArrayBlockingQueue<ConnectFuture>(10));
-                    q = connections.get(s);
-                }
-                if (!q.offer(c)) {
-                    c.getSession().closeOnFlush();
-                }
-            }
-        }
-    }
-    public void close() {
-        super.close();
-        for (Queue<ConnectFuture> f : connections.values()) {
-            for (ConnectFuture cf : f) {
-                cf.getSession().closeOnFlush();
+                LOG.log(Level.FINE, "DUPLICATE_RESPONSE");
             }
         }
-        connections.clear();
-        connector.dispose();
-        connector = null;
     }
 
-
     public void prepare(final Message message) throws IOException {
         try {
             String address = (String)message.get(Message.ENDPOINT_ADDRESS);
@@ -178,8 +138,10 @@ public class UDPConduit extends AbstractConduit {
             }
             URI uri = new URI(address);
             if (StringUtils.isEmpty(uri.getHost())) {
-                //NIO doesn't support broadcast, we need to drop down to raw
-                //java.io for these
+                //broadcasts and multicasts do not use the shared UDPClientChannel but a java.net
+                //socket bound per request: the responses come from listeners that are not known
+                //up front and may not carry a RelatesTo, so the socket itself is what correlates
+                //them, and the network interface and loopback mode are set per request
                 String s = uri.getSchemeSpecificPart();
                 if (s.startsWith("//:")) {
                     s = s.substring(3);
@@ -195,23 +157,7 @@ public class UDPConduit extends AbstractConduit {
                     sendViaBroadcast(message, isa, isa.getPort());
                     return;
                 }
-
-                final String hp = uri.getHost() + ':' + uri.getPort();
-                Queue<ConnectFuture> q = connections.get(hp);
-                ConnectFuture connFuture = null;
-                if (q != null) {
-                    connFuture = q.poll();
-                }
-                if (connFuture == null) {
-                    connFuture = connector.connect(isa);
-                    connFuture.await();
-                    ((DatagramSessionConfig)connFuture.getSession().getConfig()).setSendBufferSize(64 * 1024);
-                    ((DatagramSessionConfig)connFuture.getSession().getConfig()).setReceiveBufferSize(64 * 1024);
-                }
-                connFuture.getSession().setAttribute(CXF_MESSAGE_ATTR, message);
-                message.setContent(OutputStream.class, new UDPConduitOutputStream(connFuture));
-                message.getExchange().put(ConnectFuture.class, connFuture);
-                message.getExchange().put(HOST_PORT, hp);
+                message.setContent(OutputStream.class, new UDPConduitOutputStream(message, isa));
             }
         } catch (Exception ex) {
             throw new IOException(ex);
@@ -224,6 +170,25 @@ public class UDPConduit extends AbstractConduit {
 
     }
 
+    private static Integer getInteger(Message message, String key) {
+        Object o = message.getContextualProperty(key);
+        if (o instanceof String) {
+            return Integer.parseInt((String)o);
+        } else if (o instanceof Integer) {
+            return (Integer)o;
+        }
+        return null;
+    }
+
+    private static String getMessageId(Message message) {
+        AddressingProperties maps =
+            (AddressingProperties)message.get(JAXWSAConstants.ADDRESSING_PROPERTIES_OUTBOUND);
+        if (maps != null && maps.getMessageID() != null) {
+            return maps.getMessageID().getValue();
+        }
+        return null;
+    }
+
     private final class UDPBroadcastOutputStream extends LoadingByteArrayOutputStream {
         private final int port;
         private final Message message;
@@ -298,31 +263,36 @@ public class UDPConduit extends AbstractConduit {
                 if (!message.getExchange().isOneWay()) {
                     byte[] bytes = new byte[64 * 1024];
                     DatagramPacket p = new DatagramPacket(bytes, bytes.length);
-                    Object to = message.getContextualProperty(MULTI_RESPONSE_TIMEOUT);
-                    Integer i = null;
-                    if (to instanceof String) {
-                        i = Integer.parseInt((String)to);
-                    } else if (to instanceof Integer) {
-                        i = (Integer)to;
-                    }
+                    Integer i = getInteger(message, MULTI_RESPONSE_TIMEOUT);
                     if (i == null || i <= 0 || message.getExchange().isSynchronous()) {
                         socket.setSoTimeout(30000);
                         socket.receive(p);
-                        dataReceived(message, IoBuffer.wrap(bytes, 0, p.getLength()), false, false);
+                        dataReceived(message, new ByteArrayInputStream(bytes, 0, p.getLength()), false, false);
                     } else {
-                        socket.setSoTimeout(i);
-                        boolean found = false;
+                        Integer max = getInteger(message, MULTI_RESPONSE_COUNT);
+                        long deadline = System.currentTimeMillis() + i;
+                        int found = 0;
                         try {
-                            while (true) {
+                            while (max == null || max <= 0 || found < max) {
+                                long remaining = deadline - System.currentTimeMillis();
+                                if (remaining <= 0) {
+                                    break;
+                                }
+                                socket.setSoTimeout((int)remaining);
+                                p.setLength(bytes.length);
                                 socket.receive(p);
-                                dataReceived(message, IoBuffer.wrap(bytes, 0, p.getLength()), false, true);
-                                found = true;
+                                dataReceived(message, new ByteArrayInputStream(bytes, 0, p.getLength()),
+                                             false, true);
+                                found++;
                             }
-                        } catch (java.net.SocketTimeoutException ex) {
-                            if (!found) {
+                        } catch (SocketTimeoutException ex) {
+                            if (found == 0) {
                                 throw ex;
                             }
                         }
+                        if (found == 0) {
+                            throw new SocketTimeoutException("Receive timed out");
+                        }
                     }
                 }
             }
@@ -332,50 +302,39 @@ public class UDPConduit extends AbstractConduit {
         }
     }
 
-    static class UDPConduitOutputStream extends OutputStream {
-        final ConnectFuture future;
-        IoBuffer buffer = IoBuffer.allocate(64 * 1024 - 42); //max size
-        boolean closed;
+    private final class UDPConduitOutputStream extends LoadingByteArrayOutputStream {
+        private final Message message;
+        private final InetSocketAddress target;
+        private boolean closed;
 
-        UDPConduitOutputStream(ConnectFuture connFuture) {
-            this.future = connFuture;
+        private UDPConduitOutputStream(Message message, InetSocketAddress target) {
+            this.message = message;
+            this.target = target;
         }
 
-        public void write(int b) throws IOException {
-            buffer.put(new byte[] {(byte)b}, 0, 1);
-        }
-        public void write(byte[] b, int off, int len) throws IOException {
-            while (len > buffer.remaining()) {
-                int nlen = buffer.remaining();
-                buffer.put(b, off, nlen);
-                len -= nlen;
-                off += nlen;
-                send();
-                buffer = IoBuffer.allocate((64 * 1024) - 42);
-            }
-            buffer.put(b, off, len);
-        }
-        private void send() throws IOException {
-            try {
-                future.await();
-            } catch (InterruptedException e) {
-                if (future.getException() != null) {
-                    throw new IOException(future.getException());
-                }
-                throw new IOException(e);
-            }
-            if (future.getException() != null) {
-                throw new IOException(future.getException());
-            }
-            buffer.flip();
-            future.getSession().write(buffer);
-        }
         public void close() throws IOException {
             if (closed) {
                 return;
             }
             closed = true;
-            send();
+            super.close();
+
+            UDPClientChannel channel = UDPClientChannel.getInstance(bus);
+            UDPClientChannel.PendingRequest request = null;
+            if (!message.getExchange().isOneWay()) {
+                Long timeout = PropertyUtils.getLong(message, ClientImpl.SYNC_TIMEOUT);
+                request = channel.register(target, getMessageId(message),
+                                           timeout == null ? DEFAULT_RESPONSE_TIMEOUT : timeout,
+                    data -> dataReceived(message, new ByteArrayInputStream(data), true, false));
+            }
+            try {
+                channel.send(getRawBytes(), size(), target);
+            } catch (IOException ex) {
+                if (request != null) {
+                    channel.cancel(request);
+                }
+                throw ex;
+            }
         }
     }
 
@@ -28,9 +28,11 @@ import java.net.InetSocketAddress;
 import java.net.InterfaceAddress;
 import java.net.MulticastSocket;
 import java.net.NetworkInterface;
+import java.net.SocketAddress;
 import java.net.SocketException;
-import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
 import java.net.URI;
+import java.nio.channels.DatagramChannel;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
@@ -50,14 +52,6 @@ import org.apache.cxf.transport.Conduit;
 import org.apache.cxf.workqueue.AutomaticWorkQueue;
 import org.apache.cxf.workqueue.WorkQueueManager;
 import org.apache.cxf.ws.addressing.EndpointReferenceType;
-import org.apache.mina.core.buffer.IoBuffer;
-import org.apache.mina.core.future.CloseFuture;
-import org.apache.mina.core.session.AttributeKey;
-import org.apache.mina.core.session.IdleStatus;
-import org.apache.mina.core.session.IoSession;
-import org.apache.mina.handler.stream.StreamIoHandler;
-import org.apache.mina.transport.socket.DatagramSessionConfig;
-import org.apache.mina.transport.socket.nio.NioDatagramAcceptor;
 
 /**
  *
@@ -65,11 +59,15 @@ import org.apache.mina.transport.socket.nio.NioDatagramAcceptor;
 public class UDPDestination extends AbstractDestination {
     public static final String NETWORK_INTERFACE = UDPDestination.class.getName() + ".NETWORK_INTERFACE";
 
+    /**
+     * The maximum number of datagrams read from the channel on each selector wakeup
+     * before they are dispatched.
+     */
+    public static final String READ_BATCH_SIZE = UDPDestination.class.getName() + ".READ_BATCH_SIZE";
+
     private static final Logger LOG = LogUtils.getL7dLogger(UDPDestination.class);
-    private static final AttributeKey KEY_IN = new AttributeKey(StreamIoHandler.class, "in");
-    private static final AttributeKey KEY_OUT = new AttributeKey(StreamIoHandler.class, "out");
 
-    NioDatagramAcceptor acceptor;
+    UDPChannel channel;
     AutomaticWorkQueue queue;
     volatile MulticastSocket mcast;
 
@@ -171,16 +169,14 @@ public class UDPDestination extends AbstractDestination {
                 mcast = socket;
                 queue.execute(new MCastListener());
             } else {
-
-                acceptor = new NioDatagramAcceptor();
-                acceptor.setHandler(new UDPIOHandler());
-
-                acceptor.setDefaultLocalAddress(isa);
-                DatagramSessionConfig dcfg = acceptor.getSessionConfig();
-                dcfg.setReadBufferSize(64 * 1024);
-                dcfg.setSendBufferSize(64 * 1024);
-                dcfg.setReuseAddress(true);
-                acceptor.bind();
+                DatagramChannel dc = DatagramChannel.open();
+                dc.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+                dc.setOption(StandardSocketOptions.SO_RCVBUF, 64 * 1024);
+                dc.setOption(StandardSocketOptions.SO_SNDBUF, 64 * 1024);
+                dc.bind(isa);
+                channel = new UDPChannel(dc, new DatagramBufferPool(), getReadBatchSize(),
+                                         this::datagramReceived);
+                queue.execute(channel);
             }
         } catch (RuntimeException e) {
             throw e;
@@ -188,6 +184,27 @@ public class UDPDestination extends AbstractDestination {
             throw new RuntimeException(ex);
         }
     }
+    private int getReadBatchSize() {
+        Object size = this.getEndpointInfo().getProperty(READ_BATCH_SIZE);
+        if (size instanceof String) {
+            return Integer.parseInt((String)size);
+        } else if (size instanceof Integer) {
+            return (Integer)size;
+        }
+        return UDPChannel.DEFAULT_BATCH_SIZE;
+    }
+
+    private void datagramReceived(SocketAddress from, byte[] data) {
+        final MessageImpl m = new MessageImpl();
+        final Exchange exchange = new ExchangeImpl();
+        exchange.setDestination(UDPDestination.this);
+        m.setDestination(UDPDestination.this);
+        exchange.setInMessage(m);
+        m.setContent(InputStream.class, new ByteArrayInputStream(data));
+        m.put(OutputStream.class, new UDPDestinationOutputStream(channel, from));
+        queue.execute(() -> getMessageObserver().onMessage(m));
+    }
+
     private NetworkInterface findNetworkInterface() throws SocketException {
         String name = (String)this.getEndpointInfo().getProperty(UDPDestination.NETWORK_INTERFACE);
         NetworkInterface ret = null;
@@ -217,137 +234,37 @@ public class UDPDestination extends AbstractDestination {
     }
 
     protected void deactivate() {
-        if (acceptor != null) {
-            acceptor.unbind();
-            acceptor.dispose();
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                //ignore
+            }
         }
-        acceptor = null;
+        channel = null;
         if (mcast != null) {
             mcast.close();
             mcast = null;
         }
     }
 
-    class UDPIOHandler extends StreamIoHandler {
-
-        @Override
-        public void sessionOpened(IoSession session) {
-            // Set timeouts
-            session.getConfig().setWriteTimeout(getWriteTimeout());
-            session.getConfig().setIdleTime(IdleStatus.READER_IDLE, getReadTimeout());
-
-            // Create streams
-            InputStream in = new IoSessionInputStream();
-            OutputStream out = new IoSessionOutputStream(session) {
-                @Override
-                public void close() throws IOException {
-                    try {
-                        flush();
-                    } finally {
-                        CloseFuture future = session.closeNow();
-                        future.awaitUninterruptibly();
-                    }
-                }  
-            };
-            session.setAttribute(KEY_IN, in);
-            session.setAttribute(KEY_OUT, out);
-            processStreamIo(session, in, out);
-        }
-
-        protected void processStreamIo(IoSession session, InputStream in, OutputStream out) {
-            final MessageImpl m = new MessageImpl();
-            final Exchange exchange = new ExchangeImpl();
-            exchange.setDestination(UDPDestination.this);
-            m.setDestination(UDPDestination.this);
-            exchange.setInMessage(m);
-            m.setContent(InputStream.class, in);
-            out = new UDPDestinationOutputStream(out);
-            m.put(OutputStream.class, out);
-            queue.execute(() -> getMessageObserver().onMessage(m));
-        }
-
-        public void sessionClosed(IoSession session) throws Exception {
-            final InputStream in = (InputStream) session.getAttribute(KEY_IN);
-            final OutputStream out = (OutputStream) session.getAttribute(KEY_OUT);
-            try {
-                in.close();
-            } finally {
-                out.close();
-            }
-        }
-
-        public void messageReceived(IoSession session, Object buf) {
-            final IoSessionInputStream in = (IoSessionInputStream) session
-                    .getAttribute(KEY_IN);
-            in.setBuffer((IoBuffer) buf);
-        }
-
-        public void exceptionCaught(IoSession session, Throwable cause) {
-            final IoSessionInputStream in = (IoSessionInputStream) session
-                    .getAttribute(KEY_IN);
-
-            IOException e = null;
-            if (cause instanceof StreamIoException) {
-                e = (IOException) cause.getCause();
-            } else if (cause instanceof IOException) {
-                e = (IOException) cause;
-            }
-
-            if (e != null && in != null) {
-                in.throwException(e);
-            } else {
-                session.closeOnFlush().awaitUninterruptibly();
-            }
-        }
-        public void sessionIdle(IoSession session, IdleStatus status) {
-            if (status == IdleStatus.READER_IDLE) {
-                throw new StreamIoException(new SocketTimeoutException(
-                        "Read timeout"));
-            }
-        }
-    }
-    private static class StreamIoException extends RuntimeException {
-        private static final long serialVersionUID = 3976736960742503222L;
-
-        StreamIoException(IOException cause) {
-            super(cause);
-        }
-    }
-
-    static class UDPDestinationOutputStream extends OutputStream {
-        final OutputStream out;
-        IoBuffer buffer = IoBuffer.allocate(64 * 1024 - 42); //max size
+    static class UDPDestinationOutputStream extends LoadingByteArrayOutputStream {
+        final UDPChannel channel;
+        final SocketAddress target;
         boolean closed;
 
-        UDPDestinationOutputStream(OutputStream out) {
-            this.out = out;
+        UDPDestinationOutputStream(UDPChannel channel, SocketAddress target) {
+            this.channel = channel;
+            this.target = target;
         }
 
-        public void write(int b) throws IOException {
-            buffer.put(new byte[] {(byte)b}, 0, 1);
-        }
-        public void write(byte[] b, int off, int len) throws IOException {
-            while (len > buffer.remaining()) {
-                int nlen = buffer.remaining();
-                buffer.put(b, off, nlen);
-                len -= nlen;
-                off += nlen;
-                send();
-                buffer = IoBuffer.allocate((64 * 1024) - 42);
-            }
-            buffer.put(b, off, len);
-        }
-        private void send() throws IOException {
-            buffer.flip();
-            out.write(buffer.array(), 0, buffer.limit());
-        }
         public void close() throws IOException {
             if (closed) {
                 return;
             }
             closed = true;
-            send();
-            out.close();
+            super.close();
+            channel.send(getRawBytes(), 0, size(), target);
         }
     }
 
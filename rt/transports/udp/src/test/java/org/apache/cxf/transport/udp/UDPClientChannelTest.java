@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.udp;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class UDPClientChannelTest {
+    private UDPClientChannel clientChannel;
+    private DatagramChannel server;
+    private InetSocketAddress serverAddress;
+
+    @Before
+    public void setUp() throws Exception {
+        clientChannel = new UDPClientChannel();
+        server = DatagramChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        serverAddress = (InetSocketAddress)server.getLocalAddress();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        clientChannel.close();
+        server.close();
+    }
+
+    @Test
+    public void testGetRelatesTo() {
+        assertEquals("urn:uuid:1234", UDPClientChannel.getRelatesTo(bytes(
+            "<soap:Header><wsa:RelatesTo RelationshipType=\"x\"> urn:uuid:1234 </wsa:RelatesTo>"
+            + "</soap:Header>")));
+        assertEquals("urn:uuid:5678", UDPClientChannel.getRelatesTo(bytes(
+            "<Header><RelatesTo>urn:uuid:5678</RelatesTo></Header>")));
+        assertNull(UDPClientChannel.getRelatesTo(bytes("<Header><wsa:RelatesTo/></Header>")));
+        assertNull(UDPClientChannel.getRelatesTo(bytes("<Body><RelatesToSomething>x</RelatesToSomething>")));
+        assertNull(UDPClientChannel.getRelatesTo(bytes("<Body>no addressing here</Body>")));
+    }
+
+    @Test
+    public void testCorrelateByMessageId() throws Exception {
+        Map<String, String> responses = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        for (String id : new String[] {"urn:a", "urn:b"}) {
+            clientChannel.register(serverAddress, id, 10000, data -> {
+                responses.put(id, new String(data, StandardCharsets.UTF_8));
+                latch.countDown();
+            });
+            byte[] request = bytes(id);
+            clientChannel.send(request, request.length, serverAddress);
+        }
+        SocketAddress client = receive();
+        receive();
+
+        //answer out of order
+        reply("<RelatesTo>urn:b</RelatesTo>", client);
+        reply("<RelatesTo>urn:a</RelatesTo>", client);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals("<RelatesTo>urn:a</RelatesTo>", responses.get("urn:a"));
+        assertEquals("<RelatesTo>urn:b</RelatesTo>", responses.get("urn:b"));
+        assertEquals(0, clientChannel.getPendingCount());
+        assertEquals(0, clientChannel.getTargetCount());
+    }
+
+    @Test
+    public void testCorrelateByAddress() throws Exception {
+        Map<Integer, String> responses = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        for (int x = 0; x < 2; x++) {
+            final int idx = x;
+            clientChannel.register(serverAddress, null, 10000, data -> {
+                responses.put(idx, new String(data, StandardCharsets.UTF_8));
+                latch.countDown();
+            });
+            byte[] request = bytes("request" + x);
+            clientChannel.send(request, request.length, serverAddress);
+        }
+        SocketAddress client = receive();
+        receive();
+
+        reply("first", client);
+        reply("second", client);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals("first", responses.get(0));
+        assertEquals("second", responses.get(1));
+        assertEquals(0, clientChannel.getPendingCount());
+        assertEquals(0, clientChannel.getTargetCount());
+    }
+
+    @Test
+    public void testExpireWithoutTraffic() throws Exception {
+        clientChannel.register(serverAddress, "urn:c", 1, data -> { });
+        clientChannel.register(serverAddress, null, 1, data -> { });
+        clientChannel.register(new InetSocketAddress(InetAddress.getLoopbackAddress(), 9), null, 1, data -> { });
+        assertEquals(3, clientChannel.getPendingCount());
+        assertEquals(2, clientChannel.getTargetCount());
+
+        //nothing is sent or received, the reader thread expires them on its own
+        long deadline = System.currentTimeMillis() + 10000;
+        while ((clientChannel.getPendingCount() > 0 || clientChannel.getTargetCount() > 0)
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, clientChannel.getPendingCount());
+        assertEquals(0, clientChannel.getTargetCount());
+    }
+
+    @Test
+    public void testBufferPool() {
+        DatagramBufferPool pool = new DatagramBufferPool(1);
+        ByteBuffer b1 = pool.acquire();
+        ByteBuffer b2 = pool.acquire();
+        assertTrue(b1.isDirect());
+        assertEquals(DatagramBufferPool.BUFFER_SIZE, b1.capacity());
+        pool.release(b1);
+        pool.release(b2);
+        assertEquals(1, pool.getPooledCount());
+        assertTrue(b1 == pool.acquire());
+        assertEquals(0, pool.getPooledCount());
+    }
+
+    private SocketAddress receive() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        return server.receive(buffer);
+    }
+
+    private void reply(String s, SocketAddress client) throws Exception {
+        server.send(ByteBuffer.wrap(bytes(s)), client);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -29,11 +29,14 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+import javax.xml.transform.dom.DOMSource;
 
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
@@ -45,6 +48,7 @@ import org.apache.cxf.binding.soap.SoapFault;
 import org.apache.cxf.binding.soap.SoapHeader;
 import org.apache.cxf.binding.soap.SoapMessage;
 import org.apache.cxf.binding.soap.SoapVersion;
+import org.apache.cxf.binding.soap.StreamedSoapHeader;
 import org.apache.cxf.binding.soap.interceptor.AbstractSoapInterceptor;
 import org.apache.cxf.binding.soap.interceptor.SoapActionInInterceptor;
 import org.apache.cxf.common.jaxb.JAXBUtils;
@@ -59,6 +63,7 @@ import org.apache.cxf.message.Exchange;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.phase.Phase;
+import org.apache.cxf.staxutils.StaxSource;
 import org.apache.cxf.ws.addressing.AddressingProperties;
 import org.apache.cxf.ws.addressing.AttributedURIType;
 import org.apache.cxf.ws.addressing.ContextUtils;
@@ -494,97 +499,108 @@ public class MAPCodec extends AbstractSoapInterceptor {
             List<Header> header = message.getHeaders();
             if (header != null) {
                 LOG.log(Level.FINE, "Inbound WS-Addressing headers");
-                Set<Element> referenceParameterHeaders = null;
+                Set<Header> referenceParameterHeaders = null;
                 QName invalidCardinalityQName = null;
                 Iterator<Header> iter = header.iterator();
                 while (iter.hasNext()) {
                     Header hdr = iter.next();
-                    if (hdr.getObject() instanceof Element) {
-                        Element headerElement = (Element)hdr.getObject();
-                        String headerURI = headerElement.getNamespaceURI();
-                        // Need to check the uri before getting unmarshaller else
-                        // would get wrong unmarshaller and fail to process required
-                        // headers.
-                        if (org.apache.cxf.ws.addressing.VersionTransformer.isSupported(headerURI)) {
-                            if (unmarshaller == null) {
-                                JAXBContext jaxbContext =
-                                    org.apache.cxf.ws.addressing.VersionTransformer.getExposedJAXBContext(headerURI);
-                                unmarshaller =
-                                    jaxbContext.createUnmarshaller();
-                                unmarshaller.setEventHandler(null);
-                            }
-                            if (maps == null) {
-                                maps = new AddressingProperties();
-                                maps.exposeAs(headerURI);
-                            }
-                            String localName = headerElement.getLocalName();
-                            if (Names.WSA_MESSAGEID_NAME.equals(localName)) {
-                                invalidCardinalityQName = maps.getMessageID() != null
-                                    ? Names.WSA_MESSAGEID_QNAME : null;
-                                maps.setMessageID(decodeAsNative(
-                                                       headerURI,
-                                                       AttributedURIType.class,
-                                                       headerElement,
-                                                       unmarshaller));
-                            } else if (Names.WSA_TO_NAME.equals(localName)) {
-                                invalidCardinalityQName = maps.getTo() != null ? Names.WSA_TO_QNAME : null;
-                                AttributedURIType addr = decodeAsNative(
-                                                       headerURI,
-                                                       AttributedURIType.class,
-                                                       headerElement,
-                                                       unmarshaller);
-                                maps.setTo(EndpointReferenceUtils.getEndpointReference(addr));
-                            } else if (Names.WSA_FROM_NAME.equals(localName)) {
-                                invalidCardinalityQName = maps.getFrom() != null
-                                    ? Names.WSA_FROM_QNAME : null;
-                                maps.setFrom(decodeAsNative(
-                                                       headerURI,
-                                                       EndpointReferenceType.class,
-                                                       headerElement,
-                                                       unmarshaller));
-                            } else if (Names.WSA_REPLYTO_NAME.equals(localName)) {
-                                invalidCardinalityQName = maps.getReplyTo() != null
-                                                                   ? Names.WSA_REPLYTO_QNAME : null;
-
-                                maps.setReplyTo(decodeAsNative(
-                                                       headerURI,
-                                                       EndpointReferenceType.class,
-                                                       headerElement,
-                                                       unmarshaller));
-                            } else if (Names.WSA_FAULTTO_NAME.equals(localName)) {
-                                invalidCardinalityQName = maps.getFaultTo() != null
-                                    ? Names.WSA_FAULTTO_QNAME : null;
-
-                                maps.setFaultTo(decodeAsNative(
-                                                       headerURI,
-                                                       EndpointReferenceType.class,
-                                                       headerElement,
-                                                       unmarshaller));
-                            } else if (Names.WSA_RELATESTO_NAME.equals(localName)) {
-                                maps.setRelatesTo(decodeAsNative(
-                                                       headerURI,
-                                                       RelatesToType.class,
-                                                       headerElement,
-                                                       unmarshaller));
-                            } else if (Names.WSA_ACTION_NAME.equals(localName)) {
-                                invalidCardinalityQName = maps.getAction() != null
-                                    ? Names.WSA_ACTION_QNAME : null;
-                                maps.setAction(decodeAsNative(
-                                                       headerURI,
-                                                       AttributedURIType.class,
-                                                       headerElement,
-                                                       unmarshaller));
-                            }
-                        } else if (null != headerElement.getAttribute(IS_REFERENCE_PARAM_ATTR_NAME)) {
-                            if (null == referenceParameterHeaders) {
-                                referenceParameterHeaders = new HashSet<>();
-                            }
-                            referenceParameterHeaders.add(headerElement);
-                        } else if (headerURI.contains(Names.WSA_NAMESPACE_PATTERN)) {
-                            LOG.log(Level.WARNING,
-                                    "UNSUPPORTED_VERSION_MSG",
-                                    headerURI);
+                    Element headerElement = null;
+                    String headerURI;
+                    String localName;
+                    if (isStreamed(hdr)) {
+                        // the header is decoded from its serialized form, no DOM is built
+                        headerURI = hdr.getName().getNamespaceURI();
+                        localName = hdr.getName().getLocalPart();
+                    } else if (hdr.getObject() instanceof Element) {
+                        headerElement = (Element)hdr.getObject();
+                        headerURI = headerElement.getNamespaceURI();
+                        localName = headerElement.getLocalName();
+                    } else {
+                        continue;
+                    }
+                    // Need to check the uri before getting unmarshaller else
+                    // would get wrong unmarshaller and fail to process required
+                    // headers.
+                    if (org.apache.cxf.ws.addressing.VersionTransformer.isSupported(headerURI)) {
+                        if (unmarshaller == null) {
+                            JAXBContext jaxbContext =
+                                org.apache.cxf.ws.addressing.VersionTransformer.getExposedJAXBContext(headerURI);
+                            unmarshaller =
+                                jaxbContext.createUnmarshaller();
+                            unmarshaller.setEventHandler(null);
+                        }
+                        if (maps == null) {
+                            maps = new AddressingProperties();
+                            maps.exposeAs(headerURI);
+                        }
+                        if (Names.WSA_MESSAGEID_NAME.equals(localName)) {
+                            invalidCardinalityQName = maps.getMessageID() != null
+                                ? Names.WSA_MESSAGEID_QNAME : null;
+                            maps.setMessageID(decodeHeader(headerURI,
+                                                   AttributedURIType.class,
+                                                   hdr,
+                                                   headerElement,
+                                                   unmarshaller));
+                        } else if (Names.WSA_TO_NAME.equals(localName)) {
+                            invalidCardinalityQName = maps.getTo() != null ? Names.WSA_TO_QNAME : null;
+                            AttributedURIType addr = decodeHeader(headerURI,
+                                                   AttributedURIType.class,
+                                                   hdr,
+                                                   headerElement,
+                                                   unmarshaller);
+                            maps.setTo(EndpointReferenceUtils.getEndpointReference(addr));
+                        } else if (Names.WSA_FROM_NAME.equals(localName)) {
+                            invalidCardinalityQName = maps.getFrom() != null
+                                ? Names.WSA_FROM_QNAME : null;
+                            maps.setFrom(decodeHeader(headerURI,
+                                                   EndpointReferenceType.class,
+                                                   hdr,
+                                                   headerElement,
+                                                   unmarshaller));
+                        } else if (Names.WSA_REPLYTO_NAME.equals(localName)) {
+                            invalidCardinalityQName = maps.getReplyTo() != null
+                                                               ? Names.WSA_REPLYTO_QNAME : null;
+
+                            maps.setReplyTo(decodeHeader(headerURI,
+                                                   EndpointReferenceType.class,
+                                                   hdr,
+                                                   headerElement,
+                                                   unmarshaller));
+                        } else if (Names.WSA_FAULTTO_NAME.equals(localName)) {
+                            invalidCardinalityQName = maps.getFaultTo() != null
+                                ? Names.WSA_FAULTTO_QNAME : null;
+
+                            maps.setFaultTo(decodeHeader(headerURI,
+                                                   EndpointReferenceType.class,
+                                                   hdr,
+                                                   headerElement,
+                                                   unmarshaller));
+                        } else if (Names.WSA_RELATESTO_NAME.equals(localName)) {
+                            maps.setRelatesTo(decodeHeader(headerURI,
+                                                   RelatesToType.class,
+                                                   hdr,
+                                                   headerElement,
+                                                   unmarshaller));
+                        } else if (Names.WSA_ACTION_NAME.equals(localName)) {
+                            invalidCardinalityQName = maps.getAction() != null
+                                ? Names.WSA_ACTION_QNAME : null;
+                            maps.setAction(decodeHeader(headerURI,
+                                                   AttributedURIType.class,
+                                                   hdr,
+                                                   headerElement,
+                                                   unmarshaller));
+                        }
+                    } else if (headerElement == null
+                        ? isReferenceParameter((StreamedSoapHeader)hdr)
+                        : null != headerElement.getAttribute(IS_REFERENCE_PARAM_ATTR_NAME)) {
+                        if (null == referenceParameterHeaders) {
+                            referenceParameterHeaders = new HashSet<>();
                         }
+                        referenceParameterHeaders.add(hdr);
+                    } else if (headerURI.contains(Names.WSA_NAMESPACE_PATTERN)) {
+                        LOG.log(Level.WARNING,
+                                "UNSUPPORTED_VERSION_MSG",
+                                headerURI);
                     }
                 }
 
@@ -621,13 +637,14 @@ public class MAPCodec extends AbstractSoapInterceptor {
         ContextUtils.storeMAPFaultReason(reason, message);
     }
 
-    private void decodeReferenceParameters(Set<Element> referenceParameterHeaders,
+    private void decodeReferenceParameters(Set<Header> referenceParameterHeaders,
                                            AddressingProperties maps,
                                            Unmarshaller unmarshaller)
         throws JAXBException {
         EndpointReferenceType toEpr = maps.getToEndpointReference();
         if (null != toEpr) {
-            for (Element e : referenceParameterHeaders) {
+            for (Header hdr : referenceParameterHeaders) {
+                Element e = (Element)hdr.getObject();
                 if (DOMUtils.getChild(e, Node.ELEMENT_NODE) == null) {
                     JAXBElement<String> el = unmarshaller.unmarshal(e, String.class);
                     ContextUtils.applyReferenceParam(toEpr, el);
@@ -662,6 +679,59 @@ public class MAPCodec extends AbstractSoapInterceptor {
         return value;
     }
 
+    private <T> T decodeHeader(String encodedAs,
+                               Class<T> clz,
+                               Header hdr,
+                               Element headerElement,
+                               Unmarshaller unmarshaller)
+        throws JAXBException {
+        if (headerElement != null) {
+            return decodeAsNative(encodedAs, clz, headerElement, unmarshaller);
+        }
+        StreamedSoapHeader streamedHeader = (StreamedSoapHeader)hdr;
+        T value;
+        if (AttributedURIType.class.equals(clz) && Names.WSA_NAMESPACE_NAME.equals(encodedAs)
+            && streamedHeader.getText() != null && !hasXsiAttributes(streamedHeader)) {
+            // the simple text headers such as wsa:Action or wsa:MessageID do not need JAXB
+            AttributedURIType uri = new AttributedURIType();
+            uri.setValue(streamedHeader.getText());
+            uri.getOtherAttributes().putAll(streamedHeader.getAttributes());
+            value = clz.cast(uri);
+        } else {
+            value = clz.cast(transformer.decodeAsNative(encodedAs,
+                                                        clz,
+                                                        streamedHeader.getSource(),
+                                                        unmarshaller));
+        }
+        LOG.log(Level.FINE,
+                "{0} : {1}",
+                new Object[] {hdr.getName().getLocalPart(), getLogText(value)});
+        return value;
+    }
+
+    private static boolean isStreamed(Header hdr) {
+        return hdr instanceof StreamedSoapHeader && !((StreamedSoapHeader)hdr).isMaterialized();
+    }
+
+    private static boolean isReferenceParameter(StreamedSoapHeader hdr) {
+        for (Map.Entry<QName, String> attr : hdr.getAttributes().entrySet()) {
+            if (IS_REFERENCE_PARAM_ATTR_NAME.equals(attr.getKey().getLocalPart())) {
+                String value = attr.getValue().trim();
+                return "true".equals(value) || "1".equals(value);
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasXsiAttributes(StreamedSoapHeader hdr) {
+        for (QName name : hdr.getAttributes().keySet()) {
+            if (XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI.equals(name.getNamespaceURI())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Return a text representation of a header value for logging.
      *
@@ -738,6 +808,29 @@ public class MAPCodec extends AbstractSoapInterceptor {
         return element.getValue();
     }
 
+    /**
+     * Decodes a MAP from a SOAP header source.
+     *
+     * @param clz the class
+     * @param headerSource the SOAP header element source
+     * @param marshaller the JAXB marshaller to use
+     * @return the decoded value
+     */
+    protected <T> T decodeMAP(Class<T> clz,
+                              Source headerSource,
+                              Unmarshaller unmarshaller) throws JAXBException {
+        if (headerSource instanceof DOMSource) {
+            return decodeMAP(clz, (Element)((DOMSource)headerSource).getNode(), unmarshaller);
+        }
+        JAXBElement<T> element;
+        if (headerSource instanceof StaxSource) {
+            element = unmarshaller.unmarshal(((StaxSource)headerSource).getXMLStreamReader(), clz);
+        } else {
+            element = unmarshaller.unmarshal(headerSource, clz);
+        }
+        return element.getValue();
+    }
+
     /**
      * Discard any pre-existing MAP headers - this may occur if the runtime
      * re-uses a SOAP message.
@@ -29,6 +29,8 @@ import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+import javax.xml.transform.dom.DOMSource;
 
 import org.w3c.dom.Element;
 
@@ -141,6 +143,20 @@ public class VersionTransformer extends org.apache.cxf.ws.addressing.VersionTran
      */
     public <T> T decodeAsNative(String encodedAs, Class<T> clz, Element headerElement,
                                 Unmarshaller unmarshaller) throws JAXBException {
+        return decodeAsNative(encodedAs, clz, new DOMSource(headerElement), unmarshaller);
+    }
+
+    /**
+     * Decodes a MAP from a exposed version.
+     *
+     * @param encodedAs specifies the encoded version
+     * @param clz the class
+     * @param headerSource the SOAP header element source
+     * @param marshaller the JAXB marshaller to use
+     * @return the decoded value
+     */
+    public <T> T decodeAsNative(String encodedAs, Class<T> clz, Source headerSource,
+                                Unmarshaller unmarshaller) throws JAXBException {
         T ret = null;
         if (LOG.isLoggable(Level.FINE)) {
             LOG.fine("decodeAsNative: encodedAs: " + encodedAs);
@@ -148,27 +164,27 @@ public class VersionTransformer extends org.apache.cxf.ws.addressing.VersionTran
         }
 
         if (NATIVE_VERSION.equals(encodedAs)) {
-            ret = codec.decodeMAP(clz, headerElement, unmarshaller);
+            ret = codec.decodeMAP(clz, headerSource, unmarshaller);
         } else if (Names200408.WSA_NAMESPACE_NAME.equals(encodedAs)) {
             if (AttributedURIType.class.equals(clz)) {
-                ret = clz.cast(convert(codec.decodeMAP(AttributedURI.class, headerElement, unmarshaller)));
+                ret = clz.cast(convert(codec.decodeMAP(AttributedURI.class, headerSource, unmarshaller)));
             } else if (EndpointReferenceType.class.equals(clz)) {
                 ret = clz.cast(convert(codec.decodeMAP(Names200408.EPR_TYPE,
-                                                       headerElement, unmarshaller)));
+                                                       headerSource, unmarshaller)));
             } else if (RelatesToType.class.equals(clz)) {
-                ret = clz.cast(convert(codec.decodeMAP(Relationship.class, headerElement, unmarshaller)));
+                ret = clz.cast(convert(codec.decodeMAP(Relationship.class, headerSource, unmarshaller)));
             }
         } else if (org.apache.cxf.ws.addressing.VersionTransformer.Names200403.WSA_NAMESPACE_NAME.equals(encodedAs)) {
             if (AttributedURIType.class.equals(clz)) {
                 ret = clz.cast(convert(codec
-                    .decodeMAP(org.apache.cxf.ws.addressing.v200403.AttributedURI.class, headerElement,
+                    .decodeMAP(org.apache.cxf.ws.addressing.v200403.AttributedURI.class, headerSource,
                                unmarshaller)));
             } else if (EndpointReferenceType.class.equals(clz)) {
                 ret = clz.cast(convert(codec.decodeMAP(Names200403.EPR_TYPE,
-                                                       headerElement, unmarshaller)));
+                                                       headerSource, unmarshaller)));
             } else if (RelatesToType.class.equals(clz)) {
                 ret = clz.cast(convert(codec
-                    .decodeMAP(org.apache.cxf.ws.addressing.v200403.Relationship.class, headerElement,
+                    .decodeMAP(org.apache.cxf.ws.addressing.v200403.Relationship.class, headerSource,
                                unmarshaller)));
             }
         }
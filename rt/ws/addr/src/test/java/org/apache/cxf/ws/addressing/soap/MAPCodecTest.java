@@ -19,7 +19,10 @@
 
 package org.apache.cxf.ws.addressing.soap;
 
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +32,9 @@ import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamSource;
 
 import org.w3c.dom.Element;
 
@@ -36,11 +42,14 @@ import org.apache.cxf.binding.soap.SoapBindingConstants;
 import org.apache.cxf.binding.soap.SoapFault;
 import org.apache.cxf.binding.soap.SoapMessage;
 import org.apache.cxf.binding.soap.SoapVersion;
+import org.apache.cxf.binding.soap.StreamedSoapHeader;
 import org.apache.cxf.headers.Header;
 import org.apache.cxf.message.Exchange;
 import org.apache.cxf.message.ExchangeImpl;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.staxutils.StaxSource;
+import org.apache.cxf.staxutils.StaxUtils;
 import org.apache.cxf.ws.addressing.AddressingProperties;
 import org.apache.cxf.ws.addressing.AttributedURIType;
 import org.apache.cxf.ws.addressing.ContextJAXBUtils;
@@ -49,6 +58,7 @@ import org.apache.cxf.ws.addressing.EndpointReferenceType;
 import org.apache.cxf.ws.addressing.EndpointReferenceUtils;
 import org.apache.cxf.ws.addressing.Names;
 import org.apache.cxf.ws.addressing.RelatesToType;
+import org.apache.cxf.ws.addressing.VersionTransformer;
 import org.apache.cxf.ws.addressing.VersionTransformer.Names200403;
 import org.apache.cxf.ws.addressing.VersionTransformer.Names200408;
 import org.apache.cxf.ws.addressing.v200408.AttributedURI;
@@ -65,6 +75,7 @@ import static org.apache.cxf.message.Message.REQUESTOR_ROLE;
 import static org.apache.cxf.ws.addressing.JAXWSAConstants.ADDRESSING_PROPERTIES_INBOUND;
 import static org.apache.cxf.ws.addressing.JAXWSAConstants.ADDRESSING_PROPERTIES_OUTBOUND;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
@@ -279,6 +290,104 @@ public class MAPCodecTest {
         verifyMessage(message, true, false, false);
     }
 
+    @Test
+    public void testDecodeStreamedHeaders() throws Exception {
+        String wsa = "xmlns:wsa=\"" + Names.WSA_NAMESPACE_NAME + "\"";
+        StreamedSoapHeader action = createStreamedHeader(Names.WSA_ACTION_QNAME,
+            "<wsa:Action " + wsa + ">urn:test:action</wsa:Action>", "urn:test:action", null);
+        StreamedSoapHeader messageID = createStreamedHeader(Names.WSA_MESSAGEID_QNAME,
+            "<wsa:MessageID " + wsa + ">urn:uuid:1234</wsa:MessageID>", "urn:uuid:1234", null);
+        StreamedSoapHeader to = createStreamedHeader(Names.WSA_TO_QNAME,
+            "<wsa:To " + wsa + ">http://localhost/target</wsa:To>", "http://localhost/target", null);
+        StreamedSoapHeader replyTo = createStreamedHeader(Names.WSA_REPLYTO_QNAME,
+            "<wsa:ReplyTo " + wsa + "><wsa:Address>http://localhost/reply</wsa:Address></wsa:ReplyTo>",
+            null, null);
+        StreamedSoapHeader relatesTo = createStreamedHeader(Names.WSA_RELATESTO_QNAME,
+            "<wsa:RelatesTo " + wsa + ">urn:uuid:5678</wsa:RelatesTo>", "urn:uuid:5678", null);
+        Map<QName, String> refParamAttributes = new HashMap<>();
+        refParamAttributes.put(new QName(Names.WSA_NAMESPACE_NAME, "IsReferenceParameter"), "true");
+        StreamedSoapHeader refParam = createStreamedHeader(new QName("urn:test", "customer"),
+            "<t:customer xmlns:t=\"urn:test\" " + wsa + " wsa:IsReferenceParameter=\"true\">42</t:customer>",
+            "42", refParamAttributes);
+        StreamedSoapHeader other = createStreamedHeader(new QName("urn:test", "other"),
+            "<t:other xmlns:t=\"urn:test\">ignored</t:other>", "ignored", null);
+
+        SoapMessage message = new SoapMessage(new MessageImpl());
+        message.getHeaders().addAll(Arrays.asList(action, messageID, to, replyTo, relatesTo, refParam, other));
+
+        AddressingProperties maps = codec.unmarshalMAPs(message);
+
+        assertEquals("urn:test:action", maps.getAction().getValue());
+        assertEquals("urn:uuid:1234", maps.getMessageID().getValue());
+        assertEquals("http://localhost/target", maps.getTo().getValue());
+        assertEquals("http://localhost/reply", maps.getReplyTo().getAddress().getValue());
+        assertEquals("urn:uuid:5678", maps.getRelatesTo().getValue());
+        // the WS-Addressing headers are decoded without building the DOM elements
+        for (StreamedSoapHeader hdr : Arrays.asList(action, messageID, to, replyTo, relatesTo, other)) {
+            assertFalse(hdr.getName() + " was materialized", hdr.isMaterialized());
+        }
+
+        // only the header marked as reference parameter is applied to the To EPR
+        List<Object> refParams = maps.getToEndpointReference().getReferenceParameters().getAny();
+        assertEquals(1, refParams.size());
+        JAXBElement<?> customer = (JAXBElement<?>)refParams.get(0);
+        assertEquals(new QName("urn:test", "customer"), customer.getName());
+        assertEquals("42", customer.getValue());
+    }
+
+    @Test
+    public void testDecodeStreamedSimpleTextHeader() throws Exception {
+        String xml = "<wsa:Action xmlns:wsa=\"" + Names.WSA_NAMESPACE_NAME + "\" xmlns:t=\"urn:test\""
+            + " t:note=\"first\">urn:test:action</wsa:Action>";
+        Map<QName, String> attributes = new HashMap<>();
+        attributes.put(new QName("urn:test", "note"), "first");
+        StreamedSoapHeader action = createStreamedHeader(Names.WSA_ACTION_QNAME, xml, "urn:test:action",
+                                                         attributes);
+        SoapMessage message = new SoapMessage(new MessageImpl());
+        message.getHeaders().add(action);
+
+        AttributedURIType streamed = codec.unmarshalMAPs(message).getAction();
+        assertFalse(action.isMaterialized());
+
+        // the fast path gives the same result as decoding the DOM element
+        Element element = StaxUtils.read(new StringReader(xml)).getDocumentElement();
+        Unmarshaller unmarshaller =
+            VersionTransformer.getExposedJAXBContext(Names.WSA_NAMESPACE_NAME).createUnmarshaller();
+        AttributedURIType decoded = codec.decodeAsNative(Names.WSA_NAMESPACE_NAME, AttributedURIType.class,
+                                                         element, unmarshaller);
+        assertEquals(decoded.getValue(), streamed.getValue());
+        assertEquals(decoded.getOtherAttributes(), streamed.getOtherAttributes());
+        assertEquals("first", streamed.getOtherAttributes().get(new QName("urn:test", "note")));
+    }
+
+    @Test
+    public void testDecodeMAPFromSource() throws Exception {
+        String xml = "<wsa:ReplyTo xmlns:wsa=\"" + Names.WSA_NAMESPACE_NAME + "\">"
+            + "<wsa:Address>http://localhost/reply</wsa:Address></wsa:ReplyTo>";
+        StreamedSoapHeader replyTo = createStreamedHeader(Names.WSA_REPLYTO_QNAME, xml, null, null);
+        Unmarshaller unmarshaller =
+            VersionTransformer.getExposedJAXBContext(Names.WSA_NAMESPACE_NAME).createUnmarshaller();
+
+        Source source = replyTo.getSource();
+        assertTrue(source instanceof StaxSource);
+        EndpointReferenceType epr = codec.decodeMAP(EndpointReferenceType.class, source, unmarshaller);
+        assertEquals("http://localhost/reply", epr.getAddress().getValue());
+        assertFalse(replyTo.isMaterialized());
+
+        source = new DOMSource(StaxUtils.read(new StringReader(xml)).getDocumentElement());
+        epr = codec.decodeMAP(EndpointReferenceType.class, source, unmarshaller);
+        assertEquals("http://localhost/reply", epr.getAddress().getValue());
+
+        source = new StreamSource(new StringReader(xml));
+        epr = codec.decodeMAP(EndpointReferenceType.class, source, unmarshaller);
+        assertEquals("http://localhost/reply", epr.getAddress().getValue());
+    }
+
+    private static StreamedSoapHeader createStreamedHeader(QName name, String xml, String text,
+                                                           Map<QName, String> attributes) {
+        return new StreamedSoapHeader(name, xml.getBytes(StandardCharsets.UTF_8), text, attributes);
+    }
+
     private SoapMessage setUpMessage(boolean requestor, boolean outbound) throws Exception {
         return setUpMessage(requestor, outbound, false);
     }
@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
 
@@ -56,6 +57,26 @@ public class AssertionInfoMap extends HashMap<QName, Collection<AssertionInfo>>
         }
     }
 
+    private AssertionInfoMap(int size) {
+        super(size < 6 ? 6 : size);
+    }
+
+    /**
+     * Returns a map with the same assertions, none of them asserted yet. Copying a map
+     * is cheaper than collecting the assertions of a policy again.
+     */
+    public AssertionInfoMap copy() {
+        AssertionInfoMap copy = new AssertionInfoMap(size());
+        for (Map.Entry<QName, Collection<AssertionInfo>> entry : entrySet()) {
+            Collection<AssertionInfo> ail = new ArrayList<>(entry.getValue().size());
+            for (AssertionInfo ai : entry.getValue()) {
+                ail.add(new AssertionInfo(ai.getAssertion()));
+            }
+            copy.put(entry.getKey(), ail);
+        }
+        return copy;
+    }
+
     private void putAssertionInfo(Assertion a) {
         if (a instanceof PolicyContainingAssertion) {
             Policy p = ((PolicyContainingAssertion)a).getPolicy();
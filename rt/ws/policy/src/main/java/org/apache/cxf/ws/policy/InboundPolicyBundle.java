@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ws.policy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.service.model.AbstractPropertiesHolder;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.neethi.Assertion;
+import org.apache.neethi.Policy;
+
+/**
+ * What {@link PolicyInInterceptor} adds to every inbound message of an endpoint or operation:
+ * the policy interceptors and the prototype of the assertion info map, which is copied for
+ * every message. The bundles are kept in the service model next to the policies they are
+ * computed from and are recomputed if these policies are replaced, if the policy registry
+ * changes or if the policies are attached to the service model again.
+ */
+final class InboundPolicyBundle {
+    static final String SERVER_ENDPOINT = "policy-in-bundle-server-endpoint";
+    static final String CLIENT_ENDPOINT = "policy-in-bundle-client-endpoint";
+    static final String CLIENT_RESPONSE = "policy-in-bundle-client-response";
+
+    private final Object policy;
+    private final long version;
+    private final List<Interceptor<? extends Message>> interceptors;
+    private final AssertionInfoMap assertionInfoMap;
+
+    private InboundPolicyBundle(Object policy,
+                                long version,
+                                List<Interceptor<? extends Message>> interceptors,
+                                AssertionInfoMap assertionInfoMap) {
+        this.policy = policy;
+        this.version = version;
+        this.interceptors = interceptors == null || interceptors.isEmpty()
+            ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(interceptors));
+        this.assertionInfoMap = assertionInfoMap;
+    }
+
+    static InboundPolicyBundle get(EndpointInfo ei, boolean requestor, EndpointPolicy ep,
+                                   PolicyEngine pe, Message msg) {
+        String key = requestor ? CLIENT_ENDPOINT : SERVER_ENDPOINT;
+        long version = getVersion(pe);
+        InboundPolicyBundle bundle = getCached(ei, key, ep, version);
+        if (bundle == null) {
+            Collection<Assertion> vocabulary = ep.getVocabulary(msg);
+            bundle = new InboundPolicyBundle(ep, version, ep.getInterceptors(msg),
+                vocabulary == null || vocabulary.isEmpty() ? null : new AssertionInfoMap(vocabulary));
+            ei.setProperty(key, bundle);
+        }
+        return bundle;
+    }
+
+    static InboundPolicyBundle get(BindingOperationInfo boi, EffectivePolicy ep, PolicyEngine pe) {
+        long version = getVersion(pe);
+        InboundPolicyBundle bundle = getCached(boi, CLIENT_RESPONSE, ep, version);
+        if (bundle == null) {
+            Policy p = ep.getPolicy();
+            bundle = new InboundPolicyBundle(ep, version, ep.getInterceptors(),
+                                             p == null ? null : new AssertionInfoMap(p));
+            boi.setProperty(CLIENT_RESPONSE, bundle);
+        }
+        return bundle;
+    }
+
+    /**
+     * Removes the bundles of an endpoint and its operations
+     */
+    static void invalidate(EndpointInfo ei) {
+        ei.removeProperty(SERVER_ENDPOINT);
+        ei.removeProperty(CLIENT_ENDPOINT);
+        if (ei.getBinding() != null) {
+            for (BindingOperationInfo boi : ei.getBinding().getOperations()) {
+                boi.removeProperty(CLIENT_RESPONSE);
+            }
+        }
+    }
+
+    void apply(Message msg) {
+        for (Interceptor<? extends Message> i : interceptors) {
+            msg.getInterceptorChain().add(i);
+        }
+        if (assertionInfoMap != null) {
+            msg.put(AssertionInfoMap.class, assertionInfoMap.copy());
+            msg.getInterceptorChain().add(PolicyVerificationInInterceptor.INSTANCE);
+        }
+    }
+
+    private static InboundPolicyBundle getCached(AbstractPropertiesHolder holder, String key,
+                                                 Object policy, long version) {
+        Object cached = holder.getProperty(key);
+        if (cached instanceof InboundPolicyBundle) {
+            InboundPolicyBundle bundle = (InboundPolicyBundle)cached;
+            if (bundle.policy == policy && bundle.version == version) {
+                return bundle;
+            }
+        }
+        return null;
+    }
+
+    private static long getVersion(PolicyEngine pe) {
+        return pe instanceof PolicyEngineImpl ? ((PolicyEngineImpl)pe).getPolicyVersion() : 0L;
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.cxf.ws.policy;
 
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -79,6 +80,7 @@ public class PolicyEngineImpl implements PolicyEngine, BusExtension {
     private Boolean ignoreUnknownAssertions;
     private boolean addedBusInterceptors;
     private AlternativeSelector alternativeSelector;
+    private final AtomicLong busPolicyVersion = new AtomicLong();
 
 
     public PolicyEngineImpl() {
@@ -128,6 +130,7 @@ public class PolicyEngineImpl implements PolicyEngine, BusExtension {
         } else {
             busPolicy = busPolicy.merge(p);
         }
+        busPolicyVersion.incrementAndGet();
     }
 
     
@@ -669,6 +672,17 @@ public class PolicyEngineImpl implements PolicyEngine, BusExtension {
     }
 
 
+    /**
+     * Returns a value which changes whenever a policy is added to the bus or to the registry
+     */
+    long getPolicyVersion() {
+        long version = busPolicyVersion.get();
+        if (registry instanceof PolicyRegistryImpl) {
+            version += ((PolicyRegistryImpl)registry).getVersion();
+        }
+        return version;
+    }
+
     // for test
     EffectivePolicyImpl createOutPolicyInfo() {
         return new EffectivePolicyImpl();
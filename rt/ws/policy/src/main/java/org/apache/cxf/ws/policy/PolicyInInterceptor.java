@@ -19,9 +19,7 @@
 
 package org.apache.cxf.ws.policy;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -67,9 +65,6 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
             return;
         }
 
-        List<Interceptor<? extends Message>> interceptors = new ArrayList<>();
-        Collection<Assertion> assertions = new ArrayList<>();
-
         // 1. Check overridden policy
         Policy p = (Policy)msg.getContextualProperty(PolicyConstants.POLICY_OVERRIDE);
         if (p != null) {
@@ -80,8 +75,15 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
             PolicyUtils.logPolicy(LOG, Level.FINEST, "Using effective policy: ",
                                   effectivePolicy.getPolicy());
 
-            interceptors.addAll(effectivePolicy.getInterceptors());
-            assertions.addAll(effectivePolicy.getChosenAlternative());
+            // add interceptors into message chain
+            for (Interceptor<? extends Message> i : effectivePolicy.getInterceptors()) {
+                msg.getInterceptorChain().add(i);
+            }
+            Collection<Assertion> assertions = effectivePolicy.getChosenAlternative();
+            if (assertions != null && !assertions.isEmpty()) {
+                msg.put(AssertionInfoMap.class, new AssertionInfoMap(assertions));
+                msg.getInterceptorChain().add(PolicyVerificationInInterceptor.INSTANCE);
+            }
         } else if (MessageUtils.isRequestor(msg)) {
             // 2. Process client policy
             BindingOperationInfo boi = exchange.getBindingOperationInfo();
@@ -89,8 +91,7 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
                 Conduit conduit = exchange.getConduit(msg);
                 EndpointPolicy ep = pe.getClientEndpointPolicy(ei, conduit, msg);
                 if (ep != null) {
-                    interceptors.addAll(ep.getInterceptors(msg));
-                    assertions.addAll(ep.getVocabulary(msg));
+                    InboundPolicyBundle.get(ei, true, ep, pe, msg).apply(msg);
                 }
             } else {
                 // We do not know the underlying message type yet - so we pre-emptively add interceptors
@@ -98,12 +99,7 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
 
                 EffectivePolicy ep = pe.getEffectiveClientResponsePolicy(ei, boi, msg);
                 if (ep != null) {
-                    interceptors.addAll(ep.getInterceptors());
-                    // insert assertions of endpoint's vocabulary into message
-                    if (ep.getPolicy() != null) {
-                        msg.put(AssertionInfoMap.class, new AssertionInfoMap(ep.getPolicy()));
-                        msg.getInterceptorChain().add(PolicyVerificationInInterceptor.INSTANCE);
-                    }
+                    InboundPolicyBundle.get(boi, ep, pe).apply(msg);
                 }
             }
         } else {
@@ -115,21 +111,8 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
 
             EndpointPolicy ep = pe.getServerEndpointPolicy(ei, destination, msg);
             if (ep != null) {
-                interceptors.addAll(ep.getInterceptors(msg));
-                assertions.addAll(ep.getVocabulary(msg));
+                InboundPolicyBundle.get(ei, false, ep, pe, msg).apply(msg);
             }
         }
-
-        // add interceptors into message chain
-        for (Interceptor<? extends Message> i : interceptors) {
-            msg.getInterceptorChain().add(i);
-        }
-
-        // Insert assertions of endpoint's vocabulary into message
-        if (!assertions.isEmpty()) {
-            msg.put(AssertionInfoMap.class, new AssertionInfoMap(assertions));
-            msg.getInterceptorChain().add(PolicyVerificationInInterceptor.INSTANCE);
-        }
-
     }
 }
@@ -21,6 +21,7 @@ package org.apache.cxf.ws.policy;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.neethi.Policy;
 import org.apache.neethi.PolicyRegistry;
@@ -31,6 +32,7 @@ import org.apache.neethi.PolicyRegistry;
 public class PolicyRegistryImpl implements PolicyRegistry {
 
     private Map<String, Policy> reg = new ConcurrentHashMap<>(16, 0.75f, 4);
+    private final AtomicLong version = new AtomicLong();
 
     public Policy lookup(String key) {
         return reg.get(key);
@@ -38,10 +40,20 @@ public class PolicyRegistryImpl implements PolicyRegistry {
 
     public void register(String key, Policy policy) {
         reg.put(key, policy);
+        version.incrementAndGet();
     }
 
     public void remove(String key) {
         reg.remove(key);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of changes made to the registry, the information derived from
+     * the registered policies has to be recomputed once it changes
+     */
+    public long getVersion() {
+        return version.get();
     }
 
 }
@@ -70,6 +70,7 @@ public class ServiceModelPolicyUpdater {
     }
 
     public void addPolicyAttachments(Collection<PolicyAttachment> attachments) {
+        InboundPolicyBundle.invalidate(ei);
         for (PolicyAttachment pa : attachments) {
             boolean policyUsed = false;
 
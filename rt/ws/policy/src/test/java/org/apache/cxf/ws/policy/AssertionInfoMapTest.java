@@ -166,6 +166,30 @@ public class AssertionInfoMapTest {
         aim.check();
     }
 
+    @Test
+    public void testCopy() throws PolicyException {
+        QName aqn = new QName("http://x.y.z", "a");
+        Assertion a = new PrimitiveAssertion(aqn);
+        AssertionInfoMap aim = new AssertionInfoMap(Collections.singletonList(a));
+        aim.get(aqn).iterator().next().setAsserted(true);
+        aim.check();
+
+        AssertionInfoMap copy = aim.copy();
+        assertEquals(aim.keySet(), copy.keySet());
+        AssertionInfo ai = copy.get(aqn).iterator().next();
+        assertSame(a, ai.getAssertion());
+        assertFalse(ai.isAsserted());
+        try {
+            copy.check();
+            fail("Expected PolicyException not thrown.");
+        } catch (PolicyException ex) {
+            assertEquals("NOT_ASSERTED_EXC", ex.getCode());
+        }
+        ai.setAsserted(true);
+        assertEquals(1, aim.get(aqn).size());
+        assertTrue(aim.get(aqn).iterator().next() != ai);
+    }
+
     @Test
     public void testAllAssertionsIn() {
 
@@ -0,0 +1,231 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.policy;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.interceptor.InterceptorChain;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.model.BindingInfo;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.service.model.InterfaceInfo;
+import org.apache.cxf.service.model.OperationInfo;
+import org.apache.cxf.service.model.ServiceInfo;
+import org.apache.cxf.transport.Destination;
+import org.apache.cxf.ws.policy.attachment.external.PolicyAttachment;
+import org.apache.neethi.Assertion;
+import org.apache.neethi.Policy;
+
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class PolicyInInterceptorTest {
+    private static final String NS = "http://cxf.apache.org/test/policy";
+    private static final QName ASSERTION_QNAME = new QName(NS, "test");
+
+    private IMocksControl control;
+    private PolicyEngineImpl pe;
+    private EndpointInfo ei;
+    private BindingOperationInfo boi;
+    private Endpoint endpoint;
+    private Bus bus;
+    private EndpointPolicy endpointPolicy;
+    private EffectivePolicy responsePolicy;
+    private Interceptor<? extends Message> policyInterceptor;
+
+    @Before
+    public void setUp() {
+        control = EasyMock.createNiceControl();
+
+        ServiceInfo si = new ServiceInfo();
+        InterfaceInfo ii = new InterfaceInfo(si, new QName(NS, "Greeter"));
+        OperationInfo oi = ii.addOperation(new QName(NS, "greetMe"));
+        BindingInfo bi = new BindingInfo(si, NS);
+        boi = new BindingOperationInfo(bi, oi);
+        bi.addOperation(boi);
+        ei = new EndpointInfo(si, NS);
+        ei.setBinding(bi);
+
+        Collection<Assertion> vocabulary = Collections.singletonList(new TestAssertion(ASSERTION_QNAME));
+        Policy policy = new Policy();
+        policy.addAssertion(new TestAssertion(ASSERTION_QNAME));
+        policyInterceptor = control.createMock(Interceptor.class);
+        List<Interceptor<? extends Message>> interceptors = Collections.singletonList(policyInterceptor);
+
+        endpointPolicy = control.createMock(EndpointPolicy.class);
+        EasyMock.expect(endpointPolicy.getVocabulary(EasyMock.anyObject(Message.class)))
+            .andReturn(vocabulary).anyTimes();
+        EasyMock.expect(endpointPolicy.getInterceptors(EasyMock.anyObject(Message.class)))
+            .andReturn(interceptors).anyTimes();
+        responsePolicy = control.createMock(EffectivePolicy.class);
+        EasyMock.expect(responsePolicy.getPolicy()).andReturn(policy).anyTimes();
+        EasyMock.expect(responsePolicy.getInterceptors()).andReturn(interceptors).anyTimes();
+
+        pe = new PolicyEngineImpl() {
+            @Override
+            public EndpointPolicy getServerEndpointPolicy(EndpointInfo e, Destination d, Message m) {
+                return endpointPolicy;
+            }
+
+            @Override
+            public EffectivePolicy getEffectiveClientResponsePolicy(EndpointInfo e, BindingOperationInfo b,
+                                                                    Message m) {
+                return responsePolicy;
+            }
+        };
+        bus = control.createMock(Bus.class);
+        EasyMock.expect(bus.getExtension(PolicyEngine.class)).andReturn(pe).anyTimes();
+        endpoint = control.createMock(Endpoint.class);
+        EasyMock.expect(endpoint.getEndpointInfo()).andReturn(ei).anyTimes();
+        control.replay();
+    }
+
+    @Test
+    public void testServerBundleIsReused() {
+        Message m1 = handle(false);
+        InboundPolicyBundle bundle = getServerBundle();
+        assertNotNull(bundle);
+        Message m2 = handle(false);
+        assertSame(bundle, getServerBundle());
+
+        AssertionInfoMap aim1 = m1.get(AssertionInfoMap.class);
+        AssertionInfoMap aim2 = m2.get(AssertionInfoMap.class);
+        assertNotSame(aim1, aim2);
+        assertEquals(1, aim1.getAssertionInfo(ASSERTION_QNAME).size());
+        assertEquals(1, aim2.getAssertionInfo(ASSERTION_QNAME).size());
+        assertNotSame(aim1.getAssertionInfo(ASSERTION_QNAME).iterator().next(),
+                      aim2.getAssertionInfo(ASSERTION_QNAME).iterator().next());
+
+        aim1.getAssertionInfo(ASSERTION_QNAME).iterator().next().setAsserted(true);
+        assertFalse(aim2.getAssertionInfo(ASSERTION_QNAME).iterator().next().isAsserted());
+        assertFalse(handle(false).get(AssertionInfoMap.class)
+            .getAssertionInfo(ASSERTION_QNAME).iterator().next().isAsserted());
+    }
+
+    @Test
+    public void testServerBundleIsRebuiltWhenRegistryChanges() {
+        handle(false);
+        InboundPolicyBundle bundle = getServerBundle();
+
+        pe.getRegistry().register("policy", new Policy());
+        handle(false);
+        assertNotSame(bundle, getServerBundle());
+        bundle = getServerBundle();
+        handle(false);
+        assertSame(bundle, getServerBundle());
+
+        pe.getRegistry().remove("policy");
+        handle(false);
+        assertNotSame(bundle, getServerBundle());
+    }
+
+    @Test
+    public void testServerBundleIsRebuiltWhenBusPolicyIsAdded() {
+        handle(false);
+        InboundPolicyBundle bundle = getServerBundle();
+
+        pe.addPolicy(new Policy());
+        handle(false);
+        assertNotSame(bundle, getServerBundle());
+    }
+
+    @Test
+    public void testServerBundleIsRebuiltWhenPoliciesAreAttached() {
+        handle(false);
+        InboundPolicyBundle bundle = getServerBundle();
+
+        new ServiceModelPolicyUpdater(ei).addPolicyAttachments(Collections.<PolicyAttachment>emptyList());
+        handle(false);
+        assertNotSame(bundle, getServerBundle());
+    }
+
+    @Test
+    public void testClientResponseBundleIsReused() {
+        Message m1 = handle(true);
+        InboundPolicyBundle bundle = getClientResponseBundle();
+        assertNotNull(bundle);
+        Message m2 = handle(true);
+        assertSame(bundle, getClientResponseBundle());
+        assertNotSame(m1.get(AssertionInfoMap.class), m2.get(AssertionInfoMap.class));
+
+        pe.getRegistry().register("policy", new Policy());
+        handle(true);
+        assertNotSame(bundle, getClientResponseBundle());
+        bundle = getClientResponseBundle();
+
+        pe.addPolicy(new Policy());
+        handle(true);
+        assertNotSame(bundle, getClientResponseBundle());
+        bundle = getClientResponseBundle();
+
+        new ServiceModelPolicyUpdater(ei).addPolicyAttachments(Collections.<PolicyAttachment>emptyList());
+        handle(true);
+        assertNotSame(bundle, getClientResponseBundle());
+    }
+
+    private Message handle(boolean requestor) {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        message.setExchange(exchange);
+        exchange.put(Bus.class, bus);
+        exchange.put(Endpoint.class, endpoint);
+        if (requestor) {
+            message.put(Message.REQUESTOR_ROLE, Boolean.TRUE);
+            exchange.put(BindingOperationInfo.class, boi);
+        }
+
+        InterceptorChain chain = EasyMock.createMock(InterceptorChain.class);
+        chain.add(policyInterceptor);
+        chain.add(PolicyVerificationInInterceptor.INSTANCE);
+        EasyMock.replay(chain);
+        message.setInterceptorChain(chain);
+
+        new PolicyInInterceptor().handleMessage(message);
+        EasyMock.verify(chain);
+        return message;
+    }
+
+    private InboundPolicyBundle getServerBundle() {
+        return (InboundPolicyBundle)ei.getProperty(InboundPolicyBundle.SERVER_ENDPOINT);
+    }
+
+    private InboundPolicyBundle getClientResponseBundle() {
+        return (InboundPolicyBundle)boi.getProperty(InboundPolicyBundle.CLIENT_RESPONSE);
+    }
+}
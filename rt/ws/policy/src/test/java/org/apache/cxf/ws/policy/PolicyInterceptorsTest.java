@@ -117,7 +117,7 @@ public class PolicyInterceptorsTest {
         setupMessage(true, true, true, true, true, true);
         EffectivePolicy effectivePolicy = control.createMock(EffectivePolicy.class);
         EasyMock.expect(pe.getEffectiveClientResponsePolicy(ei, boi, message)).andReturn(effectivePolicy);
-        EasyMock.expect(effectivePolicy.getPolicy()).andReturn(new Policy()).times(2);
+        EasyMock.expect(effectivePolicy.getPolicy()).andReturn(new Policy());
         Interceptor<? extends Message> i = control.createMock(Interceptor.class);
         List<Interceptor<? extends Message>> lst = new ArrayList<>();
         lst.add(i);
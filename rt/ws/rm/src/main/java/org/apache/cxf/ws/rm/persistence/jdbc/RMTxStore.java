@@ -19,10 +19,10 @@
 
 package org.apache.cxf.ws.rm.persistence.jdbc;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
@@ -33,12 +33,20 @@ import java.sql.Statement;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
@@ -163,9 +171,18 @@ public class RMTxStore implements RMStore {
                                                           "SET CURRENT_SCHEMA = {0}",
                                                           "ALTER SESSION SET CURRENT_SCHEMA = {0}"};
 
+    // the order in which the batched statements of a write-behind batch are executed
+    private static final int UPDATE_SRC_SEQUENCE_ORDER = 0;
+    private static final int UPDATE_DEST_SEQUENCE_ORDER = 1;
+    private static final int CREATE_MESSAGE_ORDER = 2;
+    private static final int DELETE_MESSAGE_ORDER = 3;
+
     private static final String DERBY_TABLE_EXISTS_STATE = "X0Y32";
     private static final int ORACLE_TABLE_EXISTS_CODE = 955;
 
+    // how often a caller waiting for the write-behind writer checks that the writer is still running
+    private static final long WRITER_CHECK_INTERVAL = 1000L;
+
     private static final Logger LOG = LogUtils.getL7dLogger(RMTxStore.class);
 
     // the connection and statements are cached only if
@@ -194,10 +211,22 @@ public class RMTxStore implements RMStore {
     private String tableExistsState = DERBY_TABLE_EXISTS_STATE;
     private int tableExistsCode = ORACLE_TABLE_EXISTS_CODE;
 
+    private boolean writeBehind;
+    private long writeBehindInterval = 5L;
+    private int writeBehindBatchSize = 100;
+    private BlockingQueue<PendingWrite> pendingWrites;
+    private volatile Thread writer;
+    private volatile boolean writerStopped;
+
     public RMTxStore() {
     }
 
     public void destroy() {
+        stopWriter();
+        closeConnection();
+    }
+
+    private void closeConnection() {
         if (connection != null && createdConnection) {
             try {
                 connection.close();
@@ -308,6 +337,45 @@ public class RMTxStore implements RMStore {
         createdConnection = false;
     }
 
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Enables the write-behind mode in which the sequence updates and the message inserts and deletions
+     * of concurrent callers are grouped into JDBC batches and committed together by a background writer.
+     * The calling thread is only released after the batch containing its changes has been committed.
+     * @param writeBehind
+     */
+    public void setWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    public long getWriteBehindInterval() {
+        return writeBehindInterval;
+    }
+
+    /**
+     * Sets the maximum time in milliseconds the writer waits for further operations before
+     * committing a batch.
+     * @param writeBehindInterval
+     */
+    public void setWriteBehindInterval(long writeBehindInterval) {
+        this.writeBehindInterval = writeBehindInterval;
+    }
+
+    public int getWriteBehindBatchSize() {
+        return writeBehindBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of store operations committed in a single batch.
+     * @param writeBehindBatchSize
+     */
+    public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+        this.writeBehindBatchSize = writeBehindBatchSize;
+    }
+
     // RMStore interface
 
     public void createDestinationSequence(DestinationSequence seq) {
@@ -601,14 +669,17 @@ public class RMTxStore implements RMStore {
                 long mn = res.getLong(1);
                 String to = res.getString(2);
                 long ct = res.getLong(3);
-                Blob blob = res.getBlob(4);
+                // stream the content directly into the cache without materializing a Blob
+                InputStream content = res.getBinaryStream(4);
                 String contentType = res.getString(5);
                 RMMessage msg = new RMMessage();
                 msg.setMessageNumber(mn);
                 msg.setTo(to);
                 msg.setCreatedTime(ct);
                 CachedOutputStream cos = new CachedOutputStream();
-                IOUtils.copyAndCloseInput(blob.getBinaryStream(), cos);
+                if (content != null) {
+                    IOUtils.copyAndCloseInput(content, cos);
+                }
                 cos.flush();
                 msg.setContent(cos);
                 msg.setContentType(contentType);
@@ -629,6 +700,15 @@ public class RMTxStore implements RMStore {
     }
 
     public void persistIncoming(DestinationSequence seq, RMMessage msg) {
+        if (writer != null) {
+            PendingWrite write = new PendingWrite();
+            addUpdateDestinationSequence(write, seq);
+            if (msg != null && msg.getContent() != null) {
+                addStoreMessage(write, seq.getIdentifier(), msg, false);
+            }
+            awaitWrite(write);
+            return;
+        }
         Connection con = verifyConnection();
         SQLException conex = null;
         try {
@@ -654,6 +734,15 @@ public class RMTxStore implements RMStore {
         }
     }
     public void persistOutgoing(SourceSequence seq, RMMessage msg) {
+        if (writer != null) {
+            PendingWrite write = new PendingWrite();
+            addUpdateSourceSequence(write, seq);
+            if (msg != null && msg.getContent() != null) {
+                addStoreMessage(write, seq.getIdentifier(), msg, true);
+            }
+            awaitWrite(write);
+            return;
+        }
         Connection con = verifyConnection();
         SQLException conex = null;
         try {
@@ -680,6 +769,12 @@ public class RMTxStore implements RMStore {
     }
 
     public void removeMessages(Identifier sid, Collection<Long> messageNrs, boolean outbound) {
+        if (writer != null) {
+            PendingWrite write = new PendingWrite();
+            addRemoveMessages(write, sid, messageNrs, outbound);
+            awaitWrite(write);
+            return;
+        }
         Connection con = verifyConnection();
         PreparedStatement stmt = null;
         SQLException conex = null;
@@ -706,6 +801,251 @@ public class RMTxStore implements RMStore {
         }
     }
 
+    // write-behind
+    //
+
+    protected void addUpdateSourceSequence(PendingWrite write, SourceSequence seq) {
+        // capture the sequence state at the time of the call as the sequence continues to change
+        final String id = seq.getIdentifier().getValue();
+        final long currentMessageNr = seq.getCurrentMessageNr();
+        final boolean lastMessage = seq.isLastMessage();
+        write.add(UPDATE_SRC_SEQUENCE_ORDER, batch -> {
+            PreparedStatement stmt = batch.getStatement(UPDATE_SRC_SEQUENCE_STMT_STR);
+            stmt.setLong(1, currentMessageNr);
+            stmt.setString(2, lastMessage ? "1" : "0");
+            stmt.setString(3, id);
+            stmt.addBatch();
+        });
+    }
+
+    protected void addUpdateDestinationSequence(PendingWrite write, DestinationSequence seq) {
+        final String id = seq.getIdentifier().getValue();
+        final long lastMessageNr = seq.getLastMessageNumber();
+        final boolean terminated = seq.isTerminated();
+        final InputStream ack = PersistenceUtils.getInstance().serialiseAcknowledgment(seq.getAcknowledgment());
+        write.add(UPDATE_DEST_SEQUENCE_ORDER, batch -> {
+            PreparedStatement stmt = batch.getStatement(UPDATE_DEST_SEQUENCE_STMT_STR);
+            stmt.setLong(1, lastMessageNr);
+            stmt.setString(2, terminated ? "1" : "0");
+            stmt.setBinaryStream(3, ack, ack.available());
+            stmt.setString(4, id);
+            stmt.addBatch();
+        });
+    }
+
+    protected void addStoreMessage(PendingWrite write, Identifier sid, RMMessage msg, final boolean outbound) {
+        final String id = sid.getValue();
+        final long nr = msg.getMessageNumber();
+        final String to = msg.getTo();
+        final String contentType = msg.getContentType();
+        final long createdTime = msg.getCreatedTime();
+        final CachedOutputStream cos = msg.getContent();
+        // the content is released once the batch has been written, whatever its outcome
+        write.addResource(cos);
+        write.add(CREATE_MESSAGE_ORDER, batch -> {
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.log(Level.FINE, "Batching {0} message number {1} for sequence {2}, to = {3}",
+                        new Object[] {outbound ? "outbound" : "inbound", nr, id, to});
+            }
+            PreparedStatement stmt = batch.getStatement(outbound
+                ? CREATE_OUTBOUND_MESSAGE_STMT_STR : CREATE_INBOUND_MESSAGE_STMT_STR);
+            InputStream msgin = cos.getInputStream();
+            batch.addResource(msgin);
+            stmt.setString(1, id);
+            stmt.setLong(2, nr);
+            stmt.setString(3, to);
+            stmt.setLong(4, createdTime);
+            stmt.setBinaryStream(5, msgin, cos.size());
+            stmt.setString(6, contentType);
+            stmt.addBatch();
+        });
+    }
+
+    protected void addRemoveMessages(PendingWrite write, Identifier sid, Collection<Long> messageNrs,
+                                     final boolean outbound) {
+        final String id = sid.getValue();
+        final List<Long> nrs = new ArrayList<>(messageNrs);
+        write.add(DELETE_MESSAGE_ORDER, batch -> {
+            PreparedStatement stmt = batch.getStatement(outbound
+                ? DELETE_OUTBOUND_MESSAGE_STMT_STR : DELETE_INBOUND_MESSAGE_STMT_STR);
+            for (Long messageNr : nrs) {
+                stmt.setString(1, id);
+                stmt.setLong(2, messageNr);
+                stmt.addBatch();
+            }
+        });
+    }
+
+    /**
+     * Hands the write over to the background writer and waits until the batch containing it
+     * has been committed.
+     */
+    protected void awaitWrite(PendingWrite write) {
+        if (writerStopped) {
+            write.closeResources();
+            throw new RMStoreException(new Message("WRITER_STOPPED_MSG", LOG));
+        }
+        pendingWrites.add(write);
+        try {
+            while (true) {
+                try {
+                    write.get(WRITER_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (TimeoutException ex) {
+                    Thread w = writer;
+                    if (w == null || !w.isAlive()) {
+                        // the writer has terminated without taking over the write
+                        pendingWrites.remove(write);
+                        write.closeResources();
+                        write.completeExceptionally(new RMStoreException(new Message("WRITER_STOPPED_MSG", LOG)));
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RMStoreException(ex);
+        } catch (ExecutionException ex) {
+            throw new RMStoreException(ex.getCause());
+        }
+    }
+
+    protected synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        writerStopped = false;
+        pendingWrites = new LinkedBlockingQueue<>();
+        writer = new Thread(this::runWriter, "RMTxStore write-behind writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    protected void stopWriter() {
+        Thread w;
+        synchronized (this) {
+            w = writer;
+            writerStopped = true;
+        }
+        if (w == null || w == Thread.currentThread()) {
+            return;
+        }
+        try {
+            // the writer drains the queue before it terminates
+            w.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            writer = null;
+        }
+        // fail the writes that have been added after the writer drained the queue
+        for (PendingWrite write = pendingWrites.poll(); write != null; write = pendingWrites.poll()) {
+            write.closeResources();
+            write.completeExceptionally(new RMStoreException(new Message("WRITER_STOPPED_MSG", LOG)));
+        }
+    }
+
+    private void runWriter() {
+        List<PendingWrite> writes = new ArrayList<>();
+        try {
+            writeAll(writes);
+        } catch (Throwable ex) {
+            LogUtils.log(LOG, Level.SEVERE, "WRITER_FAILED_MSG", ex);
+            writerStopped = true;
+            RMStoreException failure = new RMStoreException(ex);
+            for (PendingWrite write : writes) {
+                write.closeResources();
+                write.completeExceptionally(failure);
+            }
+            for (PendingWrite write = pendingWrites.poll(); write != null; write = pendingWrites.poll()) {
+                write.closeResources();
+                write.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private void writeAll(List<PendingWrite> writes) {
+        while (!writerStopped || !pendingWrites.isEmpty()) {
+            try {
+                PendingWrite first = pendingWrites.poll(Math.max(writeBehindInterval, 100L),
+                                                        TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                writes.add(first);
+                long deadline = System.currentTimeMillis() + writeBehindInterval;
+                while (writes.size() < writeBehindBatchSize) {
+                    long wait = deadline - System.currentTimeMillis();
+                    PendingWrite next = wait > 0
+                        ? pendingWrites.poll(wait, TimeUnit.MILLISECONDS) : pendingWrites.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    writes.add(next);
+                }
+            } catch (InterruptedException ex) {
+                // stop waiting for further writes and commit what we have
+            }
+            if (!writes.isEmpty()) {
+                writeBatch(writes);
+                writes.clear();
+            }
+        }
+    }
+
+    protected void writeBatch(List<PendingWrite> writes) {
+        List<BatchStep> steps = new ArrayList<>();
+        for (PendingWrite write : writes) {
+            steps.addAll(write.steps);
+        }
+        // stable, so the changes to the same table keep the order in which they were made
+        steps.sort(Comparator.comparingInt(BatchStep::getOrder));
+
+        Connection con;
+        try {
+            con = verifyConnection();
+        } catch (RuntimeException ex) {
+            // the next batch may well get a connection
+            for (PendingWrite write : writes) {
+                write.closeResources();
+                write.completeExceptionally(ex);
+            }
+            return;
+        }
+        StatementBatch batch = new StatementBatch(con);
+        SQLException conex = null;
+        Exception failure = null;
+        try {
+            beginTransaction();
+            for (BatchStep step : steps) {
+                step.addTo(batch);
+            }
+            batch.execute();
+            commit(con);
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.log(Level.FINE, "Committed batch of {0} store operations", writes.size());
+            }
+        } catch (SQLException ex) {
+            conex = ex;
+            failure = ex;
+            abort(con);
+        } catch (IOException | RuntimeException ex) {
+            failure = ex;
+            abort(con);
+        } finally {
+            batch.release();
+            updateConnectionState(con, conex);
+        }
+        for (PendingWrite write : writes) {
+            write.closeResources();
+            if (failure == null) {
+                write.complete(null);
+            } else {
+                write.completeExceptionally(failure);
+            }
+        }
+    }
+
     // transaction demarcation
     //
 
@@ -759,7 +1099,7 @@ public class RMTxStore implements RMStore {
             stmt.setLong(2, nr);
             stmt.setString(3, to);
             stmt.setLong(4, msg.getCreatedTime());
-            stmt.setBinaryStream(5, msgin);
+            stmt.setBinaryStream(5, msgin, cos.size());
             stmt.setString(6, contentType);
             stmt.execute();
             if (LOG.isLoggable(Level.FINE)) {
@@ -1071,6 +1411,9 @@ public class RMTxStore implements RMStore {
             if (connection != null) {
                 cacheStatements();
             }
+            if (writeBehind) {
+                startWriter();
+            }
         } catch (SQLException ex) {
             LogUtils.log(LOG, Level.SEVERE, "CONNECT_EXC", ex);
             SQLException se = ex;
@@ -1129,7 +1472,7 @@ public class RMTxStore implements RMStore {
                     && (maxReconnectAttempts < 0 || maxReconnectAttempts > reconnectAttempts)) {
                     if (System.currentTimeMillis() > nextReconnectAttempt) {
                         // destroy the broken connection
-                        destroy();
+                        closeConnection();
                         // try to reconnect
                         reconnectAttempts++;
                         init();
@@ -1268,4 +1611,105 @@ public class RMTxStore implements RMStore {
         // check for a transient or non-transient connection exception
         return ex.getSQLState() != null && ex.getSQLState().startsWith("08");
     }
+
+    @FunctionalInterface
+    protected interface BatchOperation {
+        void addTo(StatementBatch batch) throws SQLException, IOException;
+    }
+
+    private static final class BatchStep {
+        private final int order;
+        private final BatchOperation operation;
+
+        BatchStep(int order, BatchOperation operation) {
+            this.order = order;
+            this.operation = operation;
+        }
+
+        int getOrder() {
+            return order;
+        }
+
+        void addTo(StatementBatch batch) throws SQLException, IOException {
+            operation.addTo(batch);
+        }
+    }
+
+    /**
+     * The changes of a single store call, completed once the batch containing them has been committed.
+     */
+    protected static final class PendingWrite extends CompletableFuture<Void> {
+        private final List<BatchStep> steps = new ArrayList<>(2);
+        private final List<Closeable> resources = new ArrayList<>(1);
+
+        void add(int order, BatchOperation operation) {
+            steps.add(new BatchStep(order, operation));
+        }
+
+        void addResource(Closeable resource) {
+            resources.add(resource);
+        }
+
+        void closeResources() {
+            for (Closeable c : resources) {
+                try {
+                    c.close();
+                } catch (IOException ex) {
+                    // ignore
+                }
+            }
+            resources.clear();
+        }
+    }
+
+    /**
+     * The statements used by a batch, each holding the accumulated parameter sets until executed.
+     */
+    protected final class StatementBatch {
+        private final Connection con;
+        private final Map<String, PreparedStatement> statements = new LinkedHashMap<>();
+        private final List<Closeable> resources = new ArrayList<>();
+
+        StatementBatch(Connection con) {
+            this.con = con;
+        }
+
+        public PreparedStatement getStatement(String sql) throws SQLException {
+            PreparedStatement stmt = statements.get(sql);
+            if (stmt == null) {
+                stmt = RMTxStore.this.getStatement(con, sql);
+                statements.put(sql, stmt);
+            }
+            return stmt;
+        }
+
+        public void addResource(Closeable resource) {
+            resources.add(resource);
+        }
+
+        void execute() throws SQLException {
+            for (PreparedStatement stmt : statements.values()) {
+                stmt.executeBatch();
+            }
+        }
+
+        void release() {
+            for (PreparedStatement stmt : statements.values()) {
+                try {
+                    // the cached statements must not keep the parameters of a failed batch
+                    stmt.clearBatch();
+                } catch (SQLException ex) {
+                    // ignore
+                }
+                releaseResources(stmt, null);
+            }
+            for (Closeable c : resources) {
+                try {
+                    c.close();
+                } catch (IOException ex) {
+                    // ignore
+                }
+            }
+        }
+    }
 }
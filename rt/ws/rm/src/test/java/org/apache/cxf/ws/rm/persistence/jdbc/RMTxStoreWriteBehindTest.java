@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.rm.persistence.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.io.CachedOutputStream;
+import org.apache.cxf.ws.rm.ProtocolVariation;
+import org.apache.cxf.ws.rm.SourceSequence;
+import org.apache.cxf.ws.rm.persistence.RMMessage;
+import org.apache.cxf.ws.rm.persistence.RMStoreException;
+import org.apache.cxf.ws.rm.v200702.Identifier;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the store tests against a store in the write-behind mode.
+ */
+public class RMTxStoreWriteBehindTest extends RMTxStoreTestBase {
+    private static final int SEQUENCE_COUNT = 8;
+    private static final int MESSAGE_COUNT = 25;
+
+    @BeforeClass
+    public static void setUpOnce() {
+        RMTxStoreTestBase.setUpOnce();
+
+        RMTxStore.deleteDatabaseFiles("rmdbwb", true);
+
+        store = new RMTxStore();
+        store.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+        store.setUrl("jdbc:derby:rmdbwb;create=true");
+        store.setWriteBehind(true);
+        store.setWriteBehindInterval(20);
+        store.init();
+    }
+
+    @AfterClass
+    public static void tearDownOnce() {
+        store.destroy();
+        RMTxStore.deleteDatabaseFiles("rmdbwb", false);
+    }
+
+    @Test
+    public void testConcurrentPersistOutgoing() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SEQUENCE_COUNT);
+        List<Identifier> sids = new ArrayList<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < SEQUENCE_COUNT; i++) {
+                final Identifier sid = new Identifier();
+                sid.setValue("wbsequence" + i);
+                sids.add(sid);
+                store.createSourceSequence(createSequence(sid, 0));
+                futures.add(executor.submit(() -> {
+                    for (long mn = 1; mn <= MESSAGE_COUNT; mn++) {
+                        store.persistOutgoing(createSequence(sid, mn), createMessage(mn));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+
+            // every call returned after its batch was committed, so all the changes are visible
+            for (Identifier sid : sids) {
+                assertEquals(MESSAGE_COUNT, store.getSourceSequence(sid).getCurrentMessageNr());
+                Collection<RMMessage> msgs = store.getMessages(sid, true);
+                assertEquals(MESSAGE_COUNT, msgs.size());
+                for (RMMessage msg : msgs) {
+                    String content = IOUtils.toString(msg.getContent().getInputStream());
+                    assertTrue(content.endsWith(" " + msg.getMessageNumber()));
+                }
+            }
+
+            Collection<Long> messageNrs = new ArrayList<>();
+            for (long mn = 1; mn <= MESSAGE_COUNT; mn++) {
+                messageNrs.add(mn);
+            }
+            for (Identifier sid : sids) {
+                store.removeMessages(sid, messageNrs, true);
+                assertEquals(0, store.getMessages(sid, true).size());
+            }
+        } finally {
+            executor.shutdownNow();
+            for (Identifier sid : sids) {
+                store.removeSourceSequence(sid);
+            }
+        }
+    }
+
+    @Test
+    public void testWriterFailure() throws Exception {
+        RMTxStore.deleteDatabaseFiles("rmdbwbfail", true);
+        RMTxStore failingStore = new RMTxStore() {
+            @Override
+            protected void writeBatch(List<PendingWrite> writes) {
+                throw new NoClassDefFoundError("org/apache/cxf/Missing");
+            }
+        };
+        failingStore.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+        failingStore.setUrl("jdbc:derby:rmdbwbfail;create=true");
+        failingStore.setWriteBehind(true);
+        failingStore.init();
+        Identifier sid = new Identifier();
+        sid.setValue("wbfailure");
+        try {
+            failingStore.createSourceSequence(createSequence(sid, 0));
+            try {
+                failingStore.persistOutgoing(createSequence(sid, 1), createMessage(1));
+                fail("Expected RMStoreException was not thrown.");
+            } catch (RMStoreException ex) {
+                assertTrue(ex.getCause().getCause() instanceof NoClassDefFoundError);
+            }
+            // the writer has stopped, the later writes are rejected rather than waiting for it
+            try {
+                failingStore.persistOutgoing(createSequence(sid, 2), createMessage(2));
+                fail("Expected RMStoreException was not thrown.");
+            } catch (RMStoreException ex) {
+                assertTrue(ex.getMessage().contains("stopped"));
+            }
+        } finally {
+            failingStore.destroy();
+            RMTxStore.deleteDatabaseFiles("rmdbwbfail", false);
+        }
+    }
+
+    private static SourceSequence createSequence(Identifier sid, long currentMessageNr) {
+        return new SourceSequence(sid, null, null, currentMessageNr, false, ProtocolVariation.RM10WSA200408) {
+            @Override
+            public String getEndpointIdentifier() {
+                return CLIENT_ENDPOINT_ID;
+            }
+        };
+    }
+
+    private static RMMessage createMessage(long mn) throws Exception {
+        RMMessage msg = new RMMessage();
+        msg.setMessageNumber(mn);
+        msg.setContentType("text/xml");
+        msg.setCreatedTime(System.currentTimeMillis());
+        CachedOutputStream cos = new CachedOutputStream();
+        IOUtils.copy(new ByteArrayInputStream(("Message " + mn).getBytes()), cos);
+        cos.flush();
+        msg.setContent(cos);
+        return msg;
+    }
+
+    @Override
+    protected Connection getConnection() {
+        return store.verifyConnection();
+    }
+
+    @Override
+    protected void releaseConnection(Connection con) {
+        // the connection is held in the store, so not close it until the store is disposed.
+    }
+}
@@ -0,0 +1,418 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.wsdl11;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.wsdl.Definition;
+import javax.wsdl.Import;
+import javax.wsdl.extensions.ExtensionRegistry;
+import javax.wsdl.extensions.schema.Schema;
+import javax.wsdl.extensions.schema.SchemaReference;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.common.util.Base64Utility;
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.helpers.DOMUtils;
+import org.apache.cxf.staxutils.StaxUtils;
+
+/**
+ * Keeps the parsed WSDL definitions in a directory so that they do not have to be read again
+ * after a restart. A snapshot records the SHA-256 digests of the WSDL and schema documents the
+ * definition has been read from and is only used while all of these documents are unchanged.
+ * Only the definitions read from the local (file or jar) documents are kept.
+ * <p>
+ * The snapshots are Java serialized object graphs, the DOM elements are kept as text. Only the
+ * WSDL4J model classes, QName, the basic java.lang and java.util classes and the DOM element holder
+ * are accepted when a snapshot is read, the definitions with other (extensibility element) classes
+ * are not kept. The snapshot directory should still not be writable by anyone but the application.
+ */
+final class DefinitionSnapshots {
+    private static final Logger LOG = LogUtils.getL7dLogger(DefinitionSnapshots.class);
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Set<String> ALLOWED_CLASSES = new HashSet<>(Arrays.asList(
+        "java.lang.Object", "java.lang.Number", "java.lang.String", "java.lang.Boolean", "java.lang.Byte",
+        "java.lang.Character", "java.lang.Short", "java.lang.Integer", "java.lang.Long", "java.lang.Float",
+        "java.lang.Double", "java.util.ArrayList", "java.util.LinkedList", "java.util.Vector",
+        "java.util.Arrays$ArrayList", "java.util.HashMap", "java.util.LinkedHashMap", "java.util.TreeMap",
+        "java.util.Hashtable", "java.util.HashSet", "java.util.LinkedHashSet",
+        "java.util.Collections$EmptyList", "java.util.Collections$EmptyMap",
+        "java.util.Collections$EmptySet", "java.util.Collections$UnmodifiableCollection",
+        "java.util.Collections$UnmodifiableList", "java.util.Collections$UnmodifiableRandomAccessList",
+        "java.util.Collections$UnmodifiableMap", "java.util.Collections$UnmodifiableSet",
+        "javax.xml.namespace.QName", ElementSnapshot.class.getName()));
+    private static final String[] ALLOWED_PACKAGES = {"javax.wsdl.", "com.ibm.wsdl."};
+
+    private final File directory;
+    private final ExtensionRegistry registry;
+    private final ClassLoader loader;
+
+    DefinitionSnapshots(File directory, ExtensionRegistry registry, ClassLoader loader) {
+        this.directory = directory;
+        this.registry = registry;
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the definition read from the snapshot of a given WSDL, or null if there is no valid snapshot
+     */
+    Definition restore(String url) {
+        File file = getFile(url);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (SnapshotInputStream in = new SnapshotInputStream(
+            new BufferedInputStream(Files.newInputStream(file.toPath())), loader)) {
+            if (in.readInt() != FORMAT_VERSION || !url.equals(in.readUTF())) {
+                return null;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String document = in.readUTF();
+                if (!in.readUTF().equals(digest(document))) {
+                    LOG.fine("WSDL snapshot of " + url + " is out of date, " + document + " has changed");
+                    return null;
+                }
+            }
+            Definition def = (Definition)in.readObject();
+            for (Definition d : getDefinitions(def)) {
+                d.setExtensionRegistry(registry);
+            }
+            return def;
+        } catch (IOException | ClassNotFoundException | RuntimeException ex) {
+            LOG.log(Level.FINE, "WSDL snapshot of " + url + " can not be read", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the snapshot of a definition, the failures are logged and ignored
+     */
+    void save(String url, Definition def) {
+        Set<String> documents = new LinkedHashSet<>();
+        Set<Definition> definitions = getDefinitions(def);
+        for (Definition d : definitions) {
+            addDocument(documents, d.getDocumentBaseURI());
+            if (d.getTypes() != null) {
+                for (Object ext : d.getTypes().getExtensibilityElements()) {
+                    if (ext instanceof Schema) {
+                        Set<Schema> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+                        addSchemaDocuments(documents, (Schema)ext, visited);
+                    }
+                }
+            }
+        }
+        for (String document : documents) {
+            if (!isLocal(document)) {
+                LOG.fine("No WSDL snapshot of " + url + " is kept, " + document + " is not a local document");
+                return;
+            }
+        }
+
+        Map<Definition, ExtensionRegistry> registries = new IdentityHashMap<>();
+        File file = getFile(url);
+        File tmp = null;
+        try {
+            Files.createDirectories(directory.toPath());
+            tmp = File.createTempFile("wsdl", ".tmp", directory);
+            // the registries hold the (de)serializers, they are restored from the WSDL manager
+            for (Definition d : definitions) {
+                registries.put(d, d.getExtensionRegistry());
+                d.setExtensionRegistry(null);
+            }
+            try (SnapshotOutputStream out = new SnapshotOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp.toPath())), loader)) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(url);
+                out.writeInt(documents.size());
+                for (String document : documents) {
+                    out.writeUTF(document);
+                    out.writeUTF(digest(document));
+                }
+                out.writeObject(def);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            tmp = null;
+        } catch (IOException | RuntimeException ex) {
+            LOG.log(Level.FINE, "WSDL snapshot of " + url + " can not be written", ex);
+        } finally {
+            for (Map.Entry<Definition, ExtensionRegistry> entry : registries.entrySet()) {
+                entry.getKey().setExtensionRegistry(entry.getValue());
+            }
+            if (tmp != null && !tmp.delete()) {
+                tmp.deleteOnExit();
+            }
+        }
+    }
+
+    private File getFile(String url) {
+        return new File(directory, Base64Utility.encode(sha256(url.getBytes(StandardCharsets.UTF_8)), true)
+            + ".wsdl.ser");
+    }
+
+    private static Set<Definition> getDefinitions(Definition def) {
+        Set<Definition> definitions = Collections.newSetFromMap(new IdentityHashMap<>());
+        addDefinitions(definitions, def);
+        return definitions;
+    }
+
+    private static void addDefinitions(Set<Definition> definitions, Definition def) {
+        if (def == null || !definitions.add(def)) {
+            return;
+        }
+        Map<String, List<Import>> imports = CastUtils.cast(def.getImports());
+        for (List<Import> list : imports.values()) {
+            for (Import imp : list) {
+                addDefinitions(definitions, imp.getDefinition());
+            }
+        }
+    }
+
+    private static void addSchemaDocuments(Set<String> documents, Schema schema, Set<Schema> visited) {
+        if (schema == null || !visited.add(schema)) {
+            return;
+        }
+        addDocument(documents, schema.getDocumentBaseURI());
+        Map<String, List<SchemaReference>> imports = CastUtils.cast(schema.getImports());
+        for (List<SchemaReference> list : imports.values()) {
+            for (SchemaReference ref : list) {
+                addSchemaDocuments(documents, ref.getReferencedSchema(), visited);
+            }
+        }
+        List<SchemaReference> refs = CastUtils.cast(schema.getIncludes());
+        for (SchemaReference ref : refs) {
+            addSchemaDocuments(documents, ref.getReferencedSchema(), visited);
+        }
+        refs = CastUtils.cast(schema.getRedefines());
+        for (SchemaReference ref : refs) {
+            addSchemaDocuments(documents, ref.getReferencedSchema(), visited);
+        }
+    }
+
+    private static void addDocument(Set<String> documents, String document) {
+        if (document != null) {
+            documents.add(document);
+        }
+    }
+
+    private static boolean isLocal(String document) {
+        return document.startsWith("file:") || document.startsWith("jar:file:");
+    }
+
+    private static String digest(String document) throws IOException {
+        try (InputStream is = new URL(document).openStream()) {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            for (int n = is.read(buffer); n != -1; n = is.read(buffer)) {
+                md.update(buffer, 0, n);
+            }
+            return Base64Utility.encode(md.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Writes the DOM elements as text and refuses the classes which can not be loaded by name,
+     * such as the generated extensibility element classes, as these could not be read back.
+     */
+    private static final class SnapshotOutputStream extends ObjectOutputStream {
+        private final ClassLoader loader;
+
+        SnapshotOutputStream(OutputStream out, ClassLoader loader) throws IOException {
+            super(out);
+            this.loader = loader;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected void annotateClass(Class<?> cl) throws IOException {
+            Class<?> type = getComponentType(cl);
+            if (!isAllowed(type) || !type.isPrimitive() && loadClass(type.getName(), loader) != type) {
+                throw new NotSerializableException(cl.getName());
+            }
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) throws IOException {
+            if (obj instanceof Element) {
+                return new ElementSnapshot((Element)obj);
+            } else if (obj instanceof Node) {
+                throw new NotSerializableException(obj.getClass().getName());
+            }
+            return obj;
+        }
+    }
+
+    private static final class SnapshotInputStream extends ObjectInputStream {
+        private final ClassLoader loader;
+
+        SnapshotInputStream(InputStream in, ClassLoader loader) throws IOException {
+            super(in);
+            this.loader = loader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            // the class is checked by its name before it is loaded and can run any static initializer
+            String name = desc.getName();
+            int dims = 0;
+            while (dims < name.length() && name.charAt(dims) == '[') {
+                dims++;
+            }
+            if (dims > 0 && name.length() > dims && name.charAt(dims) == 'L' && name.endsWith(";")) {
+                name = name.substring(dims + 1, name.length() - 1);
+            } else if (dims > 0 && name.length() == dims + 1) {
+                // array of a primitive type
+                return super.resolveClass(desc);
+            }
+            if (!isAllowed(name)) {
+                throw new InvalidClassException(desc.getName(), "Class is not allowed in a WSDL snapshot");
+            }
+            Class<?> cls = loadClass(desc.getName(), loader);
+            return cls != null ? cls : super.resolveClass(desc);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("Proxy classes are not allowed in a WSDL snapshot");
+        }
+    }
+
+    private static Class<?> getComponentType(Class<?> cl) {
+        Class<?> type = cl;
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        return type;
+    }
+
+    private static boolean isAllowed(Class<?> cl) {
+        return cl.isPrimitive() || isAllowed(cl.getName());
+    }
+
+    private static boolean isAllowed(String name) {
+        if (ALLOWED_CLASSES.contains(name)) {
+            return true;
+        }
+        for (String pkg : ALLOWED_PACKAGES) {
+            if (name.startsWith(pkg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Class<?> loadClass(String name, ClassLoader loader) {
+        try {
+            return Class.forName(name, false, loader);
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return null;
+        }
+    }
+
+    /**
+     * DOM element kept as text, with the namespace declarations in scope of the original element
+     */
+    private static final class ElementSnapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String xml;
+        private final String documentURI;
+
+        ElementSnapshot(Element el) {
+            Document doc = DOMUtils.createDocument();
+            Element copy = (Element)doc.importNode(el, true);
+            doc.appendChild(copy);
+            for (Node n = el.getParentNode(); n instanceof Element; n = n.getParentNode()) {
+                NamedNodeMap attrs = n.getAttributes();
+                for (int i = 0; i < attrs.getLength(); i++) {
+                    Attr attr = (Attr)attrs.item(i);
+                    if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attr.getNamespaceURI())
+                        && !copy.hasAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attr.getLocalName())) {
+                        copy.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attr.getName(),
+                                            attr.getValue());
+                    }
+                }
+            }
+            xml = StaxUtils.toString(copy);
+            documentURI = el.getOwnerDocument() == null ? null : el.getOwnerDocument().getDocumentURI();
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            try {
+                Document doc = StaxUtils.read(new StringReader(xml));
+                doc.setDocumentURI(documentURI);
+                return doc.getDocumentElement();
+            } catch (XMLStreamException ex) {
+                InvalidObjectException ioe = new InvalidObjectException(ex.getMessage());
+                ioe.initCause(ex);
+                throw ioe;
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.cxf.wsdl11;
 
+import java.io.File;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
@@ -64,6 +65,10 @@ import org.apache.cxf.wsdl.WSDLManager;
  */
 @NoJSR250Annotations(unlessNull = "bus")
 public class WSDLManagerImpl implements WSDLManager {
+    /**
+     * Bus property with the directory the WSDL snapshots are kept in, see {@link #setSnapshotDirectory(File)}
+     */
+    public static final String SNAPSHOT_DIRECTORY_PROPERTY = "org.apache.cxf.wsdl.snapshotDirectory";
 
     final ExtensionRegistry registry;
     final WSDLFactory factory;
@@ -79,6 +84,7 @@ public class WSDLManagerImpl implements WSDLManager {
     private Bus bus;
 
     private XMLStreamReaderWrapper xmlStreamReaderWrapper;
+    private File snapshotDirectory;
 
     public WSDLManagerImpl() throws BusException {
         this(null);
@@ -162,13 +168,68 @@ public class WSDLManagerImpl implements WSDLManager {
                 return definitionsMap.get(url);
             }
         }
-        Definition def = loadDefinition(url);
+        DefinitionSnapshots snapshots = getSnapshots();
+        Definition def = snapshots == null ? null : snapshots.restore(url);
+        if (def == null) {
+            def = loadDefinition(url);
+            if (snapshots != null) {
+                snapshots.save(url, def);
+            }
+        }
         synchronized (definitionsMap) {
             definitionsMap.put(url, def);
         }
         return def;
     }
 
+    /**
+     * Sets the directory the snapshots of the definitions read from the local WSDL documents are kept in,
+     * so that these documents are not parsed again after a restart while they are unchanged.
+     * The directory can also be set with the {@link #SNAPSHOT_DIRECTORY_PROPERTY} bus property.
+     * The snapshots are read with the Java deserialization restricted to the WSDL model classes,
+     * the directory should still only be writable by the application.
+     * <p>
+     * The snapshots are not used if a subclass overrides {@link #loadDefinition(String)}, as the restored
+     * definitions would not be the ones that method returns.
+     */
+    public void setSnapshotDirectory(File snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    public File getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    private DefinitionSnapshots getSnapshots() {
+        File dir = snapshotDirectory;
+        if (dir == null && bus != null) {
+            Object value = bus.getProperty(SNAPSHOT_DIRECTORY_PROPERTY);
+            if (value instanceof File) {
+                dir = (File)value;
+            } else if (value != null) {
+                dir = new File(value.toString());
+            }
+        }
+        // the documents read through a wrapper depend on its configuration as well
+        if (dir == null || xmlStreamReaderWrapper != null || overridesLoadDefinition()) {
+            return null;
+        }
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return new DefinitionSnapshots(dir, registry, loader == null ? getClass().getClassLoader() : loader);
+    }
+
+    private boolean overridesLoadDefinition() {
+        for (Class<?> cls = getClass(); cls != WSDLManagerImpl.class; cls = cls.getSuperclass()) {
+            try {
+                cls.getDeclaredMethod("loadDefinition", String.class);
+                return true;
+            } catch (NoSuchMethodException ex) {
+                // check the superclass
+            }
+        }
+        return false;
+    }
+
     public Definition getDefinition(final Element el) throws WSDLException {
         synchronized (definitionsMap) {
             if (definitionsMap.containsKey(el)) {
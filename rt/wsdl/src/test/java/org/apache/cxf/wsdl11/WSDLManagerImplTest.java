@@ -19,26 +19,44 @@
 
 package org.apache.cxf.wsdl11;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
 
 import javax.wsdl.Binding;
 import javax.wsdl.Definition;
+import javax.wsdl.Import;
 import javax.wsdl.Operation;
 import javax.wsdl.Part;
 import javax.wsdl.Port;
 import javax.wsdl.PortType;
 import javax.wsdl.Service;
+import javax.wsdl.WSDLException;
+import javax.wsdl.extensions.schema.Schema;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamReader;
 
+import org.apache.cxf.helpers.FileUtils;
 import org.apache.cxf.staxutils.PropertiesExpandingStreamReader;
 import org.apache.cxf.staxutils.XMLStreamReaderWrapper;
 
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class WSDLManagerImplTest {
@@ -132,4 +150,157 @@ public class WSDLManagerImplTest {
         builder.getWSDLFactory().newWSDLWriter().writeWSDL(def, bos);
         assertTrue(bos.toString().contains("http://localhost:99999/SoapContext/SoapPort"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDefinitionSnapshot() throws Exception {
+        String wsdlUrl = getClass().getResource("hello_world.wsdl").toString();
+        File dir = Files.createTempDirectory("wsdl-snapshots").toFile();
+        try {
+            WSDLManagerImpl builder = new WSDLManagerImpl();
+            builder.setSnapshotDirectory(dir);
+            Definition def = builder.getDefinition(wsdlUrl);
+            File[] snapshots = dir.listFiles();
+            assertEquals(1, snapshots.length);
+
+            builder = new WSDLManagerImpl();
+            builder.setSnapshotDirectory(dir);
+            Definition restored = builder.getDefinition(wsdlUrl);
+            assertNotSame(def, restored);
+            assertSame(builder.getExtensionRegistry(), restored.getExtensionRegistry());
+            assertEquals(def.getServices().keySet(), restored.getServices().keySet());
+            assertEquals(def.getMessages().keySet(), restored.getMessages().keySet());
+
+            Schema schema = (Schema)restored.getTypes().getExtensibilityElements().get(0);
+            assertEquals("http://apache.org/hello_world_soap_http/types",
+                         schema.getElement().getAttribute("targetNamespace"));
+            assertEquals("http://www.w3.org/2001/XMLSchema", schema.getElement().getNamespaceURI());
+        } finally {
+            for (File f : dir.listFiles()) {
+                f.delete();
+            }
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void testStaleDefinitionSnapshot() throws Exception {
+        File dir = Files.createTempDirectory("wsdl-snapshots").toFile();
+        File wsdlDir = Files.createTempDirectory("wsdl").toFile();
+        try {
+            File wsdl = copy("hello_world_wsdl_import.wsdl", wsdlDir);
+            File messages = copy("hello_world_messages.wsdl", wsdlDir);
+            String wsdlUrl = wsdl.toURI().toString();
+            String messagesNs = "http://apache.org/hello_world/messages";
+
+            WSDLManagerImpl builder = new WSDLManagerImpl();
+            builder.setSnapshotDirectory(dir);
+            builder.getDefinition(wsdlUrl);
+            File snapshot = dir.listFiles()[0];
+            assertTrue(snapshot.setLastModified(1000L));
+
+            // unchanged documents, the snapshot is used and not written again
+            builder = new WSDLManagerImpl();
+            builder.setSnapshotDirectory(dir);
+            builder.getDefinition(wsdlUrl);
+            assertEquals(1000L, snapshot.lastModified());
+
+            // the imported document has changed
+            replace(messages, "</wsdl:definitions>", "<wsdl:message name=\"extraMessage\"/></wsdl:definitions>");
+            builder = new WSDLManagerImpl();
+            builder.setSnapshotDirectory(dir);
+            Definition def = builder.getDefinition(wsdlUrl);
+            Definition imported = ((Import)def.getImports(messagesNs).get(0)).getDefinition();
+            assertNotNull(imported.getMessage(new QName(messagesNs, "extraMessage")));
+            assertNotEquals(1000L, snapshot.lastModified());
+
+            // the snapshot has been rewritten with the changed document
+            builder = new WSDLManagerImpl();
+            builder.setSnapshotDirectory(dir);
+            def = builder.getDefinition(wsdlUrl);
+            imported = ((Import)def.getImports(messagesNs).get(0)).getDefinition();
+            assertNotNull(imported.getMessage(new QName(messagesNs, "extraMessage")));
+
+            // the WSDL itself has changed
+            replace(wsdl, "<wsdl:portType name=\"Greeter\">", "<wsdl:portType name=\"Greeter2\">");
+            builder = new WSDLManagerImpl();
+            builder.setSnapshotDirectory(dir);
+            def = builder.getDefinition(wsdlUrl);
+            assertNotNull(def.getPortType(new QName("http://apache.org/hello_world", "Greeter2")));
+            assertEquals(1, dir.listFiles().length);
+        } finally {
+            FileUtils.removeDir(dir);
+            FileUtils.removeDir(wsdlDir);
+        }
+    }
+
+    @Test
+    public void testSnapshotWithDisallowedClassIsIgnored() throws Exception {
+        String wsdlUrl = getClass().getResource("hello_world.wsdl").toString();
+        File dir = Files.createTempDirectory("wsdl-snapshots").toFile();
+        try {
+            WSDLManagerImpl builder = new WSDLManagerImpl();
+            builder.setSnapshotDirectory(dir);
+            builder.getDefinition(wsdlUrl);
+            File snapshot = dir.listFiles()[0];
+            try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(snapshot.toPath()))) {
+                out.writeInt(1);
+                out.writeUTF(wsdlUrl);
+                out.writeInt(0);
+                out.writeObject(new Gadget());
+            }
+
+            builder = new WSDLManagerImpl();
+            builder.setSnapshotDirectory(dir);
+            Definition def = builder.getDefinition(wsdlUrl);
+            assertFalse(Gadget.deserialized);
+            assertNotNull(def.getService(new QName("http://apache.org/hello_world_soap_http", "SOAPService")));
+        } finally {
+            FileUtils.removeDir(dir);
+        }
+    }
+
+    @Test
+    public void testNoSnapshotsIfLoadDefinitionIsOverridden() throws Exception {
+        String wsdlUrl = getClass().getResource("hello_world.wsdl").toString();
+        File dir = Files.createTempDirectory("wsdl-snapshots").toFile();
+        try {
+            WSDLManagerImpl builder = new WSDLManagerImpl() {
+                @Override
+                protected Definition loadDefinition(String url) throws WSDLException {
+                    return super.loadDefinition(url);
+                }
+            };
+            builder.setSnapshotDirectory(dir);
+            assertNotNull(builder.getDefinition(wsdlUrl));
+            assertEquals(0, dir.listFiles().length);
+        } finally {
+            FileUtils.removeDir(dir);
+        }
+    }
+
+    private File copy(String resource, File dir) throws IOException {
+        File file = new File(dir, resource);
+        try (InputStream is = getClass().getResourceAsStream(resource)) {
+            Files.copy(is, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file;
+    }
+
+    private static void replace(File file, String from, String to) throws IOException {
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertTrue(content.contains(from));
+        try (OutputStream os = Files.newOutputStream(file.toPath())) {
+            os.write(content.replace(from, to).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public static class Gadget implements Serializable {
+        private static final long serialVersionUID = 1L;
+        static boolean deserialized;
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            deserialized = true;
+        }
+    }
+}
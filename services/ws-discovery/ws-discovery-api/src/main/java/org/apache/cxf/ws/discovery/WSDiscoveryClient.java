@@ -400,6 +400,8 @@ public class WSDiscoveryClient implements Closeable {
         rt.setEndpointReference(ref);
         if (adHoc) {
             disp.getRequestContext().put("udp.multi.response.timeout", timeout);
+            //only the first match is used, no need to wait out the timeout after it arrives
+            disp.getRequestContext().put("udp.multi.response.count", 1);
             final Holder<ResolveMatchesType> response = new Holder<>();
             AsyncHandler<Object> handler = new AsyncHandler<Object>() {
                 public void handleResponse(Response<Object> res) {
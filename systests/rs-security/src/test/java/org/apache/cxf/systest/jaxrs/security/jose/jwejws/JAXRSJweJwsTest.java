@@ -288,6 +288,24 @@ public class JAXRSJweJwsTest extends AbstractBusClientServerTestBase {
         assertEquals("book", book.getName());
         assertEquals(123L, book.getId());
     }
+    @Test
+    public void testJwsJwkBookHMacStream() throws Exception {
+        String address = "https://localhost:" + PORT + "/jwsjwkhmacStream";
+        BookStore bs = createJwsBookStore(address,
+                                       Collections.singletonList(new JacksonJsonProvider()));
+        Book book = bs.echoBook(new Book("book", 123L));
+        assertEquals("book", book.getName());
+        assertEquals(123L, book.getId());
+    }
+    @Test(expected = BadRequestException.class)
+    public void testJwsJwkBookHMacStreamInvalidSignature() throws Exception {
+        String address = "https://localhost:" + PORT + "/jwsjwkhmacStream";
+        // the payload is read by Jackson, the signature is only checked after the entity has been read
+        BookStore bs = createJwsBookStore(address,
+                                       Collections.singletonList(new JacksonJsonProvider()), true, false,
+                                       new HmacJwsSignatureProvider(new byte[32], SignatureAlgorithm.HS256));
+        bs.echoBook(new Book("book", 123L));
+    }
     private BookStore createJwsBookStore(String address,
                                          List<?> mbProviders) throws Exception {
         return createJwsBookStore(address, mbProviders, true, false);
@@ -296,6 +314,13 @@ public class JAXRSJweJwsTest extends AbstractBusClientServerTestBase {
                                          List<?> mbProviders,
                                          boolean encodePayload,
                                          boolean protectHttpHeaders) throws Exception {
+        return createJwsBookStore(address, mbProviders, encodePayload, protectHttpHeaders, null);
+    }
+    private BookStore createJwsBookStore(String address,
+                                         List<?> mbProviders,
+                                         boolean encodePayload,
+                                         boolean protectHttpHeaders,
+                                         JwsSignatureProvider signatureProvider) throws Exception {
         JAXRSClientFactoryBean bean = new JAXRSClientFactoryBean();
         SpringBusFactory bf = new SpringBusFactory();
         URL busFile = JAXRSJweJwsTest.class.getResource("client.xml");
@@ -308,6 +333,9 @@ public class JAXRSJweJwsTest extends AbstractBusClientServerTestBase {
         jwsWriter.setProtectHttpHeaders(protectHttpHeaders);
         jwsWriter.setEncodePayload(encodePayload);
         jwsWriter.setUseJwsOutputStream(true);
+        if (signatureProvider != null) {
+            jwsWriter.setSignatureProvider(signatureProvider);
+        }
         providers.add(jwsWriter);
         providers.add(new JwsClientResponseFilter());
         if (mbProviders != null) {